@@ -0,0 +1,38 @@
+package com.blackrock.aladdin.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks in this package with the GC profiler (allocation rate and bytes per operation) and writes
+ * results as JSON to {@code target/jmh-result.json}. Arguments are JMH's own: a benchmark regex, {@code -p
+ * name=values} to override parameters, {@code -f}/{@code -wi}/{@code -i} and so on; {@code -rff} and {@code -prof}
+ * given there replace or add to the defaults.
+ */
+public final class BenchmarkRunner {
+
+    private static final String RESULT_FILE = "target/jmh-result.json";
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions command = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(command)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON);
+        if (command.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + "\\.");
+        }
+        if (!command.getResult().hasValue()) {
+            options.result(RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package com.blackrock.aladdin.bench;
+
+import com.blackrock.aladdin.Workload;
+import com.blackrock.aladdin.engine.CeilingRemanentEngine;
+import com.blackrock.aladdin.engine.CeilingSchedule;
+import com.blackrock.aladdin.engine.PTimeline;
+import com.blackrock.aladdin.engine.TimelineRuleEngine;
+import com.blackrock.aladdin.model.ProcessedTransaction;
+import com.blackrock.aladdin.model.QRule;
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
+import com.blackrock.aladdin.service.RequestMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step 2 (ceiling and remanent per transaction) three ways: TreeMap floor lookups, forward cursors over
+ * BigDecimals, and the fixed-point columnar pass. Rule structures are built once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CeilingRemanentEngineBenchmark {
+
+    private static final int SCALE = 6;
+
+    @Param({"10000", "1000000"})
+    int transactions;
+
+    @Param({"10", "10000"})
+    int rules;
+
+    private List<Transaction> sorted;
+    private List<QRule> qRules;
+    private NavigableMap<Instant, BigDecimal> pRunningByTime;
+    private CeilingSchedule ceilings;
+    private PTimeline pTimeline;
+    private TransactionBatch batch;
+    private CeilingSchedule fixedCeilings;
+    private PTimeline fixedPTimeline;
+
+    @Setup
+    public void setUp() {
+        Workload workload = new Workload(transactions, rules, 1);
+        sorted = workload.transactions();
+        qRules = workload.qRules();
+        pRunningByTime = TimelineRuleEngine.buildPRunningByTime(sorted, workload.pRules());
+        ceilings = CeilingRemanentEngine.buildCeilingSchedule(qRules, Workload.DEFAULT_CEILING);
+        pTimeline = TimelineRuleEngine.buildPTimeline(workload.pRules());
+        batch = RequestMapper.toTransactionBatch(workload.transactionDtos(), SCALE);
+        fixedCeilings = CeilingRemanentEngine.buildCeilingSchedule(batch, qRules, Workload.DEFAULT_CEILING);
+        fixedPTimeline = TimelineRuleEngine.buildPTimeline(batch, workload.pRules());
+    }
+
+    @Benchmark
+    public List<ProcessedTransaction> applyTreeMaps() {
+        return CeilingRemanentEngine.apply(sorted, qRules, Workload.DEFAULT_CEILING, pRunningByTime);
+    }
+
+    @Benchmark
+    public List<ProcessedTransaction> applyCursors() {
+        return CeilingRemanentEngine.apply(sorted, ceilings, pTimeline);
+    }
+
+    /** Writes the batch's output columns in place; the same columns are overwritten every call. */
+    @Benchmark
+    public long[] applyFixed() {
+        CeilingRemanentEngine.apply(batch, fixedCeilings, fixedPTimeline);
+        return batch.remanent();
+    }
+}
@@ -0,0 +1,84 @@
+package com.blackrock.aladdin.bench;
+
+import com.blackrock.aladdin.Workload;
+import com.blackrock.aladdin.engine.CeilingRemanentEngine;
+import com.blackrock.aladdin.engine.KPeriodAggregator;
+import com.blackrock.aladdin.engine.PTimeline;
+import com.blackrock.aladdin.engine.TimelineRuleEngine;
+import com.blackrock.aladdin.model.*;
+import com.blackrock.aladdin.service.RequestMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps 3 and 4: summing processed transactions into k periods, and setting each period's p additive, in exact
+ * and fixed-point form. Inputs are the outputs of the earlier steps, computed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KPeriodAggregatorBenchmark {
+
+    private static final int SCALE = 6;
+
+    @Param({"10000", "1000000"})
+    int transactions;
+
+    @Param({"1000"})
+    int rules;
+
+    @Param({"12", "10000"})
+    int periods;
+
+    private List<KPeriod> kPeriods;
+    private List<ProcessedTransaction> processed;
+    private NavigableMap<Instant, BigDecimal> pRunningByTime;
+    private List<PeriodAccumulator> accumulators;
+    private TransactionBatch batch;
+    private PTimeline fixedPTimeline;
+    private List<FixedPeriodAccumulator> fixedAccumulators;
+
+    @Setup
+    public void setUp() {
+        Workload workload = new Workload(transactions, rules, periods);
+        List<Transaction> sorted = workload.transactions();
+        kPeriods = workload.kPeriods();
+        pRunningByTime = TimelineRuleEngine.buildPRunningByTime(sorted, workload.pRules());
+        processed = CeilingRemanentEngine.apply(sorted, workload.qRules(), Workload.DEFAULT_CEILING, pRunningByTime);
+        accumulators = KPeriodAggregator.toOrderedList(KPeriodAggregator.aggregate(processed, kPeriods), kPeriods);
+
+        batch = RequestMapper.toTransactionBatch(workload.transactionDtos(), SCALE);
+        fixedPTimeline = TimelineRuleEngine.buildPTimeline(batch, workload.pRules());
+        CeilingRemanentEngine.apply(batch,
+                CeilingRemanentEngine.buildCeilingSchedule(batch, workload.qRules(), Workload.DEFAULT_CEILING), fixedPTimeline);
+        fixedAccumulators = KPeriodAggregator.aggregate(batch, kPeriods);
+    }
+
+    @Benchmark
+    public List<PeriodAccumulator> aggregate() {
+        return KPeriodAggregator.toOrderedList(KPeriodAggregator.aggregate(processed, kPeriods), kPeriods);
+    }
+
+    @Benchmark
+    public List<PeriodAccumulator> withPeriodPAdditive() {
+        return KPeriodAggregator.withPeriodPAdditive(accumulators, kPeriods, pRunningByTime);
+    }
+
+    @Benchmark
+    public List<FixedPeriodAccumulator> aggregateFixed() {
+        return KPeriodAggregator.aggregate(batch, kPeriods);
+    }
+
+    @Benchmark
+    public List<FixedPeriodAccumulator> withPeriodPAdditiveFixed() {
+        return KPeriodAggregator.withPeriodPAdditiveFixed(fixedAccumulators, kPeriods, fixedPTimeline);
+    }
+}
@@ -0,0 +1,69 @@
+package com.blackrock.aladdin.bench;
+
+import com.blackrock.aladdin.Workload;
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
+import com.blackrock.aladdin.model.TransactionDto;
+import com.blackrock.aladdin.service.RequestMapper;
+import com.blackrock.aladdin.util.TimestampParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request mapping (step 1 before the engines): timestamp parsing on its own, then whole DTO lists mapped to
+ * domain transactions or to a fixed-point batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParsingBenchmark {
+
+    private static final int SCALE = 6;
+
+    @Param({"10000", "1000000"})
+    int transactions;
+
+    private List<String> timestamps;
+    private List<TransactionDto> dtos;
+
+    @Setup
+    public void setUp() {
+        Workload workload = new Workload(transactions, 0, 1);
+        timestamps = workload.timestamps();
+        dtos = workload.transactionDtos();
+    }
+
+    /** Fast path over the string's characters; the sum keeps the results live. */
+    @Benchmark
+    public long timestampFastPath() {
+        long sum = 0;
+        for (String timestamp : timestamps) {
+            sum += TimestampParser.tryParseEpochSecond(timestamp);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long timestampToInstant() {
+        long sum = 0;
+        for (String timestamp : timestamps) {
+            sum += TimestampParser.parse(timestamp).getEpochSecond();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public List<Transaction> toTransactions() {
+        return RequestMapper.toTransactions(dtos);
+    }
+
+    @Benchmark
+    public TransactionBatch toTransactionBatch() {
+        return RequestMapper.toTransactionBatch(dtos, SCALE);
+    }
+}
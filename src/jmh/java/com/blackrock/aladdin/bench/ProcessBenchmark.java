@@ -0,0 +1,56 @@
+package com.blackrock.aladdin.bench;
+
+import com.blackrock.aladdin.Workload;
+import com.blackrock.aladdin.config.EngineProperties;
+import com.blackrock.aladdin.model.ProcessRequest;
+import com.blackrock.aladdin.model.ProcessResponse;
+import com.blackrock.aladdin.service.InvestmentEngineService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end {@link InvestmentEngineService#process(ProcessRequest)}: mapping, all five steps and the response,
+ * for each arithmetic mode and execution strategy. The request is built once per trial. The full grid is 48
+ * trials; narrow it with JMH's {@code -p}, e.g. {@code -p execution=FUSED -p transactions=1000000}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ProcessBenchmark {
+
+    @Param({"10000", "1000000"})
+    int transactions;
+
+    @Param({"10", "10000"})
+    int rules;
+
+    @Param({"12", "10000"})
+    int periods;
+
+    @Param({"EXACT", "FIXED"})
+    EngineProperties.Arithmetic arithmetic;
+
+    @Param({"STAGED", "FUSED", "PARALLEL"})
+    EngineProperties.Execution execution;
+
+    private InvestmentEngineService service;
+    private ProcessRequest request;
+
+    @Setup
+    public void setUp() {
+        EngineProperties defaults = EngineProperties.defaults();
+        service = new InvestmentEngineService(defaults
+                .withArithmetic(arithmetic, defaults.fixedScale())
+                .withExecution(execution));
+        request = new Workload(transactions, rules, periods).request();
+    }
+
+    @Benchmark
+    public ProcessResponse process() {
+        return service.process(request);
+    }
+}
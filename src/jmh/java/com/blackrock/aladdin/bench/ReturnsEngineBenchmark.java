@@ -0,0 +1,72 @@
+package com.blackrock.aladdin.bench;
+
+import com.blackrock.aladdin.Workload;
+import com.blackrock.aladdin.engine.ReturnsEngine;
+import com.blackrock.aladdin.engine.ReturnsEngine.FixedReturnResult;
+import com.blackrock.aladdin.engine.ReturnsEngine.ReturnResult;
+import com.blackrock.aladdin.model.FixedPeriodAccumulator;
+import com.blackrock.aladdin.model.PeriodAccumulator;
+import com.blackrock.aladdin.util.FixedPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step 5: NPS and index returns per period. Cost depends only on the period count; each period carries a
+ * contribution and p additive with cents.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReturnsEngineBenchmark {
+
+    private static final int SCALE = 6;
+
+    @Param({"12", "10000", "1000000"})
+    int periods;
+
+    private List<PeriodAccumulator> accumulators;
+    private List<FixedPeriodAccumulator> fixedAccumulators;
+    private long fixedTaxCap;
+
+    @Setup
+    public void setUp() {
+        accumulators = new ArrayList<>(periods);
+        fixedAccumulators = new ArrayList<>(periods);
+        for (int k = 0; k < periods; k++) {
+            BigDecimal contribution = BigDecimal.valueOf(10_000 + (k * 7_919L) % 900_000, 2);
+            BigDecimal pAdditive = BigDecimal.valueOf((k * 37L) % 5_000, 2);
+            accumulators.add(new PeriodAccumulator("k-" + k, contribution, BigDecimal.ZERO, pAdditive));
+            fixedAccumulators.add(new FixedPeriodAccumulator("k-" + k,
+                    FixedPoint.toUnits(contribution, SCALE), 0L, FixedPoint.toUnits(pAdditive, SCALE), 2, 0, 2));
+        }
+        fixedTaxCap = FixedPoint.toUnits(Workload.TAX_CAP, SCALE);
+    }
+
+    @Benchmark
+    public List<ReturnResult> npsReturns() {
+        return ReturnsEngine.npsReturns(accumulators, Workload.INFLATION_RATE, Workload.TAX_CAP);
+    }
+
+    @Benchmark
+    public List<ReturnResult> indexReturns() {
+        return ReturnsEngine.indexReturns(accumulators, Workload.INFLATION_RATE);
+    }
+
+    @Benchmark
+    public List<FixedReturnResult> npsReturnsFixed() {
+        return ReturnsEngine.npsReturnsFixed(
+                fixedAccumulators, Workload.INFLATION_RATE, fixedTaxCap, Workload.TAX_CAP.scale(), SCALE);
+    }
+
+    @Benchmark
+    public List<FixedReturnResult> indexReturnsFixed() {
+        return ReturnsEngine.indexReturnsFixed(fixedAccumulators, Workload.INFLATION_RATE, SCALE);
+    }
+}
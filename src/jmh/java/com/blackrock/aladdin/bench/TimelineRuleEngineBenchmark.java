@@ -0,0 +1,53 @@
+package com.blackrock.aladdin.bench;
+
+import com.blackrock.aladdin.Workload;
+import com.blackrock.aladdin.engine.PTimeline;
+import com.blackrock.aladdin.engine.TimelineRuleEngine;
+import com.blackrock.aladdin.model.PRule;
+import com.blackrock.aladdin.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * p running sums: the per-transaction TreeMap of {@link TimelineRuleEngine#buildPRunningByTime} against the
+ * compact {@link PTimeline} keyed on rule starts only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimelineRuleEngineBenchmark {
+
+    @Param({"10000", "1000000"})
+    int transactions;
+
+    @Param({"10", "10000"})
+    int rules;
+
+    private List<Transaction> sorted;
+    private List<PRule> pRules;
+
+    @Setup
+    public void setUp() {
+        Workload workload = new Workload(transactions, rules, 1);
+        sorted = workload.transactions();
+        pRules = workload.pRules();
+    }
+
+    @Benchmark
+    public NavigableMap<Instant, BigDecimal> buildPRunningByTime() {
+        return TimelineRuleEngine.buildPRunningByTime(sorted, pRules);
+    }
+
+    @Benchmark
+    public PTimeline buildPTimeline() {
+        return TimelineRuleEngine.buildPTimeline(pRules);
+    }
+}
@@ -0,0 +1,54 @@
+package com.blackrock.aladdin;
+
+import com.blackrock.aladdin.model.ProcessResponse;
+import com.blackrock.aladdin.model.ProcessTerms;
+import com.blackrock.aladdin.service.InvestmentEngineService;
+import com.blackrock.aladdin.store.ColumnarTransactionFile;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Offline loader: runs one /process/bulk request from local files without starting the web server, with the
+ * application's configuration. Arguments: terms JSON (a /process body without transactions), columnar
+ * transaction file, response JSON to write.
+ * <pre>
+ * java -cp micro-investment-engine-1.0.0.jar -Dloader.main=com.blackrock.aladdin.BulkLoader \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher terms.json transactions.txc response.json
+ * </pre>
+ */
+public final class BulkLoader {
+
+    private BulkLoader() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: BulkLoader <terms.json> <transactions.txc> <response.json>");
+            System.exit(2);
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MicroInvestmentEngineApplication.class)
+                .web(WebApplicationType.NONE)
+                .run()) {
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            InvestmentEngineService engineService = context.getBean(InvestmentEngineService.class);
+            ProcessTerms terms = objectMapper.readValue(Path.of(args[0]).toFile(), ProcessTerms.class);
+            Set<ConstraintViolation<ProcessTerms>> violations = context.getBean(Validator.class).validate(terms);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<ProcessTerms> first = violations.iterator().next();
+                throw new IllegalArgumentException(args[0] + ": " + first.getPropertyPath() + ": " + first.getMessage());
+            }
+            ProcessResponse response;
+            try (ColumnarTransactionFile transactions = ColumnarTransactionFile.open(Path.of(args[1]))) {
+                response = engineService.process(engineService.ingest(transactions, terms.toRequest()));
+            }
+            objectMapper.writeValue(Path.of(args[2]).toFile(), response);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.blackrock.aladdin.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Upload size limits. {@code spring.servlet.multipart.*} bounds every multipart request, /process/csv included.
+ * A columnar backfill for /process/bulk can be many gigabytes, so that one path is served by a second
+ * DispatcherServlet over the same context whose multipart config is bounded by {@code engine.bulk.max-upload-size}
+ * instead; both spool parts to disk. Only a servlet web application registers it (BulkLoader runs without one).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BulkUploadConfig {
+
+    public static final String BULK_PATH = "/api/v1/engine/process/bulk";
+
+    @Bean
+    public ServletRegistrationBean<DispatcherServlet> bulkUploadServlet(WebApplicationContext context,
+                                                                        MultipartProperties multipart,
+                                                                        BulkUploadProperties bulk) {
+        MultipartConfigElement defaults = multipart.createMultipartConfig();
+        long maxUploadSize = bulk.maxUploadSize().toBytes();
+        ServletRegistrationBean<DispatcherServlet> registration =
+                new ServletRegistrationBean<>(new DispatcherServlet(context), BULK_PATH);
+        registration.setName("bulkUploadDispatcherServlet");
+        registration.setMultipartConfig(new MultipartConfigElement(defaults.getLocation(), maxUploadSize, maxUploadSize,
+                defaults.getFileSizeThreshold()));
+        return registration;
+    }
+}
@@ -0,0 +1,26 @@
+package com.blackrock.aladdin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * /process/bulk settings bound from {@code engine.bulk.*} in application.properties.
+ *
+ * @param maxUploadSize largest /process/bulk request (terms and columnar file together); it has its own limit
+ *                      because backfills far exceed {@code spring.servlet.multipart.max-request-size}
+ */
+@ConfigurationProperties(prefix = "engine.bulk")
+public record BulkUploadProperties(
+        @DefaultValue("8GB") DataSize maxUploadSize
+) {
+    public BulkUploadProperties {
+        if (maxUploadSize.toBytes() <= 0) {
+            throw new IllegalArgumentException("engine.bulk.max-upload-size must be positive");
+        }
+    }
+
+    public static BulkUploadProperties defaults() {
+        return new BulkUploadProperties(DataSize.ofGigabytes(8));
+    }
+}
@@ -0,0 +1,92 @@
+package com.blackrock.aladdin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Engine tuning bound from {@code engine.*} in application.properties.
+ *
+ * @param arithmetic amount representation used through the pipeline
+ * @param fixedScale decimal places carried by FIXED mode (6 = micro-units)
+ * @param overlappingPeriods count a transaction in every k period covering it (interval index)
+ *                           instead of only the latest-starting one
+ * @param execution  how steps 1–4 are run
+ * @param parallelThreshold transaction count from which PARALLEL execution forks; smaller requests run FUSED
+ * @param batchThreads       worker threads for /process-batch portfolios (0 = available processors)
+ * @param batchMaxPortfolios largest number of portfolios accepted in one /process-batch call
+ */
+@ConfigurationProperties(prefix = "engine")
+public record EngineProperties(
+        @DefaultValue("EXACT") Arithmetic arithmetic,
+        @DefaultValue("6") int fixedScale,
+        @DefaultValue("false") boolean overlappingPeriods,
+        @DefaultValue("STAGED") Execution execution,
+        @DefaultValue("100000") int parallelThreshold,
+        @DefaultValue("0") int batchThreads,
+        @DefaultValue("10000") int batchMaxPortfolios
+) {
+    public EngineProperties {
+        if (fixedScale < 0 || fixedScale > 18) {
+            throw new IllegalArgumentException("engine.fixed-scale must be between 0 and 18");
+        }
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("engine.parallel-threshold must not be negative");
+        }
+        if (batchThreads < 0) {
+            throw new IllegalArgumentException("engine.batch-threads must not be negative");
+        }
+        if (batchMaxPortfolios < 1) {
+            throw new IllegalArgumentException("engine.batch-max-portfolios must be at least 1");
+        }
+    }
+
+    public static EngineProperties defaults() {
+        return new EngineProperties(Arithmetic.EXACT, 6, false, Execution.STAGED, 100_000, 0, 10_000);
+    }
+
+    public EngineProperties withArithmetic(Arithmetic arithmetic, int fixedScale) {
+        return new EngineProperties(arithmetic, fixedScale, overlappingPeriods, execution, parallelThreshold,
+                batchThreads, batchMaxPortfolios);
+    }
+
+    public EngineProperties withOverlappingPeriods(boolean overlappingPeriods) {
+        return new EngineProperties(arithmetic, fixedScale, overlappingPeriods, execution, parallelThreshold,
+                batchThreads, batchMaxPortfolios);
+    }
+
+    public EngineProperties withExecution(Execution execution) {
+        return new EngineProperties(arithmetic, fixedScale, overlappingPeriods, execution, parallelThreshold,
+                batchThreads, batchMaxPortfolios);
+    }
+
+    public EngineProperties withParallelThreshold(int parallelThreshold) {
+        return new EngineProperties(arithmetic, fixedScale, overlappingPeriods, execution, parallelThreshold,
+                batchThreads, batchMaxPortfolios);
+    }
+
+    public EngineProperties withBatch(int batchThreads, int batchMaxPortfolios) {
+        return new EngineProperties(arithmetic, fixedScale, overlappingPeriods, execution, parallelThreshold,
+                batchThreads, batchMaxPortfolios);
+    }
+
+    /** Worker count for batch calls: configured, or available processors when 0. */
+    public int effectiveBatchThreads() {
+        return batchThreads > 0 ? batchThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public enum Arithmetic {
+        /** BigDecimal end to end; output scale follows the inputs. */
+        EXACT,
+        /** Scaled long units; falls back to EXACT when an input does not fit or a sum overflows. */
+        FIXED
+    }
+
+    public enum Execution {
+        /** One engine pass per step with intermediate lists. */
+        STAGED,
+        /** Single sweep over sorted input (FusedPipeline); overlapping periods still run STAGED. */
+        FUSED,
+        /** FUSED split across the fork/join common pool by time range (ParallelPipeline); same results. */
+        PARALLEL
+    }
+}
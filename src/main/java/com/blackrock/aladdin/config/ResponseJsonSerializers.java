@@ -0,0 +1,103 @@
+package com.blackrock.aladdin.config;
+
+import com.blackrock.aladdin.model.PeriodSummaryDto;
+import com.blackrock.aladdin.model.ReturnResultDto;
+import com.blackrock.aladdin.util.FixedPoint;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Dedicated serializers for the per-period response types, registered with Spring's ObjectMapper.
+ * Output is byte-for-byte what record introspection produces (same field order, BigDecimal.toString numbers);
+ * field names are pre-encoded and amounts are written from their unscaled value through a per-thread buffer
+ * instead of a String per number.
+ */
+@JsonComponent
+public class ResponseJsonSerializers {
+
+    private static final SerializedString PERIOD_ID = new SerializedString("periodId");
+    private static final SerializedString START_INCLUSIVE = new SerializedString("startInclusive");
+    private static final SerializedString END_EXCLUSIVE = new SerializedString("endExclusive");
+    private static final SerializedString TOTAL_CONTRIBUTION = new SerializedString("totalContribution");
+    private static final SerializedString TOTAL_REMANENT = new SerializedString("totalRemanent");
+    private static final SerializedString P_ADDITIVE = new SerializedString("pAdditive");
+    private static final SerializedString GROSS_RETURN = new SerializedString("grossReturn");
+    private static final SerializedString TAX_BENEFIT = new SerializedString("taxBenefit");
+    private static final SerializedString INFLATION_ADJUSTED_RETURN = new SerializedString("inflationAdjustedReturn");
+
+    private static final ThreadLocal<char[]> NUMBER_BUFFER =
+            ThreadLocal.withInitial(() -> new char[FixedPoint.MAX_PLAIN_LENGTH]);
+
+    public static class PeriodSummarySerializer extends StdSerializer<PeriodSummaryDto> {
+
+        public PeriodSummarySerializer() {
+            super(PeriodSummaryDto.class);
+        }
+
+        @Override
+        public void serialize(PeriodSummaryDto value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            writeString(gen, PERIOD_ID, value.periodId());
+            writeString(gen, START_INCLUSIVE, value.startInclusive());
+            writeString(gen, END_EXCLUSIVE, value.endExclusive());
+            writeDecimal(gen, TOTAL_CONTRIBUTION, value.totalContribution());
+            writeDecimal(gen, TOTAL_REMANENT, value.totalRemanent());
+            writeDecimal(gen, P_ADDITIVE, value.pAdditive());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class ReturnResultSerializer extends StdSerializer<ReturnResultDto> {
+
+        public ReturnResultSerializer() {
+            super(ReturnResultDto.class);
+        }
+
+        @Override
+        public void serialize(ReturnResultDto value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            writeString(gen, PERIOD_ID, value.periodId());
+            writeDecimal(gen, GROSS_RETURN, value.grossReturn());
+            writeDecimal(gen, TAX_BENEFIT, value.taxBenefit());
+            writeDecimal(gen, INFLATION_ADJUSTED_RETURN, value.inflationAdjustedReturn());
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    private static void writeDecimal(JsonGenerator gen, SerializableString name, BigDecimal value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        // WRITE_BIGDECIMAL_AS_PLAIN changes the text; leave that, out-of-long values and binary formats
+        // (which encode decimals natively) to the generator
+        if (value.precision() <= 18 && gen.canWriteFormattedNumbers()
+                && !gen.isEnabled(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN.mappedFeature())) {
+            char[] buffer = NUMBER_BUFFER.get();
+            int length = FixedPoint.formatUnits(value.unscaledValue().longValue(), value.scale(), buffer, 0);
+            if (length > 0) {
+                gen.writeNumber(buffer, 0, length);
+                return;
+            }
+        }
+        gen.writeNumber(value);
+    }
+}
@@ -0,0 +1,31 @@
+package com.blackrock.aladdin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Result cache settings bound from {@code engine.cache.*} in application.properties.
+ *
+ * @param enabled       cache /process responses by request digest and answer with ETags
+ * @param maxSize       estimated in-memory size of cached responses before eviction
+ * @param diskDirectory directory for the second tier that takes responses evicted from memory; empty = no disk tier
+ * @param diskMaxSize   bytes held by the disk tier; past it the least recently used responses are deleted
+ */
+@ConfigurationProperties(prefix = "engine.cache")
+public record ResultCacheProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("64MB") DataSize maxSize,
+        @DefaultValue("") String diskDirectory,
+        @DefaultValue("1GB") DataSize diskMaxSize
+) {
+    public ResultCacheProperties {
+        if (maxSize.isNegative() || diskMaxSize.isNegative()) {
+            throw new IllegalArgumentException("engine.cache sizes must not be negative");
+        }
+    }
+
+    public static ResultCacheProperties defaults() {
+        return new ResultCacheProperties(false, DataSize.ofMegabytes(64), "", DataSize.ofGigabytes(1));
+    }
+}
@@ -0,0 +1,31 @@
+package com.blackrock.aladdin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Portfolio storage settings bound from {@code engine.store.*} in application.properties.
+ *
+ * @param directory   where stored portfolios keep their terms and transactions, one subdirectory per portfolio;
+ *                    empty = portfolios live in memory only
+ * @param sealRecords transaction log size at which it is sealed into a compressed segment
+ */
+@ConfigurationProperties(prefix = "engine.store")
+public record StoreProperties(
+        @DefaultValue("") String directory,
+        @DefaultValue("1048576") int sealRecords
+) {
+    public StoreProperties {
+        if (sealRecords < 1) {
+            throw new IllegalArgumentException("engine.store.seal-records must be positive");
+        }
+    }
+
+    public static StoreProperties defaults() {
+        return new StoreProperties("", 1_048_576);
+    }
+
+    public boolean enabled() {
+        return !directory.isBlank();
+    }
+}
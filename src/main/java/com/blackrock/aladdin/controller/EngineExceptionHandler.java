@@ -1,5 +1,9 @@
 package com.blackrock.aladdin.controller;
 
+import com.blackrock.aladdin.service.CsvFormatException;
+import com.blackrock.aladdin.service.PortfolioNotFoundException;
+import com.blackrock.aladdin.service.RequestValidationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -7,6 +11,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -27,6 +33,22 @@ public class EngineExceptionHandler {
                 .body(Map.of("error", "Validation failed", "details", message));
     }
 
+    @ExceptionHandler(RequestValidationException.class)
+    public ResponseEntity<Map<String, Object>> handleStreamedValidation(RequestValidationException ex) {
+        log.warn("Validation failed: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", "Validation failed", "details", ex.getMessage()));
+    }
+
+    @ExceptionHandler(CsvFormatException.class)
+    public ResponseEntity<Map<String, Object>> handleCsvFormat(CsvFormatException ex) {
+        log.warn("Bad CSV: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", ex.getMessage(), "part", ex.part(), "line", ex.line()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
         log.warn("Bad request: {}", ex.getMessage());
@@ -35,6 +57,39 @@ public class EngineExceptionHandler {
                 .body(Map.of("error", ex.getMessage()));
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        String message = ex.getName() + ": invalid value " + ex.getValue();
+        log.warn("Bad request: {}", message);
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", message));
+    }
+
+    @ExceptionHandler(PortfolioNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleNotFound(PortfolioNotFoundException ex) {
+        log.warn("Not found: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, String>> handleUploadTooLarge(MaxUploadSizeExceededException ex) {
+        log.warn("Upload too large: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(Map.of("error", "Upload exceeds the multipart size limit"));
+    }
+
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<Map<String, String>> handleMalformedBody(JsonProcessingException ex) {
+        log.warn("Malformed request body: {}", ex.getOriginalMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", "Malformed request body"));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleUnexpected(Exception ex) {
         log.error("Unexpected error", ex);
@@ -0,0 +1,68 @@
+package com.blackrock.aladdin.controller;
+
+import com.blackrock.aladdin.model.AppendTransactionsRequest;
+import com.blackrock.aladdin.model.PeriodQueryRequest;
+import com.blackrock.aladdin.model.ProcessRequest;
+import com.blackrock.aladdin.model.ProcessResponse;
+import com.blackrock.aladdin.model.ReplaceRulesRequest;
+import com.blackrock.aladdin.service.PortfolioService;
+import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST API: stored portfolios that take new transactions without resending their history.
+ * Summaries have the /process response shape.
+ */
+@RestController
+@RequestMapping("/api/v1/engine/portfolios")
+public class PortfolioController {
+
+    private final PortfolioService portfolioService;
+
+    public PortfolioController(PortfolioService portfolioService) {
+        this.portfolioService = portfolioService;
+    }
+
+    /** Creates (or replaces) a portfolio from a /process body. */
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProcessResponse> put(@PathVariable String id, @Valid @RequestBody ProcessRequest request) {
+        return ResponseEntity.ok(portfolioService.put(id, request));
+    }
+
+    @PostMapping(value = "/{id}/transactions", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProcessResponse> append(@PathVariable String id, @Valid @RequestBody AppendTransactionsRequest request) {
+        return ResponseEntity.ok(portfolioService.append(id, request.transactions()));
+    }
+
+    /** Replaces the q rules and/or p rules; a list left out of the body is kept. */
+    @PutMapping(value = "/{id}/rules", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProcessResponse> replaceRules(@PathVariable String id, @Valid @RequestBody ReplaceRulesRequest request) {
+        return ResponseEntity.ok(portfolioService.replaceRules(id, request.qRules(), request.pRules()));
+    }
+
+    /** Results for other k periods over the stored transactions and current rules; the portfolio is unchanged. */
+    @PostMapping(value = "/{id}/query", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProcessResponse> query(@PathVariable String id, @Valid @RequestBody PeriodQueryRequest request) {
+        return ResponseEntity.ok(portfolioService.query(id, request.kPeriods()));
+    }
+
+    @GetMapping(value = "/{id}/summary", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProcessResponse> summary(@PathVariable String id) {
+        return ResponseEntity.ok(portfolioService.summary(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id) {
+        portfolioService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,18 +1,48 @@
 package com.blackrock.aladdin.controller;
 
+import com.blackrock.aladdin.config.BinaryFormatConfig;
+import com.blackrock.aladdin.model.BatchProcessResponse;
 import com.blackrock.aladdin.model.ProcessRequest;
 import com.blackrock.aladdin.model.ProcessResponse;
+import com.blackrock.aladdin.model.ProcessTerms;
+import com.blackrock.aladdin.service.BatchProcessingService;
+import com.blackrock.aladdin.service.CsvRequestReader;
+import com.blackrock.aladdin.service.IngestedRequest;
 import com.blackrock.aladdin.service.InvestmentEngineService;
+import com.blackrock.aladdin.service.ResultCache;
+import com.blackrock.aladdin.store.ColumnarTransactionFile;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 /**
- * REST API: single endpoint for the micro-investment engine.
+ * REST API: process endpoint (single portfolio) and process-batch (many portfolios) for the micro-investment engine.
+ * /process takes and returns JSON, CBOR ({@code application/cbor}) or Smile ({@code application/x-jackson-smile});
+ * /process/csv takes CSV parts and /process/bulk a columnar transaction file.
  * Port 5477 (configured in application.properties).
  */
 @RestController
@@ -20,14 +50,178 @@ import org.springframework.web.bind.annotation.RestController;
 public class ProcessController {
 
     private final InvestmentEngineService engineService;
+    private final BatchProcessingService batchService;
+    private final ResultCache resultCache;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
 
-    public ProcessController(InvestmentEngineService engineService) {
+    public ProcessController(InvestmentEngineService engineService, BatchProcessingService batchService,
+                             ResultCache resultCache, ObjectMapper objectMapper) {
         this.engineService = engineService;
+        this.batchService = batchService;
+        this.resultCache = resultCache;
+        this.objectMapper = objectMapper;
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * The body is read token by token straight into the engine's internal form, never bound to ProcessRequest, so
+     * large bodies cost no DTO lists. Constraint failures are 400s shaped like a bound request's validation errors.
+     * With the result cache enabled the response carries an {@code ETag} derived from the request; a client sending
+     * it back in {@code If-None-Match} with the same request gets 304 and no body.
+     */
+    @PostMapping(value = "/process", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ProcessResponse> process(InputStream body,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws IOException {
+        if (!resultCache.enabled()) {
+            return ResponseEntity.ok(engineService.process(body));
+        }
+        return cached(engineService.ingest(body), ifNoneMatch);
+    }
+
+    /**
+     * CBOR body, always read token by token with the same fields and validation as JSON. Amounts arrive as CBOR
+     * decimal fractions or integers, never text; timestamps may be "yyyy-MM-dd HH:mm:ss" or integer epoch seconds.
+     */
+    @PostMapping(value = "/process", consumes = MediaType.APPLICATION_CBOR_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ProcessResponse> processCbor(InputStream body,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws IOException {
+        return ingested(engineService.ingest(body, BinaryFormatConfig.CBOR), ifNoneMatch);
+    }
+
+    /** As {@link #processCbor} for a Smile body. */
+    @PostMapping(value = "/process", consumes = BinaryFormatConfig.APPLICATION_SMILE_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ProcessResponse> processSmile(InputStream body,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws IOException {
+        return ingested(engineService.ingest(body, BinaryFormatConfig.SMILE), ifNoneMatch);
+    }
+
+    /**
+     * The same request as CSV: multipart parts {@code transactions} and {@code kPeriods}, optional {@code qRules} and
+     * {@code pRules} (each CSV with a header row, optionally gzip-compressed), and form fields {@code defaultCeiling},
+     * {@code inflationRate} and {@code taxCap}. Parts are read record by record; errors name the part and line.
+     */
+    @PostMapping(value = "/process/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ProcessResponse> processCsv(@RequestPart(value = "transactions", required = false) MultipartFile transactions,
+                                                      @RequestPart(value = "qRules", required = false) MultipartFile qRules,
+                                                      @RequestPart(value = "pRules", required = false) MultipartFile pRules,
+                                                      @RequestPart(value = "kPeriods", required = false) MultipartFile kPeriods,
+                                                      @RequestParam(required = false) BigDecimal defaultCeiling,
+                                                      @RequestParam(required = false) BigDecimal inflationRate,
+                                                      @RequestParam(required = false) BigDecimal taxCap,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws IOException {
+        try (InputStream transactionsCsv = open(transactions);
+             InputStream qRulesCsv = open(qRules);
+             InputStream pRulesCsv = open(pRules);
+             InputStream kPeriodsCsv = open(kPeriods)) {
+            return ingested(engineService.ingest(new CsvRequestReader.Parts(transactionsCsv, qRulesCsv, pRulesCsv, kPeriodsCsv,
+                    defaultCeiling, inflationRate, taxCap)), ifNoneMatch);
+        }
+    }
+
+    /**
+     * Bulk upload for large backfills, as multipart parts {@code terms} (a JSON /process body without transactions)
+     * and {@code transactions} (a {@link ColumnarTransactionFile}). The upload is spooled to disk, then mapped
+     * and handed to the engines column by column instead of being parsed row by row. Not cached.
+     */
+    @PostMapping(value = "/process/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ProcessResponse> processBulk(@Valid @RequestPart("terms") ProcessTerms terms,
+                                                       @RequestPart("transactions") MultipartFile transactions) throws IOException {
+        Path directory = Files.createTempDirectory("bulk-");
+        Path file = directory.resolve("transactions.txc");
+        try {
+            // File rather than Path: the container moves its spooled upload into place instead of copying it
+            transactions.transferTo(file.toFile());
+            try (ColumnarTransactionFile columns = ColumnarTransactionFile.open(file)) {
+                return ResponseEntity.ok(engineService.process(engineService.ingest(columns, terms.toRequest())));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * {@code Accept: application/x-ndjson}: one {@code PeriodResultDto} line per period, written as each period
+     * is finalized. The request is read and validated before the response starts, so input errors are still 400s.
+     */
+    @PostMapping(value = "/process", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> processNdjson(InputStream body) throws IOException {
+        return ndjson(engineService.ingest(body));
+    }
+
+    /**
+     * Many independent portfolios per call, each shaped like a /process body. Portfolios are validated and run
+     * concurrently; results come back in request order, with an {@code error} entry for any that failed.
+     */
+    @PostMapping(value = "/process-batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchProcessResponse> processBatch(@RequestBody List<ProcessRequest> portfolios) {
+        return ResponseEntity.ok(batchService.processBatch(portfolios));
+    }
+
+    @GetMapping(value = "/cache/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResultCache.Stats> cacheStats() {
+        return ResponseEntity.ok(resultCache.stats());
+    }
+
+    /** Null for an absent part. */
+    private static InputStream open(MultipartFile part) throws IOException {
+        return part == null ? null : part.getInputStream();
+    }
+
+    private ResponseEntity<ProcessResponse> ingested(IngestedRequest request, String ifNoneMatch) {
+        if (!resultCache.enabled()) {
+            return ResponseEntity.ok(engineService.process(request));
+        }
+        return cached(request, ifNoneMatch);
+    }
+
+    private ResponseEntity<ProcessResponse> cached(IngestedRequest request, String ifNoneMatch) {
+        String key = resultCache.key(request);
+        String etag = "\"" + key + "\"";
+        if (ifNoneMatch != null && matchesEtag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        ProcessResponse response = resultCache.get(key, () -> engineService.process(request));
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    /**
+     * If-None-Match list semantics with weak comparison. {@code *} is ignored: it would match any request, and a POST
+     * failing that precondition calls for 412 rather than 304, which gives a caller nothing it can use here.
+     */
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
     }
 
-    @PostMapping(value = "/process", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ProcessResponse> process(@Valid @RequestBody ProcessRequest request) {
-        ProcessResponse response = engineService.process(request);
-        return ResponseEntity.ok(response);
+    private ResponseEntity<StreamingResponseBody> ndjson(IngestedRequest request) {
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.setRootValueSeparator(null);
+            engineService.stream(request, result -> {
+                try {
+                    lineWriter.writeValue(generator, result);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 }
@@ -3,8 +3,10 @@ package com.blackrock.aladdin.engine;
 import com.blackrock.aladdin.model.ProcessedTransaction;
 import com.blackrock.aladdin.model.QRule;
 import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.TreeMap;
@@ -58,4 +60,114 @@ public final class CeilingRemanentEngine {
                 })
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Same as {@link #apply(List, List, BigDecimal, NavigableMap)} with q and p read through forward
+     * cursors over {@link CeilingSchedule} / {@link PTimeline} instead of TreeMap floor lookups.
+     *
+     * @param transactions sorted by timestamp
+     */
+    public static List<ProcessedTransaction> apply(
+            List<Transaction> transactions,
+            List<QRule> qRules,
+            BigDecimal defaultCeiling,
+            PTimeline pTimeline
+    ) {
+        return apply(transactions, buildCeilingSchedule(qRules, defaultCeiling), pTimeline);
+    }
+
+    /**
+     * Same as above with a prebuilt (possibly shared) ceiling schedule.
+     */
+    public static List<ProcessedTransaction> apply(
+            List<Transaction> transactions,
+            CeilingSchedule ceilings,
+            PTimeline pTimeline
+    ) {
+        CeilingSchedule.Cursor qCursor = ceilings.cursor();
+        PTimeline.Cursor pCursor = pTimeline.cursor();
+        List<ProcessedTransaction> processed = new ArrayList<>(transactions.size());
+        for (Transaction txn : transactions) {
+            BigDecimal ceiling = qCursor.ceilingAt(txn.timestamp().getEpochSecond());
+            BigDecimal allowed = txn.amount().min(ceiling);
+            BigDecimal remanent = txn.amount().subtract(allowed).max(BigDecimal.ZERO);
+            processed.add(new ProcessedTransaction(
+                    txn.id(),
+                    txn.timestamp(),
+                    txn.amount(),
+                    allowed,
+                    remanent,
+                    pCursor.valueAt(txn.timestamp().getEpochSecond())
+            ));
+        }
+        return processed;
+    }
+
+    /**
+     * Columnar fixed-point variant of {@link #apply}: fills the batch's allowed, allowed-scale, remanent and
+     * pAtTime columns in place, reading q and p through forward cursors.
+     *
+     * @param ceilings  from {@link #buildCeilingSchedule(TransactionBatch, List, BigDecimal)}
+     * @param pTimeline from {@link TimelineRuleEngine#buildPTimeline(TransactionBatch, List)}
+     * @throws ArithmeticException when a difference overflows or a ceiling's scale does not fit the scale column
+     */
+    public static void apply(TransactionBatch batch, CeilingSchedule ceilings, PTimeline pTimeline) {
+        CeilingSchedule.Cursor qCursor = ceilings.cursor();
+        PTimeline.Cursor pCursor = pTimeline.cursor();
+        long[] times = batch.epochSeconds();
+        long[] amounts = batch.amounts();
+        long[] allowed = batch.allowed();
+        byte[] allowedScales = batch.allowedScales();
+        long[] remanent = batch.remanent();
+        long[] pAtTime = batch.pAtTime();
+        for (int i = 0; i < batch.size(); i++) {
+            int q = qCursor.floorIndex(times[i]);
+            allowed[i] = Math.min(amounts[i], ceilings.units(q));
+            int scale = allowedScale(amounts[i], allowed[i], batch.exactScale(i), ceilings.scale(q));
+            if (scale != (byte) scale) throw new ArithmeticException("Ceiling scale out of range");
+            allowedScales[i] = (byte) scale;
+            remanent[i] = Math.max(Math.subtractExact(amounts[i], allowed[i]), 0L);
+            pAtTime[i] = pCursor.unitsAt(times[i]);
+        }
+    }
+
+    /**
+     * Exact scale of a fixed-point allowed amount: {@code BigDecimal.min} returns the amount itself when it
+     * does not exceed the ceiling, otherwise the ceiling.
+     */
+    public static int allowedScale(long amount, long allowed, int amountScale, int ceilingScale) {
+        return allowed == amount ? amountScale : ceilingScale;
+    }
+
+    /** Exact scale of a fixed-point remanent: amount minus allowed has the larger of their scales. */
+    public static int remanentScale(int amountScale, int allowedScale) {
+        return Math.max(amountScale, allowedScale);
+    }
+
+    /**
+     * q rules as a primitive schedule (latest start wins; later rule in the list wins a tie).
+     */
+    public static CeilingSchedule buildCeilingSchedule(List<QRule> qRules, BigDecimal defaultCeiling) {
+        TreeMap<Long, BigDecimal> ceilingByStart = new TreeMap<>();
+        for (QRule q : qRules) {
+            ceilingByStart.put(q.startTime().getEpochSecond(), q.ceilingOverride());
+        }
+        long[] starts = new long[ceilingByStart.size()];
+        BigDecimal[] ceilings = new BigDecimal[ceilingByStart.size()];
+        int i = 0;
+        for (var entry : ceilingByStart.entrySet()) {
+            starts[i] = entry.getKey();
+            ceilings[i++] = entry.getValue();
+        }
+        return new CeilingSchedule(starts, ceilings, defaultCeiling, null, 0L);
+    }
+
+    /**
+     * Columnar overload: schedule with ceilings also in the batch's scaled units.
+     *
+     * @throws ArithmeticException when a ceiling is not representable at the batch scale
+     */
+    public static CeilingSchedule buildCeilingSchedule(TransactionBatch batch, List<QRule> qRules, BigDecimal defaultCeiling) {
+        return buildCeilingSchedule(qRules, defaultCeiling).withUnits(batch.scale());
+    }
 }
@@ -0,0 +1,116 @@
+package com.blackrock.aladdin.engine;
+
+import com.blackrock.aladdin.util.FixedPoint;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Effective ceiling over time: q rule start times (epoch seconds, sorted, latest start wins)
+ * with their overrides, and the default ceiling before the first rule.
+ * Binary-search lookup or a forward {@link Cursor} for sorted scans.
+ * Scaled-unit ceilings are present when built with a fixed scale.
+ */
+public final class CeilingSchedule {
+
+    private final long[] starts;
+    private final BigDecimal[] ceilings;
+    private final BigDecimal defaultCeiling;
+    private final long[] units;
+    private final long defaultUnits;
+
+    CeilingSchedule(long[] starts, BigDecimal[] ceilings, BigDecimal defaultCeiling, long[] units, long defaultUnits) {
+        this.starts = starts;
+        this.ceilings = ceilings;
+        this.defaultCeiling = defaultCeiling;
+        this.units = units;
+        this.defaultUnits = defaultUnits;
+    }
+
+    /**
+     * Same schedule with ceilings also in scaled units.
+     *
+     * @throws ArithmeticException when a ceiling is not representable at {@code scale}
+     */
+    public CeilingSchedule withUnits(int scale) {
+        long[] scaled = new long[ceilings.length];
+        for (int i = 0; i < ceilings.length; i++) {
+            scaled[i] = FixedPoint.toUnits(ceilings[i], scale);
+        }
+        return new CeilingSchedule(starts, ceilings, defaultCeiling, scaled, FixedPoint.toUnits(defaultCeiling, scale));
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public long start(int index) {
+        return starts[index];
+    }
+
+    /** Index of the latest rule starting at or before t, or -1 (default ceiling). */
+    public int floorIndex(long epochSecond) {
+        int i = Arrays.binarySearch(starts, epochSecond);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    public BigDecimal ceiling(int index) {
+        return index >= 0 ? ceilings[index] : defaultCeiling;
+    }
+
+    public long units(int index) {
+        if (units == null) throw new IllegalStateException("CeilingSchedule built without a fixed scale");
+        return index >= 0 ? units[index] : defaultUnits;
+    }
+
+    /** Scale of the exact ceiling at {@code index}, as BigDecimal arithmetic sees it. */
+    public int scale(int index) {
+        return ceiling(index).scale();
+    }
+
+    public BigDecimal ceilingAt(long epochSecond) {
+        return ceiling(floorIndex(epochSecond));
+    }
+
+    public long unitsAt(long epochSecond) {
+        return units(floorIndex(epochSecond));
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** Cursor positioned for a scan that begins at {@code fromEpochSecond}. */
+    public Cursor cursor(long fromEpochSecond) {
+        Cursor cursor = new Cursor();
+        cursor.index = floorIndex(fromEpochSecond);
+        return cursor;
+    }
+
+    /**
+     * Forward scan for sorted input; falls back to binary search if time goes backwards.
+     */
+    public final class Cursor {
+
+        private int index = -1;
+
+        public int floorIndex(long epochSecond) {
+            if (index >= 0 && epochSecond < starts[index]) {
+                index = CeilingSchedule.this.floorIndex(epochSecond);
+            } else {
+                while (index + 1 < starts.length && starts[index + 1] <= epochSecond) {
+                    index++;
+                }
+            }
+            return index;
+        }
+
+        public BigDecimal ceilingAt(long epochSecond) {
+            return ceiling(floorIndex(epochSecond));
+        }
+
+        public long unitsAt(long epochSecond) {
+            return units(floorIndex(epochSecond));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.blackrock.aladdin.engine;
+
+import com.blackrock.aladdin.model.FixedPeriodAccumulator;
+import com.blackrock.aladdin.model.KPeriod;
+import com.blackrock.aladdin.model.PeriodAccumulator;
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Steps 1–4 in one sweep over sorted transactions: q cursor, p cursor and k-period cursor advance
+ * together and each transaction folds straight into its period's running totals.
+ * No ProcessedTransaction list or per-row intermediate; memory is O(periods + rules).
+ * <p>
+ * Each period is handed to the sink once final (the sweep has passed its start slot), in sorted
+ * period order, with p additive already set. Results equal the staged
+ * CeilingRemanentEngine → KPeriodAggregator → withTimelinePAdditive pipeline for non-overlapping periods.
+ */
+public final class FusedPipeline {
+
+    private FusedPipeline() {}
+
+    /** Receives finished periods in sorted order; {@code periodIndex} refers to the sorted k-period list. */
+    @FunctionalInterface
+    public interface PeriodSink {
+        void accept(int periodIndex, PeriodAccumulator accumulator);
+    }
+
+    @FunctionalInterface
+    public interface FixedPeriodSink {
+        void accept(int periodIndex, FixedPeriodAccumulator accumulator);
+    }
+
+    /**
+     * @param transactions sorted by timestamp
+     * @param kPeriods     [startInclusive, endExclusive); must not overlap; sorted by start
+     * @return one accumulator per k period in input order
+     */
+    public static List<PeriodAccumulator> run(
+            List<Transaction> transactions,
+            CeilingSchedule ceilings,
+            PTimeline pTimeline,
+            List<KPeriod> kPeriods
+    ) {
+        List<PeriodAccumulator> accumulators = new ArrayList<>(kPeriods.size());
+        run(transactions, ceilings, pTimeline, kPeriods, (i, acc) -> accumulators.add(acc));
+        return accumulators;
+    }
+
+    public static void run(
+            List<Transaction> transactions,
+            CeilingSchedule ceilings,
+            PTimeline pTimeline,
+            List<KPeriod> kPeriods,
+            PeriodSink sink
+    ) {
+        PeriodIndex index = PeriodIndex.of(kPeriods);
+        BigDecimal[] contribution = new BigDecimal[index.slotCount()];
+        BigDecimal[] remanent = new BigDecimal[index.slotCount()];
+        Arrays.fill(contribution, BigDecimal.ZERO);
+        Arrays.fill(remanent, BigDecimal.ZERO);
+
+        CeilingSchedule.Cursor qCursor = ceilings.cursor();
+        PeriodIndex.Cursor kCursor = index.cursor();
+        Emitter emitter = new Emitter(index, kPeriods, pTimeline);
+        long previous = Long.MIN_VALUE;
+        for (Transaction txn : transactions) {
+            long t = txn.timestamp().getEpochSecond();
+            if (t < previous) throw new IllegalArgumentException("transactions must be sorted by timestamp");
+            previous = t;
+
+            int slot = kCursor.slotContaining(t);
+            while (emitter.next < kPeriods.size() && index.slotOf(emitter.next) < kCursor.floorSlot()) {
+                int s = index.slotOf(emitter.next);
+                sink.accept(emitter.next, emitter.exact(s, contribution[s], remanent[s]));
+                emitter.next++;
+            }
+            if (slot < 0) continue;
+
+            BigDecimal allowed = txn.amount().min(qCursor.ceilingAt(t));
+            contribution[slot] = contribution[slot].add(allowed);
+            remanent[slot] = remanent[slot].add(txn.amount().subtract(allowed).max(BigDecimal.ZERO));
+        }
+        for (; emitter.next < kPeriods.size(); emitter.next++) {
+            int s = index.slotOf(emitter.next);
+            sink.accept(emitter.next, emitter.exact(s, contribution[s], remanent[s]));
+        }
+    }
+
+    /**
+     * Columnar fixed-point sweep; reads only the batch's input columns.
+     *
+     * @param batch     sorted by time
+     * @param ceilings  with units at the batch scale
+     * @param pTimeline with units at the batch scale
+     * @throws ArithmeticException when a sum overflows
+     */
+    public static List<FixedPeriodAccumulator> run(
+            TransactionBatch batch,
+            CeilingSchedule ceilings,
+            PTimeline pTimeline,
+            List<KPeriod> kPeriods
+    ) {
+        List<FixedPeriodAccumulator> accumulators = new ArrayList<>(kPeriods.size());
+        run(batch, ceilings, pTimeline, kPeriods, (i, acc) -> accumulators.add(acc));
+        return accumulators;
+    }
+
+    public static void run(
+            TransactionBatch batch,
+            CeilingSchedule ceilings,
+            PTimeline pTimeline,
+            List<KPeriod> kPeriods,
+            FixedPeriodSink sink
+    ) {
+        PeriodIndex index = PeriodIndex.of(kPeriods);
+        long[] contribution = new long[index.slotCount()];
+        long[] remanent = new long[index.slotCount()];
+        int[] contributionScale = new int[index.slotCount()];
+        int[] remanentScale = new int[index.slotCount()];
+
+        CeilingSchedule.Cursor qCursor = ceilings.cursor();
+        PeriodIndex.Cursor kCursor = index.cursor();
+        Emitter emitter = new Emitter(index, kPeriods, pTimeline);
+        long[] times = batch.epochSeconds();
+        long[] amounts = batch.amounts();
+        long previous = Long.MIN_VALUE;
+        for (int i = 0; i < batch.size(); i++) {
+            long t = times[i];
+            if (t < previous) throw new IllegalArgumentException("transactions must be sorted by timestamp");
+            previous = t;
+
+            int slot = kCursor.slotContaining(t);
+            while (emitter.next < kPeriods.size() && index.slotOf(emitter.next) < kCursor.floorSlot()) {
+                int s = index.slotOf(emitter.next);
+                sink.accept(emitter.next, emitter.fixed(s, contribution[s], remanent[s], contributionScale[s], remanentScale[s]));
+                emitter.next++;
+            }
+            if (slot < 0) continue;
+
+            int q = qCursor.floorIndex(t);
+            long allowed = Math.min(amounts[i], ceilings.units(q));
+            int allowedScale = CeilingRemanentEngine.allowedScale(amounts[i], allowed, batch.exactScale(i), ceilings.scale(q));
+            contribution[slot] = Math.addExact(contribution[slot], allowed);
+            remanent[slot] = Math.addExact(remanent[slot], Math.max(Math.subtractExact(amounts[i], allowed), 0L));
+            contributionScale[slot] = Math.max(contributionScale[slot], allowedScale);
+            remanentScale[slot] = Math.max(remanentScale[slot],
+                    CeilingRemanentEngine.remanentScale(batch.exactScale(i), allowedScale));
+        }
+        for (; emitter.next < kPeriods.size(); emitter.next++) {
+            int s = index.slotOf(emitter.next);
+            sink.accept(emitter.next, emitter.fixed(s, contribution[s], remanent[s], contributionScale[s], remanentScale[s]));
+        }
+    }
+
+    /** Builds finished accumulators with period p additive: p strictly before end minus p at start. */
+    private static final class Emitter {
+
+        private final PeriodIndex index;
+        private final List<KPeriod> kPeriods;
+        private final PTimeline pTimeline;
+        private final PTimeline.Cursor atStart;
+        private final PTimeline.Cursor beforeEnd;
+        private int next;
+
+        private Emitter(PeriodIndex index, List<KPeriod> kPeriods, PTimeline pTimeline) {
+            this.index = index;
+            this.kPeriods = kPeriods;
+            this.pTimeline = pTimeline;
+            this.atStart = pTimeline.cursor();
+            this.beforeEnd = pTimeline.cursor();
+        }
+
+        private PeriodAccumulator exact(int slot, BigDecimal contribution, BigDecimal remanent) {
+            KPeriod owner = kPeriods.get(index.owner(slot));
+            BigDecimal pAdditive = beforeEnd.valueAt(owner.endExclusive().getEpochSecond() - 1)
+                    .subtract(atStart.valueAt(owner.startInclusive().getEpochSecond()));
+            return new PeriodAccumulator(owner.id(), contribution, remanent, pAdditive);
+        }
+
+        private FixedPeriodAccumulator fixed(int slot, long contribution, long remanent, int contributionScale, int remanentScale) {
+            KPeriod owner = kPeriods.get(index.owner(slot));
+            int end = beforeEnd.floorIndex(owner.endExclusive().getEpochSecond() - 1);
+            int start = atStart.floorIndex(owner.startInclusive().getEpochSecond());
+            long pAdditive = Math.subtractExact(pTimeline.units(end), pTimeline.units(start));
+            int pAdditiveScale = Math.max(pTimeline.scale(end), pTimeline.scale(start));
+            return new FixedPeriodAccumulator(
+                    owner.id(), contribution, remanent, pAdditive, contributionScale, remanentScale, pAdditiveScale);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.blackrock.aladdin.engine;
+
+import com.blackrock.aladdin.model.BlockTotals;
+import com.blackrock.aladdin.model.KPeriod;
+import com.blackrock.aladdin.model.PeriodAccumulator;
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionColumns;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.function.IntConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Long-lived k-period totals that take transactions one at a time, in any time order, and rule changes in place.
+ * Each {@link #add} costs O(log q + log k) and reports the periods whose accumulator changed, so callers
+ * recompute only those. Accumulators equal {@link FusedPipeline} (non-overlapping periods) or
+ * {@link KPeriodAggregator#aggregateOverlapping} plus p additive (overlapping) over the same transactions and rules,
+ * since BigDecimal sums are exact whatever the order. A one-off aggregation over stored blocks can fold a block
+ * in from its totals ({@link #addTotals}) when every row of it would land in the same periods under the same ceiling.
+ */
+public final class IncrementalAggregator {
+
+    private final List<KPeriod> kPeriods;
+    private CeilingSchedule ceilings;
+    private PTimeline pTimeline;
+    private final PeriodIndex slots;
+    private final IntervalIndex intervals;
+    private final int[][] periodsBySlot;
+    private final long[] boundaries;
+    private final Map<String, KPeriod> firstById;
+    private final Sum[] contribution;
+    private final Sum[] remanent;
+
+    private IncrementalAggregator(List<KPeriod> kPeriods, CeilingSchedule ceilings, PTimeline pTimeline, boolean overlapping) {
+        this.kPeriods = List.copyOf(kPeriods);
+        this.ceilings = ceilings;
+        this.pTimeline = pTimeline;
+        this.slots = overlapping ? null : PeriodIndex.of(kPeriods);
+        this.intervals = overlapping ? IntervalIndex.of(kPeriods) : null;
+        this.periodsBySlot = overlapping ? null : periodsBySlot(slots, kPeriods.size());
+        this.boundaries = kPeriods.stream()
+                .flatMapToLong(k -> LongStream.of(k.startInclusive().getEpochSecond(), k.endExclusive().getEpochSecond()))
+                .sorted().distinct().toArray();
+        this.firstById = new HashMap<>();
+        for (KPeriod k : kPeriods) {
+            firstById.putIfAbsent(k.id(), k);
+        }
+        int cells = overlapping ? kPeriods.size() : slots.slotCount();
+        this.contribution = new Sum[cells];
+        this.remanent = new Sum[cells];
+        for (int c = 0; c < cells; c++) {
+            contribution[c] = new Sum();
+            remanent[c] = new Sum();
+        }
+    }
+
+    /**
+     * @param sortedKPeriods sorted by start; period indices refer to this list
+     * @param overlapping    count a transaction in every covering period instead of the latest-starting one
+     */
+    public static IncrementalAggregator of(List<KPeriod> sortedKPeriods, CeilingSchedule ceilings, PTimeline pTimeline,
+                                           boolean overlapping) {
+        return new IncrementalAggregator(sortedKPeriods, ceilings, pTimeline, overlapping);
+    }
+
+    public List<KPeriod> kPeriods() {
+        return kPeriods;
+    }
+
+    public int periodCount() {
+        return kPeriods.size();
+    }
+
+    public CeilingSchedule ceilings() {
+        return ceilings;
+    }
+
+    public PTimeline pTimeline() {
+        return pTimeline;
+    }
+
+    /**
+     * Applies the ceiling in force at {@code epochSecond} and folds the split into the covering period(s).
+     *
+     * @param affected receives the index of every period whose accumulator changed
+     */
+    public void add(long epochSecond, BigDecimal amount, IntConsumer affected) {
+        apply(epochSecond, amount, ceilings, 1, affected);
+    }
+
+    /** As {@link #add} for every row of {@code rows}, read in place. */
+    public void addAll(TransactionColumns rows, IntConsumer affected) {
+        for (int row = 0, size = rows.size(); row < size; row++) {
+            add(rows.epochSecond(row), rows.amount(row), affected);
+        }
+    }
+
+    /**
+     * Adds a block of transactions from its totals alone, when that gives the same accumulators (digit for digit)
+     * as adding its rows: no period starts or ends and no q rule starts inside the block's time range, and its
+     * amounts are either all at or below the ceiling there or all above it. Otherwise nothing changes.
+     * A block's totals are folded in as single terms, so its rows cannot be taken back one by one later: use this
+     * for one-off aggregations, not with {@link #replaceCeilings}.
+     *
+     * @param affected receives the index of every period whose accumulator changed
+     * @return false when the block's rows have to be added one at a time instead
+     */
+    public boolean addTotals(BlockTotals block, IntConsumer affected) {
+        long min = block.minEpochSecond();
+        long max = block.maxEpochSecond();
+        int firstAfterMin = Arrays.binarySearch(boundaries, min);
+        firstAfterMin = firstAfterMin >= 0 ? firstAfterMin + 1 : -firstAfterMin - 1;
+        if (firstAfterMin < boundaries.length && boundaries[firstAfterMin] <= max) return false;
+        int rule = ceilings.floorIndex(min);
+        if (ceilings.floorIndex(max) != rule) return false;
+        BigDecimal ceiling = ceilings.ceiling(rule);
+        BigDecimal allowed;
+        BigDecimal excess;
+        if (block.maxAmount().compareTo(ceiling) <= 0) {
+            // every row is allowed in full and leaves a zero excess at its own scale
+            allowed = block.amountSum();
+            excess = BigDecimal.ZERO.setScale(Math.max(block.amountSum().scale(), 0));
+        } else if (block.minAmount().compareTo(ceiling) > 0) {
+            // every row is capped at the ceiling
+            allowed = ceiling.multiply(BigDecimal.valueOf(block.count()));
+            excess = block.amountSum().subtract(allowed);
+        } else {
+            return false;
+        }
+        fold(min, allowed, excess, 1, affected);
+        return true;
+    }
+
+    /**
+     * Switches to new q rules. Only transactions in {@code history} whose time falls where the old and new
+     * ceilings differ are re-split, so the cost follows the edited interval (from a changed rule's start up to
+     * the next rule that overrides it), not the history.
+     *
+     * @param history  every transaction added so far
+     * @param affected receives the index of every period whose accumulator changed
+     */
+    public void replaceCeilings(CeilingSchedule next, History history, IntConsumer affected) {
+        CeilingSchedule previous = ceilings;
+        ceilings = next;
+        long[] bounds = mergedStarts(previous, next);
+        // segment s is [bounds[s-1], bounds[s]) with open ends at both extremes; ceilings are constant within one
+        for (int s = 0; s <= bounds.length; s++) {
+            long at = s == 0 ? Long.MIN_VALUE : bounds[s - 1];
+            if (previous.ceilingAt(at).equals(next.ceilingAt(at))) continue;
+            int e = s + 1;
+            while (e <= bounds.length && !previous.ceilingAt(bounds[e - 1]).equals(next.ceilingAt(bounds[e - 1]))) e++;
+            long to = e <= bounds.length ? bounds[e - 1] : Long.MAX_VALUE;
+            history.forEachBetween(at, to, (t, amount) -> {
+                apply(t, amount, previous, -1, affected);
+                apply(t, amount, next, 1, affected);
+            });
+            s = e - 1;
+        }
+    }
+
+    /**
+     * Switches to new p rules. p additive does not depend on transactions: each period's value is read again from
+     * the new timeline (O(k log p)) and only periods whose value (or scale, which shows in the output) changed
+     * are reported.
+     *
+     * @param affected receives the index of every period whose accumulator changed
+     */
+    public void replacePTimeline(PTimeline next, IntConsumer affected) {
+        PTimeline previous = pTimeline;
+        pTimeline = next;
+        for (int i = 0; i < kPeriods.size(); i++) {
+            if (!pAdditive(i, previous).equals(pAdditive(i, next))) affected.accept(i);
+        }
+    }
+
+    /** Current accumulator of the period at {@code periodIndex}, with p additive. */
+    public PeriodAccumulator accumulator(int periodIndex) {
+        int cell = intervals != null ? periodIndex : slots.slotOf(periodIndex);
+        String id = intervals != null ? kPeriods.get(periodIndex).id() : kPeriods.get(slots.owner(cell)).id();
+        return new PeriodAccumulator(id, contribution[cell].value(), remanent[cell].value(), pAdditive(periodIndex, pTimeline));
+    }
+
+    private BigDecimal pAdditive(int periodIndex, PTimeline timeline) {
+        if (intervals != null) {
+            if (timeline.isEmpty()) return BigDecimal.ZERO;
+            KPeriod labelled = firstById.get(kPeriods.get(periodIndex).id());
+            return timeline.valueBefore(labelled.endExclusive().getEpochSecond())
+                    .subtract(timeline.valueAt(labelled.startInclusive().getEpochSecond()));
+        }
+        KPeriod owner = kPeriods.get(slots.owner(slots.slotOf(periodIndex)));
+        return timeline.valueAt(owner.endExclusive().getEpochSecond() - 1)
+                .subtract(timeline.valueAt(owner.startInclusive().getEpochSecond()));
+    }
+
+    /** Adds ({@code sign} 1) or takes back ({@code sign} -1) a transaction's split under {@code schedule}. */
+    private void apply(long epochSecond, BigDecimal amount, CeilingSchedule schedule, int sign, IntConsumer affected) {
+        BigDecimal allowed = amount.min(schedule.ceilingAt(epochSecond));
+        BigDecimal excess = amount.subtract(allowed).max(BigDecimal.ZERO);
+        fold(epochSecond, allowed, excess, sign, affected);
+    }
+
+    /** Adds or takes back a split in the period(s) covering {@code epochSecond}. */
+    private void fold(long epochSecond, BigDecimal allowed, BigDecimal excess, int sign, IntConsumer affected) {
+        if (intervals != null) {
+            intervals.forEachContaining(epochSecond, i -> {
+                contribution[i].add(allowed, sign);
+                remanent[i].add(excess, sign);
+                affected.accept(i);
+            });
+            return;
+        }
+        int slot = slots.slotContaining(epochSecond);
+        if (slot < 0) return;
+        contribution[slot].add(allowed, sign);
+        remanent[slot].add(excess, sign);
+        for (int i : periodsBySlot[slot]) {
+            affected.accept(i);
+        }
+    }
+
+    /** Transactions already added, visited by time range in any order. */
+    @FunctionalInterface
+    public interface History {
+
+        /** Visits every transaction with fromInclusive <= time < toExclusive ({@code Long.MAX_VALUE}: no upper bound). */
+        void forEachBetween(long fromInclusive, long toExclusive, Visitor visitor);
+
+        @FunctionalInterface
+        interface Visitor {
+            void visit(long epochSecond, BigDecimal amount);
+        }
+
+        /** History kept on heap by epoch second. */
+        static History of(NavigableMap<Long, ? extends Collection<Transaction>> byTime) {
+            return (from, to, visitor) -> {
+                var range = to == Long.MAX_VALUE ? byTime.tailMap(from, true) : byTime.subMap(from, true, to, false);
+                for (Collection<Transaction> transactions : range.values()) {
+                    for (Transaction txn : transactions) {
+                        visitor.visit(txn.timestamp().getEpochSecond(), txn.amount());
+                    }
+                }
+            };
+        }
+    }
+
+    private static long[] mergedStarts(CeilingSchedule a, CeilingSchedule b) {
+        long[] starts = new long[a.size() + b.size()];
+        for (int i = 0; i < a.size(); i++) starts[i] = a.start(i);
+        for (int i = 0; i < b.size(); i++) starts[a.size() + i] = b.start(i);
+        return Arrays.stream(starts).sorted().distinct().toArray();
+    }
+
+    private static int[][] periodsBySlot(PeriodIndex slots, int periodCount) {
+        int[] counts = new int[slots.slotCount()];
+        for (int i = 0; i < periodCount; i++) counts[slots.slotOf(i)]++;
+        int[][] bySlot = new int[counts.length][];
+        for (int s = 0; s < counts.length; s++) bySlot[s] = new int[counts[s]];
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < periodCount; i++) {
+            int s = slots.slotOf(i);
+            bySlot[s][counts[s]++] = i;
+        }
+        return bySlot;
+    }
+
+    /**
+     * Exact running sum that can also take terms back. A sum from zero has the largest scale among its terms
+     * (at least 0); the count of terms per scale lets the value drop back to that scale after a removal, so it
+     * matches a sum over only the remaining terms digit for digit.
+     */
+    private static final class Sum {
+
+        private BigDecimal value = BigDecimal.ZERO;
+        private int[] termsByScale = new int[4];
+
+        void add(BigDecimal term, int sign) {
+            int scale = Math.max(term.scale(), 0);
+            if (scale >= termsByScale.length) termsByScale = Arrays.copyOf(termsByScale, scale + 1);
+            termsByScale[scale] += sign;
+            value = sign > 0 ? value.add(term) : value.subtract(term);
+        }
+
+        BigDecimal value() {
+            int scale = termsByScale.length - 1;
+            while (scale > 0 && termsByScale[scale] == 0) scale--;
+            if (value.scale() > scale) value = value.setScale(scale);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.blackrock.aladdin.engine;
+
+import com.blackrock.aladdin.model.KPeriod;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Static interval tree over k periods that may overlap: an implicit balanced BST on the
+ * start-sorted array, each node augmented with the max end of its subtree.
+ * Stabbing query reports every period with start <= t < end in O(log k + matches).
+ */
+public final class IntervalIndex {
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnd;
+
+    private IntervalIndex(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnd = new long[starts.length];
+        build(0, starts.length - 1);
+    }
+
+    /**
+     * @param sortedPeriods sorted by start; reported indices refer to this list
+     */
+    public static IntervalIndex of(List<KPeriod> sortedPeriods) {
+        int k = sortedPeriods.size();
+        long[] starts = new long[k];
+        long[] ends = new long[k];
+        for (int i = 0; i < k; i++) {
+            starts[i] = sortedPeriods.get(i).startInclusive().getEpochSecond();
+            ends[i] = sortedPeriods.get(i).endExclusive().getEpochSecond();
+        }
+        return new IntervalIndex(starts, ends);
+    }
+
+    private long build(int lo, int hi) {
+        if (lo > hi) return Long.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[mid], Math.max(build(lo, mid - 1), build(mid + 1, hi)));
+        maxEnd[mid] = max;
+        return max;
+    }
+
+    /** Calls {@code action} with the index of every period containing t, in start order. */
+    public void forEachContaining(long epochSecond, IntConsumer action) {
+        visit(0, starts.length - 1, epochSecond, action);
+    }
+
+    private void visit(int lo, int hi, long t, IntConsumer action) {
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (maxEnd[mid] <= t) return;
+            visit(lo, mid - 1, t, action);
+            if (starts[mid] > t) return;
+            if (t < ends[mid]) action.accept(mid);
+            lo = mid + 1;
+        }
+    }
+}
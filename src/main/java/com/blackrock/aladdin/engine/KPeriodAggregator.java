@@ -1,19 +1,28 @@
 package com.blackrock.aladdin.engine;
 
+import com.blackrock.aladdin.model.FixedPeriodAccumulator;
 import com.blackrock.aladdin.model.KPeriod;
 import com.blackrock.aladdin.model.PeriodAccumulator;
 import com.blackrock.aladdin.model.ProcessedTransaction;
+import com.blackrock.aladdin.model.TransactionBatch;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
- * Step 4: Group processed transactions by k period using floorKey(timestamp).
- * O(n log k) — no nested loops over periods.
+ * Step 4: Group processed transactions by k period.
+ * Non-overlapping periods: linear merge-join of sorted transactions against a {@link PeriodIndex}
+ * (O(n + k)); a transaction belongs to the latest period starting at or before it, if it ends after it.
+ * Overlapping periods: stabbing queries on an {@link IntervalIndex}, counting a transaction
+ * in every period that covers it.
  */
 public final class KPeriodAggregator {
 
@@ -27,25 +36,56 @@ public final class KPeriodAggregator {
             List<ProcessedTransaction> processed,
             List<KPeriod> kPeriods
     ) {
+        PeriodIndex index = PeriodIndex.of(kPeriods);
+        BigDecimal[] contribution = new BigDecimal[index.slotCount()];
+        BigDecimal[] remanent = new BigDecimal[index.slotCount()];
+        Arrays.fill(contribution, BigDecimal.ZERO);
+        Arrays.fill(remanent, BigDecimal.ZERO);
+
+        PeriodIndex.Cursor cursor = index.cursor();
+        for (ProcessedTransaction pt : processed) {
+            int slot = cursor.slotContaining(pt.timestamp().getEpochSecond());
+            if (slot < 0) continue;
+            contribution[slot] = contribution[slot].add(pt.allowed());
+            remanent[slot] = remanent[slot].add(pt.remanent());
+        }
+
         NavigableMap<java.time.Instant, PeriodAccumulator> byPeriodStart = new TreeMap<>();
-        for (KPeriod k : kPeriods) {
-            byPeriodStart.put(k.startInclusive(), PeriodAccumulator.empty(k.id()));
+        for (int slot = 0; slot < index.slotCount(); slot++) {
+            KPeriod owner = kPeriods.get(index.owner(slot));
+            byPeriodStart.put(owner.startInclusive(),
+                    new PeriodAccumulator(owner.id(), contribution[slot], remanent[slot], BigDecimal.ZERO));
         }
+        return byPeriodStart;
+    }
+
+    /**
+     * Overlapping periods allowed: each transaction counts in every period with start <= t < end.
+     *
+     * @param kPeriods sorted by start; result is one accumulator per period in this order
+     */
+    public static List<PeriodAccumulator> aggregateOverlapping(
+            List<ProcessedTransaction> processed,
+            List<KPeriod> kPeriods
+    ) {
+        IntervalIndex index = IntervalIndex.of(kPeriods);
+        BigDecimal[] contribution = new BigDecimal[kPeriods.size()];
+        BigDecimal[] remanent = new BigDecimal[kPeriods.size()];
+        Arrays.fill(contribution, BigDecimal.ZERO);
+        Arrays.fill(remanent, BigDecimal.ZERO);
 
         for (ProcessedTransaction pt : processed) {
-            var floor = byPeriodStart.floorKey(pt.timestamp());
-            if (floor == null) continue;
-            KPeriod period = kPeriods.stream()
-                    .filter(k -> k.startInclusive().equals(floor))
-                    .findFirst()
-                    .orElse(null);
-            if (period == null || !pt.timestamp().isBefore(period.endExclusive())) continue;
-
-            PeriodAccumulator acc = byPeriodStart.get(floor);
-            byPeriodStart.put(floor, acc.add(pt.allowed(), pt.remanent()));
+            index.forEachContaining(pt.timestamp().getEpochSecond(), i -> {
+                contribution[i] = contribution[i].add(pt.allowed());
+                remanent[i] = remanent[i].add(pt.remanent());
+            });
         }
 
-        return byPeriodStart;
+        List<PeriodAccumulator> ordered = new ArrayList<>(kPeriods.size());
+        for (int i = 0; i < kPeriods.size(); i++) {
+            ordered.add(new PeriodAccumulator(kPeriods.get(i).id(), contribution[i], remanent[i], BigDecimal.ZERO));
+        }
+        return ordered;
     }
 
     public static List<PeriodAccumulator> toOrderedList(
@@ -68,12 +108,10 @@ public final class KPeriodAggregator {
         if (pRunningByTime == null || pRunningByTime.isEmpty()) {
             return accumulators;
         }
+        Map<String, KPeriod> byId = firstById(kPeriods);
         return accumulators.stream()
                 .map(acc -> {
-                    KPeriod period = kPeriods.stream()
-                            .filter(k -> k.id().equals(acc.periodId()))
-                            .findFirst()
-                            .orElse(null);
+                    KPeriod period = byId.get(acc.periodId());
                     if (period == null) return acc;
                     BigDecimal atStart = pRunningByTime.floorEntry(period.startInclusive()) != null
                             ? pRunningByTime.floorEntry(period.startInclusive()).getValue()
@@ -85,4 +123,138 @@ public final class KPeriodAggregator {
                 })
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Same as {@link #withPeriodPAdditive(List, List, NavigableMap)} on a compact {@link PTimeline}:
+     * p at start is the floor value, p at end the value strictly before endExclusive.
+     */
+    public static List<PeriodAccumulator> withTimelinePAdditive(
+            List<PeriodAccumulator> accumulators,
+            List<KPeriod> kPeriods,
+            PTimeline pTimeline
+    ) {
+        if (pTimeline == null || pTimeline.isEmpty()) {
+            return accumulators;
+        }
+        Map<String, KPeriod> byId = firstById(kPeriods);
+        List<PeriodAccumulator> result = new ArrayList<>(accumulators.size());
+        for (PeriodAccumulator acc : accumulators) {
+            KPeriod period = byId.get(acc.periodId());
+            if (period == null) {
+                result.add(acc);
+                continue;
+            }
+            BigDecimal atStart = pTimeline.valueAt(period.startInclusive().getEpochSecond());
+            BigDecimal atEnd = pTimeline.valueBefore(period.endExclusive().getEpochSecond());
+            result.add(acc.withPAdditive(atEnd.subtract(atStart)));
+        }
+        return result;
+    }
+
+    /**
+     * Columnar fixed-point variant of {@link #aggregate} followed by {@link #toOrderedList}:
+     * merge-joins the batch's allowed/remanent columns, one accumulator per k period in input order.
+     *
+     * @param batch    after {@link CeilingRemanentEngine#apply(TransactionBatch, CeilingSchedule, PTimeline)}
+     * @param kPeriods [startInclusive, endExclusive); must not overlap; sorted by start
+     */
+    public static List<FixedPeriodAccumulator> aggregate(TransactionBatch batch, List<KPeriod> kPeriods) {
+        PeriodIndex index = PeriodIndex.of(kPeriods);
+        long[] contribution = new long[index.slotCount()];
+        long[] remanent = new long[index.slotCount()];
+        int[] contributionScale = new int[index.slotCount()];
+        int[] remanentScale = new int[index.slotCount()];
+        long[] times = batch.epochSeconds();
+        long[] allowed = batch.allowed();
+        byte[] allowedScales = batch.allowedScales();
+        long[] rem = batch.remanent();
+        PeriodIndex.Cursor cursor = index.cursor();
+        for (int i = 0; i < batch.size(); i++) {
+            int slot = cursor.slotContaining(times[i]);
+            if (slot < 0) continue;
+            contribution[slot] = Math.addExact(contribution[slot], allowed[i]);
+            remanent[slot] = Math.addExact(remanent[slot], rem[i]);
+            contributionScale[slot] = Math.max(contributionScale[slot], allowedScales[i]);
+            remanentScale[slot] = Math.max(remanentScale[slot],
+                    CeilingRemanentEngine.remanentScale(batch.exactScale(i), allowedScales[i]));
+        }
+
+        List<FixedPeriodAccumulator> ordered = new ArrayList<>(kPeriods.size());
+        for (int i = 0; i < kPeriods.size(); i++) {
+            int slot = index.slotOf(i);
+            ordered.add(new FixedPeriodAccumulator(kPeriods.get(index.owner(slot)).id(),
+                    contribution[slot], remanent[slot], 0L, contributionScale[slot], remanentScale[slot], 0));
+        }
+        return ordered;
+    }
+
+    /**
+     * Columnar fixed-point variant of {@link #aggregateOverlapping}.
+     */
+    public static List<FixedPeriodAccumulator> aggregateOverlapping(TransactionBatch batch, List<KPeriod> kPeriods) {
+        IntervalIndex index = IntervalIndex.of(kPeriods);
+        long[] contribution = new long[kPeriods.size()];
+        long[] remanent = new long[kPeriods.size()];
+        int[] contributionScale = new int[kPeriods.size()];
+        int[] remanentScale = new int[kPeriods.size()];
+        long[] times = batch.epochSeconds();
+        long[] allowed = batch.allowed();
+        byte[] allowedScales = batch.allowedScales();
+        long[] rem = batch.remanent();
+        for (int i = 0; i < batch.size(); i++) {
+            long a = allowed[i];
+            long r = rem[i];
+            int as = allowedScales[i];
+            int rs = CeilingRemanentEngine.remanentScale(batch.exactScale(i), as);
+            index.forEachContaining(times[i], k -> {
+                contribution[k] = Math.addExact(contribution[k], a);
+                remanent[k] = Math.addExact(remanent[k], r);
+                contributionScale[k] = Math.max(contributionScale[k], as);
+                remanentScale[k] = Math.max(remanentScale[k], rs);
+            });
+        }
+
+        List<FixedPeriodAccumulator> ordered = new ArrayList<>(kPeriods.size());
+        for (int i = 0; i < kPeriods.size(); i++) {
+            ordered.add(new FixedPeriodAccumulator(kPeriods.get(i).id(),
+                    contribution[i], remanent[i], 0L, contributionScale[i], remanentScale[i], 0));
+        }
+        return ordered;
+    }
+
+    /**
+     * Fixed-point variant of {@link #withPeriodPAdditive}.
+     */
+    public static List<FixedPeriodAccumulator> withPeriodPAdditiveFixed(
+            List<FixedPeriodAccumulator> accumulators,
+            List<KPeriod> kPeriods,
+            PTimeline pTimeline
+    ) {
+        if (pTimeline == null || pTimeline.isEmpty()) {
+            return accumulators;
+        }
+        Map<String, KPeriod> byId = firstById(kPeriods);
+        List<FixedPeriodAccumulator> result = new ArrayList<>(accumulators.size());
+        for (FixedPeriodAccumulator acc : accumulators) {
+            KPeriod period = byId.get(acc.periodId());
+            if (period == null) {
+                result.add(acc);
+                continue;
+            }
+            int atStart = pTimeline.floorIndex(period.startInclusive().getEpochSecond());
+            int atEnd = pTimeline.lowerIndex(period.endExclusive().getEpochSecond());
+            result.add(acc.withPAdditive(
+                    Math.subtractExact(pTimeline.units(atEnd), pTimeline.units(atStart)),
+                    Math.max(pTimeline.scale(atEnd), pTimeline.scale(atStart))));
+        }
+        return result;
+    }
+
+    private static Map<String, KPeriod> firstById(List<KPeriod> kPeriods) {
+        Map<String, KPeriod> byId = new HashMap<>();
+        for (KPeriod k : kPeriods) {
+            byId.putIfAbsent(k.id(), k);
+        }
+        return byId;
+    }
 }
@@ -0,0 +1,133 @@
+package com.blackrock.aladdin.engine;
+
+import com.blackrock.aladdin.util.FixedPoint;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Cumulative p additive keyed only on p rule change points: sorted epoch-second times with
+ * prefix sums, so memory is O(rules) regardless of transaction count.
+ * Floor / lower lookups are binary searches; {@link Cursor} gives amortized O(1) lookups for
+ * non-decreasing times. Scaled-unit sums are present when built with a fixed scale.
+ */
+public final class PTimeline {
+
+    private static final PTimeline EMPTY = new PTimeline(new long[0], new BigDecimal[0], new long[0]);
+
+    private final long[] times;
+    private final BigDecimal[] sums;
+    private final long[] units;
+
+    PTimeline(long[] times, BigDecimal[] sums, long[] units) {
+        this.times = times;
+        this.sums = sums;
+        this.units = units;
+    }
+
+    public static PTimeline empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Same change points with sums converted to scaled units.
+     *
+     * @throws ArithmeticException when a running sum is not representable at {@code scale}
+     */
+    public PTimeline withUnits(int scale) {
+        long[] scaled = new long[sums.length];
+        for (int i = 0; i < sums.length; i++) {
+            scaled[i] = FixedPoint.toUnits(sums[i], scale);
+        }
+        return new PTimeline(times, sums, scaled);
+    }
+
+    public int size() {
+        return times.length;
+    }
+
+    public boolean isEmpty() {
+        return times.length == 0;
+    }
+
+    public long time(int index) {
+        return times[index];
+    }
+
+    /** Index of the greatest change point <= t, or -1. */
+    public int floorIndex(long epochSecond) {
+        int i = Arrays.binarySearch(times, epochSecond);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /** Index of the greatest change point < t, or -1. */
+    public int lowerIndex(long epochSecond) {
+        int i = Arrays.binarySearch(times, epochSecond);
+        return i >= 0 ? i - 1 : -i - 2;
+    }
+
+    public BigDecimal sum(int index) {
+        return index >= 0 ? sums[index] : BigDecimal.ZERO;
+    }
+
+    public long units(int index) {
+        if (units == null) throw new IllegalStateException("PTimeline built without a fixed scale");
+        return index >= 0 ? units[index] : 0L;
+    }
+
+    /** Scale of the exact running sum at {@code index}, as BigDecimal arithmetic sees it. */
+    public int scale(int index) {
+        return sum(index).scale();
+    }
+
+    /** Cumulative p at t (inclusive). */
+    public BigDecimal valueAt(long epochSecond) {
+        return sum(floorIndex(epochSecond));
+    }
+
+    /** Cumulative p strictly before t. */
+    public BigDecimal valueBefore(long epochSecond) {
+        return sum(lowerIndex(epochSecond));
+    }
+
+    public long unitsAt(long epochSecond) {
+        return units(floorIndex(epochSecond));
+    }
+
+    public long unitsBefore(long epochSecond) {
+        return units(lowerIndex(epochSecond));
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Forward scan for sorted input: advances past change points instead of searching.
+     * Falls back to binary search if time goes backwards.
+     */
+    public final class Cursor {
+
+        private int index = -1;
+
+        /** Index of the greatest change point <= t, or -1. */
+        public int floorIndex(long epochSecond) {
+            if (index >= 0 && epochSecond < times[index]) {
+                index = PTimeline.this.floorIndex(epochSecond);
+            } else {
+                while (index + 1 < times.length && times[index + 1] <= epochSecond) {
+                    index++;
+                }
+            }
+            return index;
+        }
+
+        public BigDecimal valueAt(long epochSecond) {
+            return sum(floorIndex(epochSecond));
+        }
+
+        public long unitsAt(long epochSecond) {
+            return units(floorIndex(epochSecond));
+        }
+    }
+}
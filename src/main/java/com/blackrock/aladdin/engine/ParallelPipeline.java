@@ -0,0 +1,307 @@
+package com.blackrock.aladdin.engine;
+
+import com.blackrock.aladdin.model.FixedPeriodAccumulator;
+import com.blackrock.aladdin.model.KPeriod;
+import com.blackrock.aladdin.model.PeriodAccumulator;
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Fork/join variant of {@link FusedPipeline} for large sorted inputs.
+ * <p>
+ * The transaction range is split recursively; each cut is snapped to the nearest k-period start
+ * when one lies close to the midpoint, so most periods are summed by a single leaf. A leaf sweeps its
+ * range with q and k cursors seeded by binary search and returns partial accumulators for the slots
+ * it touched; neighbouring partials share at most one slot and are combined with
+ * {@link PeriodAccumulator#merge}. BigDecimal and checked long addition are exact and associative, so
+ * results are identical to the sequential sweep. Inputs below {@code threshold} run sequentially.
+ */
+public final class ParallelPipeline {
+
+    /** Smallest range a leaf is split into. */
+    static final int MIN_LEAF_SIZE = 4_096;
+
+    private ParallelPipeline() {}
+
+    /**
+     * @param transactions sorted by timestamp; random access
+     * @param kPeriods     [startInclusive, endExclusive); must not overlap; sorted by start
+     * @param threshold    transaction count below which {@link FusedPipeline} runs on the calling thread
+     * @return one accumulator per k period in input order
+     */
+    public static List<PeriodAccumulator> run(
+            List<Transaction> transactions,
+            CeilingSchedule ceilings,
+            PTimeline pTimeline,
+            List<KPeriod> kPeriods,
+            int threshold,
+            ForkJoinPool pool
+    ) {
+        if (transactions.size() < threshold) {
+            return FusedPipeline.run(transactions, ceilings, pTimeline, kPeriods);
+        }
+        PeriodIndex index = PeriodIndex.of(kPeriods);
+        IntToLongFunction timeAt = i -> transactions.get(i).timestamp().getEpochSecond();
+        int leafSize = leafSize(transactions.size(), pool);
+
+        Partial<PeriodAccumulator> totals = pool.invoke(new Chunk<>(0, transactions.size(), timeAt, index, leafSize,
+                PeriodAccumulator::merge, (lo, hi) -> sweep(transactions, ceilings, index, kPeriods, timeAt, lo, hi)));
+
+        List<PeriodAccumulator> ordered = new ArrayList<>(kPeriods.size());
+        for (int i = 0; i < kPeriods.size(); i++) {
+            int slot = index.slotOf(i);
+            PeriodAccumulator acc = totals.get(slot);
+            ordered.add(acc != null ? acc : PeriodAccumulator.empty(kPeriods.get(index.owner(slot)).id()));
+        }
+        return KPeriodAggregator.withTimelinePAdditive(ordered, kPeriods, pTimeline);
+    }
+
+    /**
+     * Columnar fixed-point variant; reads only the batch's input columns.
+     *
+     * @throws ArithmeticException when a sum overflows
+     */
+    public static List<FixedPeriodAccumulator> run(
+            TransactionBatch batch,
+            CeilingSchedule ceilings,
+            PTimeline pTimeline,
+            List<KPeriod> kPeriods,
+            int threshold,
+            ForkJoinPool pool
+    ) {
+        if (batch.size() < threshold) {
+            return FusedPipeline.run(batch, ceilings, pTimeline, kPeriods);
+        }
+        PeriodIndex index = PeriodIndex.of(kPeriods);
+        long[] times = batch.epochSeconds();
+        IntToLongFunction timeAt = i -> times[i];
+        int leafSize = leafSize(batch.size(), pool);
+
+        Partial<FixedPeriodAccumulator> totals = pool.invoke(new Chunk<>(0, batch.size(), timeAt, index, leafSize,
+                FixedPeriodAccumulator::merge, (lo, hi) -> sweep(batch, ceilings, index, kPeriods, lo, hi)));
+
+        List<FixedPeriodAccumulator> ordered = new ArrayList<>(kPeriods.size());
+        for (int i = 0; i < kPeriods.size(); i++) {
+            int slot = index.slotOf(i);
+            FixedPeriodAccumulator acc = totals.get(slot);
+            ordered.add(acc != null ? acc : FixedPeriodAccumulator.empty(kPeriods.get(index.owner(slot)).id()));
+        }
+        return KPeriodAggregator.withPeriodPAdditiveFixed(ordered, kPeriods, pTimeline);
+    }
+
+    private static int leafSize(int size, ForkJoinPool pool) {
+        return Math.max(MIN_LEAF_SIZE, size / (pool.getParallelism() * 4));
+    }
+
+    private static Partial<PeriodAccumulator> sweep(
+            List<Transaction> transactions,
+            CeilingSchedule ceilings,
+            PeriodIndex index,
+            List<KPeriod> kPeriods,
+            IntToLongFunction timeAt,
+            int lo,
+            int hi
+    ) {
+        int first = Math.max(index.floorSlot(timeAt.applyAsLong(lo)), 0);
+        int last = index.floorSlot(timeAt.applyAsLong(hi - 1));
+        if (last < first) return Partial.empty();
+
+        BigDecimal[] contribution = new BigDecimal[last - first + 1];
+        BigDecimal[] remanent = new BigDecimal[last - first + 1];
+        Arrays.fill(contribution, BigDecimal.ZERO);
+        Arrays.fill(remanent, BigDecimal.ZERO);
+
+        long from = timeAt.applyAsLong(lo);
+        CeilingSchedule.Cursor qCursor = ceilings.cursor(from);
+        PeriodIndex.Cursor kCursor = index.cursor(from);
+        long previous = lo > 0 ? timeAt.applyAsLong(lo - 1) : Long.MIN_VALUE;
+        for (int i = lo; i < hi; i++) {
+            Transaction txn = transactions.get(i);
+            long t = txn.timestamp().getEpochSecond();
+            if (t < previous) throw new IllegalArgumentException("transactions must be sorted by timestamp");
+            previous = t;
+
+            int slot = kCursor.slotContaining(t);
+            if (slot < 0) continue;
+            // past the slot of the range's last time: a later element must go backwards
+            if (slot > last) throw new IllegalArgumentException("transactions must be sorted by timestamp");
+            BigDecimal allowed = txn.amount().min(qCursor.ceilingAt(t));
+            contribution[slot - first] = contribution[slot - first].add(allowed);
+            remanent[slot - first] = remanent[slot - first].add(txn.amount().subtract(allowed).max(BigDecimal.ZERO));
+        }
+
+        List<PeriodAccumulator> slots = new ArrayList<>(contribution.length);
+        for (int j = 0; j < contribution.length; j++) {
+            String id = kPeriods.get(index.owner(first + j)).id();
+            slots.add(new PeriodAccumulator(id, contribution[j], remanent[j], BigDecimal.ZERO));
+        }
+        return new Partial<>(first, slots);
+    }
+
+    private static Partial<FixedPeriodAccumulator> sweep(
+            TransactionBatch batch,
+            CeilingSchedule ceilings,
+            PeriodIndex index,
+            List<KPeriod> kPeriods,
+            int lo,
+            int hi
+    ) {
+        long[] times = batch.epochSeconds();
+        long[] amounts = batch.amounts();
+        int first = Math.max(index.floorSlot(times[lo]), 0);
+        int last = index.floorSlot(times[hi - 1]);
+        if (last < first) return Partial.empty();
+
+        long[] contribution = new long[last - first + 1];
+        long[] remanent = new long[last - first + 1];
+        int[] contributionScale = new int[last - first + 1];
+        int[] remanentScale = new int[last - first + 1];
+
+        CeilingSchedule.Cursor qCursor = ceilings.cursor(times[lo]);
+        PeriodIndex.Cursor kCursor = index.cursor(times[lo]);
+        long previous = lo > 0 ? times[lo - 1] : Long.MIN_VALUE;
+        for (int i = lo; i < hi; i++) {
+            long t = times[i];
+            if (t < previous) throw new IllegalArgumentException("transactions must be sorted by timestamp");
+            previous = t;
+
+            int slot = kCursor.slotContaining(t);
+            if (slot < 0) continue;
+            // past the slot of the range's last time: a later element must go backwards
+            if (slot > last) throw new IllegalArgumentException("transactions must be sorted by timestamp");
+            int q = qCursor.floorIndex(t);
+            long allowed = Math.min(amounts[i], ceilings.units(q));
+            int allowedScale = CeilingRemanentEngine.allowedScale(amounts[i], allowed, batch.exactScale(i), ceilings.scale(q));
+            contribution[slot - first] = Math.addExact(contribution[slot - first], allowed);
+            remanent[slot - first] = Math.addExact(remanent[slot - first],
+                    Math.max(Math.subtractExact(amounts[i], allowed), 0L));
+            contributionScale[slot - first] = Math.max(contributionScale[slot - first], allowedScale);
+            remanentScale[slot - first] = Math.max(remanentScale[slot - first],
+                    CeilingRemanentEngine.remanentScale(batch.exactScale(i), allowedScale));
+        }
+
+        List<FixedPeriodAccumulator> slots = new ArrayList<>(contribution.length);
+        for (int j = 0; j < contribution.length; j++) {
+            String id = kPeriods.get(index.owner(first + j)).id();
+            slots.add(new FixedPeriodAccumulator(id, contribution[j], remanent[j], 0L, contributionScale[j], remanentScale[j], 0));
+        }
+        return new Partial<>(first, slots);
+    }
+
+    /**
+     * Index in [lo, hi) to split at: the k-period start nearest the midpoint if it is within a
+     * quarter of the range, otherwise the midpoint (a period spanning the cut is merged afterwards).
+     */
+    static int splitPoint(IntToLongFunction timeAt, PeriodIndex index, int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        int slot = index.floorSlot(timeAt.applyAsLong(mid));
+        int best = mid;
+        int bestDistance = (hi - lo) / 4 + 1;
+        for (int s = slot; s <= slot + 1; s++) {
+            if (s < 0 || s >= index.slotCount()) continue;
+            int cut = lowerBound(timeAt, lo, hi, index.start(s));
+            int distance = Math.abs(cut - mid);
+            if (cut > lo && cut < hi && distance < bestDistance) {
+                best = cut;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /** First index in [lo, hi) whose time is >= target, or hi. */
+    private static int lowerBound(IntToLongFunction timeAt, int lo, int hi, long target) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timeAt.applyAsLong(mid) < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    @FunctionalInterface
+    private interface Sweep<A> {
+        Partial<A> apply(int lo, int hi);
+    }
+
+    /** Accumulators for consecutive slots starting at {@code firstSlot}; null where a slot saw no transactions. */
+    private record Partial<A>(int firstSlot, List<A> slots) {
+
+        static <A> Partial<A> empty() {
+            return new Partial<>(0, List.of());
+        }
+
+        A get(int slot) {
+            int at = slot - firstSlot;
+            return at >= 0 && at < slots.size() ? slots.get(at) : null;
+        }
+
+        /** {@code next} covers later times, so it starts at or after this partial's last slot. */
+        Partial<A> merge(Partial<A> next, BinaryOperator<A> mergeSlot) {
+            if (slots.isEmpty()) return next;
+            if (next.slots.isEmpty()) return this;
+            List<A> merged = new ArrayList<>(slots);
+            for (int j = 0; j < next.slots.size(); j++) {
+                int at = next.firstSlot - firstSlot + j;
+                while (merged.size() < at) {
+                    merged.add(null);
+                }
+                if (at < merged.size() && merged.get(at) != null) {
+                    merged.set(at, mergeSlot.apply(merged.get(at), next.slots.get(j)));
+                } else if (at < merged.size()) {
+                    merged.set(at, next.slots.get(j));
+                } else {
+                    merged.add(next.slots.get(j));
+                }
+            }
+            return new Partial<>(firstSlot, merged);
+        }
+    }
+
+    private static final class Chunk<A> extends RecursiveTask<Partial<A>> {
+
+        private final int lo;
+        private final int hi;
+        private final IntToLongFunction timeAt;
+        private final PeriodIndex index;
+        private final int leafSize;
+        private final BinaryOperator<A> mergeSlot;
+        private final Sweep<A> sweep;
+
+        private Chunk(int lo, int hi, IntToLongFunction timeAt, PeriodIndex index, int leafSize,
+                      BinaryOperator<A> mergeSlot, Sweep<A> sweep) {
+            this.lo = lo;
+            this.hi = hi;
+            this.timeAt = timeAt;
+            this.index = index;
+            this.leafSize = leafSize;
+            this.mergeSlot = mergeSlot;
+            this.sweep = sweep;
+        }
+
+        @Override
+        protected Partial<A> compute() {
+            if (hi - lo <= leafSize) {
+                return lo < hi ? sweep.apply(lo, hi) : Partial.empty();
+            }
+            int cut = splitPoint(timeAt, index, lo, hi);
+            Chunk<A> left = new Chunk<>(lo, cut, timeAt, index, leafSize, mergeSlot, sweep);
+            Chunk<A> right = new Chunk<>(cut, hi, timeAt, index, leafSize, mergeSlot, sweep);
+            left.fork();
+            Partial<A> later = right.compute();
+            return left.join().merge(later, mergeSlot);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.blackrock.aladdin.engine;
+
+import com.blackrock.aladdin.model.KPeriod;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Primitive index over sorted, non-overlapping k periods: one slot per distinct start
+ * (epoch seconds), binary-search floor lookup and a forward cursor for merge-joining
+ * sorted transactions in O(n + k).
+ * <p>
+ * Periods sharing a start share a slot: the first one bounds it (end), the last one owns it (id),
+ * matching the TreeMap keying of {@link KPeriodAggregator#aggregate}.
+ */
+public final class PeriodIndex {
+
+    private final long[] starts;
+    private final long[] ends;
+    private final int[] owner;
+    private final int[] slotOf;
+
+    private PeriodIndex(long[] starts, long[] ends, int[] owner, int[] slotOf) {
+        this.starts = starts;
+        this.ends = ends;
+        this.owner = owner;
+        this.slotOf = slotOf;
+    }
+
+    /**
+     * @param sortedPeriods sorted by start
+     */
+    public static PeriodIndex of(List<KPeriod> sortedPeriods) {
+        int k = sortedPeriods.size();
+        long[] starts = new long[k];
+        long[] ends = new long[k];
+        int[] owner = new int[k];
+        int[] slotOf = new int[k];
+        int distinct = 0;
+        for (int i = 0; i < k; i++) {
+            KPeriod period = sortedPeriods.get(i);
+            long start = period.startInclusive().getEpochSecond();
+            if (distinct > 0 && starts[distinct - 1] == start) {
+                owner[distinct - 1] = i;
+            } else {
+                starts[distinct] = start;
+                ends[distinct] = period.endExclusive().getEpochSecond();
+                owner[distinct++] = i;
+            }
+            slotOf[i] = distinct - 1;
+        }
+        return new PeriodIndex(
+                Arrays.copyOf(starts, distinct),
+                Arrays.copyOf(ends, distinct),
+                Arrays.copyOf(owner, distinct),
+                slotOf
+        );
+    }
+
+    public int slotCount() {
+        return starts.length;
+    }
+
+    /** Slot used by the period at {@code periodIndex} in the sorted input list. */
+    public int slotOf(int periodIndex) {
+        return slotOf[periodIndex];
+    }
+
+    /** Index (in the sorted input list) of the period whose id labels {@code slot}. */
+    public int owner(int slot) {
+        return owner[slot];
+    }
+
+    public long start(int slot) {
+        return starts[slot];
+    }
+
+    public long end(int slot) {
+        return ends[slot];
+    }
+
+    /** Greatest slot with start <= t, or -1. */
+    public int floorSlot(long epochSecond) {
+        int i = Arrays.binarySearch(starts, epochSecond);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /** Slot whose [start, end) contains t under floor-start semantics, or -1. */
+    public int slotContaining(long epochSecond) {
+        int slot = floorSlot(epochSecond);
+        return slot >= 0 && epochSecond < ends[slot] ? slot : -1;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** Cursor positioned for a scan that begins at {@code fromEpochSecond} (e.g. mid-range chunks). */
+    public Cursor cursor(long fromEpochSecond) {
+        Cursor cursor = new Cursor();
+        cursor.slot = floorSlot(fromEpochSecond);
+        return cursor;
+    }
+
+    /**
+     * Forward-only merge-join cursor. Amortized O(1) per call for non-decreasing times;
+     * falls back to binary search if time goes backwards.
+     */
+    public final class Cursor {
+
+        private int slot = -1;
+
+        /** Greatest slot with start <= the last time seen, or -1. */
+        public int floorSlot() {
+            return slot;
+        }
+
+        public int slotContaining(long epochSecond) {
+            if (slot >= 0 && epochSecond < starts[slot]) {
+                slot = PeriodIndex.this.floorSlot(epochSecond);
+            } else {
+                while (slot + 1 < starts.length && starts[slot + 1] <= epochSecond) {
+                    slot++;
+                }
+            }
+            return slot >= 0 && epochSecond < ends[slot] ? slot : -1;
+        }
+    }
+}
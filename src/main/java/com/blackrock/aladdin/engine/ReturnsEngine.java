@@ -1,6 +1,8 @@
 package com.blackrock.aladdin.engine;
 
+import com.blackrock.aladdin.model.FixedPeriodAccumulator;
 import com.blackrock.aladdin.model.PeriodAccumulator;
+import com.blackrock.aladdin.util.FixedPoint;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -29,14 +31,7 @@ public final class ReturnsEngine {
             BigDecimal taxCap
     ) {
         return periodAccumulators.stream()
-                .map(acc -> {
-                    BigDecimal contribution = acc.totalContribution().add(acc.pAdditive());
-                    BigDecimal grossReturn = contribution; // simplified: no separate market return here
-                    BigDecimal taxBenefit = grossReturn.min(taxCap);
-                    BigDecimal afterTax = grossReturn; // NPS: gross is already tax-advantaged; cap limits benefit
-                    BigDecimal inflationAdjusted = inflate(afterTax, inflationRate);
-                    return new ReturnResult(acc.periodId(), grossReturn, taxBenefit, inflationAdjusted);
-                })
+                .map(acc -> npsReturn(acc, inflationRate, taxCap))
                 .collect(Collectors.toList());
     }
 
@@ -45,19 +40,91 @@ public final class ReturnsEngine {
             BigDecimal inflationRate
     ) {
         return periodAccumulators.stream()
-                .map(acc -> {
-                    BigDecimal grossReturn = acc.totalContribution().add(acc.pAdditive());
-                    BigDecimal taxBenefit = BigDecimal.ZERO;
-                    BigDecimal inflationAdjusted = inflate(grossReturn, inflationRate);
-                    return new ReturnResult(acc.periodId(), grossReturn, taxBenefit, inflationAdjusted);
-                })
+                .map(acc -> indexReturn(acc, inflationRate))
                 .collect(Collectors.toList());
     }
 
+    /** Single period; lets streaming callers produce returns as each period is finalized. */
+    public static ReturnResult npsReturn(PeriodAccumulator acc, BigDecimal inflationRate, BigDecimal taxCap) {
+        BigDecimal contribution = acc.totalContribution().add(acc.pAdditive());
+        BigDecimal grossReturn = contribution; // simplified: no separate market return here
+        BigDecimal taxBenefit = grossReturn.min(taxCap);
+        BigDecimal afterTax = grossReturn; // NPS: gross is already tax-advantaged; cap limits benefit
+        BigDecimal inflationAdjusted = inflate(afterTax, inflationRate);
+        return new ReturnResult(acc.periodId(), grossReturn, taxBenefit, inflationAdjusted);
+    }
+
+    public static ReturnResult indexReturn(PeriodAccumulator acc, BigDecimal inflationRate) {
+        BigDecimal grossReturn = acc.totalContribution().add(acc.pAdditive());
+        BigDecimal taxBenefit = BigDecimal.ZERO;
+        BigDecimal inflationAdjusted = inflate(grossReturn, inflationRate);
+        return new ReturnResult(acc.periodId(), grossReturn, taxBenefit, inflationAdjusted);
+    }
+
+    /**
+     * Fixed-point variant of {@link #npsReturns}. Gross and tax benefit stay in scaled units, with the scales
+     * the exact formulas would give them; the inflation-adjusted value is a scale-10 division, so it is
+     * produced as BigDecimal once per period.
+     *
+     * @param taxCapScale scale of the exact tax cap, which the tax benefit takes when the cap applies
+     */
+    public static List<FixedReturnResult> npsReturnsFixed(
+            List<FixedPeriodAccumulator> periodAccumulators,
+            BigDecimal inflationRate,
+            long taxCap,
+            int taxCapScale,
+            int scale
+    ) {
+        return periodAccumulators.stream()
+                .map(acc -> npsReturnFixed(acc, inflationRate, taxCap, taxCapScale, scale))
+                .collect(Collectors.toList());
+    }
+
+    public static List<FixedReturnResult> indexReturnsFixed(
+            List<FixedPeriodAccumulator> periodAccumulators,
+            BigDecimal inflationRate,
+            int scale
+    ) {
+        return periodAccumulators.stream()
+                .map(acc -> indexReturnFixed(acc, inflationRate, scale))
+                .collect(Collectors.toList());
+    }
+
+    public static FixedReturnResult npsReturnFixed(
+            FixedPeriodAccumulator acc,
+            BigDecimal inflationRate,
+            long taxCap,
+            int taxCapScale,
+            int scale
+    ) {
+        long grossReturn = Math.addExact(acc.totalContribution(), acc.pAdditive());
+        long taxBenefit = Math.min(grossReturn, taxCap);
+        // BigDecimal.min keeps gross (and its scale) on a tie
+        int taxBenefitScale = grossReturn <= taxCap ? acc.grossScale() : taxCapScale;
+        BigDecimal inflationAdjusted = inflate(FixedPoint.toDecimal(grossReturn, scale, acc.grossScale()), inflationRate);
+        return new FixedReturnResult(acc.periodId(), grossReturn, taxBenefit, inflationAdjusted, acc.grossScale(), taxBenefitScale);
+    }
+
+    public static FixedReturnResult indexReturnFixed(FixedPeriodAccumulator acc, BigDecimal inflationRate, int scale) {
+        long grossReturn = Math.addExact(acc.totalContribution(), acc.pAdditive());
+        BigDecimal inflationAdjusted = inflate(FixedPoint.toDecimal(grossReturn, scale, acc.grossScale()), inflationRate);
+        return new FixedReturnResult(acc.periodId(), grossReturn, 0L, inflationAdjusted, acc.grossScale(), 0);
+    }
+
     private static BigDecimal inflate(BigDecimal value, BigDecimal rate) {
         if (rate.compareTo(BigDecimal.ZERO) == 0) return value;
         return value.divide(BigDecimal.ONE.add(rate), SCALE, ROUND);
     }
 
     public record ReturnResult(String periodId, BigDecimal grossReturn, BigDecimal taxBenefit, BigDecimal inflationAdjustedReturn) {}
+
+    /** Gross return and tax benefit in scaled units, each with the scale the exact result would have. */
+    public record FixedReturnResult(
+            String periodId,
+            long grossReturn,
+            long taxBenefit,
+            BigDecimal inflationAdjustedReturn,
+            int grossScale,
+            int taxBenefitScale
+    ) {}
 }
@@ -2,10 +2,12 @@ package com.blackrock.aladdin.engine;
 
 import com.blackrock.aladdin.model.PRule;
 import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.TreeSet;
@@ -13,8 +15,8 @@ import java.util.TreeMap;
 
 /**
  * Builds timeline of p deltas and computes running sum at each distinct time.
- * Sweep-line: sort all events (txn times + p start times), then one pass.
- * Result: NavigableMap<Instant, runningP> for O(log n) lookup of p at any t.
+ * {@link #buildPTimeline}: change points only (O(rules) memory), primitive binary search / cursor lookup.
+ * {@link #buildPRunningByTime}: sweep over all events (txn times + p start times) into a NavigableMap.
  */
 public final class TimelineRuleEngine {
 
@@ -57,4 +59,38 @@ public final class TimelineRuleEngine {
         }
         return running;
     }
+
+    /**
+     * Compact p timeline keyed only on p rule change points (epoch seconds) with prefix sums.
+     * Lookups agree with {@link #buildPRunningByTime} at every time, but size is O(rules).
+     */
+    public static PTimeline buildPTimeline(List<PRule> pRules) {
+        if (pRules == null || pRules.isEmpty()) {
+            return PTimeline.empty();
+        }
+        TreeMap<Long, BigDecimal> deltaAtTime = new TreeMap<>();
+        for (PRule p : pRules) {
+            deltaAtTime.merge(p.startTime().getEpochSecond(), p.delta(), BigDecimal::add);
+        }
+        long[] times = new long[deltaAtTime.size()];
+        BigDecimal[] sums = new BigDecimal[deltaAtTime.size()];
+        int i = 0;
+        for (var entry : deltaAtTime.entrySet()) {
+            times[i] = entry.getKey();
+            sums[i++] = entry.getValue();
+        }
+        // ZERO + d0 keeps the scale a sequential running sum from ZERO would have; addition is exact and associative
+        sums[0] = BigDecimal.ZERO.add(sums[0]);
+        Arrays.parallelPrefix(sums, BigDecimal::add);
+        return new PTimeline(times, sums, null);
+    }
+
+    /**
+     * Columnar overload: p timeline with sums also in the batch's scaled units.
+     *
+     * @throws ArithmeticException when a running sum is not representable at the batch scale
+     */
+    public static PTimeline buildPTimeline(TransactionBatch batch, List<PRule> pRules) {
+        return buildPTimeline(pRules).withUnits(batch.scale());
+    }
 }
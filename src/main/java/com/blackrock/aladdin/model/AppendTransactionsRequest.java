@@ -0,0 +1,12 @@
+package com.blackrock.aladdin.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * API request: transactions to add to a stored portfolio.
+ */
+public record AppendTransactionsRequest(
+        @NotNull @Valid List<TransactionDto> transactions
+) {}
@@ -0,0 +1,10 @@
+package com.blackrock.aladdin.model;
+
+import java.util.List;
+
+/**
+ * Batch API response: one result per submitted portfolio, in request order.
+ */
+public record BatchProcessResponse(
+        List<PortfolioResultDto> results
+) {}
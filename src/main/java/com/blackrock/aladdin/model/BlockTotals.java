@@ -0,0 +1,16 @@
+package com.blackrock.aladdin.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Pre-aggregated totals of one block of stored transactions: its time range (zone map), row count, exact amount
+ * sum (from zero, so at the largest amount scale, at least 0) and smallest and largest amount.
+ */
+public record BlockTotals(
+        long minEpochSecond,
+        long maxEpochSecond,
+        int count,
+        BigDecimal amountSum,
+        BigDecimal minAmount,
+        BigDecimal maxAmount
+) {}
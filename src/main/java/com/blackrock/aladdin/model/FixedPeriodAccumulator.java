@@ -0,0 +1,48 @@
+package com.blackrock.aladdin.model;
+
+/**
+ * Fixed-point counterpart of {@link PeriodAccumulator}: totals are scaled long units.
+ * Each total also carries the scale the BigDecimal engine would give it (a sum has the largest scale
+ * added, starting from zero's 0), so results convert back to the same BigDecimals.
+ * Arithmetic is overflow-checked (ArithmeticException).
+ */
+public record FixedPeriodAccumulator(
+        String periodId,
+        long totalContribution,
+        long totalRemanent,
+        long pAdditive,
+        int contributionScale,
+        int remanentScale,
+        int pAdditiveScale
+) {
+    public static FixedPeriodAccumulator empty(String periodId) {
+        return new FixedPeriodAccumulator(periodId, 0L, 0L, 0L, 0, 0, 0);
+    }
+
+    public FixedPeriodAccumulator add(long contribution, int contributionScale, long remanent, int remanentScale) {
+        return new FixedPeriodAccumulator(
+                periodId,
+                Math.addExact(totalContribution, contribution),
+                Math.addExact(totalRemanent, remanent),
+                pAdditive,
+                Math.max(this.contributionScale, contributionScale),
+                Math.max(this.remanentScale, remanentScale),
+                pAdditiveScale
+        );
+    }
+
+    /** Combines partial totals of the same period; keeps this p additive. */
+    public FixedPeriodAccumulator merge(FixedPeriodAccumulator other) {
+        return add(other.totalContribution, other.contributionScale, other.totalRemanent, other.remanentScale);
+    }
+
+    public FixedPeriodAccumulator withPAdditive(long pAdditive, int pAdditiveScale) {
+        return new FixedPeriodAccumulator(
+                periodId, totalContribution, totalRemanent, pAdditive, contributionScale, remanentScale, pAdditiveScale);
+    }
+
+    /** Scale of contribution + p additive. */
+    public int grossScale() {
+        return Math.max(contributionScale, pAdditiveScale);
+    }
+}
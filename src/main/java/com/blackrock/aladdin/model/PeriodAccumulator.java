@@ -24,6 +24,11 @@ public record PeriodAccumulator(
         );
     }
 
+    /** Combines partial totals of the same period (e.g. from two chunks); keeps this p additive. */
+    public PeriodAccumulator merge(PeriodAccumulator other) {
+        return add(other.totalContribution, other.totalRemanent);
+    }
+
     /** Set period-level p additive (from timeline: cumulative p at end - at start). */
     public PeriodAccumulator withPAdditive(BigDecimal pAdditive) {
         return new PeriodAccumulator(periodId, totalContribution, totalRemanent, pAdditive);
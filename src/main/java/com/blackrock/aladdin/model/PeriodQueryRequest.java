@@ -0,0 +1,12 @@
+package com.blackrock.aladdin.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * API request: k periods to evaluate over a stored portfolio's transactions and rules.
+ */
+public record PeriodQueryRequest(
+        @NotNull @Valid List<KPeriodDto> kPeriods
+) {}
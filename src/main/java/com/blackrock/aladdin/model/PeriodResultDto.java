@@ -0,0 +1,10 @@
+package com.blackrock.aladdin.model;
+
+/**
+ * One line of the NDJSON response: a period's summary with its NPS and Index returns.
+ */
+public record PeriodResultDto(
+        PeriodSummaryDto periodSummary,
+        ReturnResultDto npsReturn,
+        ReturnResultDto indexReturn
+) {}
@@ -0,0 +1,21 @@
+package com.blackrock.aladdin.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one portfolio in a batch call: its position in the request and either a response or an error.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PortfolioResultDto(
+        int index,
+        ProcessResponse response,
+        String error
+) {
+    public static PortfolioResultDto success(int index, ProcessResponse response) {
+        return new PortfolioResultDto(index, response, null);
+    }
+
+    public static PortfolioResultDto failure(int index, String error) {
+        return new PortfolioResultDto(index, null, error);
+    }
+}
@@ -0,0 +1,24 @@
+package com.blackrock.aladdin.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * API request: a /process body without transactions, for transactions sent another way (bulk file upload).
+ */
+public record ProcessTerms(
+        @Valid List<QRuleDto> qRules,
+        @Valid List<PRuleDto> pRules,
+        @NotNull @Valid List<KPeriodDto> kPeriods,
+        @NotNull @DecimalMin("0") BigDecimal defaultCeiling,
+        @NotNull @DecimalMin("0") BigDecimal inflationRate,
+        @NotNull @DecimalMin("0") BigDecimal taxCap
+) {
+    /** These terms as a /process request with no transactions. */
+    public ProcessRequest toRequest() {
+        return new ProcessRequest(List.of(), qRules, pRules, kPeriods, defaultCeiling, inflationRate, taxCap);
+    }
+}
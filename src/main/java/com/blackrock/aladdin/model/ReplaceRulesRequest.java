@@ -0,0 +1,12 @@
+package com.blackrock.aladdin.model;
+
+import jakarta.validation.Valid;
+import java.util.List;
+
+/**
+ * API request: new q and/or p rules for a stored portfolio; an omitted list keeps the current rules.
+ */
+public record ReplaceRulesRequest(
+        @Valid List<QRuleDto> qRules,
+        @Valid List<PRuleDto> pRules
+) {}
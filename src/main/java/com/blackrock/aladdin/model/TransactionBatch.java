@@ -0,0 +1,219 @@
+package com.blackrock.aladdin.model;
+
+import com.blackrock.aladdin.util.EpochOrder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Columnar (struct-of-arrays) transactions for the fixed-point pipeline.
+ * Input columns: epoch seconds, amount in scaled units, dictionary-encoded id.
+ * Output columns (allowed, remanent, pAtTime) are filled in place by CeilingRemanentEngine.
+ * An optional exact-scale column keeps each amount's original decimal scale, so fixed-point totals can be
+ * returned at the scale the BigDecimal engine would give them.
+ * Columns are exposed directly and may be longer than {@link #size()}; the row accessors of
+ * {@link TransactionColumns} read the same arrays.
+ */
+public final class TransactionBatch implements TransactionColumns {
+
+    private final int scale;
+    private final int size;
+    private final long[] epochSeconds;
+    private final long[] amounts;
+    private final int[] idCodes;
+    private final IntFunction<String> idDictionary;
+    private final byte[] exactScales;
+    private long[] allowed;
+    private byte[] allowedScales;
+    private long[] remanent;
+    private long[] pAtTime;
+
+    private TransactionBatch(int scale, int size, long[] epochSeconds, long[] amounts, int[] idCodes,
+                             IntFunction<String> idDictionary, byte[] exactScales) {
+        this.scale = scale;
+        this.size = size;
+        this.epochSeconds = epochSeconds;
+        this.amounts = amounts;
+        this.idCodes = idCodes;
+        this.idDictionary = idDictionary;
+        this.exactScales = exactScales;
+    }
+
+    public static Builder builder(int scale, int expectedSize) {
+        return new Builder(scale, expectedSize);
+    }
+
+    /**
+     * A batch over columns that are already filled, e.g. bulk-read from a file; the arrays are used as they are.
+     *
+     * @param idCodes      codes understood by {@code idDictionary}, not checked here
+     * @param idDictionary id of each code, asked only when {@link #id} is
+     */
+    public static TransactionBatch wrap(int scale, int size, long[] epochSeconds, long[] amounts, int[] idCodes, IntFunction<String> idDictionary) {
+        if (epochSeconds.length < size || amounts.length < size || idCodes.length < size) {
+            throw new IllegalArgumentException("Columns shorter than size " + size);
+        }
+        return new TransactionBatch(scale, size, epochSeconds, amounts, idCodes, idDictionary, null);
+    }
+
+    /**
+     * Same input columns with each amount's original decimal scale; output columns are not carried over.
+     *
+     * @param exactScales scale of each row's amount as parsed, at most {@link #scale()}
+     */
+    public TransactionBatch withExactScales(byte[] exactScales) {
+        if (exactScales.length < size) throw new IllegalArgumentException("Columns shorter than size " + size);
+        return new TransactionBatch(scale, size, epochSeconds, amounts, idCodes, idDictionary, exactScales);
+    }
+
+    public int scale() {
+        return scale;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public long[] epochSeconds() {
+        return epochSeconds;
+    }
+
+    public long[] amounts() {
+        return amounts;
+    }
+
+    @Override
+    public long epochSecond(int row) {
+        return epochSeconds[row];
+    }
+
+    /** Units at the batch scale. */
+    @Override
+    public long unscaledAmount(int row) {
+        return amounts[row];
+    }
+
+    @Override
+    public int amountScale(int row) {
+        return scale;
+    }
+
+    /** Output column, allocated on first access. */
+    public long[] allowed() {
+        if (allowed == null) allowed = new long[size];
+        return allowed;
+    }
+
+    /**
+     * Original decimal scale of a row's amount, as exact arithmetic sees it; the batch scale when none was kept.
+     */
+    public int exactScale(int row) {
+        return exactScales != null ? exactScales[row] : scale;
+    }
+
+    /** Output column, allocated on first access. */
+    public long[] remanent() {
+        if (remanent == null) remanent = new long[size];
+        return remanent;
+    }
+
+    /** Output column: exact scale of each allowed amount (the amount's or the ceiling's); allocated on first access. */
+    public byte[] allowedScales() {
+        if (allowedScales == null) allowedScales = new byte[size];
+        return allowedScales;
+    }
+
+    /** Output column, allocated on first access. */
+    public long[] pAtTime() {
+        if (pAtTime == null) pAtTime = new long[size];
+        return pAtTime;
+    }
+
+    @Override
+    public String id(int index) {
+        return idDictionary.apply(idCodes[index]);
+    }
+
+    public boolean isSortedByTime() {
+        return EpochOrder.isSorted(epochSeconds, size);
+    }
+
+    /**
+     * Input columns reordered by timestamp (stable); this batch when already sorted.
+     * Output columns are not carried over.
+     */
+    public TransactionBatch sortedByTime() {
+        if (isSortedByTime()) return this;
+        int[] order = EpochOrder.sortedIndices(epochSeconds, size);
+        long[] sortedTimes = new long[size];
+        long[] sortedAmounts = new long[size];
+        int[] sortedIds = new int[size];
+        byte[] sortedScales = exactScales != null ? new byte[size] : null;
+        for (int i = 0; i < size; i++) {
+            int from = order[i];
+            sortedTimes[i] = epochSeconds[from];
+            sortedAmounts[i] = amounts[from];
+            sortedIds[i] = idCodes[from];
+            if (sortedScales != null) sortedScales[i] = exactScales[from];
+        }
+        return new TransactionBatch(scale, size, sortedTimes, sortedAmounts, sortedIds, idDictionary, sortedScales);
+    }
+
+    public static final class Builder {
+
+        private final int scale;
+        private long[] epochSeconds;
+        private long[] amounts;
+        private int[] idCodes;
+        private final Map<String, Integer> codeById = new HashMap<>();
+        private String[] idDictionary;
+        private int size;
+
+        private Builder(int scale, int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            this.scale = scale;
+            this.epochSeconds = new long[capacity];
+            this.amounts = new long[capacity];
+            this.idCodes = new int[capacity];
+            this.idDictionary = new String[16];
+        }
+
+        /**
+         * @param amount scaled units at the builder's scale
+         */
+        public Builder add(String id, long epochSecond, long amount) {
+            if (id == null) throw new IllegalArgumentException("id required");
+            if (size == epochSeconds.length) {
+                int capacity = size + (size >> 1);
+                epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                idCodes = Arrays.copyOf(idCodes, capacity);
+            }
+            epochSeconds[size] = epochSecond;
+            amounts[size] = amount;
+            idCodes[size] = encode(id);
+            size++;
+            return this;
+        }
+
+        private int encode(String id) {
+            Integer code = codeById.get(id);
+            if (code != null) return code;
+            int next = codeById.size();
+            if (next == idDictionary.length) {
+                idDictionary = Arrays.copyOf(idDictionary, next * 2);
+            }
+            idDictionary[next] = id;
+            codeById.put(id, next);
+            return next;
+        }
+
+        public TransactionBatch build() {
+            String[] dictionary = idDictionary;
+            return new TransactionBatch(scale, size, epochSeconds, amounts, idCodes, code -> dictionary[code], null);
+        }
+    }
+}
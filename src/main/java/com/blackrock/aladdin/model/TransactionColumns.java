@@ -0,0 +1,24 @@
+package com.blackrock.aladdin.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only columnar view of transactions, row by row, whatever holds them: heap arrays ({@link TransactionBatch})
+ * or stored records read in place. Amounts are exact: an unscaled value and its scale.
+ */
+public interface TransactionColumns {
+
+    int size();
+
+    long epochSecond(int row);
+
+    long unscaledAmount(int row);
+
+    int amountScale(int row);
+
+    String id(int row);
+
+    default BigDecimal amount(int row) {
+        return BigDecimal.valueOf(unscaledAmount(row), amountScale(row));
+    }
+}
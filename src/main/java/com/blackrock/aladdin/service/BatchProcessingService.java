@@ -0,0 +1,125 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.config.EngineProperties;
+import com.blackrock.aladdin.model.BatchProcessResponse;
+import com.blackrock.aladdin.model.PortfolioResultDto;
+import com.blackrock.aladdin.model.ProcessRequest;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Runs many independent portfolios per call on a bounded worker pool ({@code engine.batch-threads}).
+ * Each portfolio is validated and processed on its own, so one bad portfolio yields an error entry
+ * rather than failing the batch. Rule structures are shared across the call through one {@link RuleCache}.
+ * With virtual threads enabled ({@code spring.threads.virtual.enabled} on Java 21+) each portfolio gets its own
+ * virtual thread, still capped at {@code engine.batch-threads} running at once.
+ */
+@Service
+public class BatchProcessingService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchProcessingService.class);
+
+    private final InvestmentEngineService engineService;
+    private final Validator validator;
+    private final int maxPortfolios;
+    private final Executor workers;
+
+    public BatchProcessingService(InvestmentEngineService engineService, Validator validator,
+                                  EngineProperties properties, Environment environment) {
+        this.engineService = engineService;
+        this.validator = validator;
+        this.maxPortfolios = properties.batchMaxPortfolios();
+        this.workers = workers(properties.effectiveBatchThreads(), Threading.VIRTUAL.isActive(environment));
+    }
+
+    private static Executor workers(int threads, boolean virtual) {
+        if (virtual) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("engine-batch-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(threads);
+            return executor;
+        }
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "engine-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public BatchProcessResponse processBatch(List<ProcessRequest> portfolios) {
+        if (portfolios == null) {
+            throw new IllegalArgumentException("portfolios must not be null");
+        }
+        if (portfolios.size() > maxPortfolios) {
+            throw new IllegalArgumentException("batch exceeds " + maxPortfolios + " portfolios");
+        }
+        RuleCache rules = RuleCache.shared();
+        List<CompletableFuture<PortfolioResultDto>> pending = new ArrayList<>(portfolios.size());
+        for (int i = 0; i < portfolios.size(); i++) {
+            int index = i;
+            ProcessRequest portfolio = portfolios.get(i);
+            pending.add(CompletableFuture.supplyAsync(() -> processOne(index, portfolio, rules), workers));
+        }
+        List<PortfolioResultDto> results = new ArrayList<>(pending.size());
+        for (CompletableFuture<PortfolioResultDto> future : pending) {
+            results.add(future.join());
+        }
+        return new BatchProcessResponse(results);
+    }
+
+    private PortfolioResultDto processOne(int index, ProcessRequest portfolio, RuleCache rules) {
+        try {
+            String violations = validate(portfolio);
+            if (violations != null) {
+                return PortfolioResultDto.failure(index, violations);
+            }
+            return PortfolioResultDto.success(index, engineService.process(engineService.ingest(portfolio, rules), rules));
+        } catch (IllegalArgumentException e) {
+            return PortfolioResultDto.failure(index, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Unexpected error in batch portfolio {}", index, e);
+            return PortfolioResultDto.failure(index, "Internal server error");
+        }
+    }
+
+    /** Same rules as the single endpoint's {@code @Valid}; null when the portfolio is valid. */
+    private String validate(ProcessRequest portfolio) {
+        if (portfolio == null) {
+            return "portfolio must not be null";
+        }
+        Set<ConstraintViolation<ProcessRequest>> violations = validator.validate(portfolio);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted(Comparator.naturalOrder())
+                .collect(Collectors.joining("; "));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (workers instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        } else if (workers instanceof SimpleAsyncTaskExecutor executor) {
+            executor.close();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.blackrock.aladdin.service;
+
+/**
+ * A CSV part that cannot be read, with the part's name and the 1-based line the problem is on.
+ */
+public class CsvFormatException extends IllegalArgumentException {
+
+    private final String part;
+    private final int line;
+
+    public CsvFormatException(String part, int line, String message) {
+        super(part + " line " + line + ": " + message);
+        this.part = part;
+        this.line = line;
+    }
+
+    public String part() {
+        return part;
+    }
+
+    public int line() {
+        return line;
+    }
+}
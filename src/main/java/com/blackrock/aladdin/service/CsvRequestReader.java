@@ -0,0 +1,194 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.model.KPeriod;
+import com.blackrock.aladdin.model.PRule;
+import com.blackrock.aladdin.model.QRule;
+import com.blackrock.aladdin.util.TimestampParser;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Reads a /process request sent as CSV parts, record by record, straight into engine inputs like
+ * {@link StreamingRequestReader}: timestamps and amounts are decoded from the tokenizer's buffer, and a fixed read
+ * switches to domain objects on the first amount the scale cannot hold. Each part is UTF-8 CSV with a header row
+ * naming its columns (any order, extra columns ignored), optionally gzip-compressed:
+ * <ul>
+ *   <li>transactions: {@code id,timestamp,amount}</li>
+ *   <li>qRules: {@code id,startTime,ceilingOverride}</li>
+ *   <li>pRules: {@code id,startTime,delta}</li>
+ *   <li>kPeriods: {@code id,startInclusive,endExclusive}</li>
+ * </ul>
+ * Validation mirrors the bean constraints on ProcessRequest; failures in a part are {@link CsvFormatException}s
+ * naming the part and line.
+ */
+public final class CsvRequestReader {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int INPUT_BUFFER_BYTES = 1 << 16;
+
+    /**
+     * The parts of a CSV request; an absent rule part is an empty list.
+     */
+    public record Parts(
+            InputStream transactions,
+            InputStream qRules,
+            InputStream pRules,
+            InputStream kPeriods,
+            BigDecimal defaultCeiling,
+            BigDecimal inflationRate,
+            BigDecimal taxCap
+    ) {}
+
+    private CsvRequestReader() {}
+
+    /**
+     * @param fixedScale scale for a columnar batch, or -1 to read transactions for exact arithmetic
+     */
+    public static IngestedRequest read(Parts parts, int fixedScale) throws IOException {
+        require(parts.transactions() != null, "transactions", "must not be null");
+        require(parts.kPeriods() != null, "kPeriods", "must not be null");
+        RequestTerms terms = new RequestTerms(
+                parts.qRules() == null ? List.of() : readRules(tokenizer(parts.qRules(), "qRules"), "ceilingOverride", QRule::new),
+                parts.pRules() == null ? List.of() : readRules(tokenizer(parts.pRules(), "pRules"), "delta", PRule::new),
+                readKPeriods(tokenizer(parts.kPeriods(), "kPeriods")),
+                nonNegative(parts.defaultCeiling(), "defaultCeiling"),
+                nonNegative(parts.inflationRate(), "inflationRate"),
+                nonNegative(parts.taxCap(), "taxCap"));
+        return readTransactions(tokenizer(parts.transactions(), "transactions"), TransactionSink.create(fixedScale)).finish(terms);
+    }
+
+    private static TransactionSink readTransactions(CsvTokenizer csv, TransactionSink sink) throws IOException {
+        int[] columns = header(csv, "id", "timestamp", "amount");
+        if (columns == null) return sink;
+        int id = columns[0];
+        int timestamp = columns[1];
+        int amount = columns[2];
+        while (csv.next()) {
+            requireField(csv, amount, "amount");
+            try {
+                sink = sink.stageText(csv.chars(), csv.start(amount), csv.length(amount));
+            } catch (NumberFormatException e) {
+                throw csv.error("amount: not a number: " + csv.text(amount));
+            }
+            long epochSecond = epochSecond(csv, timestamp, "timestamp");
+            requireField(csv, id, "id");
+            sink.add(csv.text(id), epochSecond);
+        }
+        return sink;
+    }
+
+    @FunctionalInterface
+    private interface RuleFactory<R> {
+        R create(String id, Instant start, BigDecimal amount);
+    }
+
+    private static <R> List<R> readRules(CsvTokenizer csv, String amountColumn, RuleFactory<R> factory) throws IOException {
+        int[] columns = header(csv, "id", "startTime", amountColumn);
+        List<R> rules = new ArrayList<>();
+        if (columns == null) return rules;
+        while (csv.next()) {
+            requireField(csv, columns[0], "id");
+            long start = epochSecond(csv, columns[1], "startTime");
+            rules.add(factory.create(csv.text(columns[0]), Instant.ofEpochSecond(start), decimal(csv, columns[2], amountColumn)));
+        }
+        return rules;
+    }
+
+    private static List<KPeriod> readKPeriods(CsvTokenizer csv) throws IOException {
+        int[] columns = header(csv, "id", "startInclusive", "endExclusive");
+        List<KPeriod> periods = new ArrayList<>();
+        if (columns == null) return periods;
+        while (csv.next()) {
+            requireField(csv, columns[0], "id");
+            long start = epochSecond(csv, columns[1], "startInclusive");
+            long end = epochSecond(csv, columns[2], "endExclusive");
+            periods.add(new KPeriod(csv.text(columns[0]), Instant.ofEpochSecond(start), Instant.ofEpochSecond(end)));
+        }
+        return periods;
+    }
+
+    /**
+     * Positions of {@code names} in the header row; null when the part is empty.
+     *
+     * @throws CsvFormatException when a column is missing
+     */
+    private static int[] header(CsvTokenizer csv, String... names) throws IOException {
+        if (!csv.next()) return null;
+        int[] columns = new int[names.length];
+        for (int n = 0; n < names.length; n++) {
+            columns[n] = -1;
+            for (int f = 0; f < csv.fields(); f++) {
+                if (csv.text(f).equals(names[n])) {
+                    columns[n] = f;
+                    break;
+                }
+            }
+            if (columns[n] < 0) throw csv.error("header has no column " + names[n]);
+        }
+        return columns;
+    }
+
+    private static long epochSecond(CsvTokenizer csv, int field, String column) {
+        requireField(csv, field, column);
+        long epochSecond = TimestampParser.tryParseEpochSecond(csv.chars(), csv.start(field), csv.length(field));
+        if (epochSecond != TimestampParser.UNPARSED) return epochSecond;
+        try {
+            return TimestampParser.parseEpochSecond(csv.text(field));
+        } catch (IllegalArgumentException e) {
+            throw csv.error(column + ": " + e.getMessage());
+        }
+    }
+
+    private static BigDecimal decimal(CsvTokenizer csv, int field, String column) {
+        requireField(csv, field, column);
+        try {
+            return new BigDecimal(csv.chars(), csv.start(field), csv.length(field));
+        } catch (NumberFormatException e) {
+            throw csv.error(column + ": not a number: " + csv.text(field));
+        }
+    }
+
+    private static void requireField(CsvTokenizer csv, int field, String column) {
+        if (csv.length(field) == 0) throw csv.error(column + ": must not be blank");
+    }
+
+    /** UTF-8 text of a part, inflated first when it starts with the gzip magic number. */
+    private static CsvTokenizer tokenizer(InputStream part, String name) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(part, INPUT_BUFFER_BYTES);
+        in.mark(2);
+        int magic = in.read() | in.read() << 8;
+        in.reset();
+        InputStream text = in;
+        if (magic == GZIP_MAGIC) {
+            try {
+                text = new GZIPInputStream(in, INPUT_BUFFER_BYTES);
+            } catch (ZipException | EOFException e) {
+                throw new CsvFormatException(name, 1, "corrupt or truncated gzip data");
+            }
+        }
+        return new CsvTokenizer(new InputStreamReader(text, StandardCharsets.UTF_8), name);
+    }
+
+    private static BigDecimal nonNegative(BigDecimal value, String path) {
+        require(value != null, path, "must not be null");
+        require(value.signum() >= 0, path, "must be greater than or equal to 0");
+        return value;
+    }
+
+    private static void require(boolean condition, String path, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(path + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.blackrock.aladdin.service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.zip.ZipException;
+
+/**
+ * RFC 4180 records read one at a time into reused buffers, so memory does not grow with the input: a field is a
+ * range of {@link #chars()}, valid until the next {@link #next()}. Quoted fields may hold commas, doubled quotes
+ * and line breaks; LF and CRLF both end a record; blank lines and a leading byte order mark are skipped.
+ */
+final class CsvTokenizer {
+
+    private static final int BUFFER_CHARS = 1 << 16;
+
+    private final Reader in;
+    private final String part;
+    private final char[] buffer = new char[BUFFER_CHARS];
+    private int position;
+    private int limit;
+    private char[] record = new char[256];
+    private int recordLength;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int fields;
+    private int line = 1;
+    private int recordLine;
+
+    /** @param part name of the part being read, for error messages */
+    CsvTokenizer(Reader in, String part) {
+        this.in = in;
+        this.part = part;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return false at the end of the input
+     * @throws CsvFormatException on an unterminated quoted field or text after a closing quote
+     */
+    boolean next() throws IOException {
+        fields = 0;
+        recordLength = 0;
+        int c = read();
+        while (c == '\n' || c == '\r' || c == '\uFEFF') {
+            c = read();
+        }
+        if (c == -1) return false;
+        recordLine = line;
+        while (true) {
+            int start = recordLength;
+            if (c == '"') {
+                while (true) {
+                    c = read();
+                    if (c == -1) throw error("unterminated quoted field");
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') break;
+                    }
+                    append((char) c);
+                }
+                if (c != ',' && c != '\n' && c != '\r' && c != -1) throw error("text after closing quote");
+            } else {
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    append((char) c);
+                    c = read();
+                }
+            }
+            endField(start);
+            if (c != ',') return true;
+            c = read();
+        }
+    }
+
+    /** Line the current record starts on, 1-based. */
+    int line() {
+        return recordLine;
+    }
+
+    int fields() {
+        return fields;
+    }
+
+    char[] chars() {
+        return record;
+    }
+
+    /** Start of field {@code f} in {@link #chars()}, surrounding whitespace skipped; fields past the last are empty. */
+    int start(int f) {
+        if (f >= fields) return 0;
+        int start = starts[f];
+        while (start < ends[f] && record[start] <= ' ') start++;
+        return start;
+    }
+
+    /** Length of field {@code f}, surrounding whitespace skipped; 0 when blank or missing. */
+    int length(int f) {
+        if (f >= fields) return 0;
+        int end = ends[f];
+        int start = start(f);
+        while (end > start && record[end - 1] <= ' ') end--;
+        return end - start;
+    }
+
+    /** Field {@code f} as a string, surrounding whitespace skipped. */
+    String text(int f) {
+        return new String(record, start(f), length(f));
+    }
+
+    /** A format error on the current record's line. */
+    CsvFormatException error(String message) {
+        return new CsvFormatException(part, recordLine, message);
+    }
+
+    private void append(char c) {
+        if (recordLength == record.length) record = Arrays.copyOf(record, recordLength * 2);
+        record[recordLength++] = c;
+    }
+
+    private void endField(int start) {
+        if (fields == starts.length) {
+            starts = Arrays.copyOf(starts, fields * 2);
+            ends = Arrays.copyOf(ends, fields * 2);
+        }
+        starts[fields] = start;
+        ends[fields] = recordLength;
+        fields++;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            try {
+                limit = in.read(buffer, 0, buffer.length);
+            } catch (ZipException | EOFException e) {
+                throw new CsvFormatException(part, line, "corrupt or truncated gzip data");
+            }
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        char c = buffer[position++];
+        if (c == '\n') line++;
+        return c;
+    }
+}
@@ -0,0 +1,72 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A request read without DTO lists: transactions either as domain objects (exact) or as a columnar
+ * batch in ingestion order (fixed), plus the mapped terms.
+ * A batch keeps each amount's original decimal scale so the exact fallback sees the same BigDecimals
+ * the bound path would, and fixed-point results come back at the scales exact arithmetic gives them.
+ */
+public final class IngestedRequest {
+
+    private final List<Transaction> transactions;
+    private final TransactionBatch batch;
+    private final byte[] amountScales;
+    private final RequestTerms terms;
+
+    private IngestedRequest(List<Transaction> transactions, TransactionBatch batch, byte[] amountScales, RequestTerms terms) {
+        this.transactions = transactions;
+        this.batch = batch;
+        this.amountScales = amountScales;
+        this.terms = terms;
+    }
+
+    public static IngestedRequest exact(List<Transaction> transactions, RequestTerms terms) {
+        return new IngestedRequest(transactions, null, null, terms);
+    }
+
+    /**
+     * @param amountScales original scale of each amount, by batch row
+     */
+    public static IngestedRequest fixed(TransactionBatch batch, byte[] amountScales, RequestTerms terms) {
+        return new IngestedRequest(null, batch.withExactScales(amountScales), amountScales, terms);
+    }
+
+    /** The columnar batch, or null when the request was read for exact arithmetic. */
+    public TransactionBatch batch() {
+        return batch;
+    }
+
+    /** Transactions as domain objects; rebuilt from the batch (exact amounts) when read as fixed. */
+    public List<Transaction> transactions() {
+        return transactions != null ? transactions : toTransactions(batch, amountScales, batch.size());
+    }
+
+    /** Original scale of each batch row's amount; null for an exact request. */
+    byte[] amountScales() {
+        return amountScales;
+    }
+
+    public RequestTerms terms() {
+        return terms;
+    }
+
+    /** First {@code size} rows of a batch as transactions with their original amount scales. */
+    static List<Transaction> toTransactions(TransactionBatch batch, byte[] amountScales, int size) {
+        List<Transaction> result = new ArrayList<>(size);
+        long[] times = batch.epochSeconds();
+        long[] amounts = batch.amounts();
+        for (int i = 0; i < size; i++) {
+            BigDecimal amount = BigDecimal.valueOf(amounts[i], batch.scale()).setScale(amountScales[i]);
+            result.add(new Transaction(batch.id(i), Instant.ofEpochSecond(times[i]), amount));
+        }
+        return result;
+    }
+}
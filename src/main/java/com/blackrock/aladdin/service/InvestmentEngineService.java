@@ -1,51 +1,175 @@
 package com.blackrock.aladdin.service;
 
+import com.blackrock.aladdin.config.EngineProperties;
 import com.blackrock.aladdin.engine.CeilingRemanentEngine;
+import com.blackrock.aladdin.engine.CeilingSchedule;
+import com.blackrock.aladdin.engine.FusedPipeline;
 import com.blackrock.aladdin.engine.KPeriodAggregator;
+import com.blackrock.aladdin.engine.PTimeline;
+import com.blackrock.aladdin.engine.ParallelPipeline;
 import com.blackrock.aladdin.engine.ReturnsEngine;
-import com.blackrock.aladdin.engine.TimelineRuleEngine;
 import com.blackrock.aladdin.model.*;
+import com.blackrock.aladdin.store.ColumnarTransactionFile;
+import com.blackrock.aladdin.util.EpochOrder;
+import com.blackrock.aladdin.util.FixedPoint;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * Orchestrates the five-step pipeline. No business logic; delegates to engines.
+ * Arithmetic (BigDecimal or scaled long) and execution (staged, fused or parallel) are selected by {@link EngineProperties}.
+ * Results come back either as one {@link ProcessResponse} or period by period ({@link #stream}).
  */
 @Service
 public class InvestmentEngineService {
 
+    private static final Logger log = LoggerFactory.getLogger(InvestmentEngineService.class);
+
+    private final EngineProperties properties;
+
+    public InvestmentEngineService(EngineProperties properties) {
+        this.properties = properties;
+    }
+
     public ProcessResponse process(ProcessRequest request) {
-        List<Transaction> transactions = RequestMapper.toTransactions(request.transactions());
-        List<QRule> qRules = RequestMapper.toQRules(request.qRules());
-        List<PRule> pRules = RequestMapper.toPRules(request.pRules());
-        List<KPeriod> kPeriods = RequestMapper.toKPeriods(request.kPeriods());
+        return process(ingest(request));
+    }
 
-        transactions = transactions.stream()
-                .sorted(Comparator.comparing(Transaction::timestamp))
-                .toList();
+    /**
+     * Streaming ingestion: reads the JSON body token by token (no DTO lists), then runs the same pipeline.
+     */
+    public ProcessResponse process(InputStream body) throws IOException {
+        return process(ingest(body));
+    }
 
-        List<KPeriod> sortedKPeriods = kPeriods.stream()
-                .sorted(Comparator.comparing(KPeriod::startInclusive))
-                .toList();
+    public ProcessResponse process(IngestedRequest request) {
+        return process(request, RuleCache.none());
+    }
 
-        NavigableMap<java.time.Instant, java.math.BigDecimal> pRunning = TimelineRuleEngine.buildPRunningByTime(transactions, pRules);
+    /**
+     * @param rules source of built p timelines and ceiling schedules (shared across a batch)
+     */
+    public ProcessResponse process(IngestedRequest request, RuleCache rules) {
+        if (request.batch() != null) {
+            try {
+                return processFixed(request.batch(), request.terms(), rules);
+            } catch (ArithmeticException e) {
+                log.debug("Fixed-point arithmetic not applicable ({}); falling back to exact", e.getMessage());
+            }
+        }
+        return processExact(request.transactions(), request.terms(), rules);
+    }
+
+    public IngestedRequest ingest(ProcessRequest request) {
+        return ingest(request, RuleCache.none());
+    }
 
-        List<ProcessedTransaction> processed = CeilingRemanentEngine.apply(
-                transactions,
-                qRules,
-                request.defaultCeiling(),
-                pRunning
-        );
+    /**
+     * Maps and validates a bound request into the form the configured arithmetic runs on.
+     */
+    public IngestedRequest ingest(ProcessRequest request, RuleCache rules) {
+        RequestTerms terms = RequestTerms.from(request, rules);
+        if (properties.arithmetic() == EngineProperties.Arithmetic.FIXED) {
+            try {
+                return IngestedRequest.fixed(
+                        RequestMapper.toTransactionBatch(request.transactions(), properties.fixedScale()),
+                        RequestMapper.toAmountScales(request.transactions()),
+                        terms);
+            } catch (ArithmeticException e) {
+                log.debug("Fixed-point arithmetic not applicable ({}); falling back to exact", e.getMessage());
+            }
+        }
+        return IngestedRequest.exact(RequestMapper.toTransactions(request.transactions()), terms);
+    }
 
-        NavigableMap<java.time.Instant, PeriodAccumulator> byPeriod = KPeriodAggregator.aggregate(processed, sortedKPeriods);
-        List<PeriodAccumulator> accumulators = KPeriodAggregator.toOrderedList(byPeriod, sortedKPeriods);
-        accumulators = KPeriodAggregator.withPeriodPAdditive(accumulators, sortedKPeriods, pRunning);
+    public IngestedRequest ingest(InputStream body) throws IOException {
+        return StreamingRequestReader.read(body, streamingScale());
+    }
 
-        List<ReturnsEngine.ReturnResult> nps = ReturnsEngine.npsReturns(accumulators, request.inflationRate(), request.taxCap());
-        List<ReturnsEngine.ReturnResult> index = ReturnsEngine.indexReturns(accumulators, request.inflationRate());
+    /**
+     * Streaming ingestion of a body in another Jackson format, e.g. CBOR or Smile.
+     */
+    public IngestedRequest ingest(InputStream body, JsonFactory format) throws IOException {
+        return StreamingRequestReader.read(body, format, streamingScale());
+    }
+
+    /**
+     * CSV ingestion: parts are read record by record straight into the engine's internal form.
+     */
+    public IngestedRequest ingest(CsvRequestReader.Parts csv) throws IOException {
+        return CsvRequestReader.read(csv, streamingScale());
+    }
+
+    /**
+     * Bulk ingestion of a mapped columnar file. With fixed arithmetic its columns are copied into a batch, so no
+     * per-row objects are made; exact arithmetic, or amounts with more decimals than the fixed scale, build
+     * transactions instead. The request reads ids from {@code transactions}, so keep the file open until it is
+     * processed.
+     */
+    public IngestedRequest ingest(ColumnarTransactionFile transactions, ProcessRequest terms) {
+        RequestTerms mapped = RequestTerms.from(terms);
+        if (properties.arithmetic() == EngineProperties.Arithmetic.FIXED) {
+            try {
+                TransactionBatch batch = transactions.toBatch(properties.fixedScale());
+                byte[] amountScales = new byte[batch.size()];
+                Arrays.fill(amountScales, (byte) transactions.scale());
+                return IngestedRequest.fixed(batch, amountScales, mapped);
+            } catch (ArithmeticException e) {
+                log.debug("Fixed-point arithmetic not applicable ({}); falling back to exact", e.getMessage());
+            }
+        }
+        return IngestedRequest.exact(transactions.toTransactions(), mapped);
+    }
+
+    /** Scale the streaming reader builds a columnar batch at, or -1 to read for exact arithmetic. */
+    private int streamingScale() {
+        return properties.arithmetic() == EngineProperties.Arithmetic.FIXED ? properties.fixedScale() : -1;
+    }
+
+    /**
+     * Hands each period's summary and returns to {@code sink} in sorted period order, each as soon as it is
+     * finalized. Non-overlapping periods are swept in one pass (fused) unless execution is parallel. If fixed-point
+     * arithmetic overflows part way, the remaining periods are computed in exact arithmetic; fixed results carry
+     * exact scales, so the lines already written are the ones exact arithmetic would have written.
+     */
+    public void stream(IngestedRequest request, Consumer<PeriodResultDto> sink) {
+        int written = 0;
+        if (request.batch() != null) {
+            int[] count = {0};
+            try {
+                streamFixed(request.batch(), request.terms(), result -> {
+                    sink.accept(result);
+                    count[0]++;
+                });
+                return;
+            } catch (ArithmeticException e) {
+                log.debug("Fixed-point arithmetic not applicable ({}); continuing in exact from period {}",
+                        e.getMessage(), count[0]);
+                written = count[0];
+            }
+        }
+        streamExact(request.transactions(), request.terms(), written, sink);
+    }
+
+    private ProcessResponse processExact(List<Transaction> transactions, RequestTerms terms, RuleCache rules) {
+        List<KPeriod> sortedKPeriods = sortByStart(terms.kPeriods());
+        List<PeriodAccumulator> accumulators = new ArrayList<>(sortedKPeriods.size());
+        accumulateExact(transactions, terms, rules, sortedKPeriods, execution(), (i, acc) -> accumulators.add(acc));
+
+        List<ReturnsEngine.ReturnResult> nps = ReturnsEngine.npsReturns(accumulators, terms.inflationRate(), terms.taxCap());
+        List<ReturnsEngine.ReturnResult> index = ReturnsEngine.indexReturns(accumulators, terms.inflationRate());
 
         List<PeriodSummaryDto> periodSummaries = ResponseMapper.toPeriodSummaryDtos(accumulators, sortedKPeriods);
         List<ReturnResultDto> npsReturns = nps.stream().map(ResponseMapper::toReturnResultDto).toList();
@@ -53,4 +177,156 @@ public class InvestmentEngineService {
 
         return new ProcessResponse(periodSummaries, npsReturns, indexReturns);
     }
+
+    /**
+     * @param skip periods (in sorted order) already written by an earlier attempt
+     */
+    private void streamExact(List<Transaction> transactions, RequestTerms terms, int skip, Consumer<PeriodResultDto> sink) {
+        List<KPeriod> sortedKPeriods = sortByStart(terms.kPeriods());
+        Map<String, KPeriod> byId = ResponseMapper.periodsById(sortedKPeriods);
+        accumulateExact(transactions, terms, RuleCache.none(), sortedKPeriods, streamingExecution(), (i, acc) -> {
+            if (i < skip) return;
+            sink.accept(ResponseMapper.toPeriodResultDto(
+                    acc,
+                    byId.get(acc.periodId()),
+                    ReturnsEngine.npsReturn(acc, terms.inflationRate(), terms.taxCap()),
+                    ReturnsEngine.indexReturn(acc, terms.inflationRate())));
+        });
+    }
+
+    /**
+     * Steps 1–4 in BigDecimal; accumulators reach {@code sink} in sorted k-period order.
+     */
+    private void accumulateExact(
+            List<Transaction> transactions,
+            RequestTerms terms,
+            RuleCache rules,
+            List<KPeriod> sortedKPeriods,
+            EngineProperties.Execution execution,
+            FusedPipeline.PeriodSink sink
+    ) {
+        List<QRule> qRules = terms.qRules();
+        List<PRule> pRules = terms.pRules();
+
+        transactions = EpochOrder.sortedBy(transactions, Transaction::timestamp);
+
+        PTimeline pTimeline = rules.pTimeline(pRules);
+        CeilingSchedule ceilings = rules.ceilings(qRules, terms.defaultCeiling());
+
+        List<PeriodAccumulator> accumulators;
+        if (execution == EngineProperties.Execution.FUSED) {
+            FusedPipeline.run(transactions, ceilings, pTimeline, sortedKPeriods, sink);
+            return;
+        } else if (execution == EngineProperties.Execution.PARALLEL) {
+            accumulators = ParallelPipeline.run(transactions, ceilings, pTimeline, sortedKPeriods,
+                    properties.parallelThreshold(), ForkJoinPool.commonPool());
+        } else {
+            List<ProcessedTransaction> processed = CeilingRemanentEngine.apply(transactions, ceilings, pTimeline);
+
+            if (properties.overlappingPeriods()) {
+                accumulators = KPeriodAggregator.aggregateOverlapping(processed, sortedKPeriods);
+            } else {
+                NavigableMap<java.time.Instant, PeriodAccumulator> byPeriod = KPeriodAggregator.aggregate(processed, sortedKPeriods);
+                accumulators = KPeriodAggregator.toOrderedList(byPeriod, sortedKPeriods);
+            }
+            accumulators = KPeriodAggregator.withTimelinePAdditive(accumulators, sortedKPeriods, pTimeline);
+        }
+        for (int i = 0; i < accumulators.size(); i++) {
+            sink.accept(i, accumulators.get(i));
+        }
+    }
+
+    /**
+     * Same pipeline on a columnar batch of scaled long units; BigDecimal only reappears in ResponseMapper.
+     *
+     * @throws ArithmeticException when an input is not representable at the fixed scale or a sum overflows
+     */
+    private ProcessResponse processFixed(TransactionBatch unsorted, RequestTerms terms, RuleCache rules) {
+        int scale = properties.fixedScale();
+        long taxCap = FixedPoint.toUnits(terms.taxCap(), scale);
+        List<KPeriod> sortedKPeriods = sortByStart(terms.kPeriods());
+        List<FixedPeriodAccumulator> accumulators = new ArrayList<>(sortedKPeriods.size());
+        accumulateFixed(unsorted, terms, rules, sortedKPeriods, execution(), (i, acc) -> accumulators.add(acc));
+
+        List<ReturnsEngine.FixedReturnResult> nps = ReturnsEngine.npsReturnsFixed(
+                accumulators, terms.inflationRate(), taxCap, terms.taxCap().scale(), scale);
+        List<ReturnsEngine.FixedReturnResult> index = ReturnsEngine.indexReturnsFixed(accumulators, terms.inflationRate(), scale);
+
+        List<PeriodSummaryDto> periodSummaries = ResponseMapper.toFixedPeriodSummaryDtos(accumulators, sortedKPeriods, scale);
+        List<ReturnResultDto> npsReturns = nps.stream().map(r -> ResponseMapper.toReturnResultDto(r, scale)).toList();
+        List<ReturnResultDto> indexReturns = index.stream().map(r -> ResponseMapper.toReturnResultDto(r, scale)).toList();
+
+        return new ProcessResponse(periodSummaries, npsReturns, indexReturns);
+    }
+
+    private void streamFixed(TransactionBatch unsorted, RequestTerms terms, Consumer<PeriodResultDto> sink) {
+        int scale = properties.fixedScale();
+        long taxCap = FixedPoint.toUnits(terms.taxCap(), scale);
+        List<KPeriod> sortedKPeriods = sortByStart(terms.kPeriods());
+        Map<String, KPeriod> byId = ResponseMapper.periodsById(sortedKPeriods);
+        accumulateFixed(unsorted, terms, RuleCache.none(), sortedKPeriods, streamingExecution(), (i, acc) ->
+                sink.accept(ResponseMapper.toPeriodResultDto(
+                        acc,
+                        byId.get(acc.periodId()),
+                        ReturnsEngine.npsReturnFixed(acc, terms.inflationRate(), taxCap, terms.taxCap().scale(), scale),
+                        ReturnsEngine.indexReturnFixed(acc, terms.inflationRate(), scale),
+                        scale)));
+    }
+
+    /**
+     * Steps 1–4 in scaled units; accumulators reach {@code sink} in sorted k-period order.
+     *
+     * @throws ArithmeticException when an input is not representable at the fixed scale or a sum overflows
+     */
+    private void accumulateFixed(
+            TransactionBatch unsorted,
+            RequestTerms terms,
+            RuleCache rules,
+            List<KPeriod> sortedKPeriods,
+            EngineProperties.Execution execution,
+            FusedPipeline.FixedPeriodSink sink
+    ) {
+        TransactionBatch batch = unsorted.sortedByTime();
+        List<QRule> qRules = terms.qRules();
+        List<PRule> pRules = terms.pRules();
+
+        PTimeline pTimeline = rules.pTimeline(pRules).withUnits(batch.scale());
+        CeilingSchedule ceilings = rules.ceilings(qRules, terms.defaultCeiling()).withUnits(batch.scale());
+
+        List<FixedPeriodAccumulator> accumulators;
+        if (execution == EngineProperties.Execution.FUSED) {
+            FusedPipeline.run(batch, ceilings, pTimeline, sortedKPeriods, sink);
+            return;
+        } else if (execution == EngineProperties.Execution.PARALLEL) {
+            accumulators = ParallelPipeline.run(batch, ceilings, pTimeline, sortedKPeriods,
+                    properties.parallelThreshold(), ForkJoinPool.commonPool());
+        } else {
+            CeilingRemanentEngine.apply(batch, ceilings, pTimeline);
+
+            accumulators = properties.overlappingPeriods()
+                    ? KPeriodAggregator.aggregateOverlapping(batch, sortedKPeriods)
+                    : KPeriodAggregator.aggregate(batch, sortedKPeriods);
+            accumulators = KPeriodAggregator.withPeriodPAdditiveFixed(accumulators, sortedKPeriods, pTimeline);
+        }
+        for (int i = 0; i < accumulators.size(); i++) {
+            sink.accept(i, accumulators.get(i));
+        }
+    }
+
+    /** Overlapping periods need the interval index, which only the staged path uses. */
+    private EngineProperties.Execution execution() {
+        return properties.overlappingPeriods() ? EngineProperties.Execution.STAGED : properties.execution();
+    }
+
+    /** Streaming prefers the single sweep so each period can be written as soon as it is final. */
+    private EngineProperties.Execution streamingExecution() {
+        EngineProperties.Execution execution = execution();
+        return execution == EngineProperties.Execution.STAGED && !properties.overlappingPeriods()
+                ? EngineProperties.Execution.FUSED
+                : execution;
+    }
+
+    private static List<KPeriod> sortByStart(List<KPeriod> kPeriods) {
+        return EpochOrder.sortedBy(kPeriods, KPeriod::startInclusive);
+    }
 }
@@ -0,0 +1,20 @@
+package com.blackrock.aladdin.service;
+
+import java.util.NoSuchElementException;
+
+/**
+ * No portfolio with the requested id, in memory or in the store.
+ */
+public class PortfolioNotFoundException extends NoSuchElementException {
+
+    private final String id;
+
+    public PortfolioNotFoundException(String id) {
+        super("Unknown portfolio: " + id);
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+}
@@ -0,0 +1,206 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.config.EngineProperties;
+import com.blackrock.aladdin.model.KPeriod;
+import com.blackrock.aladdin.model.KPeriodDto;
+import com.blackrock.aladdin.model.PRule;
+import com.blackrock.aladdin.model.PRuleDto;
+import com.blackrock.aladdin.model.ProcessRequest;
+import com.blackrock.aladdin.model.ProcessResponse;
+import com.blackrock.aladdin.model.QRule;
+import com.blackrock.aladdin.model.QRuleDto;
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionDto;
+import com.blackrock.aladdin.store.PortfolioStore;
+import com.blackrock.aladdin.store.StoredTransactions;
+import com.blackrock.aladdin.store.TransactionLog;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Server-side portfolios by id.
+ * A portfolio is created from a /process-shaped request; later appends and rule edits recompute only the periods
+ * they touch (see {@link PortfolioSession}). Without {@code engine.store.directory} portfolios live in memory for
+ * the life of the process; with it, each keeps its terms and {@link StoredTransactions} (an append-only log sealed
+ * into compressed segments) on disk and is reopened on first use after a restart.
+ */
+@Service
+public class PortfolioService {
+
+    /** Lookups of a portfolio whose session keeps being closed by concurrent puts before giving up. */
+    private static final int SESSION_ATTEMPTS = 8;
+
+    private final EngineProperties properties;
+    private final PortfolioStore store;
+    private final ConcurrentMap<String, PortfolioSession> sessions = new ConcurrentHashMap<>();
+
+    public PortfolioService(EngineProperties properties, PortfolioStore store) {
+        this.properties = properties;
+        this.store = store;
+    }
+
+    /**
+     * Creates or replaces portfolio {@code id} and returns its summary. An in-memory replacement is built before the
+     * previous session is closed. A stored one has to close the previous session's files before rewriting them, so if
+     * writing fails the portfolio is dropped from the session map (and reopened from whatever the store holds).
+     */
+    public ProcessResponse put(String id, ProcessRequest request) {
+        RequestTerms terms = RequestTerms.from(request);
+        List<Transaction> transactions = RequestMapper.toTransactions(request.transactions());
+        if (store.enabled()) TransactionLog.checkStorable(transactions);
+        PortfolioSession created = store.enabled()
+                ? null
+                : PortfolioSession.create(terms, transactions, properties.overlappingPeriods());
+        RuntimeException[] failure = {null};
+        PortfolioSession session = sessions.compute(id, (key, previous) -> {
+            if (previous != null) previous.close();
+            if (created != null) return created;
+            try {
+                return store(id, request, terms, transactions);
+            } catch (RuntimeException e) {
+                failure[0] = e;
+                return null;
+            }
+        });
+        if (failure[0] != null) throw failure[0];
+        return session.summary();
+    }
+
+    /**
+     * Appends transactions to portfolio {@code id} and returns its updated summary.
+     *
+     * @throws PortfolioNotFoundException when there is no such portfolio
+     */
+    public ProcessResponse append(String id, List<TransactionDto> transactions) {
+        List<Transaction> mapped = RequestMapper.toTransactions(transactions);
+        return withSession(id, session -> {
+            session.append(mapped);
+            return session.summary();
+        });
+    }
+
+    /**
+     * Replaces portfolio {@code id}'s q rules and/or p rules (null keeps the current list) and returns its updated
+     * summary; only the periods the edit affects are recomputed.
+     *
+     * @throws PortfolioNotFoundException when there is no such portfolio
+     */
+    public ProcessResponse replaceRules(String id, List<QRuleDto> qRules, List<PRuleDto> pRules) {
+        List<QRule> mappedQ = qRules != null ? RequestMapper.toQRules(qRules) : null;
+        List<PRule> mappedP = pRules != null ? RequestMapper.toPRules(pRules) : null;
+        return withSession(id, session -> {
+            if (store.enabled()) {
+                ProcessRequest stored = store.loadTerms(id);
+                store.saveTerms(id, new ProcessRequest(List.of(),
+                        qRules != null ? qRules : stored.qRules(),
+                        pRules != null ? pRules : stored.pRules(),
+                        stored.kPeriods(), stored.defaultCeiling(), stored.inflationRate(), stored.taxCap()));
+            }
+            session.replaceRules(mappedQ, mappedP);
+            return session.summary();
+        });
+    }
+
+    /**
+     * Results for {@code kPeriods} over portfolio {@code id}'s transactions and rules, without changing the
+     * portfolio; the cost follows the periods' time window rather than the stored history.
+     *
+     * @throws PortfolioNotFoundException when there is no such portfolio
+     */
+    public ProcessResponse query(String id, List<KPeriodDto> kPeriods) {
+        List<KPeriod> mapped = RequestMapper.toKPeriods(kPeriods);
+        return withSession(id, session -> session.query(mapped));
+    }
+
+    /** @throws PortfolioNotFoundException when there is no such portfolio */
+    public ProcessResponse summary(String id) {
+        return withSession(id, PortfolioSession::summary);
+    }
+
+    /**
+     * Removes portfolio {@code id}; its session is unmapped even when deleting the stored files fails.
+     *
+     * @throws PortfolioNotFoundException when there is no such portfolio
+     */
+    public void delete(String id) {
+        boolean[] found = {false};
+        RuntimeException[] failure = {null};
+        sessions.compute(id, (key, removed) -> {
+            if (removed != null) {
+                removed.close();
+                found[0] = true;
+            }
+            try {
+                if (store.enabled() && store.exists(id)) {
+                    store.delete(id);
+                    found[0] = true;
+                }
+            } catch (RuntimeException e) {
+                failure[0] = e;
+            }
+            return null;
+        });
+        if (failure[0] != null) throw failure[0];
+        if (!found[0]) throw notFound(id);
+    }
+
+    @PreDestroy
+    public void close() {
+        sessions.values().forEach(PortfolioSession::close);
+        sessions.clear();
+    }
+
+    /**
+     * Runs {@code action} under portfolio {@code id}'s session monitor, so that the session and its stored terms
+     * change together. A session closed by a concurrent put or delete is never used: the closed session is unmapped
+     * (waiting for the put or delete to finish its map update) and the lookup repeats, a bounded number of times.
+     *
+     * @throws IllegalStateException when every attempt found a session closed by a concurrent put or delete
+     */
+    private <T> T withSession(String id, Function<PortfolioSession, T> action) {
+        for (int attempt = 0; attempt < SESSION_ATTEMPTS; attempt++) {
+            PortfolioSession session = session(id);
+            synchronized (session) {
+                if (!session.closed()) return action.apply(session);
+            }
+            sessions.remove(id, session);
+        }
+        throw new IllegalStateException("Portfolio " + id + " kept being replaced; try again");
+    }
+
+    PortfolioSession session(String id) {
+        PortfolioSession session = sessions.computeIfAbsent(id, this::reopen);
+        if (session == null) throw notFound(id);
+        return session;
+    }
+
+    /** Rewrites portfolio {@code id} in the store and opens it; the previous session must be closed. */
+    private PortfolioSession store(String id, ProcessRequest request, RequestTerms terms, List<Transaction> transactions) {
+        store.delete(id);
+        store.saveTerms(id, request);
+        StoredTransactions stored = store.openTransactions(id);
+        try {
+            stored.append(transactions);
+        } catch (RuntimeException e) {
+            stored.close();
+            throw e;
+        }
+        return PortfolioSession.stored(terms, stored, properties.overlappingPeriods());
+    }
+
+    /** A stored portfolio not opened since startup, or null. */
+    private PortfolioSession reopen(String id) {
+        if (!store.enabled() || !store.exists(id)) return null;
+        RequestTerms terms = RequestTerms.from(store.loadTerms(id));
+        return PortfolioSession.stored(terms, store.openTransactions(id), properties.overlappingPeriods());
+    }
+
+    private static PortfolioNotFoundException notFound(String id) {
+        return new PortfolioNotFoundException(id);
+    }
+}
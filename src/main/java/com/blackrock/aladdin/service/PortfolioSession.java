@@ -0,0 +1,244 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.engine.CeilingSchedule;
+import com.blackrock.aladdin.engine.IncrementalAggregator;
+import com.blackrock.aladdin.engine.PTimeline;
+import com.blackrock.aladdin.engine.ReturnsEngine;
+import com.blackrock.aladdin.model.KPeriod;
+import com.blackrock.aladdin.model.PRule;
+import com.blackrock.aladdin.model.PeriodAccumulator;
+import com.blackrock.aladdin.model.PeriodResultDto;
+import com.blackrock.aladdin.model.PeriodSummaryDto;
+import com.blackrock.aladdin.model.ProcessResponse;
+import com.blackrock.aladdin.model.QRule;
+import com.blackrock.aladdin.model.ReturnResultDto;
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.store.StoredColumns;
+import com.blackrock.aladdin.store.StoredTransactions;
+import com.blackrock.aladdin.util.EpochOrder;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * One stored portfolio: its terms, its transactions by time, running k-period totals and the last computed result
+ * of every period. An append folds each new transaction into the periods covering it and recomputes the returns
+ * of those periods only, so its cost depends on the appended batch, not on the history. Rule edits likewise
+ * touch only the transactions and periods inside the interval the edit changes.
+ * Always BigDecimal arithmetic, whatever {@code engine.arithmetic} says: results equal an exact /process run over
+ * all transactions appended so far.
+ * Transactions are kept either on heap or, for a stored portfolio, only in its {@link StoredTransactions}, which
+ * appends write through before they are applied and rule edits scan by time range.
+ */
+final class PortfolioSession {
+
+    private RequestTerms terms;
+    private final boolean overlappingPeriods;
+    private final IncrementalAggregator aggregator;
+    private final Map<String, KPeriod> periodsById;
+    private final NavigableMap<Long, List<Transaction>> transactionsByTime;
+    private final StoredTransactions stored;
+    private final IncrementalAggregator.History history;
+    private final PeriodResultDto[] results;
+    private long transactionCount;
+    private ProcessResponse summary;
+    private boolean closed;
+
+    private PortfolioSession(RequestTerms terms, boolean overlappingPeriods, StoredTransactions stored) {
+        this.terms = terms;
+        this.overlappingPeriods = overlappingPeriods;
+        this.stored = stored;
+        if (stored == null) {
+            this.transactionsByTime = new TreeMap<>();
+            this.history = IncrementalAggregator.History.of(transactionsByTime);
+        } else {
+            this.transactionsByTime = null;
+            this.history = (from, to, visitor) -> {
+                for (StoredColumns rows : stored.columns()) {
+                    rows.forEachRowBetween(from, to, row -> visitor.visit(rows.epochSecond(row), rows.amount(row)));
+                }
+            };
+        }
+        List<KPeriod> sortedKPeriods = EpochOrder.sortedBy(terms.kPeriods(), KPeriod::startInclusive);
+        CeilingSchedule ceilings = RuleCache.none().ceilings(terms.qRules(), terms.defaultCeiling());
+        PTimeline pTimeline = RuleCache.none().pTimeline(terms.pRules());
+        this.aggregator = IncrementalAggregator.of(sortedKPeriods, ceilings, pTimeline, overlappingPeriods);
+        this.periodsById = ResponseMapper.periodsById(sortedKPeriods);
+        this.results = new PeriodResultDto[sortedKPeriods.size()];
+    }
+
+    /**
+     * @param overlappingPeriods count a transaction in every covering period ({@code engine.overlapping-periods})
+     */
+    static PortfolioSession create(RequestTerms terms, List<Transaction> transactions, boolean overlappingPeriods) {
+        PortfolioSession session = new PortfolioSession(terms, overlappingPeriods, null);
+        session.fold(transactions, i -> {});
+        session.recomputeAll();
+        return session;
+    }
+
+    /**
+     * Session over a stored portfolio: the transactions already in {@code stored} are read in place, and appends
+     * go to it.
+     */
+    static PortfolioSession stored(RequestTerms terms, StoredTransactions stored, boolean overlappingPeriods) {
+        PortfolioSession session = new PortfolioSession(terms, overlappingPeriods, stored);
+        for (StoredColumns rows : stored.columns()) {
+            session.aggregator.addAll(rows, i -> {});
+        }
+        session.recomputeAll();
+        return session;
+    }
+
+    /**
+     * Adds transactions (any time order) and recomputes the periods they fall in.
+     *
+     * @return number of periods recomputed
+     */
+    synchronized int append(List<Transaction> transactions) {
+        checkOpen();
+        BitSet affected = new BitSet(results.length);
+        fold(transactions, affected::set);
+        return recompute(affected);
+    }
+
+    /**
+     * Replaces the q rules and/or p rules (null keeps the current list) and recomputes the periods whose totals or
+     * p additive changed. q edits re-split only the transactions between the edited rule's start and the next rule
+     * that overrides it; p edits touch no transactions.
+     *
+     * @return number of periods recomputed
+     */
+    synchronized int replaceRules(List<QRule> qRules, List<PRule> pRules) {
+        checkOpen();
+        BitSet affected = new BitSet(results.length);
+        if (qRules != null) {
+            aggregator.replaceCeilings(RuleCache.none().ceilings(qRules, terms.defaultCeiling()), history, affected::set);
+        }
+        if (pRules != null) {
+            aggregator.replacePTimeline(RuleCache.none().pTimeline(pRules), affected::set);
+        }
+        terms = new RequestTerms(
+                qRules != null ? qRules : terms.qRules(),
+                pRules != null ? pRules : terms.pRules(),
+                terms.kPeriods(),
+                terms.defaultCeiling(),
+                terms.inflationRate(),
+                terms.taxCap());
+        return recompute(affected);
+    }
+
+    /**
+     * Results for other k periods over this portfolio's transactions and current rules, in sorted k-period order,
+     * shaped like a /process response; the session's own periods are untouched. Only transactions between the
+     * earliest start and the latest end are read: stored segment blocks outside every period are skipped, and a
+     * block within one period and one ceiling counts from its stored totals without being decoded.
+     */
+    synchronized ProcessResponse query(List<KPeriod> kPeriods) {
+        checkOpen();
+        List<KPeriod> sorted = EpochOrder.sortedBy(kPeriods, KPeriod::startInclusive);
+        Map<String, KPeriod> byId = ResponseMapper.periodsById(sorted);
+        IncrementalAggregator periods = IncrementalAggregator.of(sorted, aggregator.ceilings(), aggregator.pTimeline(), overlappingPeriods);
+        if (!sorted.isEmpty()) {
+            long from = sorted.get(0).startInclusive().getEpochSecond();
+            long to = sorted.stream().mapToLong(k -> k.endExclusive().getEpochSecond()).max().getAsLong();
+            IntConsumer ignored = i -> {};
+            if (stored == null) {
+                history.forEachBetween(from, to, (t, amount) -> periods.add(t, amount, ignored));
+            } else {
+                for (StoredColumns rows : stored.columns()) {
+                    rows.forEachBlockBetween(from, to, block -> periods.addTotals(block, ignored),
+                            row -> periods.add(rows.epochSecond(row), rows.amount(row), ignored));
+                }
+            }
+        }
+        List<PeriodSummaryDto> periodSummaries = new ArrayList<>(sorted.size());
+        List<ReturnResultDto> npsReturns = new ArrayList<>(sorted.size());
+        List<ReturnResultDto> indexReturns = new ArrayList<>(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            PeriodResultDto result = result(periods.accumulator(i), byId);
+            periodSummaries.add(result.periodSummary());
+            npsReturns.add(result.npsReturn());
+            indexReturns.add(result.indexReturn());
+        }
+        return new ProcessResponse(periodSummaries, npsReturns, indexReturns);
+    }
+
+    synchronized long transactionCount() {
+        return stored != null ? stored.size() : transactionCount;
+    }
+
+    /** Releases the stored transactions, if any; every later change or query fails. */
+    synchronized void close() {
+        if (closed) return;
+        closed = true;
+        if (stored != null) stored.close();
+    }
+
+    synchronized boolean closed() {
+        return closed;
+    }
+
+    /** All periods in sorted k-period order, shaped like a /process response; reused until the next change. */
+    synchronized ProcessResponse summary() {
+        checkOpen();
+        if (summary == null) {
+            List<PeriodSummaryDto> periodSummaries = new ArrayList<>(results.length);
+            List<ReturnResultDto> npsReturns = new ArrayList<>(results.length);
+            List<ReturnResultDto> indexReturns = new ArrayList<>(results.length);
+            for (PeriodResultDto result : results) {
+                periodSummaries.add(result.periodSummary());
+                npsReturns.add(result.npsReturn());
+                indexReturns.add(result.indexReturn());
+            }
+            summary = new ProcessResponse(periodSummaries, npsReturns, indexReturns);
+        }
+        return summary;
+    }
+
+    /** @throws IllegalStateException once the portfolio has been replaced or deleted */
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("Portfolio session is closed");
+    }
+
+    private void fold(List<Transaction> transactions, IntConsumer affected) {
+        if (stored != null) stored.append(transactions);
+        for (Transaction txn : transactions) {
+            long epochSecond = txn.timestamp().getEpochSecond();
+            if (stored == null) transactionsByTime.computeIfAbsent(epochSecond, t -> new ArrayList<>(1)).add(txn);
+            aggregator.add(epochSecond, txn.amount(), affected);
+        }
+        transactionCount += transactions.size();
+    }
+
+    private void recomputeAll() {
+        for (int i = 0; i < results.length; i++) {
+            recompute(i);
+        }
+    }
+
+    private int recompute(BitSet affected) {
+        for (int i = affected.nextSetBit(0); i >= 0; i = affected.nextSetBit(i + 1)) {
+            recompute(i);
+        }
+        if (!affected.isEmpty()) summary = null;
+        return affected.cardinality();
+    }
+
+    private void recompute(int periodIndex) {
+        results[periodIndex] = result(aggregator.accumulator(periodIndex), periodsById);
+    }
+
+    private PeriodResultDto result(PeriodAccumulator acc, Map<String, KPeriod> byId) {
+        return ResponseMapper.toPeriodResultDto(
+                acc,
+                byId.get(acc.periodId()),
+                ReturnsEngine.npsReturn(acc, terms.inflationRate(), terms.taxCap()),
+                ReturnsEngine.indexReturn(acc, terms.inflationRate()));
+    }
+}
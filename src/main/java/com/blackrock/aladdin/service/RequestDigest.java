@@ -0,0 +1,237 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.config.EngineProperties;
+import com.blackrock.aladdin.model.KPeriod;
+import com.blackrock.aladdin.model.PRule;
+import com.blackrock.aladdin.model.QRule;
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
+import com.blackrock.aladdin.util.EpochOrder;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 of a request in canonical form, so requests that must produce the same response share a digest.
+ * Only order the engine ignores is normalized: transactions are sorted by time and amount and p rules by content
+ * (both are summed), and transaction and rule ids, which never reach the response, are left out;
+ * q rules and k periods are ordered by start keeping input order among equal starts (later q rules win ties, and
+ * same-start periods are reported in input order). Amounts keep their scale, which shows in the output. The
+ * settings that change results (arithmetic, scale, overlapping periods) are part of the digest.
+ */
+public final class RequestDigest {
+
+    /** Bump when a code change alters the response for the same input, so old ETags and disk entries stop matching. */
+    private static final int RESULT_VERSION = 1;
+
+    private RequestDigest() {}
+
+    public static String of(IngestedRequest request, EngineProperties properties) {
+        Writer out = new Writer();
+        out.putInt(RESULT_VERSION);
+        out.putString(properties.arithmetic().name());
+        out.putInt(properties.fixedScale());
+        out.putInt(properties.overlappingPeriods() ? 1 : 0);
+
+        Rows rows = request.batch() != null
+                ? new BatchRows(request.batch(), request.amountScales())
+                : new ListRows(request.transactions());
+        out.putInt(rows.size());
+        for (int i : canonicalOrder(rows)) {
+            out.putLong(rows.epochSecond(i));
+            rows.putAmount(i, out);
+        }
+
+        RequestTerms terms = request.terms();
+        List<QRule> qRules = EpochOrder.sortedBy(terms.qRules(), QRule::startTime);
+        out.putInt(qRules.size());
+        for (QRule q : qRules) {
+            out.putLong(q.startTime().getEpochSecond());
+            out.putDecimal(q.ceilingOverride());
+        }
+        List<PRule> pRules = new ArrayList<>(terms.pRules());
+        pRules.sort(Comparator.comparing(PRule::startTime).thenComparing(PRule::delta, RequestDigest::compareExactly));
+        out.putInt(pRules.size());
+        for (PRule p : pRules) {
+            out.putLong(p.startTime().getEpochSecond());
+            out.putDecimal(p.delta());
+        }
+        List<KPeriod> kPeriods = EpochOrder.sortedBy(terms.kPeriods(), KPeriod::startInclusive);
+        out.putInt(kPeriods.size());
+        for (KPeriod k : kPeriods) {
+            out.putString(k.id());
+            out.putLong(k.startInclusive().getEpochSecond());
+            out.putLong(k.endExclusive().getEpochSecond());
+        }
+        out.putDecimal(terms.defaultCeiling());
+        out.putDecimal(terms.inflationRate());
+        out.putDecimal(terms.taxCap());
+        return out.hex();
+    }
+
+    /** By time (primitive sort), then amount within equal times. */
+    private static int[] canonicalOrder(Rows rows) {
+        int size = rows.size();
+        long[] times = new long[size];
+        for (int i = 0; i < size; i++) times[i] = rows.epochSecond(i);
+        int[] order = EpochOrder.sortedIndices(times, size);
+        Comparator<Integer> tie = rows::compareAmount;
+        int runStart = 0;
+        for (int i = 1; i <= size; i++) {
+            if (i == size || times[order[i]] != times[order[runStart]]) {
+                if (i - runStart > 1) {
+                    List<Integer> run = new ArrayList<>(i - runStart);
+                    for (int j = runStart; j < i; j++) run.add(order[j]);
+                    run.sort(tie);
+                    for (int j = runStart; j < i; j++) order[j] = run.get(j - runStart);
+                }
+                runStart = i;
+            }
+        }
+        return order;
+    }
+
+    /** Numeric value, then scale: a total order in which equal keys are interchangeable. */
+    private static int compareExactly(BigDecimal a, BigDecimal b) {
+        int byValue = a.compareTo(b);
+        return byValue != 0 ? byValue : Integer.compare(a.scale(), b.scale());
+    }
+
+    private interface Rows {
+
+        int size();
+
+        long epochSecond(int row);
+
+        void putAmount(int row, Writer out);
+
+        int compareAmount(int a, int b);
+    }
+
+    private record ListRows(List<Transaction> transactions) implements Rows {
+
+        public int size() {
+            return transactions.size();
+        }
+
+        public long epochSecond(int row) {
+            return transactions.get(row).timestamp().getEpochSecond();
+        }
+
+        public void putAmount(int row, Writer out) {
+            out.putDecimal(transactions.get(row).amount());
+        }
+
+        public int compareAmount(int a, int b) {
+            return compareExactly(transactions.get(a).amount(), transactions.get(b).amount());
+        }
+    }
+
+    /** Batch rows hash like the equivalent exact rows: units brought back to each amount's original scale. */
+    private record BatchRows(TransactionBatch batch, byte[] scales) implements Rows {
+
+        public int size() {
+            return batch.size();
+        }
+
+        public long epochSecond(int row) {
+            return batch.epochSeconds()[row];
+        }
+
+        public void putAmount(int row, Writer out) {
+            out.putAmount(scales[row], unscaled(row));
+        }
+
+        public int compareAmount(int a, int b) {
+            int byValue = Long.compare(batch.amounts()[a], batch.amounts()[b]);
+            return byValue != 0 ? byValue : Integer.compare(scales[a], scales[b]);
+        }
+
+        private long unscaled(int row) {
+            long units = batch.amounts()[row];
+            for (int s = scales[row]; s < batch.scale(); s++) units /= 10;
+            return units;
+        }
+    }
+
+    /** Length-prefixed fields into SHA-256 through a reused buffer. */
+    private static final class Writer {
+
+        private final MessageDigest sha256;
+        private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        Writer() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        void putInt(int value) {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            putBytes(bytes);
+        }
+
+        void putDecimal(BigDecimal value) {
+            BigInteger unscaled = value.unscaledValue();
+            if (unscaled.bitLength() < Long.SIZE) {
+                putAmount(value.scale(), unscaled.longValue());
+            } else {
+                putInt(value.scale());
+                byte[] bytes = unscaled.toByteArray();
+                putInt(-bytes.length);
+                putBytes(bytes);
+            }
+        }
+
+        /** Same encoding as {@link #putDecimal} for a long unscaled value. */
+        void putAmount(int scale, long unscaled) {
+            putInt(scale);
+            putInt(Long.BYTES);
+            putLong(unscaled);
+        }
+
+        private void putBytes(byte[] bytes) {
+            if (bytes.length > buffer.remaining()) {
+                flush();
+                sha256.update(bytes);
+            } else {
+                buffer.put(bytes);
+            }
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        private void flush() {
+            sha256.update(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+
+        String hex() {
+            flush();
+            return HexFormat.of().formatHex(sha256.digest());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.blackrock.aladdin.service;
 
 import com.blackrock.aladdin.model.*;
+import com.blackrock.aladdin.util.FixedPoint;
 import com.blackrock.aladdin.util.TimestampParser;
 
 import java.util.List;
@@ -23,6 +24,39 @@ public final class RequestMapper {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Builds the columnar batch directly from DTOs (no intermediate Transaction list).
+     *
+     * @throws ArithmeticException when an amount is not representable at {@code scale}
+     */
+    public static TransactionBatch toTransactionBatch(List<TransactionDto> dtos, int scale) {
+        TransactionBatch.Builder builder = TransactionBatch.builder(scale, dtos.size());
+        for (TransactionDto d : dtos) {
+            if (d.amount() == null) throw new IllegalArgumentException("amount required");
+            builder.add(
+                    d.id(),
+                    TimestampParser.parseEpochSecond(d.timestamp()),
+                    FixedPoint.toUnits(d.amount(), scale)
+            );
+        }
+        return builder.build();
+    }
+
+    /**
+     * Original decimal scale of each amount, kept beside a batch so an exact fallback rebuilds the same BigDecimals.
+     *
+     * @throws ArithmeticException when a scale does not fit in a byte
+     */
+    public static byte[] toAmountScales(List<TransactionDto> dtos) {
+        byte[] scales = new byte[dtos.size()];
+        for (int i = 0; i < scales.length; i++) {
+            int scale = dtos.get(i).amount().scale();
+            if (scale != (byte) scale) throw new ArithmeticException("Amount scale out of range");
+            scales[i] = (byte) scale;
+        }
+        return scales;
+    }
+
     public static List<QRule> toQRules(List<QRuleDto> dtos) {
         if (dtos == null) return List.of();
         return dtos.stream()
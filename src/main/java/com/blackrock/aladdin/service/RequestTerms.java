@@ -0,0 +1,37 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.model.KPeriod;
+import com.blackrock.aladdin.model.PRule;
+import com.blackrock.aladdin.model.ProcessRequest;
+import com.blackrock.aladdin.model.QRule;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Everything in a request except the transactions: rules, k periods and global parameters, already mapped.
+ */
+public record RequestTerms(
+        List<QRule> qRules,
+        List<PRule> pRules,
+        List<KPeriod> kPeriods,
+        BigDecimal defaultCeiling,
+        BigDecimal inflationRate,
+        BigDecimal taxCap
+) {
+    public static RequestTerms from(ProcessRequest request) {
+        return from(request, RuleCache.none());
+    }
+
+    /** Rule lists come from {@code rules}, so identical lists across requests map to the same instances. */
+    public static RequestTerms from(ProcessRequest request, RuleCache rules) {
+        return new RequestTerms(
+                rules.qRules(request.qRules()),
+                rules.pRules(request.pRules()),
+                RequestMapper.toKPeriods(request.kPeriods()),
+                request.defaultCeiling(),
+                request.inflationRate(),
+                request.taxCap()
+        );
+    }
+}
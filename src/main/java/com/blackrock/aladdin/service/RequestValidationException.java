@@ -0,0 +1,19 @@
+package com.blackrock.aladdin.service;
+
+/**
+ * A streamed request body that breaks a constraint of ProcessRequest, with the field path that broke it
+ * (e.g. {@code transactions[12].amount}). Reported like a failed bean validation of a bound request.
+ */
+public class RequestValidationException extends IllegalArgumentException {
+
+    private final String path;
+
+    public RequestValidationException(String path, String message) {
+        super(path + ": " + message);
+        this.path = path;
+    }
+
+    public String path() {
+        return path;
+    }
+}
@@ -2,13 +2,16 @@ package com.blackrock.aladdin.service;
 
 import com.blackrock.aladdin.engine.ReturnsEngine;
 import com.blackrock.aladdin.model.*;
+import com.blackrock.aladdin.util.FixedPoint;
 import com.blackrock.aladdin.util.TimestampParser;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * Maps domain results to API response DTOs.
+ * Fixed-point totals are converted at the scales they carry, so they equal the exact engine's BigDecimals.
  */
 public final class ResponseMapper {
 
@@ -40,9 +43,70 @@ public final class ResponseMapper {
             List<PeriodAccumulator> accumulators,
             List<KPeriod> kPeriods
     ) {
-        var byId = kPeriods.stream().collect(Collectors.toMap(KPeriod::id, p -> p));
+        var byId = periodsById(kPeriods);
         return accumulators.stream()
                 .map(acc -> toPeriodSummaryDto(acc, byId.get(acc.periodId())))
                 .collect(Collectors.toList());
     }
+
+    public static PeriodSummaryDto toPeriodSummaryDto(FixedPeriodAccumulator acc, KPeriod period, int scale) {
+        String start = period != null ? TimestampParser.format(period.startInclusive()) : "";
+        String end = period != null ? TimestampParser.format(period.endExclusive()) : "";
+        return new PeriodSummaryDto(
+                acc.periodId(),
+                start,
+                end,
+                FixedPoint.toDecimal(acc.totalContribution(), scale, acc.contributionScale()),
+                FixedPoint.toDecimal(acc.totalRemanent(), scale, acc.remanentScale()),
+                FixedPoint.toDecimal(acc.pAdditive(), scale, acc.pAdditiveScale())
+        );
+    }
+
+    public static ReturnResultDto toReturnResultDto(ReturnsEngine.FixedReturnResult r, int scale) {
+        return new ReturnResultDto(
+                r.periodId(),
+                FixedPoint.toDecimal(r.grossReturn(), scale, r.grossScale()),
+                FixedPoint.toDecimal(r.taxBenefit(), scale, r.taxBenefitScale()),
+                r.inflationAdjustedReturn()
+        );
+    }
+
+    public static List<PeriodSummaryDto> toFixedPeriodSummaryDtos(
+            List<FixedPeriodAccumulator> accumulators,
+            List<KPeriod> kPeriods,
+            int scale
+    ) {
+        var byId = periodsById(kPeriods);
+        return accumulators.stream()
+                .map(acc -> toPeriodSummaryDto(acc, byId.get(acc.periodId()), scale))
+                .collect(Collectors.toList());
+    }
+
+    public static PeriodResultDto toPeriodResultDto(
+            PeriodAccumulator acc,
+            KPeriod period,
+            ReturnsEngine.ReturnResult nps,
+            ReturnsEngine.ReturnResult index
+    ) {
+        return new PeriodResultDto(toPeriodSummaryDto(acc, period), toReturnResultDto(nps), toReturnResultDto(index));
+    }
+
+    public static PeriodResultDto toPeriodResultDto(
+            FixedPeriodAccumulator acc,
+            KPeriod period,
+            ReturnsEngine.FixedReturnResult nps,
+            ReturnsEngine.FixedReturnResult index,
+            int scale
+    ) {
+        return new PeriodResultDto(
+                toPeriodSummaryDto(acc, period, scale),
+                toReturnResultDto(nps, scale),
+                toReturnResultDto(index, scale)
+        );
+    }
+
+    /** Period lookup for summaries; duplicate ids are rejected as in the list mapping. */
+    public static Map<String, KPeriod> periodsById(List<KPeriod> kPeriods) {
+        return kPeriods.stream().collect(Collectors.toMap(KPeriod::id, p -> p));
+    }
 }
@@ -0,0 +1,241 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.config.EngineProperties;
+import com.blackrock.aladdin.config.ResultCacheProperties;
+import com.blackrock.aladdin.model.PeriodSummaryDto;
+import com.blackrock.aladdin.model.ProcessResponse;
+import com.blackrock.aladdin.model.ReturnResultDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Responses by {@link RequestDigest}: a W-TinyLFU memory tier bounded by estimated bytes
+ * ({@code engine.cache.max-size}) and an optional disk tier that takes what memory evicts.
+ * The digest doubles as the response ETag, since equal digests always produce equal responses.
+ */
+@Component
+public class ResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultCache.class);
+
+    private final boolean enabled;
+    private final EngineProperties engineProperties;
+    private final Cache<String, ProcessResponse> memory;
+    private final DiskTier disk;
+    private final AtomicLong diskHits = new AtomicLong();
+
+    @Autowired
+    public ResultCache(ResultCacheProperties properties, EngineProperties engineProperties, ObjectMapper objectMapper) {
+        this(properties, engineProperties, objectMapper, ForkJoinPool.commonPool());
+    }
+
+    /** @param maintenance runs evictions and disk spills */
+    ResultCache(ResultCacheProperties properties, EngineProperties engineProperties, ObjectMapper objectMapper,
+                Executor maintenance) {
+        this.enabled = properties.enabled();
+        this.engineProperties = engineProperties;
+        this.disk = properties.enabled() && !properties.diskDirectory().isBlank()
+                ? new DiskTier(Path.of(properties.diskDirectory()), properties.diskMaxSize().toBytes(), objectMapper)
+                : null;
+        this.memory = Caffeine.newBuilder()
+                .executor(maintenance)
+                .maximumWeight(properties.maxSize().toBytes())
+                .weigher((String key, ProcessResponse response) -> estimateBytes(response))
+                .removalListener((String key, ProcessResponse response, RemovalCause cause) -> {
+                    if (disk != null && cause == RemovalCause.SIZE && key != null && response != null) {
+                        disk.write(key, response);
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /** Cache key and ETag value (unquoted) of a request under the current engine settings. */
+    public String key(IngestedRequest request) {
+        return RequestDigest.of(request, engineProperties);
+    }
+
+    /**
+     * Cached response for {@code key}, from memory or disk, else {@code compute}d and cached.
+     * Concurrent misses on one key may each compute; the responses are equal.
+     */
+    public ProcessResponse get(String key, Supplier<ProcessResponse> compute) {
+        ProcessResponse response = memory.getIfPresent(key);
+        if (response != null) return response;
+        if (disk != null) {
+            response = disk.read(key);
+            if (response != null) {
+                diskHits.incrementAndGet();
+                memory.put(key, response);
+                return response;
+            }
+        }
+        response = compute.get();
+        memory.put(key, response);
+        return response;
+    }
+
+    public Stats stats() {
+        var memoryStats = memory.stats();
+        long weighted = memory.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L);
+        return new Stats(memoryStats.hitCount(), memoryStats.missCount(), diskHits.get(), memoryStats.evictionCount(),
+                memory.estimatedSize(), weighted, disk != null ? disk.bytes() : 0L);
+    }
+
+    /**
+     * @param hits           served from memory
+     * @param misses         not in memory (disk hits included)
+     * @param diskHits       served from the disk tier
+     * @param evictions      evicted from memory to stay under the size bound
+     * @param entries        responses in memory (approximate)
+     * @param estimatedBytes estimated memory held by cached responses
+     * @param diskBytes      bytes held by the disk tier
+     */
+    public record Stats(long hits, long misses, long diskHits, long evictions, long entries, long estimatedBytes,
+                        long diskBytes) {}
+
+    /** Rough retained size of a response: object headers, BigDecimals and compact strings. */
+    static int estimateBytes(ProcessResponse response) {
+        long bytes = 64;
+        bytes += listBytes(response.periodSummaries());
+        for (PeriodSummaryDto s : response.periodSummaries()) {
+            bytes += 40 + stringBytes(s.periodId()) + stringBytes(s.startInclusive()) + stringBytes(s.endExclusive()) + 3 * 40;
+        }
+        for (List<ReturnResultDto> returns : List.of(response.npsReturns(), response.indexReturns())) {
+            bytes += listBytes(returns);
+            for (ReturnResultDto r : returns) {
+                bytes += 32 + stringBytes(r.periodId()) + 3 * 40;
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long listBytes(List<?> list) {
+        return 40 + 4L * list.size();
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    /**
+     * Responses as JSON files named by key, at most {@code maxBytes} in total. A write that would pass the bound
+     * first deletes the least recently used files; reads refresh a file's modification time to mark it used.
+     */
+    private static final class DiskTier {
+
+        private final Path directory;
+        private final long maxBytes;
+        private final ObjectMapper objectMapper;
+        private final AtomicLong bytes = new AtomicLong();
+
+        DiskTier(Path directory, long maxBytes, ObjectMapper objectMapper) {
+            this.directory = directory;
+            this.maxBytes = maxBytes;
+            this.objectMapper = objectMapper;
+            try {
+                Files.createDirectories(directory);
+                try (Stream<Path> files = Files.list(directory)) {
+                    bytes.set(files.mapToLong(DiskTier::size).sum());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot use result cache directory " + directory, e);
+            }
+        }
+
+        long bytes() {
+            return bytes.get();
+        }
+
+        ProcessResponse read(String key) {
+            try {
+                Path file = file(key);
+                ProcessResponse response = objectMapper.readValue(Files.readAllBytes(file), ProcessResponse.class);
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                return response;
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                log.warn("Unreadable cached result {}: {}", key, e.getMessage());
+                return null;
+            }
+        }
+
+        void write(String key, ProcessResponse response) {
+            Path target = file(key);
+            if (Files.exists(target)) return;
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(response);
+                if (json.length > maxBytes) return;
+                if (bytes.get() + json.length > maxBytes) evict(json.length);
+                Path temp = Files.createTempFile(directory, key, ".tmp");
+                Files.write(temp, json);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                bytes.addAndGet(json.length);
+            } catch (IOException e) {
+                log.warn("Could not spill cached result {} to disk: {}", key, e.getMessage());
+            }
+        }
+
+        /** Deletes the least recently used files until {@code needed} more bytes fit under the bound. */
+        private synchronized void evict(long needed) throws IOException {
+            if (bytes.get() + needed <= maxBytes) return;
+            List<Path> oldestFirst;
+            try (Stream<Path> files = Files.list(directory)) {
+                oldestFirst = files.filter(f -> f.getFileName().toString().endsWith(".json"))
+                        .sorted(Comparator.comparing(DiskTier::modified))
+                        .toList();
+            }
+            for (Path file : oldestFirst) {
+                if (bytes.get() + needed <= maxBytes) return;
+                long size = size(file);
+                if (Files.deleteIfExists(file)) bytes.addAndGet(-size);
+            }
+        }
+
+        private Path file(String key) {
+            return directory.resolve(key + ".json");
+        }
+
+        private static FileTime modified(Path file) {
+            try {
+                return Files.getLastModifiedTime(file);
+            } catch (IOException e) {
+                return FileTime.fromMillis(0L);
+            }
+        }
+
+        private static long size(Path file) {
+            try {
+                return Files.size(file);
+            } catch (IOException e) {
+                return 0L;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.engine.CeilingRemanentEngine;
+import com.blackrock.aladdin.engine.CeilingSchedule;
+import com.blackrock.aladdin.engine.PTimeline;
+import com.blackrock.aladdin.engine.TimelineRuleEngine;
+import com.blackrock.aladdin.model.PRule;
+import com.blackrock.aladdin.model.PRuleDto;
+import com.blackrock.aladdin.model.QRule;
+import com.blackrock.aladdin.model.QRuleDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mapped rule lists and built rule structures (p timeline, ceiling schedule), keyed by the rules
+ * themselves so requests carrying identical rules share one instance instead of rebuilding it.
+ * Thread-safe; scope one to a unit of work such as a batch call. {@link #none()} builds every time.
+ */
+public final class RuleCache {
+
+    private static final RuleCache NONE = new RuleCache(false);
+
+    private final boolean shared;
+    private final Map<List<QRuleDto>, List<QRule>> qRules = new ConcurrentHashMap<>();
+    private final Map<List<PRuleDto>, List<PRule>> pRules = new ConcurrentHashMap<>();
+    private final Map<List<PRule>, PTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<CeilingKey, CeilingSchedule> schedules = new ConcurrentHashMap<>();
+
+    private RuleCache(boolean shared) {
+        this.shared = shared;
+    }
+
+    public static RuleCache shared() {
+        return new RuleCache(true);
+    }
+
+    public static RuleCache none() {
+        return NONE;
+    }
+
+    public List<QRule> qRules(List<QRuleDto> dtos) {
+        if (!shared || dtos == null) return RequestMapper.toQRules(dtos);
+        return qRules.computeIfAbsent(dtos, RequestMapper::toQRules);
+    }
+
+    public List<PRule> pRules(List<PRuleDto> dtos) {
+        if (!shared || dtos == null) return RequestMapper.toPRules(dtos);
+        return pRules.computeIfAbsent(dtos, RequestMapper::toPRules);
+    }
+
+    public PTimeline pTimeline(List<PRule> rules) {
+        if (!shared) return TimelineRuleEngine.buildPTimeline(rules);
+        return timelines.computeIfAbsent(rules, TimelineRuleEngine::buildPTimeline);
+    }
+
+    /** Ceiling schedule for the rules and default; BigDecimal keys are scale-sensitive, like the outputs. */
+    public CeilingSchedule ceilings(List<QRule> rules, BigDecimal defaultCeiling) {
+        if (!shared) return CeilingRemanentEngine.buildCeilingSchedule(rules, defaultCeiling);
+        return schedules.computeIfAbsent(new CeilingKey(rules, defaultCeiling),
+                key -> CeilingRemanentEngine.buildCeilingSchedule(key.rules(), key.defaultCeiling()));
+    }
+
+    private record CeilingKey(List<QRule> rules, BigDecimal defaultCeiling) {}
+}
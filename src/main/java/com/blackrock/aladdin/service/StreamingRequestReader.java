@@ -0,0 +1,273 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.model.KPeriod;
+import com.blackrock.aladdin.model.PRule;
+import com.blackrock.aladdin.model.QRule;
+import com.blackrock.aladdin.util.TimestampParser;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a /process body token by token with the Jackson streaming parser, straight into engine
+ * inputs: no ProcessRequest, no DTO lists. JSON by default; binary formats (CBOR, Smile) carry decimals natively
+ * (CBOR decimal fraction, Smile scale and unscaled value), so their amounts are scaled integers never parsed
+ * from text, and their timestamps may also be integers (epoch seconds). Transactions become domain objects
+ * (exact) or batch rows (fixed, amounts parsed from the token text into units); a fixed read switches to domain
+ * objects on the first amount the scale cannot hold. Validation mirrors the bean constraints on ProcessRequest,
+ * applied per element as it is read; failures are RequestValidationException naming the field path.
+ * Unknown fields are skipped.
+ */
+public final class StreamingRequestReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private StreamingRequestReader() {}
+
+    /**
+     * @param fixedScale scale for a columnar batch, or -1 to read transactions for exact arithmetic
+     */
+    public static IngestedRequest read(InputStream body, int fixedScale) throws IOException {
+        return read(body, JSON, fixedScale);
+    }
+
+    /**
+     * @param format     parser factory of the body's format, e.g. {@code CBORFactory} or {@code SmileFactory}
+     * @param fixedScale scale for a columnar batch, or -1 to read transactions for exact arithmetic
+     */
+    public static IngestedRequest read(InputStream body, JsonFactory format, int fixedScale) throws IOException {
+        boolean binary = format.canHandleBinaryNatively();
+        try (JsonParser parser = format.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("request body must be a JSON object");
+            }
+            TransactionSink transactions = null;
+            List<QRule> qRules = List.of();
+            List<PRule> pRules = List.of();
+            List<KPeriod> kPeriods = null;
+            BigDecimal defaultCeiling = null;
+            BigDecimal inflationRate = null;
+            BigDecimal taxCap = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "transactions" -> {
+                        if (value != JsonToken.VALUE_NULL) {
+                            transactions = readTransactions(parser, TransactionSink.create(fixedScale), binary);
+                        }
+                    }
+                    case "qRules" -> qRules = readRules(parser, "qRules", "ceilingOverride", binary,
+                            (id, start, amount) -> new QRule(id, start, amount));
+                    case "pRules" -> pRules = readRules(parser, "pRules", "delta", binary,
+                            (id, start, amount) -> new PRule(id, start, amount));
+                    case "kPeriods" -> kPeriods = readKPeriods(parser, binary);
+                    case "defaultCeiling" -> defaultCeiling = readDecimal(parser, "defaultCeiling");
+                    case "inflationRate" -> inflationRate = readDecimal(parser, "inflationRate");
+                    case "taxCap" -> taxCap = readDecimal(parser, "taxCap");
+                    default -> parser.skipChildren();
+                }
+            }
+            require(transactions != null, "transactions", "must not be null");
+            require(kPeriods != null, "kPeriods", "must not be null");
+            RequestTerms terms = new RequestTerms(qRules, pRules, kPeriods,
+                    nonNegative(defaultCeiling, "defaultCeiling"),
+                    nonNegative(inflationRate, "inflationRate"),
+                    nonNegative(taxCap, "taxCap"));
+            return transactions.finish(terms);
+        }
+    }
+
+    private static TransactionSink readTransactions(JsonParser parser, TransactionSink sink, boolean binary) throws IOException {
+        expectArray(parser, "transactions");
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String path = "transactions[" + index + "]";
+            expectObject(parser, path);
+            String id = null;
+            String timestamp = null;
+            long epochSecond = TimestampParser.UNPARSED;
+            boolean hasAmount = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> id = text(parser, value);
+                    case "timestamp" -> {
+                        // decode from the token buffer; keep the text only when the fast path declines it
+                        epochSecond = binary && value == JsonToken.VALUE_NUMBER_INT ? epochSecond(parser, path + ".timestamp")
+                                : value == JsonToken.VALUE_STRING
+                                ? TimestampParser.tryParseEpochSecond(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())
+                                : TimestampParser.UNPARSED;
+                        timestamp = epochSecond == TimestampParser.UNPARSED ? timeText(parser, value, binary, path + ".timestamp") : null;
+                    }
+                    case "amount" -> {
+                        // the amount is the last thing needed from the token buffer; stage it in the sink
+                        hasAmount = value != JsonToken.VALUE_NULL;
+                        if (hasAmount) sink = stageAmount(parser, value, binary, sink, path + ".amount");
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            require(id != null && !id.isBlank(), path + ".id", "must not be blank");
+            require(epochSecond != TimestampParser.UNPARSED || timestamp != null && !timestamp.isBlank(),
+                    path + ".timestamp", "must not be blank");
+            require(hasAmount, path + ".amount", "must not be null");
+            if (epochSecond == TimestampParser.UNPARSED) {
+                epochSecond = TimestampParser.parseEpochSecond(timestamp);
+            }
+            sink.add(id, epochSecond);
+            index++;
+        }
+        return sink;
+    }
+
+    /** Number tokens of a text format go to the sink as text, so fixed-point parsing needs no BigDecimal. */
+    private static TransactionSink stageAmount(JsonParser parser, JsonToken token, boolean binary, TransactionSink sink,
+                                               String path) throws IOException {
+        if (!binary && (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT)) {
+            return sink.stageText(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        BigDecimal amount = readDecimal(parser, path);
+        require(amount != null, path, "must not be null");
+        return sink.stageDecimal(amount);
+    }
+
+    @FunctionalInterface
+    private interface RuleFactory<R> {
+        R create(String id, Instant start, BigDecimal amount);
+    }
+
+    private static <R> List<R> readRules(JsonParser parser, String name, String amountField, boolean binary,
+                                         RuleFactory<R> factory) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) return List.of();
+        expectArray(parser, name);
+        List<R> rules = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String path = name + "[" + rules.size() + "]";
+            expectObject(parser, path);
+            String id = null;
+            String startTime = null;
+            BigDecimal amount = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("id")) {
+                    id = text(parser, value);
+                } else if (field.equals("startTime")) {
+                    startTime = timeText(parser, value, binary, path + ".startTime");
+                } else if (field.equals(amountField)) {
+                    amount = readDecimal(parser, path + "." + amountField);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            require(id != null && !id.isBlank(), path + ".id", "must not be blank");
+            require(startTime != null && !startTime.isBlank(), path + ".startTime", "must not be blank");
+            require(amount != null, path + "." + amountField, "must not be null");
+            rules.add(factory.create(id, TimestampParser.parse(startTime), amount));
+        }
+        return rules;
+    }
+
+    private static List<KPeriod> readKPeriods(JsonParser parser, boolean binary) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) return null;
+        expectArray(parser, "kPeriods");
+        List<KPeriod> periods = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String path = "kPeriods[" + periods.size() + "]";
+            expectObject(parser, path);
+            String id = null;
+            String start = null;
+            String end = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> id = text(parser, value);
+                    case "startInclusive" -> start = timeText(parser, value, binary, path + ".startInclusive");
+                    case "endExclusive" -> end = timeText(parser, value, binary, path + ".endExclusive");
+                    default -> parser.skipChildren();
+                }
+            }
+            require(id != null && !id.isBlank(), path + ".id", "must not be blank");
+            require(start != null && !start.isBlank(), path + ".startInclusive", "must not be blank");
+            require(end != null && !end.isBlank(), path + ".endExclusive", "must not be blank");
+            periods.add(new KPeriod(id, TimestampParser.parse(start), TimestampParser.parse(end)));
+        }
+        return periods;
+    }
+
+    /** Number or numeric string, as Jackson would bind a BigDecimal field; null for JSON null. */
+    private static BigDecimal readDecimal(JsonParser parser, String path) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDecimalValue();
+        }
+        if (token == JsonToken.VALUE_NULL) return null;
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            if (text.isEmpty()) return null;
+            try {
+                return new BigDecimal(text);
+            } catch (NumberFormatException e) {
+                throw new RequestValidationException(path, "not a number");
+            }
+        }
+        throw new RequestValidationException(path, "not a number");
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) return null;
+        if (value.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText();
+    }
+
+    /**
+     * Timestamp text; in a binary format an integer epoch second is accepted and formatted.
+     *
+     * @param path field path for errors, e.g. {@code kPeriods[0].startInclusive}
+     */
+    private static String timeText(JsonParser parser, JsonToken value, boolean binary, String path) throws IOException {
+        if (binary && value == JsonToken.VALUE_NUMBER_INT) {
+            return TimestampParser.format(Instant.ofEpochSecond(epochSecond(parser, path)));
+        }
+        return text(parser, value);
+    }
+
+    private static long epochSecond(JsonParser parser, String path) throws IOException {
+        long epochSecond = parser.getLongValue();
+        require(epochSecond >= TimestampParser.MIN_EPOCH_SECOND && epochSecond <= TimestampParser.MAX_EPOCH_SECOND, path, "must be within years 0001-9999");
+        return epochSecond;
+    }
+
+    private static BigDecimal nonNegative(BigDecimal value, String path) {
+        require(value != null, path, "must not be null");
+        require(value.signum() >= 0, path, "must be greater than or equal to 0");
+        return value;
+    }
+
+    private static void expectArray(JsonParser parser, String path) {
+        require(parser.currentToken() == JsonToken.START_ARRAY, path, "must be an array");
+    }
+
+    private static void expectObject(JsonParser parser, String path) {
+        require(parser.currentToken() == JsonToken.START_OBJECT, path, "must be an object");
+    }
+
+    private static void require(boolean condition, String path, String message) {
+        if (!condition) {
+            throw new RequestValidationException(path, message);
+        }
+    }
+}
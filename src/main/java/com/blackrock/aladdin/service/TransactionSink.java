@@ -0,0 +1,143 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
+import com.blackrock.aladdin.util.FixedPoint;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Receives transactions as a streaming reader reads them: amount first (from the reader's current token or field),
+ * then id and time. A fixed sink parses amounts straight into a columnar batch and hands over to an exact sink on
+ * the first amount its scale cannot hold.
+ */
+interface TransactionSink {
+
+    /** @param fixedScale scale for a columnar batch, or -1 to collect transactions for exact arithmetic */
+    static TransactionSink create(int fixedScale) {
+        return fixedScale >= 0 ? new Fixed(fixedScale) : new Exact(new ArrayList<>());
+    }
+
+    /**
+     * Decimal text, e.g. a JSON number token or CSV field.
+     *
+     * @return the sink to continue with (a fixed sink may hand over to an exact one)
+     * @throws NumberFormatException when the text is not a decimal
+     */
+    TransactionSink stageText(char[] chars, int offset, int length);
+
+    /** @return the sink to continue with (a fixed sink may hand over to an exact one) */
+    TransactionSink stageDecimal(BigDecimal amount);
+
+    void add(String id, long epochSecond);
+
+    IngestedRequest finish(RequestTerms terms);
+
+    final class Exact implements TransactionSink {
+
+        private final List<Transaction> transactions;
+        private BigDecimal amount;
+
+        private Exact(List<Transaction> transactions) {
+            this.transactions = transactions;
+        }
+
+        @Override
+        public TransactionSink stageText(char[] chars, int offset, int length) {
+            amount = new BigDecimal(chars, offset, length);
+            return this;
+        }
+
+        @Override
+        public TransactionSink stageDecimal(BigDecimal amount) {
+            this.amount = amount;
+            return this;
+        }
+
+        @Override
+        public void add(String id, long epochSecond) {
+            transactions.add(new Transaction(id, Instant.ofEpochSecond(epochSecond), amount));
+        }
+
+        @Override
+        public IngestedRequest finish(RequestTerms terms) {
+            return IngestedRequest.exact(transactions, terms);
+        }
+    }
+
+    final class Fixed implements TransactionSink {
+
+        private final int scale;
+        private final TransactionBatch.Builder builder;
+        private byte[] amountScales = new byte[1024];
+        private int size;
+        private long units;
+        private byte amountScale;
+
+        private Fixed(int scale) {
+            this.scale = scale;
+            this.builder = TransactionBatch.builder(scale, 1024);
+        }
+
+        @Override
+        public TransactionSink stageText(char[] chars, int offset, int length) {
+            try {
+                try {
+                    units = FixedPoint.parseUnits(chars, offset, length, scale);
+                } catch (NumberFormatException e) {
+                    return stageDecimal(new BigDecimal(chars, offset, length));
+                }
+                int decimals = 0;
+                for (int i = offset + length - 1; i >= offset; i--) {
+                    if (chars[i] == '.') {
+                        decimals = offset + length - 1 - i;
+                        break;
+                    }
+                }
+                amountScale = toScaleByte(decimals);
+                return this;
+            } catch (ArithmeticException e) {
+                return toExact().stageText(chars, offset, length);
+            }
+        }
+
+        @Override
+        public TransactionSink stageDecimal(BigDecimal amount) {
+            try {
+                units = FixedPoint.toUnits(amount, scale);
+                amountScale = toScaleByte(amount.scale());
+                return this;
+            } catch (ArithmeticException e) {
+                return toExact().stageDecimal(amount);
+            }
+        }
+
+        /** Not representable at this scale: the whole request continues as exact. */
+        private TransactionSink toExact() {
+            return new Exact(IngestedRequest.toTransactions(builder.build(), amountScales, size));
+        }
+
+        private static byte toScaleByte(int amountScale) {
+            if (amountScale != (byte) amountScale) throw new ArithmeticException("Amount scale out of range");
+            return (byte) amountScale;
+        }
+
+        @Override
+        public void add(String id, long epochSecond) {
+            builder.add(id, epochSecond, units);
+            if (size == amountScales.length) {
+                amountScales = Arrays.copyOf(amountScales, size * 2);
+            }
+            amountScales[size++] = amountScale;
+        }
+
+        @Override
+        public IngestedRequest finish(RequestTerms terms) {
+            return IngestedRequest.fixed(builder.build(), amountScales, terms);
+        }
+    }
+}
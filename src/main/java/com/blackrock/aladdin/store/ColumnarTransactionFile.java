@@ -0,0 +1,287 @@
+package com.blackrock.aladdin.store;
+
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
+import com.blackrock.aladdin.model.TransactionColumns;
+import com.blackrock.aladdin.util.FixedPoint;
+import com.blackrock.aladdin.util.TimestampParser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk upload file: transactions as fixed-width columns, mapped with {@link FileChannel#map} and read without
+ * per-row parsing. All values are little-endian:
+ * <pre>
+ * offset              size          content
+ * 0                   4             magic "TXCL"
+ * 4                   4             version (1)
+ * 8                   4             rows (n)
+ * 12                  4             amount scale, 0-18: every amount is unscaled * 10^-scale
+ * 16                  4             ids (d), entries in the id dictionary
+ * 20                  12            reserved, zero
+ * 32                  8n            epoch seconds (long), UTC, years 0001-9999
+ * 32 + 8n             8n            amounts, unscaled at the file's scale (long)
+ * 32 + 16n            4n            id codes (int), 0 to d-1
+ * 32 + 20n            to end        id dictionary: d entries of byte length (int) then UTF-8 bytes
+ * </pre>
+ * Rows may be in any order. Each column is mapped on its own, so a file holds up to {@value #MAX_ROWS} rows.
+ * {@link #toBatch} hands the engines a columnar batch with one bulk copy per column.
+ */
+public final class ColumnarTransactionFile implements TransactionColumns, Closeable {
+
+    public static final int MAX_ROWS = Integer.MAX_VALUE / Long.BYTES;
+
+    private static final int MAGIC = 0x4C435854; // "TXCL" in little-endian byte order
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int MAX_SCALE = 18;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final int size;
+    private final int scale;
+    private final MappedByteBuffer epochSeconds;
+    private final MappedByteBuffer amounts;
+    private final MappedByteBuffer idCodes;
+    private final MappedByteBuffer dictionaryBytes;
+    private final int[] idOffsets;
+
+    private ColumnarTransactionFile(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            require(length >= HEADER_BYTES, file, "shorter than its header");
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            require(header.getInt(0) == MAGIC, file, "bad magic");
+            require(header.getInt(4) == VERSION, file, "unsupported version " + header.getInt(4));
+            this.size = header.getInt(8);
+            this.scale = header.getInt(12);
+            int ids = header.getInt(16);
+            require(size >= 0 && size <= MAX_ROWS, file, "row count " + size + " outside 0-" + MAX_ROWS);
+            require(scale >= 0 && scale <= MAX_SCALE, file, "amount scale " + scale + " outside 0-" + MAX_SCALE);
+            require(ids >= 0 && ids <= size, file, "id count " + ids + " outside 0-" + size);
+            long dictionaryOffset = HEADER_BYTES + 20L * size;
+            require(length >= dictionaryOffset + 4L * ids, file, "shorter than its columns");
+            this.epochSeconds = column(HEADER_BYTES, 8L * size);
+            this.amounts = column(HEADER_BYTES + 8L * size, 8L * size);
+            this.idCodes = column(HEADER_BYTES + 16L * size, 4L * size);
+            require(length - dictionaryOffset <= Integer.MAX_VALUE, file, "id dictionary larger than 2 GB");
+            this.dictionaryBytes = column(dictionaryOffset, length - dictionaryOffset);
+            this.idOffsets = indexDictionary(file, dictionaryBytes.duplicate().order(ByteOrder.LITTLE_ENDIAN), ids);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps {@code file} and indexes its id dictionary; columns and ids are read on access, so close the file only
+     * once nothing reads them.
+     *
+     * @throws IllegalArgumentException when the file is not in this format
+     */
+    public static ColumnarTransactionFile open(Path file) {
+        try {
+            return new ColumnarTransactionFile(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open columnar transaction file " + file, e);
+        }
+    }
+
+    /**
+     * Writes {@code rows} to {@code file} in this format with amounts at {@code scale}.
+     *
+     * @throws ArithmeticException when an amount has more than {@code scale} decimals or does not fit in a long
+     */
+    public static void write(Path file, TransactionColumns rows, int scale) {
+        if (scale < 0 || scale > MAX_SCALE) throw new IllegalArgumentException("scale must be 0-" + MAX_SCALE);
+        int count = rows.size();
+        if (count > MAX_ROWS) throw new IllegalArgumentException("At most " + MAX_ROWS + " rows per file");
+        Map<String, Integer> codeById = new HashMap<>();
+        List<byte[]> dictionary = new ArrayList<>();
+        int[] codes = new int[count];
+        for (int row = 0; row < count; row++) {
+            codes[row] = codeById.computeIfAbsent(rows.id(row), id -> {
+                dictionary.add(id.getBytes(StandardCharsets.UTF_8));
+                return dictionary.size() - 1;
+            });
+        }
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(scale).putInt(dictionary.size())
+                    .putInt(0).putLong(0L);
+            for (int row = 0; row < count; row++) {
+                buffer = room(out, buffer, Long.BYTES).putLong(rows.epochSecond(row));
+            }
+            for (int row = 0; row < count; row++) {
+                long units = rows.amountScale(row) == scale
+                        ? rows.unscaledAmount(row)
+                        : FixedPoint.toUnits(rows.amount(row), scale);
+                buffer = room(out, buffer, Long.BYTES).putLong(units);
+            }
+            for (int row = 0; row < count; row++) {
+                buffer = room(out, buffer, Integer.BYTES).putInt(codes[row]);
+            }
+            for (byte[] id : dictionary) {
+                buffer = room(out, buffer, Integer.BYTES + id.length).putInt(id.length).put(id);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) out.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write columnar transaction file " + file, e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Scale of every amount in the file. */
+    public int scale() {
+        return scale;
+    }
+
+    @Override
+    public long epochSecond(int row) {
+        return epochSeconds.getLong(row << 3);
+    }
+
+    @Override
+    public long unscaledAmount(int row) {
+        return amounts.getLong(row << 3);
+    }
+
+    @Override
+    public int amountScale(int row) {
+        return scale;
+    }
+
+    /** @throws IllegalArgumentException when the row's id code is outside the dictionary */
+    @Override
+    public String id(int row) {
+        return decodeId(idCode(row));
+    }
+
+    /**
+     * All rows, in file order, as a columnar batch at {@code scale} for the fixed-point engines: each column is
+     * copied out of the mapping in bulk, and amounts are rescaled in place when the scales differ. Ids stay in the
+     * file and are decoded only if the batch is asked for them.
+     *
+     * @throws ArithmeticException      when an amount has more than {@code scale} decimals or overflows
+     * @throws IllegalArgumentException when a timestamp or id code is out of range
+     */
+    public TransactionBatch toBatch(int scale) {
+        long[] times = new long[size];
+        long[] units = new long[size];
+        int[] codes = new int[size];
+        epochSeconds.duplicate().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(times);
+        amounts.duplicate().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(units);
+        idCodes.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(codes);
+        for (int row = 0; row < size; row++) {
+            checkEpochSecond(row, times[row]);
+            checkIdCode(row, codes[row]);
+        }
+        if (scale != this.scale) {
+            for (int row = 0; row < size; row++) {
+                units[row] = FixedPoint.rescale(units[row], this.scale, scale);
+            }
+        }
+        return TransactionBatch.wrap(scale, size, times, units, codes, this::decodeId);
+    }
+
+    /**
+     * All rows, in file order, as transactions with amounts at the file's scale.
+     *
+     * @throws IllegalArgumentException when a timestamp or id code is out of range
+     */
+    public List<Transaction> toTransactions() {
+        List<Transaction> result = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            long epochSecond = epochSecond(row);
+            checkEpochSecond(row, epochSecond);
+            result.add(new Transaction(id(row), Instant.ofEpochSecond(epochSecond), amount(row)));
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close columnar transaction file", e);
+        }
+    }
+
+    private MappedByteBuffer column(long offset, long bytes) throws IOException {
+        MappedByteBuffer column = channel.map(FileChannel.MapMode.READ_ONLY, offset, bytes);
+        column.order(ByteOrder.LITTLE_ENDIAN);
+        return column;
+    }
+
+    /** Offset of each dictionary entry's UTF-8 bytes within {@code dictionaryBytes}; entries are decoded on use. */
+    private static int[] indexDictionary(Path file, ByteBuffer in, int ids) {
+        int[] offsets = new int[ids];
+        for (int i = 0; i < ids; i++) {
+            require(in.remaining() >= Integer.BYTES, file, "id dictionary truncated at entry " + i);
+            int idLength = in.getInt();
+            require(idLength >= 0 && idLength <= in.remaining(), file, "id dictionary truncated at entry " + i);
+            offsets[i] = in.position();
+            in.position(in.position() + idLength);
+        }
+        return offsets;
+    }
+
+    private String decodeId(int code) {
+        int offset = idOffsets[code];
+        byte[] bytes = new byte[dictionaryBytes.getInt(offset - Integer.BYTES)];
+        dictionaryBytes.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int idCode(int row) {
+        int code = idCodes.getInt(row << 2);
+        checkIdCode(row, code);
+        return code;
+    }
+
+    private void checkIdCode(int row, int code) {
+        if (code < 0 || code >= idOffsets.length) {
+            throw new IllegalArgumentException("Row " + row + ": id code " + code + " outside the id dictionary");
+        }
+    }
+
+    private static void checkEpochSecond(int row, long epochSecond) {
+        if (epochSecond < TimestampParser.MIN_EPOCH_SECOND || epochSecond > TimestampParser.MAX_EPOCH_SECOND) {
+            throw new IllegalArgumentException("Row " + row + ": epoch second " + epochSecond + " outside years 0001-9999");
+        }
+    }
+
+    /** Flushes {@code buffer} to {@code out} when fewer than {@code bytes} remain, growing it for a long entry. */
+    private static ByteBuffer room(FileChannel out, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return buffer;
+        buffer.flip();
+        while (buffer.hasRemaining()) out.write(buffer);
+        buffer.clear();
+        return buffer.capacity() >= bytes ? buffer : ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void require(boolean condition, Path file, String problem) {
+        if (!condition) throw new IllegalArgumentException("Not a columnar transaction file (" + problem + "): " + file.getFileName());
+    }
+}
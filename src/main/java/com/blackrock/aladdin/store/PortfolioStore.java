@@ -0,0 +1,96 @@
+package com.blackrock.aladdin.store;
+
+import com.blackrock.aladdin.config.StoreProperties;
+import com.blackrock.aladdin.model.ProcessRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * On-disk layout of stored portfolios: {@code <engine.store.directory>/<id>/} holds {@code terms.json}
+ * (the portfolio's /process body without transactions) and its {@link StoredTransactions}.
+ */
+@Component
+public class PortfolioStore {
+
+    static final String TERMS_FILE = "terms.json";
+
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]{0,127}");
+
+    private final Path root;
+    private final int sealRecords;
+    private final ObjectMapper objectMapper;
+
+    public PortfolioStore(StoreProperties properties, ObjectMapper objectMapper) {
+        this.root = properties.enabled() ? Path.of(properties.directory()) : null;
+        this.sealRecords = properties.sealRecords();
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean enabled() {
+        return root != null;
+    }
+
+    public boolean exists(String id) {
+        return Files.isRegularFile(directory(id).resolve(TERMS_FILE));
+    }
+
+    /** Writes (atomically replaces) the terms of portfolio {@code id}; transactions are not written. */
+    public void saveTerms(String id, ProcessRequest request) {
+        ProcessRequest terms = new ProcessRequest(List.of(), request.qRules(), request.pRules(), request.kPeriods(),
+                request.defaultCeiling(), request.inflationRate(), request.taxCap());
+        Path directory = directory(id);
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, TERMS_FILE, ".tmp");
+            objectMapper.writeValue(temp.toFile(), terms);
+            Files.move(temp, directory.resolve(TERMS_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write terms of portfolio " + id, e);
+        }
+    }
+
+    /** Terms of portfolio {@code id}, with an empty transaction list. */
+    public ProcessRequest loadTerms(String id) {
+        try {
+            return objectMapper.readValue(directory(id).resolve(TERMS_FILE).toFile(), ProcessRequest.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read terms of portfolio " + id, e);
+        }
+    }
+
+    public StoredTransactions openTransactions(String id) {
+        return StoredTransactions.open(directory(id), sealRecords);
+    }
+
+    /** Removes everything stored for portfolio {@code id}; close its transactions first. */
+    public void delete(String id) {
+        Path directory = directory(id);
+        if (!Files.exists(directory)) return;
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete portfolio " + id, e);
+        }
+    }
+
+    /** @throws IllegalArgumentException when {@code id} cannot be used as a directory name */
+    private Path directory(String id) {
+        if (root == null) throw new IllegalStateException("engine.store.directory is not set");
+        if (!ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Portfolio id must be 1-128 characters of A-Z, a-z, 0-9, '.', '_', '-': " + id);
+        }
+        return root.resolve(id);
+    }
+}
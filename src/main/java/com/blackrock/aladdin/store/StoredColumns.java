@@ -0,0 +1,28 @@
+package com.blackrock.aladdin.store;
+
+import com.blackrock.aladdin.model.BlockTotals;
+import com.blackrock.aladdin.model.TransactionColumns;
+
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Stored transactions read in place, with time-range scans that skip what the on-disk index rules out.
+ */
+public interface StoredColumns extends TransactionColumns {
+
+    /**
+     * Calls {@code action} with every row whose epoch second is in [from, toExclusive); the row can then be read
+     * from this view.
+     */
+    void forEachRowBetween(long from, long toExclusive, IntConsumer action);
+
+    /**
+     * As {@link #forEachRowBetween}, but a block lying wholly in the range whose totals are stored is first offered
+     * to {@code wholeBlock}; when that returns true the block's rows are not visited. Views without block totals
+     * visit every row.
+     */
+    default void forEachBlockBetween(long from, long toExclusive, Predicate<BlockTotals> wholeBlock, IntConsumer action) {
+        forEachRowBetween(from, toExclusive, action);
+    }
+}
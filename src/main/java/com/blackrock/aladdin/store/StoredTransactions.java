@@ -0,0 +1,130 @@
+package com.blackrock.aladdin.store;
+
+import com.blackrock.aladdin.model.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * All transactions of one stored portfolio: sealed {@link TransactionSegment}s ({@code segment-NNNNNN.seg}) plus the
+ * live {@link TransactionLog} that takes appends. When the log reaches {@code sealRecords} records it is written
+ * out as the next segment and started again empty, so most history sits compressed and sorted by time while
+ * appends keep the log's forced, fixed-size writes.
+ * A segment records the id of the log it came from; if a crash leaves that log behind after its segment was
+ * written, it is dropped on open instead of being counted twice.
+ */
+public final class StoredTransactions implements Closeable {
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d{6})\\.seg");
+
+    private final Path directory;
+    private final int sealRecords;
+    private final List<TransactionSegment> segments = new ArrayList<>();
+    private TransactionLog log;
+    private int lastSegmentNumber;
+
+    private StoredTransactions(Path directory, int sealRecords) throws IOException {
+        this.directory = directory;
+        this.sealRecords = sealRecords;
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.sorted().toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            Matcher matcher = SEGMENT_FILE.matcher(name);
+            if (matcher.matches()) {
+                segments.add(TransactionSegment.open(file));
+                lastSegmentNumber = Integer.parseInt(matcher.group(1));
+            } else if (name.startsWith("segment-") && name.endsWith(".tmp")) {
+                // a segment write interrupted before its rename; its log is still there
+                Files.delete(file);
+            }
+        }
+        this.log = TransactionLog.open(directory);
+        if (!segments.isEmpty() && log.size() > 0 && segments.get(segments.size() - 1).sourceLogId() == log.logId()) {
+            resetLog();
+        }
+    }
+
+    /**
+     * Opens the transactions in {@code directory}, creating an empty log if there is none.
+     *
+     * @param sealRecords log size at which the log is sealed into a segment
+     */
+    public static StoredTransactions open(Path directory, int sealRecords) {
+        if (sealRecords < 1) throw new IllegalArgumentException("sealRecords must be positive");
+        try {
+            return new StoredTransactions(directory, sealRecords);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open stored transactions in " + directory, e);
+        }
+    }
+
+    /**
+     * Appends to the log (see {@link TransactionLog#append}) and seals it once it holds {@code sealRecords} records.
+     * The append that reaches the limit pays for the seal, which sorts the log and reads it (ids included) front to
+     * back once, so the cost per appended record stays the same on average.
+     */
+    public synchronized void append(List<Transaction> transactions) {
+        log.append(transactions);
+        if (log.size() >= sealRecords) seal();
+    }
+
+    /** Writes the log's records as the next segment and empties the log; nothing happens when it is empty. */
+    public synchronized void seal() {
+        if (log.size() == 0) return;
+        Path file = directory.resolve(String.format("segment-%06d.seg", lastSegmentNumber + 1));
+        String[] ids = log.ids();
+        TransactionSegment.write(file, log, row -> ids[row], log.logId());
+        segments.add(TransactionSegment.open(file));
+        lastSegmentNumber++;
+        resetLog();
+    }
+
+    public synchronized long size() {
+        long size = log.size();
+        for (TransactionSegment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Views over every stored row: a new cursor per segment, then the log. Each view is for one reader at a time
+     * and is valid until the next append.
+     */
+    public synchronized List<StoredColumns> columns() {
+        List<StoredColumns> columns = new ArrayList<>(segments.size() + 1);
+        for (TransactionSegment segment : segments) {
+            columns.add(segment.rows());
+        }
+        columns.add(log);
+        return columns;
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.forEach(TransactionSegment::close);
+        log.close();
+    }
+
+    private void resetLog() {
+        log.close();
+        TransactionLog.delete(directory);
+        log = TransactionLog.open(directory);
+    }
+}
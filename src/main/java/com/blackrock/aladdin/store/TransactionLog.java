@@ -0,0 +1,379 @@
+package com.blackrock.aladdin.store;
+
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionColumns;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Append-only transaction log of one portfolio, in a directory of three files:
+ * <ul>
+ *   <li>{@code transactions.log}: a 64-byte header (magic, version, record count, log id) then 32-byte records
+ *       (epoch second, unscaled amount, id offset, amount scale), memory-mapped in 32 MB chunks;</li>
+ *   <li>{@code transactions.idx}: min and max epoch second of every block of {@value #BLOCK_RECORDS} records,
+ *       so time-range scans skip blocks;</li>
+ *   <li>{@code ids.dat}: transaction ids, length-prefixed UTF-8, read back only on request.</li>
+ * </ul>
+ * Rows are read in place from the mapped pages ({@link TransactionColumns}), so history is neither on heap nor
+ * re-parsed. Records are in append order, not time order. Appends are forced to disk before the record count
+ * is advanced, so a crash loses at most the batch being written. One writer; readers may run concurrently and see
+ * every record appended before they read {@link #size()}.
+ */
+public final class TransactionLog implements StoredColumns, Closeable {
+
+    public static final int BLOCK_RECORDS = 4096;
+
+    static final String LOG_FILE = "transactions.log";
+    static final String INDEX_FILE = "transactions.idx";
+    static final String IDS_FILE = "ids.dat";
+
+    private static final int MAGIC = 0x54584C47; // "TXLG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int COUNT_OFFSET = 8;
+    private static final int LOG_ID_OFFSET = 16;
+    private static final int RECORD_BYTES = 32;
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_RECORDS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_RECORDS - 1;
+    private static final int INDEX_ENTRY_BYTES = 16;
+    private static final int ID_WINDOW_BYTES = 1 << 20;
+
+    private final FileChannel log;
+    private final FileChannel index;
+    private final FileChannel ids;
+    private final MappedByteBuffer header;
+    private volatile MappedByteBuffer[] chunks;
+    private volatile int size;
+    private long[] blockMin;
+    private long[] blockMax;
+    private long idsEnd;
+
+    private TransactionLog(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.index = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.ids = FileChannel.open(directory.resolve(IDS_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean fresh = log.size() == 0;
+        this.header = log.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        if (fresh) {
+            header.putInt(0, MAGIC).putInt(4, VERSION).putLong(COUNT_OFFSET, 0L).putLong(LOG_ID_OFFSET, newLogId());
+            header.force();
+        } else if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not a transaction log: " + directory.resolve(LOG_FILE));
+        }
+        long count = header.getLong(COUNT_OFFSET);
+        if (count < 0 || count > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt transaction log header: " + directory.resolve(LOG_FILE));
+        }
+        this.chunks = new MappedByteBuffer[0];
+        mapThrough((int) count);
+        this.size = (int) count;
+        this.idsEnd = ids.size();
+        loadIndex();
+    }
+
+    /** Opens the log in {@code directory}, creating an empty one if there is none. */
+    public static TransactionLog open(Path directory) {
+        try {
+            return new TransactionLog(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open transaction log in " + directory, e);
+        }
+    }
+
+    /** Removes the log files in {@code directory}; close the log first. */
+    public static void delete(Path directory) {
+        try {
+            for (String file : List.of(LOG_FILE, INDEX_FILE, IDS_FILE)) {
+                Files.deleteIfExists(directory.resolve(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete transaction log in " + directory, e);
+        }
+    }
+
+    /**
+     * Random id given to the log when it is created, so a segment sealed from it can be told apart from a
+     * later log in the same directory (0 for logs created before ids were written).
+     */
+    public long logId() {
+        return header.getLong(LOG_ID_OFFSET);
+    }
+
+    /**
+     * Appends and forces {@code transactions} in order.
+     *
+     * @throws IllegalArgumentException when an amount's unscaled value does not fit in a long (nothing is written)
+     */
+    public synchronized void append(List<Transaction> transactions) {
+        checkStorable(transactions);
+        if (transactions.isEmpty()) return;
+        try {
+            int from = size;
+            int to = Math.addExact(from, transactions.size());
+            mapThrough(to);
+            long[] idOffsets = writeIds(transactions);
+            MappedByteBuffer[] mapped = chunks;
+            for (int i = 0; i < transactions.size(); i++) {
+                Transaction txn = transactions.get(i);
+                int row = from + i;
+                MappedByteBuffer chunk = mapped[row >>> CHUNK_SHIFT];
+                int at = (row & CHUNK_MASK) * RECORD_BYTES;
+                chunk.putLong(at, txn.timestamp().getEpochSecond());
+                chunk.putLong(at + 8, txn.amount().unscaledValue().longValue());
+                chunk.putLong(at + 16, idOffsets[i]);
+                chunk.put(at + 24, (byte) txn.amount().scale());
+            }
+            for (int c = from >>> CHUNK_SHIFT; c <= (to - 1) >>> CHUNK_SHIFT; c++) {
+                mapped[c].force();
+            }
+            header.putLong(COUNT_OFFSET, to);
+            header.force();
+            size = to;
+            updateIndex(from, to);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to transaction log", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when an amount's unscaled value does not fit in a long or its scale in a byte
+     */
+    public static void checkStorable(List<Transaction> transactions) {
+        for (Transaction txn : transactions) {
+            BigDecimal amount = txn.amount();
+            if (amount.unscaledValue().bitLength() >= Long.SIZE || amount.scale() != (byte) amount.scale()) {
+                throw new IllegalArgumentException("Amount cannot be stored: " + amount);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long epochSecond(int row) {
+        return record(row).getLong(offset(row));
+    }
+
+    @Override
+    public long unscaledAmount(int row) {
+        return record(row).getLong(offset(row) + 8);
+    }
+
+    @Override
+    public int amountScale(int row) {
+        return record(row).get(offset(row) + 24);
+    }
+
+    /** Reads the id from {@code ids.dat}; ids are not needed for results and are not kept in memory. */
+    @Override
+    public String id(int row) {
+        long at = record(row).getLong(offset(row) + 16);
+        try {
+            ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+            readFully(ids, length, at);
+            ByteBuffer bytes = ByteBuffer.allocate(length.getInt(0));
+            readFully(ids, bytes, at + Integer.BYTES);
+            return new String(bytes.array(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read transaction id", e);
+        }
+    }
+
+    /**
+     * Ids of every row in row order. Ids are appended in record order, so they are read front to back through one
+     * buffer instead of with {@link #id}'s two reads per row; used when sealing.
+     */
+    public String[] ids() {
+        int rows = size;
+        String[] result = new String[rows];
+        try {
+            ByteBuffer window = ByteBuffer.allocate(ID_WINDOW_BYTES).limit(0);
+            long start = 0;
+            for (int row = 0; row < rows; row++) {
+                long at = record(row).getLong(offset(row) + 16);
+                if (at < start || at + Integer.BYTES > start + window.limit()) {
+                    window = fillIds(window, at, Integer.BYTES);
+                    start = at;
+                }
+                int length = window.getInt((int) (at - start));
+                if (at + Integer.BYTES + length > start + window.limit()) {
+                    window = fillIds(window, at, Integer.BYTES + length);
+                    start = at;
+                }
+                result[row] = new String(window.array(), (int) (at - start) + Integer.BYTES, length, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read transaction ids", e);
+        }
+        return result;
+    }
+
+    public synchronized int blockCount() {
+        return (size + BLOCK_RECORDS - 1) / BLOCK_RECORDS;
+    }
+
+    /** Skips blocks whose min/max exclude the range; rows come in append order. */
+    @Override
+    public void forEachRowBetween(long from, long toExclusive, IntConsumer action) {
+        int rows;
+        long[] mins;
+        long[] maxs;
+        synchronized (this) {
+            rows = size;
+            mins = blockMin;
+            maxs = blockMax;
+        }
+        for (int b = 0, blocks = (rows + BLOCK_RECORDS - 1) / BLOCK_RECORDS; b < blocks; b++) {
+            if (maxs[b] < from || mins[b] >= toExclusive) continue;
+            for (int row = b * BLOCK_RECORDS, end = Math.min(rows, row + BLOCK_RECORDS); row < end; row++) {
+                long t = epochSecond(row);
+                if (t >= from && t < toExclusive) action.accept(row);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            log.close();
+            index.close();
+            ids.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close transaction log", e);
+        }
+    }
+
+    private MappedByteBuffer record(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        return chunks[row >>> CHUNK_SHIFT];
+    }
+
+    private static int offset(int row) {
+        return (row & CHUNK_MASK) * RECORD_BYTES;
+    }
+
+    /** Maps (and so extends the file to) enough chunks for {@code rows} records. */
+    private void mapThrough(int rows) throws IOException {
+        int needed = (rows + CHUNK_RECORDS - 1) >>> CHUNK_SHIFT;
+        MappedByteBuffer[] mapped = chunks;
+        if (needed <= mapped.length) return;
+        MappedByteBuffer[] grown = Arrays.copyOf(mapped, needed);
+        for (int c = mapped.length; c < needed; c++) {
+            grown[c] = log.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + (long) c * CHUNK_RECORDS * RECORD_BYTES, (long) CHUNK_RECORDS * RECORD_BYTES);
+        }
+        chunks = grown;
+    }
+
+    private long[] writeIds(List<Transaction> transactions) throws IOException {
+        long[] offsets = new long[transactions.size()];
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long at = idsEnd;
+        for (int i = 0; i < transactions.size(); i++) {
+            byte[] id = transactions.get(i).id().getBytes(StandardCharsets.UTF_8);
+            if (buffer.remaining() < Integer.BYTES + id.length) {
+                at += writeFully(ids, buffer, at);
+                if (buffer.capacity() < Integer.BYTES + id.length) buffer = ByteBuffer.allocate(Integer.BYTES + id.length);
+            }
+            offsets[i] = at + buffer.position();
+            buffer.putInt(id.length).put(id);
+        }
+        at += writeFully(ids, buffer, at);
+        ids.force(false);
+        idsEnd = at;
+        return offsets;
+    }
+
+    /** Refills {@code window} (or a larger buffer) from {@code ids.dat} at {@code at}, at least {@code needed} bytes. */
+    private ByteBuffer fillIds(ByteBuffer window, long at, int needed) throws IOException {
+        if (window.capacity() < needed) window = ByteBuffer.allocate(needed);
+        window.clear().limit((int) Math.max(needed, Math.min(window.capacity(), idsEnd - at)));
+        readFully(ids, window, at);
+        return window;
+    }
+
+    private void loadIndex() throws IOException {
+        int blocks = blockCount();
+        blockMin = new long[Math.max(blocks, 16)];
+        blockMax = new long[blockMin.length];
+        int stored = (int) Math.min(blocks, index.size() / INDEX_ENTRY_BYTES);
+        ByteBuffer entries = ByteBuffer.allocate(stored * INDEX_ENTRY_BYTES);
+        readFully(index, entries, 0);
+        // the last stored entry may predate records appended just before a crash; it is rebuilt with the rest
+        int trusted = Math.max(stored - 1, 0);
+        for (int b = 0; b < trusted; b++) {
+            blockMin[b] = entries.getLong(b * INDEX_ENTRY_BYTES);
+            blockMax[b] = entries.getLong(b * INDEX_ENTRY_BYTES + 8);
+        }
+        if (trusted < blocks) updateIndex(trusted * BLOCK_RECORDS, size);
+    }
+
+    /** Recomputes and writes the index entries of the blocks holding rows [from, to). */
+    private void updateIndex(int from, int to) throws IOException {
+        int firstBlock = from / BLOCK_RECORDS;
+        int lastBlock = (to - 1) / BLOCK_RECORDS;
+        if (lastBlock >= blockMin.length) {
+            int capacity = Math.max(lastBlock + 1, blockMin.length * 2);
+            blockMin = Arrays.copyOf(blockMin, capacity);
+            blockMax = Arrays.copyOf(blockMax, capacity);
+        }
+        ByteBuffer entries = ByteBuffer.allocate((lastBlock - firstBlock + 1) * INDEX_ENTRY_BYTES);
+        for (int b = firstBlock; b <= lastBlock; b++) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int row = b * BLOCK_RECORDS, end = Math.min(to, row + BLOCK_RECORDS); row < end; row++) {
+                long t = epochSecond(row);
+                min = Math.min(min, t);
+                max = Math.max(max, t);
+            }
+            blockMin[b] = min;
+            blockMax[b] = max;
+            entries.putLong(min).putLong(max);
+        }
+        writeFully(index, entries, (long) firstBlock * INDEX_ENTRY_BYTES);
+    }
+
+    private static long newLogId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        buffer.clear();
+        return written;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new IOException("Unexpected end of " + channel);
+        }
+    }
+}
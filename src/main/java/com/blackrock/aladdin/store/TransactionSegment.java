@@ -0,0 +1,493 @@
+package com.blackrock.aladdin.store;
+
+import com.blackrock.aladdin.model.BlockTotals;
+import com.blackrock.aladdin.model.TransactionColumns;
+import com.blackrock.aladdin.util.EpochOrder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, compressed file of sealed transactions, sorted by time and cut into blocks of {@value #BLOCK_ROWS}
+ * rows. Each block stores its columns one after the other:
+ * <ul>
+ *   <li>epoch seconds: the first as a zig-zag varint, then each delta-of-delta (regular spacing costs one byte);</li>
+ *   <li>amount scales: run-length encoded (usually one run);</li>
+ *   <li>amounts: unscaled values at their own scale, zig-zag varints, so amounts read back exactly;</li>
+ *   <li>ids: codes into the segment's id dictionary, each as a zig-zag varint delta from the previous code (new ids
+ *       get the next code, so unique ids cost one byte); dictionary entries are front-coded against the previous
+ *       one.</li>
+ * </ul>
+ * A footer after the dictionary holds the block directory, with each block's {@link BlockTotals} (min/max epoch
+ * second, count, amount sum, min/max amount), and the segment's count, min/max epoch second and amount sum, so
+ * time-range scans skip blocks outside the range and aggregations can use a block's totals instead of its rows.
+ * A trailer (footer offset, magic) ends the file. Blocks are decoded on demand from the mapped file; {@link #rows()}
+ * feeds the engines without going through {@code Transaction} objects.
+ */
+public final class TransactionSegment implements Closeable {
+
+    public static final int BLOCK_ROWS = 4096;
+
+    private static final int MAGIC = 0x54585347; // "TXSG"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 8;
+    private static final int TRAILER_BYTES = 12;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final int[] blockOffsets;
+    private final BlockTotals[] blockTotals;
+    private final int size;
+    private final long minEpochSecond;
+    private final long maxEpochSecond;
+    private final BigDecimal amountSum;
+    private final long sourceLogId;
+    private final int dictionaryOffset;
+    private volatile String[] dictionary;
+
+    private TransactionSegment(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        long length = channel.size();
+        if (length < HEADER_BYTES + TRAILER_BYTES || length > Integer.MAX_VALUE) {
+            throw new IOException("Not a transaction segment: " + file);
+        }
+        this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        data.order(ByteOrder.BIG_ENDIAN);
+        if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION || data.getInt((int) length - 4) != MAGIC) {
+            throw new IOException("Not a transaction segment: " + file);
+        }
+        ByteBuffer in = reader((int) data.getLong((int) length - TRAILER_BYTES));
+        int blocks = (int) readVarLong(in);
+        this.blockOffsets = new int[blocks];
+        this.size = (int) readVarLong(in);
+        this.blockTotals = new BlockTotals[blocks];
+        for (int b = 0; b < blocks; b++) {
+            blockOffsets[b] = (int) readVarLong(in);
+            blockTotals[b] = new BlockTotals(readZigZag(in), readZigZag(in), Math.min(BLOCK_ROWS, size - b * BLOCK_ROWS),
+                    readDecimal(in), readDecimal(in), readDecimal(in));
+        }
+        this.minEpochSecond = readZigZag(in);
+        this.maxEpochSecond = readZigZag(in);
+        this.amountSum = readDecimal(in);
+        this.sourceLogId = in.getLong();
+        this.dictionaryOffset = (int) readVarLong(in);
+    }
+
+    public static TransactionSegment open(Path file) {
+        try {
+            return new TransactionSegment(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open transaction segment " + file, e);
+        }
+    }
+
+    /**
+     * Writes {@code rows} (any order, at least one) as a segment at {@code file}, replacing it atomically once
+     * the content is forced to disk.
+     *
+     * @param sourceLogId id of the log the rows were sealed from, kept in the footer
+     */
+    public static void write(Path file, TransactionColumns rows, long sourceLogId) {
+        write(file, rows, rows::id, sourceLogId);
+    }
+
+    /** As {@link #write(Path, TransactionColumns, long)}, taking each row's id from {@code idOf}. */
+    static void write(Path file, TransactionColumns rows, IntFunction<String> idOf, long sourceLogId) {
+        int count = rows.size();
+        if (count == 0) throw new IllegalArgumentException("A segment needs at least one transaction");
+        long[] times = new long[count];
+        for (int row = 0; row < count; row++) {
+            times[row] = rows.epochSecond(row);
+        }
+        int[] order = EpochOrder.sortedIndices(times, count);
+        Output out = new Output(Math.max(count * 6, 1024));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        Map<String, Integer> codeById = new HashMap<>();
+        Output ids = new Output(Math.max(count * 4, 64));
+        String previousId = "";
+        int[] blockOffsets = new int[(count + BLOCK_ROWS - 1) / BLOCK_ROWS];
+        BlockTotals[] blockTotals = new BlockTotals[blockOffsets.length];
+        BigDecimal sum = BigDecimal.ZERO;
+        int[] codes = new int[BLOCK_ROWS];
+        for (int b = 0; b < blockOffsets.length; b++) {
+            int from = b * BLOCK_ROWS;
+            int to = Math.min(count, from + BLOCK_ROWS);
+            blockOffsets[b] = out.size();
+            // times: sorted, so deltas are small and regular spacing makes every delta-of-delta zero
+            long previous = times[order[from]];
+            long previousDelta = 0;
+            out.writeZigZag(previous);
+            for (int i = from + 1; i < to; i++) {
+                long t = times[order[i]];
+                long delta = t - previous;
+                out.writeZigZag(delta - previousDelta);
+                previous = t;
+                previousDelta = delta;
+            }
+            // scales: run-length
+            int runs = 1;
+            for (int i = from + 1; i < to; i++) {
+                if (rows.amountScale(order[i]) != rows.amountScale(order[i - 1])) runs++;
+            }
+            out.writeVarLong(runs);
+            for (int i = from; i < to; ) {
+                int scale = rows.amountScale(order[i]);
+                int end = i + 1;
+                while (end < to && rows.amountScale(order[end]) == scale) end++;
+                out.writeZigZag(scale);
+                out.writeVarLong(end - i);
+                i = end;
+            }
+            BigDecimal blockSum = BigDecimal.ZERO;
+            BigDecimal minAmount = null;
+            BigDecimal maxAmount = null;
+            for (int i = from; i < to; i++) {
+                int row = order[i];
+                out.writeZigZag(rows.unscaledAmount(row));
+                BigDecimal amount = rows.amount(row);
+                blockSum = blockSum.add(amount);
+                if (minAmount == null || amount.compareTo(minAmount) < 0) minAmount = amount;
+                if (maxAmount == null || amount.compareTo(maxAmount) > 0) maxAmount = amount;
+            }
+            sum = sum.add(blockSum);
+            blockTotals[b] = new BlockTotals(times[order[from]], times[order[to - 1]], to - from, blockSum, minAmount, maxAmount);
+            for (int i = from; i < to; i++) {
+                String id = idOf.apply(order[i]);
+                Integer code = codeById.get(id);
+                if (code == null) {
+                    code = codeById.size();
+                    codeById.put(id, code);
+                    int shared = sharedPrefix(previousId, id);
+                    byte[] suffix = id.substring(shared).getBytes(StandardCharsets.UTF_8);
+                    ids.writeVarLong(shared);
+                    ids.writeVarLong(suffix.length);
+                    ids.writeBytes(suffix, suffix.length);
+                    previousId = id;
+                }
+                codes[i - from] = code;
+            }
+            int previousCode = 0;
+            for (int i = 0; i < to - from; i++) {
+                out.writeZigZag(codes[i] - previousCode);
+                previousCode = codes[i];
+            }
+        }
+
+        int dictionaryOffset = out.size();
+        out.writeVarLong(codeById.size());
+        out.writeBytes(ids.bytes, ids.size());
+
+        int footerOffset = out.size();
+        out.writeVarLong(blockOffsets.length);
+        out.writeVarLong(count);
+        for (int b = 0; b < blockOffsets.length; b++) {
+            BlockTotals totals = blockTotals[b];
+            out.writeVarLong(blockOffsets[b]);
+            out.writeZigZag(totals.minEpochSecond());
+            out.writeZigZag(totals.maxEpochSecond());
+            out.writeDecimal(totals.amountSum());
+            out.writeDecimal(totals.minAmount());
+            out.writeDecimal(totals.maxAmount());
+        }
+        out.writeZigZag(times[order[0]]);
+        out.writeZigZag(times[order[count - 1]]);
+        out.writeDecimal(sum);
+        out.writeLong(sourceLogId);
+        out.writeVarLong(dictionaryOffset);
+        out.writeLong(footerOffset);
+        out.writeInt(MAGIC);
+        writeAtomically(file, out);
+    }
+
+    /** Number of transactions. */
+    public int size() {
+        return size;
+    }
+
+    public int blockCount() {
+        return blockOffsets.length;
+    }
+
+    /** Totals of block {@code block}, which holds rows [block * {@value #BLOCK_ROWS}, + count). */
+    public BlockTotals blockTotals(int block) {
+        return blockTotals[block];
+    }
+
+    public long minEpochSecond() {
+        return minEpochSecond;
+    }
+
+    public long maxEpochSecond() {
+        return maxEpochSecond;
+    }
+
+    /** Exact sum of all amounts, from zero (so at the largest amount scale, at least 0). */
+    public BigDecimal amountSum() {
+        return amountSum;
+    }
+
+    public long sourceLogId() {
+        return sourceLogId;
+    }
+
+    /** A new row cursor over this segment, in time order; one block is decoded at a time. Not thread-safe. */
+    public StoredColumns rows() {
+        return new Cursor();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close transaction segment", e);
+        }
+    }
+
+    private ByteBuffer reader(int position) {
+        return data.duplicate().position(position);
+    }
+
+    /** Decodes the id dictionary on first use; results never need ids. */
+    private String[] dictionary() {
+        String[] decoded = dictionary;
+        if (decoded == null) {
+            ByteBuffer in = reader(dictionaryOffset);
+            decoded = new String[(int) readVarLong(in)];
+            for (int code = 0; code < decoded.length; code++) {
+                String last = code == 0 ? "" : decoded[code - 1];
+                int shared = (int) readVarLong(in);
+                byte[] suffix = new byte[(int) readVarLong(in)];
+                in.get(suffix);
+                decoded[code] = last.substring(0, shared) + new String(suffix, StandardCharsets.UTF_8);
+            }
+            dictionary = decoded;
+        }
+        return decoded;
+    }
+
+    /** Reads rows from one decoded block at a time. */
+    private final class Cursor implements StoredColumns {
+
+        private final long[] times = new long[BLOCK_ROWS];
+        private final long[] unscaled = new long[BLOCK_ROWS];
+        private final int[] scales = new int[BLOCK_ROWS];
+        private final int[] codes = new int[BLOCK_ROWS];
+        private int block = -1;
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long epochSecond(int row) {
+            return times[load(row)];
+        }
+
+        @Override
+        public long unscaledAmount(int row) {
+            return unscaled[load(row)];
+        }
+
+        @Override
+        public int amountScale(int row) {
+            return scales[load(row)];
+        }
+
+        @Override
+        public String id(int row) {
+            return dictionary()[codes[load(row)]];
+        }
+
+        /** Only blocks whose min/max overlap the range are decoded; rows come in time order. */
+        @Override
+        public void forEachRowBetween(long from, long toExclusive, IntConsumer action) {
+            forEachBlockBetween(from, toExclusive, block -> false, action);
+        }
+
+        @Override
+        public void forEachBlockBetween(long from, long toExclusive, Predicate<BlockTotals> wholeBlock, IntConsumer action) {
+            // blocks are in time order: binary search for the first one that can hold a row at or after from
+            int lo = 0;
+            int hi = blockTotals.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (blockTotals[mid].maxEpochSecond() < from) lo = mid + 1;
+                else hi = mid;
+            }
+            for (int b = lo; b < blockTotals.length && blockTotals[b].minEpochSecond() < toExclusive; b++) {
+                BlockTotals block = blockTotals[b];
+                if (block.minEpochSecond() >= from && block.maxEpochSecond() < toExclusive && wholeBlock.test(block)) {
+                    continue;
+                }
+                for (int row = b * BLOCK_ROWS, end = row + block.count(); row < end; row++) {
+                    long t = epochSecond(row);
+                    if (t >= from && t < toExclusive) action.accept(row);
+                }
+            }
+        }
+
+        /** Decodes the block holding {@code row} if it is not the current one; returns the row's index in it. */
+        private int load(int row) {
+            if (row < 0 || row >= size) throw new IndexOutOfBoundsException("row " + row + " of " + size);
+            int b = row / BLOCK_ROWS;
+            if (b != block) decode(b);
+            return row - b * BLOCK_ROWS;
+        }
+
+        private void decode(int b) {
+            int rows = Math.min(BLOCK_ROWS, size - b * BLOCK_ROWS);
+            ByteBuffer in = reader(blockOffsets[b]);
+            long t = readZigZag(in);
+            long delta = 0;
+            times[0] = t;
+            for (int i = 1; i < rows; i++) {
+                delta += readZigZag(in);
+                t += delta;
+                times[i] = t;
+            }
+            for (int runs = (int) readVarLong(in), i = 0; runs > 0; runs--) {
+                int scale = (int) readZigZag(in);
+                int end = i + (int) readVarLong(in);
+                Arrays.fill(scales, i, end, scale);
+                i = end;
+            }
+            for (int i = 0; i < rows; i++) {
+                unscaled[i] = readZigZag(in);
+            }
+            int code = 0;
+            for (int i = 0; i < rows; i++) {
+                code += (int) readZigZag(in);
+                codes[i] = code;
+            }
+            block = b;
+        }
+    }
+
+    private static int sharedPrefix(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i)) i++;
+        // never split a surrogate pair, so both parts encode to UTF-8 on their own
+        if (i > 0 && i < b.length() && Character.isLowSurrogate(b.charAt(i))) i--;
+        return i;
+    }
+
+    private static void writeAtomically(Path file, Output out) {
+        Path directory = file.toAbsolutePath().getParent();
+        try {
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(out.bytes, 0, out.size());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write transaction segment " + file, e);
+        }
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    private static long readZigZag(ByteBuffer in) {
+        long encoded = readVarLong(in);
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        int scale = (int) readZigZag(in);
+        byte[] unscaled = new byte[(int) readVarLong(in)];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    /** Growable big-endian byte buffer with varint writers. */
+    private static final class Output {
+
+        private byte[] bytes;
+        private int size;
+
+        Output(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeInt(int value) {
+            ensure(Integer.BYTES);
+            for (int shift = 24; shift >= 0; shift -= 8) bytes[size++] = (byte) (value >>> shift);
+        }
+
+        void writeLong(long value) {
+            ensure(Long.BYTES);
+            for (int shift = 56; shift >= 0; shift -= 8) bytes[size++] = (byte) (value >>> shift);
+        }
+
+        void writeBytes(byte[] source, int length) {
+            ensure(length);
+            System.arraycopy(source, 0, bytes, size, length);
+            size += length;
+        }
+
+        void writeDecimal(BigDecimal value) {
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            writeZigZag(value.scale());
+            writeVarLong(unscaled.length);
+            writeBytes(unscaled, unscaled.length);
+        }
+
+        private void ensure(int more) {
+            if (bytes.length - size < more) {
+                long capacity = Math.max((long) bytes.length * 2, (long) size + more);
+                if (capacity > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Segment too large");
+                bytes = Arrays.copyOf(bytes, (int) capacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.blackrock.aladdin.util;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Stable ordering by primitive epoch-second keys.
+ * Already-sorted input is detected in one O(n) pass and left alone. Otherwise each key is packed with
+ * its index into one long ((key - min) in the high bits, index in the low 32) and the packed array is
+ * sorted with {@link Arrays#parallelSort(long[])}: no boxing or comparator calls, and ties keep input order.
+ */
+public final class EpochOrder {
+
+    private EpochOrder() {}
+
+    public static boolean isSorted(long[] keys, int size) {
+        for (int i = 1; i < size; i++) {
+            if (keys[i] < keys[i - 1]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Indices of the first {@code size} keys in stable ascending key order.
+     */
+    public static int[] sortedIndices(long[] keys, int size) {
+        int[] order = new int[size];
+        if (size == 0) return order;
+        long min = keys[0];
+        long max = keys[0];
+        for (int i = 1; i < size; i++) {
+            min = Math.min(min, keys[i]);
+            max = Math.max(max, keys[i]);
+        }
+        if (max - min < 0 || max - min > Integer.MAX_VALUE) {
+            // key span does not fit the high 31 bits (over ~68 years of seconds): boxed stable sort
+            Integer[] boxed = new Integer[size];
+            for (int i = 0; i < size; i++) boxed[i] = i;
+            Arrays.sort(boxed, (a, b) -> Long.compare(keys[a], keys[b]));
+            for (int i = 0; i < size; i++) order[i] = boxed[i];
+            return order;
+        }
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) {
+            packed[i] = (keys[i] - min) << 32 | i;
+        }
+        Arrays.parallelSort(packed);
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    /**
+     * {@code items} in stable order of {@code time}; the same list when already ordered.
+     * Falls back to a comparator sort if any instant carries sub-second precision.
+     */
+    public static <T> List<T> sortedBy(List<T> items, Function<T, Instant> time) {
+        int size = items.size();
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            Instant instant = time.apply(items.get(i));
+            if (instant.getNano() != 0) {
+                return items.stream().sorted(Comparator.comparing(time)).toList();
+            }
+            keys[i] = instant.getEpochSecond();
+        }
+        if (isSorted(keys, size)) return items;
+        int[] order = sortedIndices(keys, size);
+        List<T> sorted = new ArrayList<>(size);
+        for (int i : order) {
+            sorted.add(items.get(i));
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,178 @@
+package com.blackrock.aladdin.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversion between BigDecimal amounts and scaled long units (value * 10^scale).
+ * Conversions are exact: anything that would round or overflow throws ArithmeticException.
+ */
+public final class FixedPoint {
+
+    /** Enough room for any text {@link #formatUnits} writes. */
+    public static final int MAX_PLAIN_LENGTH = 32;
+
+    private static final int MAX_PLAIN_SCALE = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private static final char[] DIGIT_PAIRS = new char[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (char) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (char) ('0' + i % 10);
+        }
+    }
+
+    private FixedPoint() {}
+
+    public static long toUnits(BigDecimal value, int scale) {
+        return value.movePointRight(scale).longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long units, int scale) {
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    /**
+     * Units at {@code scale} as a BigDecimal of scale {@code exactScale}, e.g. the scale BigDecimal arithmetic on the
+     * original amounts would have produced.
+     *
+     * @throws ArithmeticException when the value has more than {@code exactScale} decimals
+     */
+    public static BigDecimal toDecimal(long units, int scale, int exactScale) {
+        return BigDecimal.valueOf(units, scale).setScale(exactScale);
+    }
+
+    /**
+     * Units at {@code fromScale} as units at {@code toScale} (both 0..{@value #MAX_PLAIN_SCALE}).
+     *
+     * @throws ArithmeticException when the value has more than {@code toScale} decimals or overflows
+     */
+    public static long rescale(long units, int fromScale, int toScale) {
+        if (toScale >= fromScale) {
+            return Math.multiplyExact(units, POWERS_OF_TEN[toScale - fromScale]);
+        }
+        long divisor = POWERS_OF_TEN[fromScale - toScale];
+        if (units % divisor != 0) throw new ArithmeticException("Rounding necessary");
+        return units / divisor;
+    }
+
+    /**
+     * Plain decimal text (optional sign, digits, optional '.' fraction) straight to units,
+     * without an intermediate BigDecimal.
+     *
+     * @throws NumberFormatException when the text is not a plain decimal (e.g. has an exponent)
+     * @throws ArithmeticException   when it has more than {@code scale} decimals or overflows
+     */
+    public static long parseUnits(char[] chars, int offset, int length, int scale) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i++] == '-';
+        }
+        long units = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not a plain decimal: " + new String(chars, offset, length));
+            }
+            if (decimals >= 0 && ++decimals > scale) {
+                if (c != '0') throw new ArithmeticException("Rounding necessary");
+                continue;
+            }
+            // accumulate negatively so Long.MIN_VALUE units still parse
+            units = Math.subtractExact(Math.multiplyExact(units, 10), c - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not a plain decimal: " + new String(chars, offset, length));
+        }
+        for (int d = Math.max(decimals, 0); d < scale; d++) {
+            units = Math.multiplyExact(units, 10);
+        }
+        return negative ? units : Math.negateExact(units);
+    }
+
+    /**
+     * Writes {@code units} at {@code scale} as {@code BigDecimal.valueOf(units, scale).toString()} would, without the
+     * BigDecimal or String, when that text is plain (no exponent): scale 0..{@value #MAX_PLAIN_SCALE} and at most
+     * six leading fraction zeros.
+     *
+     * @return characters written, or -1 (buffer untouched) when toString would use an exponent or units is
+     * Long.MIN_VALUE
+     */
+    public static int formatUnits(long units, int scale, char[] buffer, int offset) {
+        if (scale < 0 || scale > MAX_PLAIN_SCALE || units == Long.MIN_VALUE) return -1;
+        long magnitude = Math.abs(units);
+        int digits = digitCount(magnitude);
+        if (digits - scale - 1 < -6) return -1;
+        int pos = offset;
+        if (units < 0) buffer[pos++] = '-';
+        if (digits <= scale) {
+            buffer[pos++] = '0';
+            buffer[pos++] = '.';
+            for (int i = digits; i < scale; i++) buffer[pos++] = '0';
+            writeDigits(magnitude, buffer, pos + digits);
+            return pos + digits - offset;
+        }
+        if (scale == 0) {
+            writeDigits(magnitude, buffer, pos + digits);
+            return pos + digits - offset;
+        }
+        // integer digits, '.', then exactly scale fraction digits (zero-padded)
+        int end = pos + digits + 1;
+        long integer = magnitude / POWERS_OF_TEN[scale];
+        long fraction = magnitude - integer * POWERS_OF_TEN[scale];
+        writeDigits(integer, buffer, end - scale - 1);
+        buffer[end - scale - 1] = '.';
+        int fractionStart = writeDigits(fraction, buffer, end);
+        for (int i = end - scale; i < fractionStart; i++) buffer[i] = '0';
+        return end - offset;
+    }
+
+    /** Writes the digits of a non-negative value ending just before {@code end}; returns where they start. */
+    private static int writeDigits(long value, char[] buffer, int end) {
+        int pos = end;
+        while (value >= Integer.MAX_VALUE) {
+            long quotient = value / 100;
+            int pair = (int) (value - quotient * 100) * 2;
+            buffer[--pos] = DIGIT_PAIRS[pair + 1];
+            buffer[--pos] = DIGIT_PAIRS[pair];
+            value = quotient;
+        }
+        int small = (int) value;
+        while (small >= 100) {
+            int quotient = small / 100;
+            int pair = (small - quotient * 100) * 2;
+            buffer[--pos] = DIGIT_PAIRS[pair + 1];
+            buffer[--pos] = DIGIT_PAIRS[pair];
+            small = quotient;
+        }
+        if (small >= 10) {
+            buffer[--pos] = DIGIT_PAIRS[small * 2 + 1];
+            buffer[--pos] = DIGIT_PAIRS[small * 2];
+        } else {
+            buffer[--pos] = (char) ('0' + small);
+        }
+        return pos;
+    }
+
+    private static int digitCount(long magnitude) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && magnitude >= POWERS_OF_TEN[digits]) digits++;
+        return digits;
+    }
+}
@@ -5,29 +5,197 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Deterministic parsing of "yyyy-MM-dd HH:mm:ss" to Instant (UTC).
+ * Canonical input (years 0001-9999, in-range fields) is decoded straight from the characters; anything else
+ * goes through {@link #FORMAT}, so accepted values, results and error messages are those of the formatter.
  */
 public final class TimestampParser {
 
     public static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    /** Returned by {@link #tryParseEpochSecond} when the text is not canonical; no valid timestamp maps to it. */
+    public static final long UNPARSED = Long.MIN_VALUE;
+
+    /** Length of "yyyy-MM-dd HH:mm:ss". */
+    public static final int LENGTH = 19;
+
+    /** Epoch seconds of the years the text form can write: 0001-01-01 00:00:00 to 9999-12-31 23:59:59. */
+    public static final long MIN_EPOCH_SECOND = -62_135_596_800L;
+    public static final long MAX_EPOCH_SECOND = 253_402_300_799L;
+
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    /** Direct-mapped yyyyMMdd -> epoch day; each slot packs (date << 32 | epochDay + 1), 0 = empty. */
+    private static final int DATE_CACHE_SLOTS = 1024;
+    private static final AtomicLongArray DATE_CACHE = new AtomicLongArray(DATE_CACHE_SLOTS);
+
     private TimestampParser() {}
 
     public static Instant parse(String timestamp) {
+        return Instant.ofEpochSecond(parseEpochSecond(timestamp));
+    }
+
+    public static long parseEpochSecond(String timestamp) {
+        if (timestamp != null) {
+            long epochSecond = tryParseEpochSecond(timestamp);
+            if (epochSecond != UNPARSED) return epochSecond;
+        }
+        return parseWithFormatter(timestamp);
+    }
+
+    /**
+     * Fast path only: epoch seconds of a canonical timestamp (surrounding whitespace allowed), else {@link #UNPARSED}.
+     */
+    public static long tryParseEpochSecond(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+        if (end - start != LENGTH) return UNPARSED;
+        int year = digits4(text.charAt(start), text.charAt(start + 1), text.charAt(start + 2), text.charAt(start + 3));
+        int month = digits2(text.charAt(start + 5), text.charAt(start + 6));
+        int day = digits2(text.charAt(start + 8), text.charAt(start + 9));
+        int hour = digits2(text.charAt(start + 11), text.charAt(start + 12));
+        int minute = digits2(text.charAt(start + 14), text.charAt(start + 15));
+        int second = digits2(text.charAt(start + 17), text.charAt(start + 18));
+        boolean separators = text.charAt(start + 4) == '-' && text.charAt(start + 7) == '-'
+                && text.charAt(start + 10) == ' ' && text.charAt(start + 13) == ':' && text.charAt(start + 16) == ':';
+        return separators ? epochSecond(year, month, day, hour, minute, second) : UNPARSED;
+    }
+
+    /** As {@link #tryParseEpochSecond(CharSequence)} over a character buffer, e.g. a JSON parser's token text. */
+    public static long tryParseEpochSecond(char[] buffer, int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && buffer[start] <= ' ') start++;
+        while (end > start && buffer[end - 1] <= ' ') end--;
+        if (end - start != LENGTH) return UNPARSED;
+        int year = digits4(buffer[start], buffer[start + 1], buffer[start + 2], buffer[start + 3]);
+        int month = digits2(buffer[start + 5], buffer[start + 6]);
+        int day = digits2(buffer[start + 8], buffer[start + 9]);
+        int hour = digits2(buffer[start + 11], buffer[start + 12]);
+        int minute = digits2(buffer[start + 14], buffer[start + 15]);
+        int second = digits2(buffer[start + 17], buffer[start + 18]);
+        boolean separators = buffer[start + 4] == '-' && buffer[start + 7] == '-'
+                && buffer[start + 10] == ' ' && buffer[start + 13] == ':' && buffer[start + 16] == ':';
+        return separators ? epochSecond(year, month, day, hour, minute, second) : UNPARSED;
+    }
+
+    public static String format(Instant instant) {
+        char[] buffer = new char[LENGTH];
+        if (!formatTo(instant.getEpochSecond(), buffer, 0)) {
+            return FORMAT.format(LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+        }
+        return new String(buffer);
+    }
+
+    /**
+     * Writes "yyyy-MM-dd HH:mm:ss" into {@code buffer} at {@code offset} ({@link #LENGTH} chars), for callers that
+     * reuse one buffer across values.
+     *
+     * @return false (buffer untouched) when the year is outside 0001-9999; use {@link #format} for those
+     */
+    public static boolean formatTo(long epochSecond, char[] buffer, int offset) {
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        // civil-from-days over 400-year eras starting 0000-03-01
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        int dayOfEra = (int) (z - era * 146_097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 1 || year > 9999) return false;
+
+        int y = (int) year;
+        buffer[offset] = (char) ('0' + y / 1000);
+        buffer[offset + 1] = (char) ('0' + y / 100 % 10);
+        buffer[offset + 2] = (char) ('0' + y / 10 % 10);
+        buffer[offset + 3] = (char) ('0' + y % 10);
+        buffer[offset + 4] = '-';
+        put2(buffer, offset + 5, month);
+        buffer[offset + 7] = '-';
+        put2(buffer, offset + 8, day);
+        buffer[offset + 10] = ' ';
+        put2(buffer, offset + 11, secondOfDay / 3600);
+        buffer[offset + 13] = ':';
+        put2(buffer, offset + 14, secondOfDay / 60 % 60);
+        buffer[offset + 16] = ':';
+        put2(buffer, offset + 17, secondOfDay % 60);
+        return true;
+    }
+
+    private static long parseWithFormatter(String timestamp) {
         if (timestamp == null || timestamp.isBlank()) {
             throw new IllegalArgumentException("timestamp required");
         }
         try {
             LocalDateTime ldt = LocalDateTime.parse(timestamp.trim(), FORMAT);
-            return ldt.toInstant(ZoneOffset.UTC);
+            return ldt.toEpochSecond(ZoneOffset.UTC);
         } catch (DateTimeParseException e) {
             throw new IllegalArgumentException("Invalid timestamp: " + timestamp + ". Use yyyy-MM-dd HH:mm:ss", e);
         }
     }
 
-    public static String format(Instant instant) {
-        return FORMAT.format(LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+    /** Strictly in-range fields only; the formatter's lenient cases (Feb 30, 24:00:00) are left to it. */
+    private static long epochSecond(int year, int month, int day, int hour, int minute, int second) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31
+                || hour > 23 || minute > 59 || second > 59 || (hour | minute | second) < 0) {
+            return UNPARSED;
+        }
+        long epochDay = epochDay(year, month, day);
+        if (epochDay == UNPARSED) return UNPARSED;
+        return epochDay * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+    }
+
+    private static long epochDay(int year, int month, int day) {
+        int date = year * 10_000 + month * 100 + day;
+        int slot = (date * 0x9E3779B9 >>> 22) & (DATE_CACHE_SLOTS - 1);
+        long cached = DATE_CACHE.getOpaque(slot);
+        if (cached != 0 && (int) (cached >>> 32) == date) {
+            return (int) cached - 1;
+        }
+        if (day > lengthOfMonth(year, month)) return UNPARSED;
+        // days-from-civil over 400-year eras starting 0000-03-01
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        int epochDay = era * 146_097 + dayOfEra - 719_468;
+        DATE_CACHE.setOpaque(slot, (long) date << 32 | (epochDay + 1) & 0xFFFF_FFFFL);
+        return epochDay;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /** Two ASCII digits as a number, negative if either is not a digit. */
+    private static int digits2(char tens, char ones) {
+        int t = tens - '0';
+        int o = ones - '0';
+        return (t | o | (9 - t) | (9 - o)) < 0 ? -1 : t * 10 + o;
+    }
+
+    private static int digits4(char c0, char c1, char c2, char c3) {
+        int high = digits2(c0, c1);
+        int low = digits2(c2, c3);
+        return (high | low) < 0 ? -1 : high * 100 + low;
+    }
+
+    private static void put2(char[] buffer, int offset, int value) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
     }
 }
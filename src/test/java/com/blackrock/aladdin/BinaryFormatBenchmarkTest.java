@@ -0,0 +1,94 @@
+package com.blackrock.aladdin;
+
+import com.blackrock.aladdin.service.IngestedRequest;
+import com.blackrock.aladdin.service.StreamingRequestReader;
+import com.blackrock.aladdin.util.TimestampParser;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payload size and parse time of the same /process body as JSON, CBOR and Smile at 100k and 1M transactions.
+ * JSON carries "yyyy-MM-dd HH:mm:ss" timestamps; the binary bodies carry epoch seconds and native decimals.
+ * Opt-in: {@code mvn test -Dtest=BinaryFormatBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Binary Format Benchmark")
+class BinaryFormatBenchmarkTest {
+
+    private static final int ROUNDS = 5;
+    private static final int SCALE = 6;
+
+    @Test
+    @DisplayName("shouldCompareSizeAndParseTime")
+    void shouldCompareSizeAndParseTime() throws IOException {
+        Map<String, JsonFactory> formats = new LinkedHashMap<>();
+        formats.put("json", new JsonFactory());
+        formats.put("cbor", new CBORFactory());
+        formats.put("smile", new SmileFactory());
+
+        for (int count : new int[]{100_000, 1_000_000}) {
+            for (Map.Entry<String, JsonFactory> format : formats.entrySet()) {
+                byte[] body = body(format.getValue(), count);
+                long best = Long.MAX_VALUE;
+                IngestedRequest ingested = null;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    ingested = StreamingRequestReader.read(new ByteArrayInputStream(body), format.getValue(), SCALE);
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                System.out.printf("%-5s transactions=%,9d bytes=%,12d bytes/txn=%5.1f parse=%,8.1f ms%n",
+                        format.getKey(), count, body.length, (double) body.length / count, best / 1e6);
+                assertEquals(count, ingested.batch().size());
+            }
+        }
+    }
+
+    private static byte[] body(JsonFactory format, int count) throws IOException {
+        boolean binary = format.canHandleBinaryNatively();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(count * 64);
+        try (JsonGenerator gen = format.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("transactions");
+            for (int i = 0; i < count; i++) {
+                long epochSecond = 1_704_067_200L + i * 97L;
+                gen.writeStartObject();
+                gen.writeStringField("id", "tx-" + i);
+                if (binary) {
+                    gen.writeNumberField("timestamp", epochSecond);
+                } else {
+                    gen.writeStringField("timestamp", TimestampParser.format(Instant.ofEpochSecond(epochSecond)));
+                }
+                gen.writeNumberField("amount", BigDecimal.valueOf(100 + (i * 7_919L) % 90_000, 2));
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeArrayFieldStart("kPeriods");
+            gen.writeStartObject();
+            gen.writeStringField("id", "K1");
+            gen.writeStringField("startInclusive", "2024-01-01 00:00:00");
+            gen.writeStringField("endExclusive", "2100-01-01 00:00:00");
+            gen.writeEndObject();
+            gen.writeEndArray();
+            gen.writeNumberField("defaultCeiling", new BigDecimal("2000"));
+            gen.writeNumberField("inflationRate", new BigDecimal("0.02"));
+            gen.writeNumberField("taxCap", new BigDecimal("500"));
+            gen.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+}
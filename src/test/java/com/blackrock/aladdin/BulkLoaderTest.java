@@ -0,0 +1,50 @@
+package com.blackrock.aladdin;
+
+import com.blackrock.aladdin.model.KPeriodDto;
+import com.blackrock.aladdin.model.ProcessTerms;
+import com.blackrock.aladdin.model.TransactionBatch;
+import com.blackrock.aladdin.store.ColumnarTransactionFile;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Offline loader: starts the application without a web server and writes the /process/bulk response.
+ */
+@DisplayName("BulkLoader Tests")
+class BulkLoaderTest {
+
+    @Test
+    @DisplayName("shouldProcessColumnarFileWithoutWebServer")
+    void shouldProcessColumnarFileWithoutWebServer(@TempDir Path directory) throws Exception {
+        // Arrange: 100 transactions of 10.00 in K1
+        ObjectMapper objectMapper = new ObjectMapper();
+        TransactionBatch.Builder batch = TransactionBatch.builder(2, 100);
+        for (int i = 0; i < 100; i++) {
+            batch.add("tx" + i, 1_705_311_000L + i, 1_000);
+        }
+        Path transactions = directory.resolve("transactions.txc");
+        ColumnarTransactionFile.write(transactions, batch.build(), 2);
+        Path terms = directory.resolve("terms.json");
+        objectMapper.writeValue(terms.toFile(), new ProcessTerms(List.of(), List.of(),
+                List.of(new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00")),
+                new BigDecimal("2000"), new BigDecimal("0.02"), new BigDecimal("500")));
+        Path response = directory.resolve("response.json");
+
+        // Act
+        BulkLoader.main(new String[]{terms.toString(), transactions.toString(), response.toString()});
+
+        // Assert
+        JsonNode summary = objectMapper.readTree(response.toFile()).at("/periodSummaries/0");
+        assertEquals("K1", summary.get("periodId").asText());
+        assertEquals(1_000.0, summary.get("totalContribution").doubleValue());
+    }
+}
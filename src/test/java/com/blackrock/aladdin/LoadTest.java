@@ -0,0 +1,207 @@
+package com.blackrock.aladdin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Open-model load test: starts the app on a random port and sends {@code POST /api/v1/engine/process} at a constant
+ * arrival rate, whether or not earlier requests have completed, with bodies drawn from a weighted mix of request
+ * sizes. Latency is taken from each request's scheduled send time, not the time it actually went out, so a stalled
+ * server or generator is charged for the requests queued behind the stall (coordinated omission); the uncorrected
+ * service time is reported beside it. Histograms are kept per size and overall, and the overall one is written to
+ * {@code target/load-latency.hgrm} for HdrHistogram's plotter.
+ * <p>
+ * Settings (system properties):
+ * <ul>
+ *   <li>{@code load.rate}: requests per second (default 50)</li>
+ *   <li>{@code load.duration} / {@code load.warmup}: measured and unrecorded seconds (30 / 10)</li>
+ *   <li>{@code load.mix}: {@code transactions:weight,...} (default {@code 10:70,1000:25,50000:5}); each size is a
+ *       {@link Workload} with 10 rules and 12 periods</li>
+ *   <li>{@code load.timeout}: seconds before a request counts as an error (30)</li>
+ *   <li>{@code load.cache}: keep the result cache on (false, so every request runs the engines)</li>
+ *   <li>{@code load.max-p99-ms}, {@code load.max-error-rate}: fail above these (unset)</li>
+ * </ul>
+ * Opt-in: {@code mvn test -Dtest=LoadTest -Dbenchmark=true -Dload.rate=100}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Load Test")
+class LoadTest {
+
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "50"));
+    private static final Duration RUN = Duration.ofSeconds(Long.getLong("load.duration", 30));
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("load.warmup", 10));
+    private static final Duration TIMEOUT = Duration.ofSeconds(Long.getLong("load.timeout", 30));
+    private static final String MIX = System.getProperty("load.mix", "10:70,1000:25,50000:5");
+    private static final Path HISTOGRAM_FILE = Path.of("target/load-latency.hgrm");
+    private static final long HIGHEST_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    /** One request size of the mix with its own histograms. */
+    private record Size(int transactions, int weight, byte[] body, Histogram latency, Histogram serviceTime,
+                        AtomicLong sent, AtomicLong errors) {
+        Size(int transactions, int weight, byte[] body) {
+            this(transactions, weight, body, histogram(), histogram(), new AtomicLong(), new AtomicLong());
+        }
+    }
+
+    @Test
+    @DisplayName("shouldReportTailLatencyAtConstantArrivalRate")
+    void shouldReportTailLatencyAtConstantArrivalRate() throws Exception {
+        // Arrange
+        List<Size> mix = mix(new ObjectMapper());
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+
+        // Act
+        double seconds;
+        try (ConfigurableApplicationContext context = start()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/api/v1/engine/process");
+            drive(http, uri, mix, WARM_UP, false);
+            seconds = drive(http, uri, mix, RUN, true) / 1e9;
+        }
+
+        // Assert
+        Histogram latency = histogram();
+        Histogram serviceTime = histogram();
+        long sent = 0;
+        long errors = 0;
+        for (Size size : mix) {
+            latency.add(size.latency());
+            serviceTime.add(size.serviceTime());
+            sent += size.sent().get();
+            errors += size.errors().get();
+            report("transactions=" + size.transactions(), seconds, size.sent().get(), size.errors().get(), size.latency(), size.serviceTime());
+        }
+        report("all", seconds, sent, errors, latency, serviceTime);
+        Files.createDirectories(HISTOGRAM_FILE.getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(HISTOGRAM_FILE))) {
+            latency.outputPercentileDistribution(out, 1e6);
+        }
+
+        assertTrue(latency.getTotalCount() > 0, "No request succeeded");
+        double errorRate = (double) errors / sent;
+        String maxErrorRate = System.getProperty("load.max-error-rate");
+        if (maxErrorRate != null) {
+            assertTrue(errorRate <= Double.parseDouble(maxErrorRate), "Error rate " + errorRate);
+        }
+        String maxP99 = System.getProperty("load.max-p99-ms");
+        if (maxP99 != null) {
+            double p99Ms = latency.getValueAtPercentile(99) / 1e6;
+            assertTrue(p99Ms <= Double.parseDouble(maxP99), "p99 " + p99Ms + " ms");
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(MicroInvestmentEngineApplication.class).properties(
+                "server.port=0",
+                "engine.cache.enabled=" + Boolean.getBoolean("load.cache"),
+                "logging.level.com.blackrock.aladdin=WARN"
+        ).run();
+    }
+
+    /**
+     * Sends one request every 1/rate seconds for {@code length}, each drawn from the mix by weight, and waits for
+     * all of them. The schedule never waits for responses: a late send is still timed from its slot.
+     *
+     * @return nanoseconds from the first send until the last response
+     */
+    private static long drive(HttpClient http, URI uri, List<Size> mix, Duration length, boolean record) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / RATE);
+        long count = length.toNanos() / interval;
+        int totalWeight = mix.stream().mapToInt(Size::weight).sum();
+        List<CompletableFuture<?>> pending = new ArrayList<>((int) Math.min(count, Integer.MAX_VALUE));
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            long scheduled = start + i * interval;
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+            Size size = pick(mix, ThreadLocalRandom.current().nextInt(totalWeight));
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(size.body()))
+                    .build();
+            long sentAt = System.nanoTime();
+            pending.add(http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                if (!record) return;
+                long end = System.nanoTime();
+                size.sent().incrementAndGet();
+                if (failure != null || response.statusCode() != 200) {
+                    size.errors().incrementAndGet();
+                    return;
+                }
+                size.latency().recordValue(Math.min(end - scheduled, HIGHEST_NANOS));
+                size.serviceTime().recordValue(Math.min(end - sentAt, HIGHEST_NANOS));
+            }));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).exceptionally(failure -> null).join();
+        return System.nanoTime() - start;
+    }
+
+    private static Size pick(List<Size> mix, int ticket) {
+        for (Size size : mix) {
+            ticket -= size.weight();
+            if (ticket < 0) return size;
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    private static List<Size> mix(ObjectMapper json) throws IOException {
+        List<Size> mix = new ArrayList<>();
+        for (String entry : MIX.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) throw new IllegalArgumentException("load.mix entry is not transactions:weight: " + entry);
+            int transactions = Integer.parseInt(parts[0].trim());
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 1) throw new IllegalArgumentException("load.mix weight must be positive: " + entry);
+            mix.add(new Size(transactions, weight, json.writeValueAsBytes(new Workload(transactions, 10, 12).request())));
+        }
+        return mix;
+    }
+
+    /** Throughput is successful responses over {@code seconds}, the measured run including its drain. */
+    private static void report(String label, double seconds, long sent, long errors, Histogram latency, Histogram serviceTime) {
+        System.out.printf("%-22s sent=%,8d errors=%,6d (%5.2f%%) throughput=%,8.1f/s p50=%,9.2f p99=%,9.2f p99.9=%,9.2f max=%,9.2f ms"
+                        + " | service p99=%,9.2f ms%n",
+                label, sent, errors, sent == 0 ? 0.0 : 100.0 * errors / sent, latency.getTotalCount() / seconds,
+                millis(latency, 50), millis(latency, 99), millis(latency, 99.9), latency.getMaxValue() / 1e6,
+                millis(serviceTime, 99));
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    /** Nanoseconds up to ten minutes at three significant digits. */
+    private static Histogram histogram() {
+        return new ConcurrentHistogram(HIGHEST_NANOS, 3);
+    }
+}
@@ -0,0 +1,230 @@
+package com.blackrock.aladdin;
+
+import com.blackrock.aladdin.config.EngineProperties;
+import com.blackrock.aladdin.model.ProcessRequest;
+import com.blackrock.aladdin.model.ProcessResponse;
+import com.blackrock.aladdin.service.InvestmentEngineService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Scaling suite: {@link InvestmentEngineService#process(ProcessRequest)} timed along five curves in both arithmetic
+ * modes. Three grow one input: transactions 10k-1M (10M with {@code -Dscaling.large=true}, which needs a heap of
+ * about 12 GB), periods 1-1M over 100k transactions and rules 0-100k over 10k transactions. A fourth repeats the
+ * transaction curve with the transactions shuffled ({@link Workload#unsorted()}), through the point of
+ * {@link PerformanceTest} (100k, no rules, 12 periods), so that the sort stage is measured too. The fifth grows
+ * transactions, rules and periods together, which is where a cost in the product of two inputs shows, such as an
+ * O(n*k) period lookup: it is linear along either input alone.
+ * <p>
+ * Each curve's growth over its first point is fitted as extra time ~ extra cost^b. For the single-input curves cost
+ * = m log m over the input size m, the expected complexity of the pipeline, so b is expected near 1. The fifth curve
+ * is fitted against n*k (transactions times periods): both grow together, so a pipeline linear in its inputs fits
+ * about 0.5-0.6 and a linear scan for each transaction's period about 0.8-0.9. Against m log m that scan fits only
+ * about 1.5, too close to the limit to tell apart. A curve fails when b passes its expected exponent by more than
+ * {@code scaling.slack} (0.5) of it: 1.5 for the first four, 0.75 for the fifth. The slack absorbs cache and garbage
+ * collection effects: exact arithmetic from 100k to 1M transactions alone fits about 0.9-1.1. Increases under
+ * {@value #NOISE_FLOOR_MILLIS} ms are left out of the fit.
+ * <p>
+ * Times are compared with {@code src/test/resources/scaling-baseline.json}. The median ratio to the baseline over
+ * all points of at least {@value #COMPARED_MILLIS} ms is taken as the machine's relative speed, and a point fails
+ * when its own ratio passes that median by more than {@code scaling.tolerance} (0.5): one step getting slower fails,
+ * a uniformly faster or slower machine does not. A missing baseline fails; {@code -Dscaling.update=true} writes
+ * the baseline instead of comparing.
+ * Tagged and excluded from the default build: {@code mvn test -Pscaling}.
+ */
+@Tag("scaling")
+@DisplayName("Scaling Tests")
+class ScalingTest {
+
+    static final Path BASELINE = Path.of("src/test/resources/scaling-baseline.json");
+
+    private static final double NOISE_FLOOR_MILLIS = 5;
+    private static final double COMPARED_MILLIS = 50;
+    private static final int ROUNDS = 3;
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final double SLACK = Double.parseDouble(System.getProperty("scaling.slack", "0.5"));
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("scaling.tolerance", "0.5"));
+
+    record Point(int transactions, int rules, int periods, double millis) {
+        boolean sameSize(Point other) {
+            return transactions == other.transactions && rules == other.rules && periods == other.periods;
+        }
+    }
+
+    /** @param exponent fitted b, null when fewer than two increases are above the noise floor */
+    record Series(String name, EngineProperties.Arithmetic arithmetic, Double exponent, List<Point> points) {
+        String key() {
+            return name + "/" + arithmetic;
+        }
+    }
+
+    record Baseline(List<Series> series) {}
+
+    /**
+     * @param cost     what the curve's time is fitted against
+     * @param expected exponent b of a pipeline with the intended complexity
+     */
+    record Curve(String name, List<int[]> sizes, boolean unsorted, ToDoubleFunction<Point> cost, double expected) {
+        Curve(String name, List<int[]> sizes, boolean unsorted) {
+            this(name, sizes, unsorted, ScalingTest::cost, 1);
+        }
+    }
+
+    @Test
+    @DisplayName("shouldGrowNoFasterThanExpectedComplexity")
+    void shouldGrowNoFasterThanExpectedComplexity() throws IOException {
+        // Arrange
+        List<int[]> transactionSizes = new ArrayList<>(List.of(new int[]{10_000, 0, 12}, new int[]{100_000, 0, 12},
+                new int[]{300_000, 0, 12}, new int[]{1_000_000, 0, 12}));
+        if (Boolean.getBoolean("scaling.large")) transactionSizes.add(new int[]{10_000_000, 0, 12});
+        List<Curve> curves = List.of(
+                new Curve("transactions", transactionSizes, false),
+                new Curve("unsorted", transactionSizes, true),
+                new Curve("periods", List.of(new int[]{100_000, 0, 1}, new int[]{100_000, 0, 1_000},
+                        new int[]{100_000, 0, 10_000}, new int[]{100_000, 0, 100_000}, new int[]{100_000, 0, 1_000_000}), false),
+                new Curve("rules", List.of(new int[]{10_000, 0, 12}, new int[]{10_000, 1_000, 12},
+                        new int[]{10_000, 10_000, 12}, new int[]{10_000, 30_000, 12}, new int[]{10_000, 100_000, 12}), false),
+                new Curve("all", List.of(new int[]{10_000, 100, 100}, new int[]{100_000, 1_000, 1_000},
+                        new int[]{300_000, 3_000, 3_000}, new int[]{1_000_000, 10_000, 10_000}), false,
+                        p -> (double) p.transactions() * p.periods(), 0.5));
+
+        // Act
+        List<Series> measured = new ArrayList<>();
+        Map<String, Double> limits = new LinkedHashMap<>();
+        for (EngineProperties.Arithmetic arithmetic : EngineProperties.Arithmetic.values()) {
+            EngineProperties defaults = EngineProperties.defaults();
+            InvestmentEngineService service = new InvestmentEngineService(defaults.withArithmetic(arithmetic, defaults.fixedScale()));
+            ProcessRequest warmUp = new Workload(100_000, 0, 12).request();
+            for (int round = 0; round < WARM_UP_ROUNDS; round++) service.process(warmUp);
+            for (Curve curve : curves) {
+                List<Point> points = new ArrayList<>();
+                for (int[] size : curve.sizes()) {
+                    Workload workload = new Workload(size[0], size[1], size[2]);
+                    points.add(new Point(size[0], size[1], size[2], millis(service, curve.unsorted() ? workload.unsorted() : workload)));
+                }
+                Series series = new Series(curve.name(), arithmetic, exponent(points, curve.cost()), points);
+                measured.add(series);
+                limits.put(series.key(), curve.expected() * (1 + SLACK));
+            }
+        }
+
+        // Assert
+        for (Series series : measured) {
+            for (Point p : series.points()) {
+                System.out.printf("%-12s %-5s transactions=%,10d rules=%,7d periods=%,9d time=%,10.1f ms%n",
+                        series.name(), series.arithmetic(), p.transactions(), p.rules(), p.periods(), p.millis());
+            }
+            System.out.printf("%-12s %-5s exponent=%s%n", series.name(), series.arithmetic(),
+                    series.exponent() == null ? "n/a" : String.format("%.3f", series.exponent()));
+        }
+        List<String> failures = new ArrayList<>();
+        for (Series series : measured) {
+            double limit = limits.get(series.key());
+            if (series.exponent() != null && series.exponent() > limit) {
+                failures.add(String.format("%s grows as cost^%.2f, above %.2f", series.key(), series.exponent(), limit));
+            }
+        }
+        ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        if (Boolean.getBoolean("scaling.update")) {
+            Files.createDirectories(BASELINE.getParent());
+            json.writeValue(BASELINE.toFile(), new Baseline(measured));
+            System.out.println("Wrote baseline " + BASELINE.toAbsolutePath());
+        } else if (!Files.exists(BASELINE)) {
+            failures.add("No baseline at " + BASELINE.toAbsolutePath() + "; record one with -Dscaling.update=true");
+        } else {
+            failures.addAll(compare(measured, json.readValue(BASELINE.toFile(), Baseline.class)));
+        }
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    private static List<String> compare(List<Series> measured, Baseline baseline) {
+        Map<String, Series> expected = baseline.series().stream().collect(Collectors.toMap(Series::key, Function.identity()));
+        List<String> labels = new ArrayList<>();
+        List<Double> ratios = new ArrayList<>();
+        for (Series series : measured) {
+            Series before = expected.get(series.key());
+            if (before == null) continue;
+            for (Point p : series.points()) {
+                before.points().stream()
+                        .filter(q -> q.sameSize(p) && q.millis() >= COMPARED_MILLIS)
+                        .findFirst()
+                        .ifPresent(q -> {
+                            labels.add(String.format("%s at %d/%d/%d: %.1f ms, baseline %.1f ms",
+                                    series.key(), p.transactions(), p.rules(), p.periods(), p.millis(), q.millis()));
+                            ratios.add(p.millis() / q.millis());
+                        });
+            }
+        }
+        List<String> failures = new ArrayList<>();
+        if (ratios.isEmpty()) return failures;
+        double speed = ratios.stream().sorted().toList().get(ratios.size() / 2);
+        for (int i = 0; i < ratios.size(); i++) {
+            if (ratios.get(i) > speed * (1 + TOLERANCE)) {
+                failures.add(String.format("%s (%.2fx against a median of %.2fx)", labels.get(i), ratios.get(i), speed));
+            }
+        }
+        return failures;
+    }
+
+    /** Best of {@value #ROUNDS} runs after one warm-up; the request is built outside the timing. */
+    private static double millis(InvestmentEngineService service, Workload workload) {
+        ProcessRequest request = workload.request();
+        ProcessResponse response = service.process(request);
+        assertEquals(request.kPeriods().size(), response.periodSummaries().size());
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            System.gc();
+            long start = System.nanoTime();
+            service.process(request);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+
+    /**
+     * Least-squares slope of log extra time over log extra cost, both taken over the curve's first point, from
+     * points whose extra time is above the noise floor.
+     */
+    private static Double exponent(List<Point> points, ToDoubleFunction<Point> cost) {
+        Point first = points.get(0);
+        List<double[]> xy = new ArrayList<>();
+        for (Point p : points.subList(1, points.size())) {
+            double extraMillis = p.millis() - first.millis();
+            if (extraMillis >= NOISE_FLOOR_MILLIS) {
+                xy.add(new double[]{Math.log(cost.applyAsDouble(p) - cost.applyAsDouble(first)), Math.log(extraMillis)});
+            }
+        }
+        if (xy.size() < 2) return null;
+        double meanX = xy.stream().mapToDouble(v -> v[0]).average().orElseThrow();
+        double meanY = xy.stream().mapToDouble(v -> v[1]).average().orElseThrow();
+        double covariance = 0;
+        double variance = 0;
+        for (double[] v : xy) {
+            covariance += (v[0] - meanX) * (v[1] - meanY);
+            variance += (v[0] - meanX) * (v[0] - meanX);
+        }
+        return variance == 0 ? null : covariance / variance;
+    }
+
+    /** m log m over every input: transactions, q and p rules (one of each per rule) and periods. */
+    private static double cost(Point p) {
+        double m = p.transactions() + 2.0 * p.rules() + p.periods();
+        return m * Math.log(m);
+    }
+}
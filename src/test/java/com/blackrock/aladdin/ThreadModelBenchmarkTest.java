@@ -0,0 +1,173 @@
+package com.blackrock.aladdin;
+
+import com.blackrock.aladdin.model.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load benchmark: throughput and p99 latency of platform-thread vs virtual-thread request handling
+ * at 1k and 10k concurrent connections, each uploading its body slowly.
+ * Opt-in and Java 21+ only: {@code mvn -Pjava21 test -Dtest=ThreadModelBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Thread Model Benchmark")
+class ThreadModelBenchmarkTest {
+
+    private static final Duration RUN = Duration.ofSeconds(20);
+    private static final int UPLOAD_CHUNKS = 4;
+    private static final long UPLOAD_CHUNK_DELAY_MS = 50;
+
+    private record Result(String mode, int connections, long requests, long errors, double perSecond, double p99Ms) {}
+
+    @Test
+    @DisplayName("shouldCompareThroughputAndTailLatency")
+    void shouldCompareThroughputAndTailLatency() throws Exception {
+        byte[] body = new ObjectMapper().writeValueAsBytes(request(200));
+        List<Result> results = new ArrayList<>();
+
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                for (int connections : new int[]{1_000, 10_000}) {
+                    results.add(load(virtual ? "virtual" : "platform", port, connections, body));
+                }
+            }
+        }
+
+        results.forEach(r -> System.out.printf("%-8s connections=%,6d requests=%,9d errors=%,6d throughput=%,10.1f/s p99=%,8.1f ms%n",
+                r.mode(), r.connections(), r.requests(), r.errors(), r.perSecond(), r.p99Ms()));
+        results.forEach(r -> assertTrue(r.requests() > 0, r.mode() + " at " + r.connections() + " completed no requests"));
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual) {
+        return new SpringApplicationBuilder(MicroInvestmentEngineApplication.class).properties(
+                "server.port=0",
+                "server.tomcat.max-connections=20000",
+                "server.tomcat.accept-count=10000",
+                "spring.threads.virtual.enabled=" + virtual,
+                "logging.level.com.blackrock.aladdin=WARN"
+        ).run();
+    }
+
+    private static Result load(String mode, int port, int connections, byte[] body) throws InterruptedException {
+        VirtualThreadTaskExecutor clients = new VirtualThreadTaskExecutor("bench-client-");
+        HttpClient http = HttpClient.newBuilder().executor(clients).connectTimeout(Duration.ofSeconds(30)).build();
+        URI uri = URI.create("http://localhost:" + port + "/api/v1/engine/process");
+        long[][] latencies = new long[connections][];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(connections);
+        long deadline = System.nanoTime() + RUN.toNanos();
+
+        for (int c = 0; c < connections; c++) {
+            int client = c;
+            clients.execute(() -> {
+                long[] samples = new long[64];
+                int count = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new SlowUpload(body)))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latencies[client] = Arrays.copyOf(samples, count);
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        double p99Ms = all.length == 0 ? Double.NaN : all[(int) Math.min(all.length - 1, Math.ceil(all.length * 0.99) - 1)] / 1e6;
+        return new Result(mode, connections, all.length, errors.get(), all.length / (double) RUN.toSeconds(), p99Ms);
+    }
+
+    private static ProcessRequest request(int transactionCount) {
+        List<TransactionDto> transactions = new ArrayList<>(transactionCount);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < transactionCount; i++) {
+            transactions.add(new TransactionDto("tx" + i, start.plusDays(i % 365) + " 09:30:00", new BigDecimal("100")));
+        }
+        return new ProcessRequest(
+                transactions,
+                List.of(),
+                List.of(),
+                List.of(new KPeriodDto("K1", "2024-01-01 00:00:00", "2025-01-01 00:00:00")),
+                new BigDecimal("2000"),
+                new BigDecimal("0.02"),
+                new BigDecimal("500")
+        );
+    }
+
+    /** Hands the body out in a few chunks with a pause before each, like a slow client upload. */
+    private static final class SlowUpload extends InputStream {
+
+        private final ByteArrayInputStream bytes;
+        private final int chunk;
+
+        SlowUpload(byte[] body) {
+            this.bytes = new ByteArrayInputStream(body);
+            this.chunk = Math.max(1, body.length / UPLOAD_CHUNKS);
+        }
+
+        @Override
+        public int read() {
+            return bytes.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (bytes.available() == 0) return -1;
+            try {
+                Thread.sleep(UPLOAD_CHUNK_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("upload interrupted", e);
+            }
+            return bytes.read(buffer, offset, Math.min(length, chunk));
+        }
+    }
+}
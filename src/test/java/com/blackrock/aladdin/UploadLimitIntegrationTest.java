@@ -0,0 +1,127 @@
+package com.blackrock.aladdin;
+
+import com.blackrock.aladdin.model.KPeriodDto;
+import com.blackrock.aladdin.model.ProcessTerms;
+import com.blackrock.aladdin.model.TransactionBatch;
+import com.blackrock.aladdin.store.ColumnarTransactionFile;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Upload limits on a running server: the multipart limit applies to /process/csv; /process/bulk has its own.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.servlet.multipart.max-file-size=4KB",
+        "spring.servlet.multipart.max-request-size=4KB",
+        "engine.bulk.max-upload-size=512KB"
+})
+@DisplayName("Upload Limit Integration Tests")
+class UploadLimitIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate http;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static HttpEntity<ByteArrayResource> part(byte[] content, String filename, MediaType type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(type);
+        return new HttpEntity<>(new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        }, headers);
+    }
+
+    private ResponseEntity<String> post(String path, MultiValueMap<String, Object> parts) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        return http.postForEntity(path, new HttpEntity<>(parts, headers), String.class);
+    }
+
+    private static Path columnarFile(Path directory, int rows) {
+        TransactionBatch.Builder batch = TransactionBatch.builder(2, rows);
+        for (int i = 0; i < rows; i++) {
+            batch.add("transaction-" + i, 1_705_311_000L + i, 1_000);
+        }
+        Path file = directory.resolve("transactions.txc");
+        ColumnarTransactionFile.write(file, batch.build(), 2);
+        return file;
+    }
+
+    private MultiValueMap<String, Object> bulkParts(Path file) throws Exception {
+        ProcessTerms terms = new ProcessTerms(List.of(), List.of(),
+                List.of(new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00")),
+                new BigDecimal("2000"), new BigDecimal("0.02"), new BigDecimal("500"));
+        MultiValueMap<String, Object> bulkParts = new LinkedMultiValueMap<>();
+        bulkParts.add("terms", part(objectMapper.writeValueAsBytes(terms), "terms.json", MediaType.APPLICATION_JSON));
+        bulkParts.add("transactions", part(Files.readAllBytes(file), "transactions.txc", MediaType.APPLICATION_OCTET_STREAM));
+        return bulkParts;
+    }
+
+    @Test
+    @DisplayName("shouldRejectCsvOverLimitButAcceptLargerBulkUpload")
+    void shouldRejectCsvOverLimitButAcceptLargerBulkUpload(@TempDir Path directory) throws Exception {
+        // Arrange: CSV and columnar file both over the 4 KB limit
+        StringBuilder csv = new StringBuilder("id,timestamp,amount\n");
+        for (int i = 0; i < 5_000; i++) {
+            csv.append("tx").append(i).append(",2024-01-15 09:30:00,10.00\n");
+        }
+        Path file = columnarFile(directory, 5_000);
+
+        MultiValueMap<String, Object> csvParts = new LinkedMultiValueMap<>();
+        csvParts.add("transactions", part(csv.toString().getBytes(), "t.csv", MediaType.parseMediaType("text/csv")));
+        csvParts.add("kPeriods", part("id,startInclusive,endExclusive\nK1,2024-01-01 00:00:00,2024-02-01 00:00:00\n".getBytes(),
+                "k.csv", MediaType.parseMediaType("text/csv")));
+        csvParts.add("defaultCeiling", "2000");
+        csvParts.add("inflationRate", "0.02");
+        csvParts.add("taxCap", "500");
+        assertTrue(Files.size(file) > 2 * 4_096);
+
+        // Act
+        ResponseEntity<String> csvResponse = post("/api/v1/engine/process/csv", csvParts);
+        ResponseEntity<String> bulkResponse = post("/api/v1/engine/process/bulk", bulkParts(file));
+
+        // Assert
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, csvResponse.getStatusCode());
+        assertEquals(HttpStatus.OK, bulkResponse.getStatusCode());
+        assertEquals(50_000.0, objectMapper.readTree(bulkResponse.getBody())
+                .at("/periodSummaries/0/totalContribution").doubleValue());
+    }
+
+    @Test
+    @DisplayName("shouldRejectBulkUploadOverItsOwnLimit")
+    void shouldRejectBulkUploadOverItsOwnLimit(@TempDir Path directory) throws Exception {
+        // Arrange: columnar file over the 512 KB bulk limit
+        Path file = columnarFile(directory, 40_000);
+        assertTrue(Files.size(file) > 512 * 1_024);
+
+        // Act
+        ResponseEntity<String> response = post("/api/v1/engine/process/bulk", bulkParts(file));
+
+        // Assert
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+    }
+}
@@ -0,0 +1,156 @@
+package com.blackrock.aladdin;
+
+import com.blackrock.aladdin.model.*;
+import com.blackrock.aladdin.util.TimestampParser;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic input for benchmarks: {@code transactions} one minute apart from 2024-01-01, amounts
+ * 1.00-900.99 with cents, {@code rules} q rules and as many p rules spread evenly over that span, and
+ * {@code periods} back-to-back k periods covering it. Transactions come sorted by timestamp, or shuffled
+ * ({@link #unsorted()}) so that the sort stage does real work. The same sizes always give the same request.
+ */
+public final class Workload {
+
+    public static final long START_EPOCH_SECOND = 1_704_067_200L;
+    public static final long STEP_SECONDS = 60L;
+    public static final BigDecimal DEFAULT_CEILING = new BigDecimal("500");
+    public static final BigDecimal INFLATION_RATE = new BigDecimal("0.02");
+    public static final BigDecimal TAX_CAP = new BigDecimal("500");
+
+    private static final long SHUFFLE_SEED = 42L;
+
+    private final int transactions;
+    private final int rules;
+    private final int periods;
+    /** Time-order index of the transaction at each position; null = sorted. */
+    private final int[] order;
+
+    public Workload(int transactions, int rules, int periods) {
+        this(transactions, rules, periods, null);
+    }
+
+    private Workload(int transactions, int rules, int periods, int[] order) {
+        if (transactions < 1 || rules < 0 || periods < 1) {
+            throw new IllegalArgumentException("Need at least one transaction and one period");
+        }
+        this.transactions = transactions;
+        this.rules = rules;
+        this.periods = periods;
+        this.order = order;
+    }
+
+    /** Same transactions, rules and periods with the transactions in a fixed pseudo-random order. */
+    public Workload unsorted() {
+        int[] shuffled = new int[transactions];
+        for (int i = 0; i < transactions; i++) shuffled[i] = i;
+        Random random = new Random(SHUFFLE_SEED);
+        for (int i = transactions - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+        return new Workload(transactions, rules, periods, shuffled);
+    }
+
+    public long epochSecond(int i) {
+        return START_EPOCH_SECOND + i * STEP_SECONDS;
+    }
+
+    public BigDecimal amount(int i) {
+        return BigDecimal.valueOf(100 + (i * 7_919L) % 90_000, 2);
+    }
+
+    /** One past the last transaction's second: periods and rules fall in [start, end). */
+    public long endEpochSecond() {
+        return epochSecond(transactions);
+    }
+
+    /** Sorted by timestamp unless {@link #unsorted()}. */
+    public List<Transaction> transactions() {
+        List<Transaction> result = new ArrayList<>(transactions);
+        for (int position = 0; position < transactions; position++) {
+            int i = index(position);
+            result.add(new Transaction("tx-" + i, Instant.ofEpochSecond(epochSecond(i)), amount(i)));
+        }
+        return result;
+    }
+
+    public List<TransactionDto> transactionDtos() {
+        List<TransactionDto> result = new ArrayList<>(transactions);
+        for (int position = 0; position < transactions; position++) {
+            int i = index(position);
+            result.add(new TransactionDto("tx-" + i, TimestampParser.format(Instant.ofEpochSecond(epochSecond(i))), amount(i)));
+        }
+        return result;
+    }
+
+    public List<String> timestamps() {
+        List<String> result = new ArrayList<>(transactions);
+        for (int position = 0; position < transactions; position++) {
+            result.add(TimestampParser.format(Instant.ofEpochSecond(epochSecond(index(position)))));
+        }
+        return result;
+    }
+
+    /** Sorted by start time; ceilings 50.00-549.00 so that some bite and some do not. */
+    public List<QRule> qRules() {
+        List<QRule> result = new ArrayList<>(rules);
+        for (int r = 0; r < rules; r++) {
+            result.add(new QRule("q-" + r, Instant.ofEpochSecond(ruleStart(r)), BigDecimal.valueOf(5_000 + (r * 131L) % 50_000, 2)));
+        }
+        return result;
+    }
+
+    /** Sorted by start time; deltas 0.25-10.00. */
+    public List<PRule> pRules() {
+        List<PRule> result = new ArrayList<>(rules);
+        for (int r = 0; r < rules; r++) {
+            result.add(new PRule("p-" + r, Instant.ofEpochSecond(ruleStart(r) + STEP_SECONDS / 2), BigDecimal.valueOf(25 + (r * 37L) % 976, 2)));
+        }
+        return result;
+    }
+
+    /** Sorted, non-overlapping, covering every transaction. */
+    public List<KPeriod> kPeriods() {
+        List<KPeriod> result = new ArrayList<>(periods);
+        for (int k = 0; k < periods; k++) {
+            result.add(new KPeriod("k-" + k, Instant.ofEpochSecond(periodStart(k)), Instant.ofEpochSecond(periodStart(k + 1))));
+        }
+        return result;
+    }
+
+    public ProcessRequest request() {
+        List<QRuleDto> qRules = qRules().stream()
+                .map(q -> new QRuleDto(q.id(), TimestampParser.format(q.startTime()), q.ceilingOverride()))
+                .toList();
+        List<PRuleDto> pRules = pRules().stream()
+                .map(p -> new PRuleDto(p.id(), TimestampParser.format(p.startTime()), p.delta()))
+                .toList();
+        List<KPeriodDto> kPeriods = kPeriods().stream()
+                .map(k -> new KPeriodDto(k.id(), TimestampParser.format(k.startInclusive()), TimestampParser.format(k.endExclusive())))
+                .toList();
+        return new ProcessRequest(transactionDtos(), qRules, pRules, kPeriods, DEFAULT_CEILING, INFLATION_RATE, TAX_CAP);
+    }
+
+    /** Time-order index of the transaction at {@code position} in the lists above. */
+    private int index(int position) {
+        return order == null ? position : order[position];
+    }
+
+    private long ruleStart(int r) {
+        return START_EPOCH_SECOND + (endEpochSecond() - START_EPOCH_SECOND) * r / rules;
+    }
+
+    /** Periods are at least one second long; past the span they keep going one second apart. */
+    private long periodStart(int k) {
+        long span = endEpochSecond() - START_EPOCH_SECOND;
+        return span >= periods ? START_EPOCH_SECOND + span * k / periods : START_EPOCH_SECOND + k;
+    }
+}
@@ -0,0 +1,63 @@
+package com.blackrock.aladdin.config;
+
+import com.blackrock.aladdin.model.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Serializer tests: dedicated response serializers emit exactly what record introspection does.
+ */
+@JsonTest
+@DisplayName("ResponseJsonSerializers Tests")
+class ResponseJsonSerializersTest {
+
+    private static final ObjectMapper INTROSPECTING = new ObjectMapper();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("shouldWriteSameBytesAsRecordIntrospection")
+    void shouldWriteSameBytesAsRecordIntrospection() throws Exception {
+        // Arrange: mixed scales, signs, exponent forms, nulls and characters needing escapes
+        Random random = new Random(3);
+        List<PeriodSummaryDto> summaries = new ArrayList<>();
+        List<ReturnResultDto> returns = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            summaries.add(new PeriodSummaryDto("K" + i, "2024-01-01 00:00:00", i % 50 == 0 ? null : "2024-02-01 00:00:00",
+                    decimal(random), decimal(random), i % 7 == 0 ? null : decimal(random)));
+            returns.add(new ReturnResultDto(i % 9 == 0 ? "K\"" + i + "é" : "K" + i,
+                    decimal(random), decimal(random), decimal(random)));
+        }
+        ProcessResponse response = new ProcessResponse(summaries, returns, returns);
+
+        // Act
+        String dedicated = objectMapper.writeValueAsString(response);
+        byte[] dedicatedBytes = objectMapper.writeValueAsBytes(response);
+
+        // Assert
+        assertInstanceOf(ResponseJsonSerializers.PeriodSummarySerializer.class,
+                objectMapper.getSerializerProviderInstance().findValueSerializer(PeriodSummaryDto.class));
+        assertEquals(INTROSPECTING.writeValueAsString(response), dedicated);
+        assertArrayEquals(INTROSPECTING.writeValueAsBytes(response), dedicatedBytes);
+    }
+
+    private static BigDecimal decimal(Random random) {
+        return switch (random.nextInt(5)) {
+            case 0 -> new BigDecimal(random.nextLong()).movePointLeft(random.nextInt(30));
+            case 1 -> BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(12) - 3);
+            case 2 -> new BigDecimal("123456789012345678901234.5678");
+            default -> BigDecimal.valueOf(random.nextLong() >> random.nextInt(60), 6);
+        };
+    }
+}
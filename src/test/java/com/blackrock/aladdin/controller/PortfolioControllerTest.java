@@ -0,0 +1,97 @@
+package com.blackrock.aladdin.controller;
+
+import com.blackrock.aladdin.model.*;
+import com.blackrock.aladdin.service.PortfolioNotFoundException;
+import com.blackrock.aladdin.service.PortfolioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Controller tests: stored portfolio endpoints.
+ */
+@WebMvcTest(PortfolioController.class)
+@Import(EngineExceptionHandler.class)
+@DisplayName("PortfolioController Tests")
+class PortfolioControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private PortfolioService portfolioService;
+
+    @Test
+    @DisplayName("shouldAppendTransactionsAndReturnSummary")
+    void shouldAppendTransactionsAndReturnSummary() throws Exception {
+        // Arrange
+        List<TransactionDto> transactions = List.of(new TransactionDto("tx9", "2024-01-20 10:00:00", new BigDecimal("40")));
+        ProcessResponse summary = new ProcessResponse(
+                List.of(new PeriodSummaryDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00", new BigDecimal("40"), BigDecimal.ZERO, BigDecimal.ZERO)),
+                List.of(),
+                List.of());
+        when(portfolioService.append(eq("alice"), eq(transactions))).thenReturn(summary);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/engine/portfolios/alice/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AppendTransactionsRequest(transactions))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.periodSummaries[0].totalContribution").value(40));
+    }
+
+    @Test
+    @DisplayName("shouldReturn400WhenAppendedTransactionInvalid")
+    void shouldReturn400WhenAppendedTransactionInvalid() throws Exception {
+        String body = "{\"transactions\":[{\"id\":\"tx1\",\"timestamp\":\"\",\"amount\":10}]}";
+
+        mockMvc.perform(post("/api/v1/engine/portfolios/alice/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+
+        verify(portfolioService, never()).append(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("shouldReturn404ForUnknownPortfolio")
+    void shouldReturn404ForUnknownPortfolio() throws Exception {
+        when(portfolioService.summary("bob")).thenThrow(new PortfolioNotFoundException("bob"));
+
+        mockMvc.perform(get("/api/v1/engine/portfolios/bob/summary"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Unknown portfolio: bob"));
+    }
+
+    @Test
+    @DisplayName("shouldNotReport404ForOtherMissingElements")
+    void shouldNotReport404ForOtherMissingElements() throws Exception {
+        when(portfolioService.summary("bob")).thenThrow(new NoSuchElementException("No value present"));
+
+        mockMvc.perform(get("/api/v1/engine/portfolios/bob/summary"))
+                .andExpect(status().isInternalServerError());
+    }
+}
@@ -1,23 +1,47 @@
 package com.blackrock.aladdin.controller;
 
+import com.blackrock.aladdin.config.BinaryFormatConfig;
 import com.blackrock.aladdin.model.*;
+import com.blackrock.aladdin.service.BatchProcessingService;
+import com.blackrock.aladdin.service.CsvFormatException;
+import com.blackrock.aladdin.service.CsvRequestReader;
+import com.blackrock.aladdin.service.IngestedRequest;
 import com.blackrock.aladdin.service.InvestmentEngineService;
+import com.blackrock.aladdin.service.ResultCache;
+import com.blackrock.aladdin.service.StreamingRequestReader;
+import com.blackrock.aladdin.store.ColumnarTransactionFile;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -25,7 +49,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Controller tests: endpoint contract and validation.
  */
 @WebMvcTest(ProcessController.class)
-@Import(EngineExceptionHandler.class)
+@Import({EngineExceptionHandler.class, BinaryFormatConfig.class})
 @DisplayName("ProcessController Tests")
 class ProcessControllerTest {
 
@@ -38,6 +62,12 @@ class ProcessControllerTest {
     @MockBean
     private InvestmentEngineService engineService;
 
+    @MockBean
+    private BatchProcessingService batchService;
+
+    @MockBean
+    private ResultCache resultCache;
+
     private static ProcessRequest validRequest() {
         return new ProcessRequest(
                 List.of(
@@ -63,7 +93,7 @@ class ProcessControllerTest {
                 List.of(new ReturnResultDto("K1", new BigDecimal("500"), BigDecimal.ZERO, new BigDecimal("500"))),
                 List.of(new ReturnResultDto("K1", new BigDecimal("500"), BigDecimal.ZERO, new BigDecimal("500")))
         );
-        when(engineService.process(any(ProcessRequest.class))).thenReturn(stubResponse);
+        when(engineService.process(any(InputStream.class))).thenReturn(stubResponse);
 
         ResultActions result = mockMvc.perform(post("/api/v1/engine/process")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -80,11 +110,17 @@ class ProcessControllerTest {
     @DisplayName("shouldReturn400WhenTransactionsNull")
     void shouldReturn400WhenTransactionsNull() throws Exception {
         String body = "{\"transactions\":null,\"qRules\":[],\"pRules\":[],\"kPeriods\":[{\"id\":\"K1\",\"startInclusive\":\"2024-01-01 00:00:00\",\"endExclusive\":\"2024-02-01 00:00:00\"}],\"defaultCeiling\":2000,\"inflationRate\":0.02,\"taxCap\":500}";
+        when(engineService.process(any(InputStream.class))).thenAnswer(invocation -> {
+            StreamingRequestReader.read(invocation.getArgument(0), -1);
+            return new ProcessResponse(List.of(), List.of(), List.of());
+        });
 
         mockMvc.perform(post("/api/v1/engine/process")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation failed"))
+                .andExpect(jsonPath("$.details").value("transactions: must not be null"));
     }
 
     @Test
@@ -99,7 +135,7 @@ class ProcessControllerTest {
                 new BigDecimal("0.02"),
                 new BigDecimal("500")
         );
-        when(engineService.process(any(ProcessRequest.class)))
+        when(engineService.process(any(InputStream.class)))
                 .thenThrow(new IllegalArgumentException("Invalid timestamp: invalid-date"));
 
         mockMvc.perform(post("/api/v1/engine/process")
@@ -107,4 +143,189 @@ class ProcessControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("shouldStreamJsonBodyWithoutBindingIt")
+    void shouldStreamJsonBodyWithoutBindingIt() throws Exception {
+        ProcessResponse stubResponse = new ProcessResponse(List.of(), List.of(), List.of());
+        when(engineService.process(any(InputStream.class))).thenReturn(stubResponse);
+
+        mockMvc.perform(post("/api/v1/engine/process")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.periodSummaries").isArray());
+
+        verify(engineService).process(any(InputStream.class));
+        verify(engineService, never()).process(any(ProcessRequest.class));
+    }
+
+    @Test
+    @DisplayName("shouldReadCborBodyAndAnswerInCborWhenAccepted")
+    void shouldReadCborBodyAndAnswerInCborWhenAccepted() throws Exception {
+        // Arrange
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+        ProcessResponse stubResponse = new ProcessResponse(List.of(
+                new PeriodSummaryDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00",
+                        new BigDecimal("12.50"), new BigDecimal("12.50"), BigDecimal.ZERO)), List.of(), List.of());
+        when(engineService.process((IngestedRequest) any())).thenReturn(stubResponse);
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/v1/engine/process")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cbor.writeValueAsBytes(validRequest())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // Assert: decimals stay exact in the binary response
+        ProcessResponse body = cbor.readValue(result.getResponse().getContentAsByteArray(), ProcessResponse.class);
+        assertEquals(new BigDecimal("12.50"), body.periodSummaries().get(0).totalContribution());
+        verify(engineService).ingest(any(InputStream.class), eq(BinaryFormatConfig.CBOR));
+        verify(engineService, never()).process(any(ProcessRequest.class));
+    }
+
+    @Test
+    @DisplayName("shouldReportTruncatedCborBodyWithoutCallingItJson")
+    void shouldReportTruncatedCborBodyWithoutCallingItJson() throws Exception {
+        // Arrange
+        byte[] body = new ObjectMapper(new CBORFactory()).writeValueAsBytes(validRequest());
+        when(engineService.ingest(any(InputStream.class), eq(BinaryFormatConfig.CBOR)))
+                .thenAnswer(invocation -> StreamingRequestReader.read(invocation.getArgument(0), BinaryFormatConfig.CBOR, -1));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/engine/process")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(Arrays.copyOf(body, body.length / 2)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Malformed request body"));
+    }
+
+    @Test
+    @DisplayName("shouldMapBulkUploadAndProcessItWithTerms")
+    void shouldMapBulkUploadAndProcessItWithTerms(@TempDir Path directory) throws Exception {
+        // Arrange
+        Path file = directory.resolve("transactions.txc");
+        ColumnarTransactionFile.write(file, TransactionBatch.builder(2, 1).add("tx1", 1_705_311_000L, 100_000).build(), 2);
+        ProcessTerms terms = new ProcessTerms(List.of(), List.of(),
+                List.of(new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00")),
+                new BigDecimal("2000"), new BigDecimal("0.02"), new BigDecimal("500"));
+        int[] rows = {-1};
+        when(engineService.ingest(any(ColumnarTransactionFile.class), any(ProcessRequest.class))).thenAnswer(invocation -> {
+            rows[0] = invocation.<ColumnarTransactionFile>getArgument(0).size();
+            return null;
+        });
+        when(engineService.process((IngestedRequest) any())).thenReturn(new ProcessResponse(List.of(), List.of(), List.of()));
+
+        // Act
+        mockMvc.perform(multipart("/api/v1/engine/process/bulk")
+                        .file(new MockMultipartFile("terms", "", MediaType.APPLICATION_JSON_VALUE, objectMapper.writeValueAsBytes(terms)))
+                        .file(new MockMultipartFile("transactions", "transactions.txc", MediaType.APPLICATION_OCTET_STREAM_VALUE, Files.readAllBytes(file))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.periodSummaries").isArray());
+
+        // Assert
+        assertEquals(1, rows[0]);
+    }
+
+    @Test
+    @DisplayName("shouldReadCsvPartsAndReportLineOfCsvError")
+    void shouldReadCsvPartsAndReportLineOfCsvError() throws Exception {
+        // Arrange
+        when(engineService.ingest(any(CsvRequestReader.Parts.class)))
+                .thenThrow(new CsvFormatException("transactions", 7, "amount: not a number: 1,5"));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/v1/engine/process/csv")
+                        .file(new MockMultipartFile("transactions", "t.csv", "text/csv", "id,timestamp,amount\n".getBytes()))
+                        .file(new MockMultipartFile("kPeriods", "k.csv", "text/csv", "id,startInclusive,endExclusive\n".getBytes()))
+                        .param("defaultCeiling", "2000")
+                        .param("inflationRate", "0.02")
+                        .param("taxCap", "500"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("transactions line 7: amount: not a number: 1,5"))
+                .andExpect(jsonPath("$.part").value("transactions"))
+                .andExpect(jsonPath("$.line").value(7));
+        verify(engineService).ingest(any(CsvRequestReader.Parts.class));
+    }
+
+    @Test
+    @DisplayName("shouldStreamNdjsonLinePerPeriodWhenAccepted")
+    void shouldStreamNdjsonLinePerPeriodWhenAccepted() throws Exception {
+        PeriodResultDto line = new PeriodResultDto(
+                new PeriodSummaryDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00", new BigDecimal("500"), BigDecimal.ZERO, BigDecimal.ZERO),
+                new ReturnResultDto("K1", new BigDecimal("500"), BigDecimal.ZERO, new BigDecimal("500")),
+                new ReturnResultDto("K1", new BigDecimal("500"), BigDecimal.ZERO, new BigDecimal("500"))
+        );
+        doAnswer(invocation -> {
+            Consumer<PeriodResultDto> sink = invocation.getArgument(1);
+            sink.accept(line);
+            sink.accept(line);
+            return null;
+        }).when(engineService).stream(any(), any());
+
+        MvcResult started = mockMvc.perform(post("/api/v1/engine/process")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(validRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String expectedLine = objectMapper.writeValueAsString(line) + "\n";
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expectedLine + expectedLine));
+    }
+
+    @Test
+    @DisplayName("shouldReturnPerPortfolioResultsForBatch")
+    void shouldReturnPerPortfolioResultsForBatch() throws Exception {
+        ProcessResponse response = new ProcessResponse(List.of(), List.of(), List.of());
+        when(batchService.processBatch(any())).thenReturn(new BatchProcessResponse(List.of(
+                PortfolioResultDto.success(0, response),
+                PortfolioResultDto.failure(1, "transactions: must not be null"))));
+
+        mockMvc.perform(post("/api/v1/engine/process-batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(validRequest(), validRequest()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].index").value(0))
+                .andExpect(jsonPath("$.results[0].response.periodSummaries").isArray())
+                .andExpect(jsonPath("$.results[0].error").doesNotExist())
+                .andExpect(jsonPath("$.results[1].error").value("transactions: must not be null"));
+    }
+
+    @Test
+    @DisplayName("shouldReturnEtagAndNotModifiedWhenCacheEnabled")
+    void shouldReturnEtagAndNotModifiedWhenCacheEnabled() throws Exception {
+        ProcessResponse response = new ProcessResponse(List.of(), List.of(), List.of());
+        when(resultCache.enabled()).thenReturn(true);
+        when(resultCache.key(any())).thenReturn("abc123");
+        when(resultCache.get(eq("abc123"), any())).thenReturn(response);
+        String body = objectMapper.writeValueAsString(validRequest());
+
+        mockMvc.perform(post("/api/v1/engine/process")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(jsonPath("$.periodSummaries").isArray());
+
+        mockMvc.perform(post("/api/v1/engine/process")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-None-Match", "\"other\", W/\"abc123\"")
+                        .content(body))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/api/v1/engine/process")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-None-Match", "*")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.periodSummaries").isArray());
+    }
 }
@@ -1,8 +1,10 @@
 package com.blackrock.aladdin.engine;
 
+import com.blackrock.aladdin.model.PRule;
 import com.blackrock.aladdin.model.ProcessedTransaction;
 import com.blackrock.aladdin.model.QRule;
 import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -145,4 +147,47 @@ class CeilingRemanentEngineTest {
         assertEquals(new BigDecimal("1500"), result.get(0).allowed());
         assertEquals(new BigDecimal("100"), result.get(0).remanent());
     }
+
+    @Test
+    @DisplayName("shouldFillBatchColumnsWithQAndPRules")
+    void shouldFillBatchColumnsWithQAndPRules() {
+        TransactionBatch batch = TransactionBatch.builder(2, 2)
+                .add("tx1", instant("2024-01-15 09:30:00").getEpochSecond(), 200_000L)
+                .add("tx2", instant("2024-02-15 10:00:00").getEpochSecond(), 200_000L)
+                .build();
+        List<QRule> qRules = List.of(new QRule("q1", instant("2024-02-01 00:00:00"), new BigDecimal("1500")));
+        PTimeline pTimeline = TimelineRuleEngine.buildPTimeline(batch,
+                List.of(new PRule("p1", instant("2024-02-01 00:00:00"), new BigDecimal("50"))));
+
+        CeilingRemanentEngine.apply(batch, CeilingRemanentEngine.buildCeilingSchedule(batch, qRules, new BigDecimal("2000")), pTimeline);
+
+        assertEquals(200_000L, batch.allowed()[0]);
+        assertEquals(0L, batch.remanent()[0]);
+        assertEquals(0L, batch.pAtTime()[0]);
+        assertEquals(150_000L, batch.allowed()[1]);
+        assertEquals(50_000L, batch.remanent()[1]);
+        assertEquals(5_000L, batch.pAtTime()[1]);
+    }
+
+    @Test
+    @DisplayName("timelineOverloadShouldMatchRunningMap")
+    void timelineOverloadShouldMatchRunningMap() {
+        List<Transaction> txns = List.of(
+                new Transaction("tx1", instant("2023-12-31 00:00:00"), new BigDecimal("900")),
+                new Transaction("tx2", instant("2024-01-15 09:30:00"), new BigDecimal("2500.50")),
+                new Transaction("tx3", instant("2024-03-01 00:00:00"), new BigDecimal("10"))
+        );
+        List<QRule> qRules = List.of(new QRule("q1", instant("2024-02-01 00:00:00"), new BigDecimal("5")));
+        List<PRule> pRules = List.of(
+                new PRule("p1", instant("2024-01-01 00:00:00"), new BigDecimal("100")),
+                new PRule("p2", instant("2024-03-01 00:00:00"), new BigDecimal("0.5"))
+        );
+
+        List<ProcessedTransaction> expected = CeilingRemanentEngine.apply(txns, qRules, new BigDecimal("2000"),
+                TimelineRuleEngine.buildPRunningByTime(txns, pRules));
+        List<ProcessedTransaction> actual = CeilingRemanentEngine.apply(txns, qRules, new BigDecimal("2000"),
+                TimelineRuleEngine.buildPTimeline(pRules));
+
+        assertEquals(expected, actual);
+    }
 }
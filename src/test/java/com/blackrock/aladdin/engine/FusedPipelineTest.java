@@ -0,0 +1,108 @@
+package com.blackrock.aladdin.engine;
+
+import com.blackrock.aladdin.model.FixedPeriodAccumulator;
+import com.blackrock.aladdin.model.KPeriod;
+import com.blackrock.aladdin.model.PRule;
+import com.blackrock.aladdin.model.PeriodAccumulator;
+import com.blackrock.aladdin.model.ProcessedTransaction;
+import com.blackrock.aladdin.model.QRule;
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the single-sweep pipeline against the staged engines.
+ */
+@DisplayName("FusedPipeline Tests")
+class FusedPipelineTest {
+
+    private static Instant instant(String s) {
+        return Instant.parse(s.replace(" ", "T") + "Z");
+    }
+
+    private static List<KPeriod> periodsWithGap() {
+        return List.of(
+                new KPeriod("K1", instant("2024-01-01 00:00:00"), instant("2024-02-01 00:00:00")),
+                new KPeriod("K2", instant("2024-02-15 00:00:00"), instant("2024-03-01 00:00:00")),
+                new KPeriod("K3", instant("2024-03-01 00:00:00"), instant("2024-04-01 00:00:00"))
+        );
+    }
+
+    @Test
+    @DisplayName("shouldMatchStagedPipeline")
+    void shouldMatchStagedPipeline() {
+        // Arrange: transactions before, between and after the periods
+        List<Transaction> txns = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            txns.add(new Transaction("tx" + i, instant("2023-12-20 00:00:00").plusSeconds(i * 86_400L),
+                    new BigDecimal(i * 37 + ".75")));
+        }
+        List<QRule> qRules = List.of(new QRule("q1", instant("2024-02-20 00:00:00"), new BigDecimal("1000")));
+        PTimeline pTimeline = TimelineRuleEngine.buildPTimeline(List.of(
+                new PRule("p1", instant("2024-01-10 00:00:00"), new BigDecimal("30")),
+                new PRule("p2", instant("2024-03-01 00:00:00"), new BigDecimal("5"))));
+        List<KPeriod> kPeriods = periodsWithGap();
+
+        // Act
+        List<ProcessedTransaction> processed = CeilingRemanentEngine.apply(txns, qRules, new BigDecimal("3000"), pTimeline);
+        List<PeriodAccumulator> staged = KPeriodAggregator.withTimelinePAdditive(
+                KPeriodAggregator.toOrderedList(KPeriodAggregator.aggregate(processed, kPeriods), kPeriods),
+                kPeriods, pTimeline);
+        List<PeriodAccumulator> fused = FusedPipeline.run(txns,
+                CeilingRemanentEngine.buildCeilingSchedule(qRules, new BigDecimal("3000")), pTimeline, kPeriods);
+
+        // Assert
+        assertEquals(staged, fused);
+    }
+
+    @Test
+    @DisplayName("batchRunShouldEmitPeriodsInOrderAndMatchStaged")
+    void batchRunShouldEmitPeriodsInOrderAndMatchStaged() {
+        // Arrange
+        TransactionBatch.Builder builder = TransactionBatch.builder(2, 90);
+        for (int i = 0; i < 90; i++) {
+            builder.add("tx" + i, instant("2024-01-01 12:00:00").getEpochSecond() + i * 86_400L, 10_000L + i * 2_550L);
+        }
+        TransactionBatch batch = builder.build();
+        List<QRule> qRules = List.of(new QRule("q1", instant("2024-03-10 00:00:00"), new BigDecimal("150")));
+        List<PRule> pRules = List.of(new PRule("p1", instant("2024-02-20 00:00:00"), new BigDecimal("12.5")));
+        PTimeline pTimeline = TimelineRuleEngine.buildPTimeline(batch, pRules);
+        CeilingSchedule ceilings = CeilingRemanentEngine.buildCeilingSchedule(batch, qRules, new BigDecimal("2000"));
+        List<KPeriod> kPeriods = periodsWithGap();
+
+        // Act
+        List<Integer> order = new ArrayList<>();
+        List<FixedPeriodAccumulator> fused = new ArrayList<>();
+        FusedPipeline.run(batch, ceilings, pTimeline, kPeriods, (i, acc) -> {
+            order.add(i);
+            fused.add(acc);
+        });
+        CeilingRemanentEngine.apply(batch, ceilings, pTimeline);
+        List<FixedPeriodAccumulator> staged = KPeriodAggregator.withPeriodPAdditiveFixed(
+                KPeriodAggregator.aggregate(batch, kPeriods), kPeriods, pTimeline);
+
+        // Assert
+        assertEquals(List.of(0, 1, 2), order);
+        assertEquals(staged, fused);
+    }
+
+    @Test
+    @DisplayName("shouldRejectUnsortedTransactions")
+    void shouldRejectUnsortedTransactions() {
+        List<Transaction> txns = List.of(
+                new Transaction("tx1", instant("2024-01-15 00:00:00"), BigDecimal.TEN),
+                new Transaction("tx2", instant("2024-01-10 00:00:00"), BigDecimal.TEN));
+
+        assertThrows(IllegalArgumentException.class, () -> FusedPipeline.run(txns,
+                CeilingRemanentEngine.buildCeilingSchedule(List.of(), new BigDecimal("100")),
+                PTimeline.empty(), periodsWithGap()));
+    }
+}
@@ -0,0 +1,54 @@
+package com.blackrock.aladdin.engine;
+
+import com.blackrock.aladdin.model.KPeriod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the overlapping-period stabbing index against a brute-force scan.
+ */
+@DisplayName("IntervalIndex Tests")
+class IntervalIndexTest {
+
+    @Test
+    @DisplayName("shouldReportEveryPeriodContainingTime")
+    void shouldReportEveryPeriodContainingTime() {
+        Random random = new Random(42);
+        List<KPeriod> periods = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            long start = random.nextInt(10_000);
+            periods.add(new KPeriod("K" + i, Instant.ofEpochSecond(start), Instant.ofEpochSecond(start + 1 + random.nextInt(2_000))));
+        }
+        periods.sort(Comparator.comparing(KPeriod::startInclusive));
+        IntervalIndex index = IntervalIndex.of(periods);
+
+        for (long t = -5; t < 12_500; t += 7) {
+            long time = t;
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < periods.size(); i++) {
+                KPeriod k = periods.get(i);
+                if (k.startInclusive().getEpochSecond() <= time && time < k.endExclusive().getEpochSecond()) {
+                    expected.add(i);
+                }
+            }
+            List<Integer> actual = new ArrayList<>();
+            index.forEachContaining(time, actual::add);
+            assertEquals(expected, actual, "t=" + time);
+        }
+    }
+
+    @Test
+    @DisplayName("shouldHandleNoPeriods")
+    void shouldHandleNoPeriods() {
+        IntervalIndex index = IntervalIndex.of(List.of());
+        index.forEachContaining(0, i -> fail("no periods"));
+    }
+}
@@ -1,8 +1,12 @@
 package com.blackrock.aladdin.engine;
 
+import com.blackrock.aladdin.model.FixedPeriodAccumulator;
 import com.blackrock.aladdin.model.KPeriod;
+import com.blackrock.aladdin.model.PRule;
 import com.blackrock.aladdin.model.PeriodAccumulator;
 import com.blackrock.aladdin.model.ProcessedTransaction;
+import com.blackrock.aladdin.model.QRule;
+import com.blackrock.aladdin.model.TransactionBatch;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -154,4 +158,101 @@ class KPeriodAggregatorTest {
         List<PeriodAccumulator> result = KPeriodAggregator.withPeriodPAdditive(acc, threePeriods(), null);
         assertSame(acc, result);
     }
+
+    @Test
+    @DisplayName("shouldAggregateBatchColumnsByPeriod")
+    void shouldAggregateBatchColumnsByPeriod() {
+        TransactionBatch batch = TransactionBatch.builder(0, 4)
+                .add("tx0", instant("2023-12-31 23:59:59").getEpochSecond(), 7)
+                .add("tx1", instant("2024-01-15 09:30:00").getEpochSecond(), 1000)
+                .add("tx2", instant("2024-02-01 00:00:00").getEpochSecond(), 500)
+                .add("tx3", instant("2024-04-01 00:00:00").getEpochSecond(), 9)
+                .build();
+        System.arraycopy(new long[]{7, 1000, 400, 9}, 0, batch.allowed(), 0, 4);
+        System.arraycopy(new long[]{0, 0, 100, 0}, 0, batch.remanent(), 0, 4);
+
+        List<FixedPeriodAccumulator> list = KPeriodAggregator.aggregate(batch, threePeriods());
+
+        assertEquals(3, list.size());
+        assertEquals(1000L, list.get(0).totalContribution());
+        assertEquals(400L, list.get(1).totalContribution());
+        assertEquals(100L, list.get(1).totalRemanent());
+        assertEquals(0L, list.get(2).totalContribution());
+    }
+
+    @Test
+    @DisplayName("shouldCarryExactScalesOfBatchTotals")
+    void shouldCarryExactScalesOfBatchTotals() {
+        // Arrange: amounts 1000.5, 2000 and 3.125 at fixed scale 6; ceiling 1500.25 from February
+        TransactionBatch batch = TransactionBatch.builder(6, 3)
+                .add("tx1", instant("2024-01-15 09:30:00").getEpochSecond(), 1_000_500_000L)
+                .add("tx2", instant("2024-02-10 09:30:00").getEpochSecond(), 2_000_000_000L)
+                .add("tx3", instant("2024-02-11 09:30:00").getEpochSecond(), 3_125_000L)
+                .build()
+                .withExactScales(new byte[]{1, 0, 3});
+        CeilingSchedule ceilings = CeilingRemanentEngine.buildCeilingSchedule(batch,
+                List.of(new QRule("q1", instant("2024-02-01 00:00:00"), new BigDecimal("1500.25"))), new BigDecimal("5000"));
+        PTimeline pTimeline = TimelineRuleEngine.buildPTimeline(batch,
+                List.of(new PRule("p1", instant("2024-01-10 00:00:00"), new BigDecimal("7.5"))));
+
+        // Act
+        CeilingRemanentEngine.apply(batch, ceilings, pTimeline);
+        List<FixedPeriodAccumulator> list = KPeriodAggregator.withPeriodPAdditiveFixed(
+                KPeriodAggregator.aggregate(batch, threePeriods()), threePeriods(), pTimeline);
+
+        // Assert: scales of 1000.5, 7.5; 1500.25 + 3.125, 499.75 + 0.000; nothing in K3
+        assertEquals(new FixedPeriodAccumulator("K1", 1_000_500_000L, 0L, 7_500_000L, 1, 1, 1), list.get(0));
+        assertEquals(new FixedPeriodAccumulator("K2", 1_503_375_000L, 499_750_000L, 0L, 3, 3, 1), list.get(1));
+        assertEquals(new FixedPeriodAccumulator("K3", 0L, 0L, 0L, 0, 0, 1), list.get(2));
+    }
+
+    @Test
+    @DisplayName("shouldCountTransactionInEveryOverlappingPeriod")
+    void shouldCountTransactionInEveryOverlappingPeriod() {
+        List<KPeriod> kPeriods = List.of(
+                new KPeriod("Q1", instant("2024-01-01 00:00:00"), instant("2024-04-01 00:00:00")),
+                new KPeriod("JAN", instant("2024-01-01 00:00:00"), instant("2024-02-01 00:00:00")),
+                new KPeriod("FEB", instant("2024-02-01 00:00:00"), instant("2024-03-01 00:00:00"))
+        );
+        List<ProcessedTransaction> processed = List.of(
+                new ProcessedTransaction("tx1", instant("2024-01-15 09:30:00"), new BigDecimal("100"),
+                        new BigDecimal("100"), BigDecimal.ZERO, BigDecimal.ZERO),
+                new ProcessedTransaction("tx2", instant("2024-03-10 10:00:00"), new BigDecimal("30"),
+                        new BigDecimal("20"), new BigDecimal("10"), BigDecimal.ZERO)
+        );
+
+        List<PeriodAccumulator> list = KPeriodAggregator.aggregateOverlapping(processed, kPeriods);
+
+        assertEquals(new BigDecimal("120"), list.get(0).totalContribution());
+        assertEquals(new BigDecimal("10"), list.get(0).totalRemanent());
+        assertEquals(new BigDecimal("100"), list.get(1).totalContribution());
+        assertEquals(BigDecimal.ZERO, list.get(2).totalContribution());
+    }
+
+    @Test
+    @DisplayName("mergeJoinShouldMatchFloorLookupAcrossManyPeriods")
+    void mergeJoinShouldMatchFloorLookupAcrossManyPeriods() {
+        // Hourly periods with gaps; transactions every 17 minutes.
+        Instant base = instant("2024-01-01 00:00:00");
+        List<KPeriod> kPeriods = new java.util.ArrayList<>();
+        for (int h = 0; h < 2_000; h += 2) {
+            kPeriods.add(new KPeriod("H" + h, base.plusSeconds(h * 3600L), base.plusSeconds(h * 3600L + 3600)));
+        }
+        List<ProcessedTransaction> processed = new java.util.ArrayList<>();
+        for (int m = 0; m < 2_000 * 60; m += 17) {
+            processed.add(new ProcessedTransaction("tx" + m, base.plusSeconds(m * 60L), BigDecimal.ONE,
+                    BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO));
+        }
+
+        List<PeriodAccumulator> list = KPeriodAggregator.toOrderedList(
+                KPeriodAggregator.aggregate(processed, kPeriods), kPeriods);
+
+        for (int i = 0; i < kPeriods.size(); i++) {
+            KPeriod k = kPeriods.get(i);
+            long expected = processed.stream()
+                    .filter(pt -> !pt.timestamp().isBefore(k.startInclusive()) && pt.timestamp().isBefore(k.endExclusive()))
+                    .count();
+            assertEquals(BigDecimal.valueOf(expected), list.get(i).totalContribution(), k.id());
+        }
+    }
 }
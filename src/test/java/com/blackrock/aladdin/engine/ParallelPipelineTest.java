@@ -0,0 +1,129 @@
+package com.blackrock.aladdin.engine;
+
+import com.blackrock.aladdin.model.FixedPeriodAccumulator;
+import com.blackrock.aladdin.model.KPeriod;
+import com.blackrock.aladdin.model.PRule;
+import com.blackrock.aladdin.model.PeriodAccumulator;
+import com.blackrock.aladdin.model.QRule;
+import com.blackrock.aladdin.model.Transaction;
+import com.blackrock.aladdin.model.TransactionBatch;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the fork/join pipeline: identical results to the sequential sweep.
+ */
+@DisplayName("ParallelPipeline Tests")
+class ParallelPipelineTest {
+
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    /** Monthly-ish periods with a gap, a shared start and one long period spanning many chunks. */
+    private static List<KPeriod> periods() {
+        List<KPeriod> periods = new ArrayList<>();
+        for (int m = 0; m < 8; m++) {
+            periods.add(new KPeriod("K" + m, BASE.plusSeconds(m * 30L * 86_400), BASE.plusSeconds((m * 30L + 25) * 86_400)));
+        }
+        periods.add(new KPeriod("K8dup", BASE.plusSeconds(7 * 30L * 86_400), BASE.plusSeconds(7 * 30L * 86_400 + 3_600)));
+        periods.add(new KPeriod("Klong", BASE.plusSeconds(240L * 86_400), BASE.plusSeconds(400L * 86_400)));
+        return periods.stream().sorted((a, b) -> a.startInclusive().compareTo(b.startInclusive())).toList();
+    }
+
+    private static List<Transaction> transactions(int n) {
+        List<Transaction> txns = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            txns.add(new Transaction("tx" + i, BASE.plusSeconds(-86_400L + i * 1_500L), new BigDecimal((i % 997) + "." + (i % 10))));
+        }
+        return txns;
+    }
+
+    @Test
+    @DisplayName("shouldMatchFusedPipelineExactly")
+    void shouldMatchFusedPipelineExactly() {
+        // Arrange
+        List<Transaction> txns = transactions(25_000);
+        CeilingSchedule ceilings = CeilingRemanentEngine.buildCeilingSchedule(
+                List.of(new QRule("q1", BASE.plusSeconds(100L * 86_400), new BigDecimal("400"))), new BigDecimal("800"));
+        PTimeline pTimeline = TimelineRuleEngine.buildPTimeline(List.of(
+                new PRule("p1", BASE.plusSeconds(10L * 86_400), new BigDecimal("7.5")),
+                new PRule("p2", BASE.plusSeconds(250L * 86_400), new BigDecimal("3"))));
+        List<KPeriod> kPeriods = periods();
+
+        // Act
+        List<PeriodAccumulator> sequential = FusedPipeline.run(txns, ceilings, pTimeline, kPeriods);
+        List<PeriodAccumulator> parallel = ParallelPipeline.run(txns, ceilings, pTimeline, kPeriods, 0, pool);
+
+        // Assert
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    @DisplayName("batchShouldMatchFusedPipelineExactly")
+    void batchShouldMatchFusedPipelineExactly() {
+        // Arrange
+        List<Transaction> txns = transactions(25_000);
+        TransactionBatch.Builder builder = TransactionBatch.builder(2, txns.size());
+        for (Transaction txn : txns) {
+            builder.add(txn.id(), txn.timestamp().getEpochSecond(), txn.amount().movePointRight(2).longValueExact());
+        }
+        TransactionBatch batch = builder.build();
+        List<QRule> qRules = List.of(new QRule("q1", BASE.plusSeconds(100L * 86_400), new BigDecimal("400")));
+        CeilingSchedule ceilings = CeilingRemanentEngine.buildCeilingSchedule(batch, qRules, new BigDecimal("800"));
+        PTimeline pTimeline = TimelineRuleEngine.buildPTimeline(batch,
+                List.of(new PRule("p1", BASE.plusSeconds(10L * 86_400), new BigDecimal("7.5"))));
+        List<KPeriod> kPeriods = periods();
+
+        // Act
+        List<FixedPeriodAccumulator> sequential = FusedPipeline.run(batch, ceilings, pTimeline, kPeriods);
+        List<FixedPeriodAccumulator> parallel = ParallelPipeline.run(batch, ceilings, pTimeline, kPeriods, 0, pool);
+
+        // Assert
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    @DisplayName("shouldSnapSplitToNearestPeriodStart")
+    void shouldSnapSplitToNearestPeriodStart() {
+        // Arrange: one transaction per second, periods starting at 0 and 45
+        PeriodIndex index = PeriodIndex.of(List.of(
+                new KPeriod("K1", Instant.ofEpochSecond(0), Instant.ofEpochSecond(45)),
+                new KPeriod("K2", Instant.ofEpochSecond(45), Instant.ofEpochSecond(100))));
+
+        // Act / Assert: midpoint 50 snaps to 45; a range with no nearby start splits at its midpoint
+        assertEquals(45, ParallelPipeline.splitPoint(i -> i, index, 0, 100));
+        assertEquals(75, ParallelPipeline.splitPoint(i -> i, index, 50, 100));
+    }
+
+    @Test
+    @DisplayName("shouldRejectUnsortedTransactions")
+    void shouldRejectUnsortedTransactions() {
+        List<Transaction> txns = new ArrayList<>(transactions(10_000));
+        txns.set(9_000, new Transaction("late", BASE.plusSeconds(-86_400L), BigDecimal.ONE));
+        CeilingSchedule ceilings = CeilingRemanentEngine.buildCeilingSchedule(List.of(), new BigDecimal("800"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ParallelPipeline.run(txns, ceilings, PTimeline.empty(), periods(), 0, pool));
+    }
+}
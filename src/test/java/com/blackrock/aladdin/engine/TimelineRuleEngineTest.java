@@ -118,4 +118,50 @@ class TimelineRuleEngineTest {
         assertFalse(running.isEmpty());
         assertEquals(new BigDecimal("50"), running.get(instant("2024-01-01 00:00:00")));
     }
+
+    @Test
+    @DisplayName("pTimelineShouldKeepOnlyChangePoints")
+    void pTimelineShouldKeepOnlyChangePoints() {
+        List<PRule> pRules = List.of(
+                new PRule("p2", instant("2024-03-01 00:00:00"), new BigDecimal("30")),
+                new PRule("p1", instant("2024-01-01 00:00:00"), new BigDecimal("50")),
+                new PRule("p3", instant("2024-03-01 00:00:00"), new BigDecimal("-5"))
+        );
+
+        PTimeline timeline = TimelineRuleEngine.buildPTimeline(pRules);
+
+        assertEquals(2, timeline.size());
+        long jan1 = instant("2024-01-01 00:00:00").getEpochSecond();
+        long mar1 = instant("2024-03-01 00:00:00").getEpochSecond();
+        assertEquals(BigDecimal.ZERO, timeline.valueAt(jan1 - 1));
+        assertEquals(new BigDecimal("50"), timeline.valueAt(jan1));
+        assertEquals(BigDecimal.ZERO, timeline.valueBefore(jan1));
+        assertEquals(new BigDecimal("50"), timeline.valueBefore(mar1));
+        assertEquals(new BigDecimal("75"), timeline.valueAt(mar1));
+    }
+
+    @Test
+    @DisplayName("pTimelineShouldAgreeWithRunningMap")
+    void pTimelineShouldAgreeWithRunningMap() {
+        List<Transaction> txns = List.of(
+                new Transaction("tx1", instant("2024-01-10 00:00:00"), BigDecimal.ONE),
+                new Transaction("tx2", instant("2024-03-15 00:00:00"), BigDecimal.ONE)
+        );
+        List<PRule> pRules = List.of(
+                new PRule("p1", instant("2024-01-01 00:00:00"), new BigDecimal("50.25")),
+                new PRule("p2", instant("2024-02-01 12:00:00"), new BigDecimal("30")),
+                new PRule("p3", instant("2024-03-01 00:00:00"), new BigDecimal("-10"))
+        );
+        NavigableMap<Instant, BigDecimal> running = TimelineRuleEngine.buildPRunningByTime(txns, pRules);
+        PTimeline timeline = TimelineRuleEngine.buildPTimeline(pRules).withUnits(2);
+        PTimeline.Cursor cursor = timeline.cursor();
+
+        for (Instant t = instant("2023-12-31 00:00:00"); t.isBefore(instant("2024-04-01 00:00:00")); t = t.plusSeconds(43_200)) {
+            var floor = running.floorEntry(t);
+            BigDecimal expected = floor != null ? floor.getValue() : BigDecimal.ZERO;
+            assertEquals(expected, timeline.valueAt(t.getEpochSecond()));
+            assertEquals(expected, cursor.valueAt(t.getEpochSecond()));
+            assertEquals(expected.movePointRight(2).longValueExact(), timeline.unitsAt(t.getEpochSecond()));
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch processing tests: per-portfolio results, isolation of failures, shared rule structures.
+ */
+@SpringBootTest
+@DisplayName("BatchProcessingService Tests")
+class BatchProcessingServiceTest {
+
+    @Autowired
+    private BatchProcessingService batchService;
+
+    @Autowired
+    private InvestmentEngineService engineService;
+
+    private static ProcessRequest portfolio(int customer) {
+        return new ProcessRequest(
+                List.of(
+                        new TransactionDto("tx1", "2024-01-15 09:30:00", new BigDecimal(1000 + customer)),
+                        new TransactionDto("tx2", "2024-02-20 10:00:00", new BigDecimal("2500.50"))
+                ),
+                List.of(new QRuleDto("q1", "2024-02-01 00:00:00", new BigDecimal("1500"))),
+                List.of(new PRuleDto("p1", "2024-01-01 00:00:00", new BigDecimal("100"))),
+                List.of(
+                        new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00"),
+                        new KPeriodDto("K2", "2024-01-01 00:00:00", "2024-04-01 00:00:00")
+                ),
+                new BigDecimal("2000"),
+                new BigDecimal("0.02"),
+                new BigDecimal("500")
+        );
+    }
+
+    @Test
+    @DisplayName("shouldMatchSingleProcessInRequestOrder")
+    void shouldMatchSingleProcessInRequestOrder() {
+        // Arrange
+        List<ProcessRequest> portfolios = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            portfolios.add(portfolio(i));
+        }
+
+        // Act
+        BatchProcessResponse response = batchService.processBatch(portfolios);
+
+        // Assert
+        assertEquals(64, response.results().size());
+        for (int i = 0; i < 64; i++) {
+            PortfolioResultDto result = response.results().get(i);
+            assertEquals(i, result.index());
+            assertNull(result.error());
+            assertEquals(engineService.process(portfolios.get(i)), result.response());
+        }
+    }
+
+    @Test
+    @DisplayName("shouldReportInvalidPortfolioWithoutFailingOthers")
+    void shouldReportInvalidPortfolioWithoutFailingOthers() {
+        // Arrange: second portfolio misses transactions, third has a bad timestamp
+        ProcessRequest valid = portfolio(0);
+        ProcessRequest missing = new ProcessRequest(null, List.of(), List.of(), valid.kPeriods(),
+                valid.defaultCeiling(), valid.inflationRate(), valid.taxCap());
+        ProcessRequest badTimestamp = new ProcessRequest(
+                List.of(new TransactionDto("tx1", "not-a-timestamp", BigDecimal.ONE)), List.of(), List.of(),
+                valid.kPeriods(), valid.defaultCeiling(), valid.inflationRate(), valid.taxCap());
+
+        // Act
+        BatchProcessResponse response = batchService.processBatch(List.of(valid, missing, badTimestamp));
+
+        // Assert
+        assertNotNull(response.results().get(0).response());
+        assertEquals("transactions: must not be null", response.results().get(1).error());
+        assertNull(response.results().get(1).response());
+        assertNotNull(response.results().get(2).error());
+    }
+
+    @Test
+    @DisplayName("sharedRuleCacheShouldReuseBuiltStructures")
+    void sharedRuleCacheShouldReuseBuiltStructures() {
+        RuleCache rules = RuleCache.shared();
+        List<PRule> pRules = rules.pRules(portfolio(0).pRules());
+        List<QRule> qRules = rules.qRules(portfolio(1).qRules());
+
+        assertSame(pRules, rules.pRules(portfolio(2).pRules()));
+        assertSame(rules.pTimeline(pRules), rules.pTimeline(rules.pRules(portfolio(3).pRules())));
+        assertSame(rules.ceilings(qRules, new BigDecimal("2000")), rules.ceilings(qRules, new BigDecimal("2000")));
+        assertNotSame(rules.ceilings(qRules, new BigDecimal("2000")), rules.ceilings(qRules, new BigDecimal("2000.0")));
+    }
+}
@@ -0,0 +1,120 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.model.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for record-by-record CSV ingestion.
+ */
+@DisplayName("CsvRequestReader Tests")
+class CsvRequestReaderTest {
+
+    private static final String TRANSACTIONS = "\uFEFFamount,note,timestamp,id\r\n"
+            + "1000,,2024-01-10 09:30:00,tx0\r\n"
+            + "12.50,\"lunch, with \"\"team\"\"\nand guests\",2024-01-11 09:30:00,tx1\r\n"
+            + "\r\n"
+            + "0.125,, 2024-01-12 09:30:00 ,\"tx,2\"\r\n";
+    private static final String Q_RULES = "id,startTime,ceilingOverride\nq1,2024-01-12 00:00:00,1500\n";
+    private static final String P_RULES = "id,startTime,delta\np1,2024-01-11 00:00:00,25.5\n";
+    private static final String K_PERIODS = "id,startInclusive,endExclusive\nK1,2024-01-01 00:00:00,2024-02-01 00:00:00\n";
+
+    private static InputStream csv(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+    private static CsvRequestReader.Parts parts(InputStream transactions) {
+        return new CsvRequestReader.Parts(transactions, csv(Q_RULES), csv(P_RULES), csv(K_PERIODS),
+                new BigDecimal("2000"), new BigDecimal("0.02"), new BigDecimal("500"));
+    }
+
+    private static IngestedRequest json(int fixedScale) throws IOException {
+        ProcessRequest request = new ProcessRequest(
+                List.of(
+                        new TransactionDto("tx0", "2024-01-10 09:30:00", new BigDecimal("1000")),
+                        new TransactionDto("tx1", "2024-01-11 09:30:00", new BigDecimal("12.50")),
+                        new TransactionDto("tx,2", "2024-01-12 09:30:00", new BigDecimal("0.125"))),
+                List.of(new QRuleDto("q1", "2024-01-12 00:00:00", new BigDecimal("1500"))),
+                List.of(new PRuleDto("p1", "2024-01-11 00:00:00", new BigDecimal("25.5"))),
+                List.of(new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00")),
+                new BigDecimal("2000"), new BigDecimal("0.02"), new BigDecimal("500"));
+        return StreamingRequestReader.read(new ByteArrayInputStream(new ObjectMapper().writeValueAsBytes(request)), fixedScale);
+    }
+
+    @Test
+    @DisplayName("shouldReadSameInputsAsJsonRequest")
+    void shouldReadSameInputsAsJsonRequest() throws IOException {
+        for (int scale : new int[]{-1, 6}) {
+            // Arrange
+            IngestedRequest expected = json(scale);
+
+            // Act: quoted fields, CRLF, a blank line, a BOM and columns in another order
+            IngestedRequest ingested = CsvRequestReader.read(parts(csv(TRANSACTIONS)), scale);
+
+            // Assert
+            assertEquals(expected.transactions(), ingested.transactions());
+            assertEquals(expected.terms(), ingested.terms());
+            if (scale >= 0) assertArrayEquals(expected.batch().amounts(), ingested.batch().amounts());
+        }
+    }
+
+    @Test
+    @DisplayName("shouldReadGzipCompressedPartAndSwitchToExactWhenAmountExceedsScale")
+    void shouldReadGzipCompressedPartAndSwitchToExactWhenAmountExceedsScale() throws IOException {
+        // Act: scale 2 cannot hold 0.125
+        IngestedRequest ingested = CsvRequestReader.read(parts(gzip(TRANSACTIONS)), 2);
+
+        // Assert
+        assertNull(ingested.batch());
+        assertEquals(json(-1).transactions(), ingested.transactions());
+    }
+
+    @Test
+    @DisplayName("shouldReportPartAndLineOfBadField")
+    void shouldReportPartAndLineOfBadField() {
+        // Arrange: the quoted field spans lines 2-3, so the bad amount is on line 4
+        String transactions = "id,timestamp,amount\n\"tx\n1\",2024-01-10 09:30:00,5\ntx2,2024-01-11 09:30:00,12.5.0\n";
+
+        // Act
+        CsvFormatException error = assertThrows(CsvFormatException.class,
+                () -> CsvRequestReader.read(parts(csv(transactions)), 6));
+
+        // Assert
+        assertEquals("transactions", error.part());
+        assertEquals(4, error.line());
+        assertEquals("transactions line 4: amount: not a number: 12.5.0", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("shouldRejectMissingColumnAndBlankField")
+    void shouldRejectMissingColumnAndBlankField() {
+        CsvRequestReader.Parts noColumn = new CsvRequestReader.Parts(csv(TRANSACTIONS), csv("id,start,ceilingOverride\n"),
+                null, csv(K_PERIODS), BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ONE);
+        CsvRequestReader.Parts blank = parts(csv("id,timestamp,amount\ntx1,,3\n"));
+
+        assertEquals("qRules line 1: header has no column startTime",
+                assertThrows(CsvFormatException.class, () -> CsvRequestReader.read(noColumn, -1)).getMessage());
+        assertEquals("transactions line 2: timestamp: must not be blank",
+                assertThrows(CsvFormatException.class, () -> CsvRequestReader.read(blank, -1)).getMessage());
+    }
+}
@@ -1,12 +1,17 @@
 package com.blackrock.aladdin.service;
 
+import com.blackrock.aladdin.config.EngineProperties;
 import com.blackrock.aladdin.model.*;
+import com.blackrock.aladdin.store.ColumnarTransactionFile;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -102,4 +107,253 @@ class InvestmentEngineServiceTest {
         assertEquals(new BigDecimal("500"), response.periodSummaries().get(0).totalContribution());
         assertEquals(new BigDecimal("500"), response.npsReturns().get(0).grossReturn());
     }
+
+    @Test
+    @DisplayName("fixedModeShouldMatchExactResponse")
+    void fixedModeShouldMatchExactResponse() {
+        // Arrange: amounts at scale 2, a ceiling at scale 1, p rules at scales 0 and 3, tax cap at scale 0
+        List<TransactionDto> transactions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String ts = String.format("2024-%02d-%02d 10:%02d:00", 1 + i % 4, 1 + i % 28, i % 60);
+            transactions.add(new TransactionDto("tx" + i, ts, new BigDecimal(i * 7 + ".25")));
+        }
+        EngineProperties fixedScale6 = EngineProperties.defaults().withArithmetic(EngineProperties.Arithmetic.FIXED, 6);
+        List<EngineProperties> fixedModes = List.of(
+                fixedScale6.withExecution(EngineProperties.Execution.STAGED),
+                fixedScale6.withExecution(EngineProperties.Execution.FUSED),
+                fixedScale6.withExecution(EngineProperties.Execution.PARALLEL).withParallelThreshold(0),
+                fixedScale6.withOverlappingPeriods(true)
+        );
+
+        for (String inflationRate : List.of("0.02", "0")) {
+            ProcessRequest request = new ProcessRequest(
+                    transactions,
+                    List.of(new QRuleDto("q1", "2024-02-01 00:00:00", new BigDecimal("1500.5"))),
+                    List.of(
+                            new PRuleDto("p1", "2024-01-10 00:00:00", new BigDecimal("100")),
+                            new PRuleDto("p2", "2024-03-05 00:00:00", new BigDecimal("-12.125"))
+                    ),
+                    List.of(
+                            new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00"),
+                            new KPeriodDto("K2", "2024-02-01 00:00:00", "2024-03-01 00:00:00"),
+                            new KPeriodDto("K3", "2024-03-01 00:00:00", "2024-04-15 00:00:00"),
+                            new KPeriodDto("K4", "2024-06-01 00:00:00", "2024-07-01 00:00:00")
+                    ),
+                    new BigDecimal("2000"),
+                    new BigDecimal(inflationRate),
+                    new BigDecimal("500")
+            );
+            ProcessResponse expected = engineService.process(request);
+
+            for (EngineProperties mode : fixedModes) {
+                // Act
+                ProcessResponse actual = new InvestmentEngineService(mode).process(request);
+
+                // Assert: same BigDecimals, scales included
+                assertEquals(expected, actual, mode.execution() + " at inflation " + inflationRate);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("fixedModeShouldFallBackToExactWhenPrecisionExceedsScale")
+    void fixedModeShouldFallBackToExactWhenPrecisionExceedsScale() {
+        InvestmentEngineService fixed = new InvestmentEngineService(
+                EngineProperties.defaults().withArithmetic(EngineProperties.Arithmetic.FIXED, 2));
+        ProcessRequest request = new ProcessRequest(
+                List.of(new TransactionDto("tx1", "2024-01-15 09:30:00", new BigDecimal("10.125"))),
+                List.of(),
+                List.of(),
+                List.of(new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00")),
+                new BigDecimal("1000"),
+                new BigDecimal("0"),
+                new BigDecimal("100")
+        );
+
+        assertEquals(engineService.process(request), fixed.process(request));
+    }
+
+    @Test
+    @DisplayName("sweepExecutionsShouldMatchStagedInBothArithmeticModes")
+    void sweepExecutionsShouldMatchStagedInBothArithmeticModes() {
+        EngineProperties fused = EngineProperties.defaults().withExecution(EngineProperties.Execution.FUSED);
+        List<TransactionDto> transactions = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String ts = String.format("2024-%02d-%02d 08:%02d:00", 1 + i % 5, 1 + i % 28, i % 60);
+            transactions.add(new TransactionDto("tx" + i, ts, new BigDecimal(i * 11 + ".5")));
+        }
+        ProcessRequest request = new ProcessRequest(
+                transactions,
+                List.of(new QRuleDto("q1", "2024-02-10 00:00:00", new BigDecimal("900"))),
+                List.of(
+                        new PRuleDto("p1", "2024-01-20 00:00:00", new BigDecimal("25")),
+                        new PRuleDto("p2", "2024-04-01 00:00:00", new BigDecimal("10"))
+                ),
+                List.of(
+                        new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00"),
+                        new KPeriodDto("K2", "2024-02-15 00:00:00", "2024-03-15 00:00:00"),
+                        new KPeriodDto("K3", "2024-04-01 00:00:00", "2024-05-01 00:00:00")
+                ),
+                new BigDecimal("2000"),
+                new BigDecimal("0.03"),
+                new BigDecimal("400")
+        );
+
+        ProcessResponse stagedExact = engineService.process(request);
+        ProcessResponse fusedExact = new InvestmentEngineService(fused).process(request);
+        ProcessResponse stagedFixed = new InvestmentEngineService(
+                EngineProperties.defaults().withArithmetic(EngineProperties.Arithmetic.FIXED, 6)).process(request);
+        ProcessResponse fusedFixed = new InvestmentEngineService(
+                fused.withArithmetic(EngineProperties.Arithmetic.FIXED, 6)).process(request);
+
+        EngineProperties parallel = EngineProperties.defaults()
+                .withExecution(EngineProperties.Execution.PARALLEL)
+                .withParallelThreshold(0);
+        ProcessResponse parallelExact = new InvestmentEngineService(parallel).process(request);
+        ProcessResponse parallelFixed = new InvestmentEngineService(
+                parallel.withArithmetic(EngineProperties.Arithmetic.FIXED, 6)).process(request);
+
+        assertEquals(stagedExact, fusedExact);
+        assertEquals(stagedFixed, fusedFixed);
+        assertEquals(stagedExact, parallelExact);
+        assertEquals(stagedFixed, parallelFixed);
+    }
+
+    @Test
+    @DisplayName("streamingIngestionShouldMatchBoundRequest")
+    void streamingIngestionShouldMatchBoundRequest() throws Exception {
+        ProcessRequest request = new ProcessRequest(
+                List.of(
+                        new TransactionDto("tx1", "2024-01-20 09:30:00", new BigDecimal("2500.50")),
+                        new TransactionDto("tx2", "2024-01-15 09:30:00", new BigDecimal("800")),
+                        new TransactionDto("tx3", "2024-02-15 09:30:00", new BigDecimal("1200.125"))
+                ),
+                List.of(new QRuleDto("q1", "2024-02-01 00:00:00", new BigDecimal("1000"))),
+                List.of(new PRuleDto("p1", "2024-01-18 00:00:00", new BigDecimal("30"))),
+                List.of(
+                        new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00"),
+                        new KPeriodDto("K2", "2024-02-01 00:00:00", "2024-03-01 00:00:00")
+                ),
+                new BigDecimal("2000"),
+                new BigDecimal("0.02"),
+                new BigDecimal("500")
+        );
+        byte[] body = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsBytes(request);
+        InvestmentEngineService fixed = new InvestmentEngineService(
+                EngineProperties.defaults().withArithmetic(EngineProperties.Arithmetic.FIXED, 6));
+        InvestmentEngineService fixedTooCoarse = new InvestmentEngineService(
+                EngineProperties.defaults().withArithmetic(EngineProperties.Arithmetic.FIXED, 2));
+
+        assertEquals(engineService.process(request), engineService.process(new java.io.ByteArrayInputStream(body)));
+        assertEquals(fixed.process(request), fixed.process(new java.io.ByteArrayInputStream(body)));
+        assertEquals(fixedTooCoarse.process(request), fixedTooCoarse.process(new java.io.ByteArrayInputStream(body)));
+    }
+
+    @Test
+    @DisplayName("streamShouldEmitSameResultsAsProcessPerPeriod")
+    void streamShouldEmitSameResultsAsProcessPerPeriod() {
+        ProcessRequest request = new ProcessRequest(
+                List.of(
+                        new TransactionDto("tx1", "2024-01-20 09:30:00", new BigDecimal("2500.50")),
+                        new TransactionDto("tx2", "2024-02-15 09:30:00", new BigDecimal("800")),
+                        new TransactionDto("tx3", "2024-03-15 09:30:00", new BigDecimal("1200"))
+                ),
+                List.of(new QRuleDto("q1", "2024-02-01 00:00:00", new BigDecimal("1000"))),
+                List.of(new PRuleDto("p1", "2024-01-18 00:00:00", new BigDecimal("30"))),
+                List.of(
+                        new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00"),
+                        new KPeriodDto("K2", "2024-02-01 00:00:00", "2024-03-01 00:00:00"),
+                        new KPeriodDto("K3", "2024-03-01 00:00:00", "2024-04-01 00:00:00")
+                ),
+                new BigDecimal("2000"),
+                new BigDecimal("0.02"),
+                new BigDecimal("500")
+        );
+        InvestmentEngineService fixed = new InvestmentEngineService(
+                EngineProperties.defaults().withArithmetic(EngineProperties.Arithmetic.FIXED, 6));
+
+        for (InvestmentEngineService service : List.of(engineService, fixed)) {
+            ProcessResponse response = service.process(request);
+            List<PeriodResultDto> lines = new ArrayList<>();
+            service.stream(service.ingest(request), lines::add);
+
+            assertEquals(response.periodSummaries().size(), lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                assertEquals(response.periodSummaries().get(i), lines.get(i).periodSummary());
+                assertEquals(response.npsReturns().get(i), lines.get(i).npsReturn());
+                assertEquals(response.indexReturns().get(i), lines.get(i).indexReturn());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("streamShouldContinueInExactAfterFixedOverflow")
+    void streamShouldContinueInExactAfterFixedOverflow() {
+        // Arrange: K2's contribution overflows long units at scale 6
+        ProcessRequest request = new ProcessRequest(
+                List.of(
+                        new TransactionDto("tx1", "2024-01-20 09:30:00", new BigDecimal("100")),
+                        new TransactionDto("tx2", "2024-02-10 09:30:00", new BigDecimal("5000000000000")),
+                        new TransactionDto("tx3", "2024-02-15 09:30:00", new BigDecimal("5000000000000"))
+                ),
+                List.of(),
+                List.of(),
+                List.of(
+                        new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00"),
+                        new KPeriodDto("K2", "2024-02-01 00:00:00", "2024-03-01 00:00:00")
+                ),
+                new BigDecimal("9000000000000"),
+                new BigDecimal("0"),
+                new BigDecimal("500")
+        );
+        InvestmentEngineService fixed = new InvestmentEngineService(
+                EngineProperties.defaults().withArithmetic(EngineProperties.Arithmetic.FIXED, 6));
+
+        // Act
+        List<PeriodResultDto> lines = new ArrayList<>();
+        fixed.stream(fixed.ingest(request), lines::add);
+
+        // Assert: K1 written once from the fixed sweep, K2 from exact; both as /process answers
+        ProcessResponse exact = engineService.process(request);
+        assertEquals(List.of("K1", "K2"), lines.stream().map(line -> line.periodSummary().periodId()).toList());
+        assertEquals(new BigDecimal("100"), lines.get(0).periodSummary().totalContribution());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(exact.periodSummaries().get(i), lines.get(i).periodSummary());
+            assertEquals(exact.npsReturns().get(i), lines.get(i).npsReturn());
+            assertEquals(exact.indexReturns().get(i), lines.get(i).indexReturn());
+        }
+    }
+
+    @Test
+    @DisplayName("bulkFileShouldMatchJsonRequestInBothArithmeticModes")
+    void bulkFileShouldMatchJsonRequestInBothArithmeticModes(@TempDir Path directory) {
+        // Arrange: every amount at scale 2, the scale the file is written at
+        List<TransactionDto> transactions = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            String ts = String.format("2024-%02d-%02d 11:%02d:00", 1 + i % 3, 1 + i % 28, i % 60);
+            transactions.add(new TransactionDto("tx" + i, ts, new BigDecimal(i * 9 + ".75")));
+        }
+        ProcessRequest request = new ProcessRequest(
+                transactions,
+                List.of(new QRuleDto("q1", "2024-02-01 00:00:00", new BigDecimal("800"))),
+                List.of(new PRuleDto("p1", "2024-01-10 00:00:00", new BigDecimal("20"))),
+                List.of(
+                        new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00"),
+                        new KPeriodDto("K2", "2024-02-01 00:00:00", "2024-04-01 00:00:00")
+                ),
+                new BigDecimal("2000"),
+                new BigDecimal("0.02"),
+                new BigDecimal("500")
+        );
+        Path file = directory.resolve("transactions.txc");
+        ColumnarTransactionFile.write(file, RequestMapper.toTransactionBatch(transactions, 2), 2);
+        InvestmentEngineService fixed = new InvestmentEngineService(
+                EngineProperties.defaults().withArithmetic(EngineProperties.Arithmetic.FIXED, 6));
+
+        // Act & Assert
+        try (ColumnarTransactionFile columns = ColumnarTransactionFile.open(file)) {
+            assertEquals(engineService.process(request), engineService.process(engineService.ingest(columns, request)));
+            assertEquals(fixed.process(request), fixed.process(fixed.ingest(columns, request)));
+        }
+    }
 }
@@ -0,0 +1,79 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.config.EngineProperties;
+import com.blackrock.aladdin.config.StoreProperties;
+import com.blackrock.aladdin.model.*;
+import com.blackrock.aladdin.store.PortfolioStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Portfolio service tests: a failed store write never leaves a closed session mapped.
+ */
+@DisplayName("PortfolioService Tests")
+class PortfolioServiceTest {
+
+    private static ProcessRequest request(String amount) {
+        return new ProcessRequest(
+                List.of(new TransactionDto("tx1", "2024-01-20 10:00:00", new BigDecimal(amount))),
+                List.of(),
+                List.of(),
+                List.of(new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00")),
+                new BigDecimal("1000"),
+                BigDecimal.ZERO,
+                new BigDecimal("500"));
+    }
+
+    private static PortfolioStore store(Path directory) {
+        return spy(new PortfolioStore(new StoreProperties(directory.toString(), 1_000), new ObjectMapper()));
+    }
+
+    @Test
+    @DisplayName("putShouldUnmapPortfolioWhenStoringReplacementFails")
+    void putShouldUnmapPortfolioWhenStoringReplacementFails(@TempDir Path directory) {
+        // Arrange
+        PortfolioStore store = store(directory);
+        PortfolioService service = new PortfolioService(EngineProperties.defaults(), store);
+        service.put("alice", request("40"));
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(store).saveTerms(eq("alice"), any());
+
+        // Act
+        assertThrows(UncheckedIOException.class, () -> service.put("alice", request("50")));
+
+        // Assert: the closed session is gone; the store holds nothing after the failed rewrite
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(PortfolioNotFoundException.class, () -> service.summary("alice")));
+    }
+
+    @Test
+    @DisplayName("deleteShouldUnmapPortfolioWhenDeletingFilesFails")
+    void deleteShouldUnmapPortfolioWhenDeletingFilesFails(@TempDir Path directory) {
+        // Arrange
+        PortfolioStore store = store(directory);
+        PortfolioService service = new PortfolioService(EngineProperties.defaults(), store);
+        ProcessResponse created = service.put("alice", request("40"));
+        doThrow(new UncheckedIOException(new IOException("busy"))).when(store).delete("alice");
+
+        // Act
+        assertThrows(UncheckedIOException.class, () -> service.delete("alice"));
+
+        // Assert: the files are still there, so the next use reopens them instead of the closed session
+        ProcessResponse reopened = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> service.summary("alice"));
+        assertEquals(created, reopened);
+    }
+}
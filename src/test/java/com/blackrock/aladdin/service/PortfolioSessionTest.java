@@ -0,0 +1,288 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.config.EngineProperties;
+import com.blackrock.aladdin.model.*;
+import com.blackrock.aladdin.store.StoredTransactions;
+import com.blackrock.aladdin.util.EpochOrder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Portfolio session tests: appends give the same response as processing all transactions at once,
+ * and recompute only the periods they fall in.
+ */
+@DisplayName("PortfolioSession Tests")
+class PortfolioSessionTest {
+
+    private static ProcessRequest request(List<TransactionDto> transactions) {
+        return new ProcessRequest(
+                transactions,
+                List.of(
+                        new QRuleDto("q1", "2024-03-01 00:00:00", new BigDecimal("150")),
+                        new QRuleDto("q2", "2024-06-01 00:00:00", new BigDecimal("400.5"))
+                ),
+                List.of(
+                        new PRuleDto("p1", "2024-02-10 00:00:00", new BigDecimal("12.25")),
+                        new PRuleDto("p2", "2024-08-01 00:00:00", new BigDecimal("30"))
+                ),
+                List.of(
+                        new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-04-01 00:00:00"),
+                        new KPeriodDto("K2", "2024-03-01 00:00:00", "2024-09-01 00:00:00"),
+                        new KPeriodDto("K3", "2024-09-01 00:00:00", "2025-01-01 00:00:00"),
+                        new KPeriodDto("K4", "2025-01-01 00:00:00", "2025-02-01 00:00:00")
+                ),
+                new BigDecimal("300"),
+                new BigDecimal("0.02"),
+                new BigDecimal("500")
+        );
+    }
+
+    private static ProcessRequest withRules(ProcessRequest request, List<QRuleDto> qRules, List<PRuleDto> pRules) {
+        return new ProcessRequest(request.transactions(), qRules, pRules, request.kPeriods(),
+                request.defaultCeiling(), request.inflationRate(), request.taxCap());
+    }
+
+    private static List<TransactionDto> transactions(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime start = LocalDateTime.of(2023, 12, 1, 0, 0);
+        List<TransactionDto> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String timestamp = start.plusMinutes(random.nextInt(60 * 24 * 430)).toString().replace('T', ' ');
+            if (timestamp.length() == 16) timestamp += ":00";
+            result.add(new TransactionDto("tx" + seed + "-" + i, timestamp,
+                    BigDecimal.valueOf(random.nextInt(60_000), random.nextInt(3))));
+        }
+        return result;
+    }
+
+    private static void assertAppendsMatchFullRun(boolean overlapping) {
+        EngineProperties properties = EngineProperties.defaults().withOverlappingPeriods(overlapping);
+        InvestmentEngineService engine = new InvestmentEngineService(properties);
+        List<TransactionDto> all = new ArrayList<>(transactions(200, 1));
+        PortfolioSession session = PortfolioSession.create(
+                RequestTerms.from(request(all)), RequestMapper.toTransactions(all), overlapping);
+
+        for (long day = 2; day < 6; day++) {
+            List<TransactionDto> batch = transactions(25, day);
+            all.addAll(batch);
+            session.append(RequestMapper.toTransactions(batch));
+            assertEquals(engine.process(request(all)), session.summary(), "after append " + day);
+        }
+        assertEquals(all.size(), session.transactionCount());
+    }
+
+    @Test
+    @DisplayName("shouldMatchFullRunAfterAppends")
+    void shouldMatchFullRunAfterAppends() {
+        assertAppendsMatchFullRun(false);
+    }
+
+    @Test
+    @DisplayName("shouldMatchFullRunAfterAppendsWithOverlappingPeriods")
+    void shouldMatchFullRunAfterAppendsWithOverlappingPeriods() {
+        assertAppendsMatchFullRun(true);
+    }
+
+    private static void assertRuleEditsMatchFullRun(boolean overlapping) {
+        InvestmentEngineService engine = new InvestmentEngineService(EngineProperties.defaults().withOverlappingPeriods(overlapping));
+        ProcessRequest request = request(transactions(300, 11));
+        PortfolioSession session = PortfolioSession.create(
+                RequestTerms.from(request), RequestMapper.toTransactions(request.transactions()), overlapping);
+        List<List<QRuleDto>> qEdits = List.of(
+                List.of(new QRuleDto("q1", "2024-03-01 00:00:00", new BigDecimal("150")),
+                        new QRuleDto("q2", "2024-06-01 00:00:00", new BigDecimal("90.125")),
+                        new QRuleDto("q3", "2024-11-15 12:00:00", new BigDecimal("0"))),
+                List.of(new QRuleDto("q1", "2024-03-01 00:00:00", new BigDecimal("150"))),
+                List.of());
+        List<List<PRuleDto>> pEdits = List.of(
+                List.of(new PRuleDto("p1", "2024-02-10 00:00:00", new BigDecimal("12.25")),
+                        new PRuleDto("p3", "2024-12-24 00:00:00", new BigDecimal("7.5"))),
+                List.of(new PRuleDto("p1", "2024-02-10 00:00:00", new BigDecimal("12"))),
+                List.of());
+
+        for (int edit = 0; edit < qEdits.size(); edit++) {
+            // Act: q edit alone, then p edit alone
+            session.replaceRules(RequestMapper.toQRules(qEdits.get(edit)), null);
+            request = withRules(request, qEdits.get(edit), request.pRules());
+            assertEquals(engine.process(request), session.summary(), "after q edit " + edit);
+
+            session.replaceRules(null, RequestMapper.toPRules(pEdits.get(edit)));
+            request = withRules(request, request.qRules(), pEdits.get(edit));
+            assertEquals(engine.process(request), session.summary(), "after p edit " + edit);
+        }
+    }
+
+    @Test
+    @DisplayName("shouldMatchFullRunAfterRuleEdits")
+    void shouldMatchFullRunAfterRuleEdits() {
+        assertRuleEditsMatchFullRun(false);
+    }
+
+    @Test
+    @DisplayName("shouldMatchFullRunAfterRuleEditsWithOverlappingPeriods")
+    void shouldMatchFullRunAfterRuleEditsWithOverlappingPeriods() {
+        assertRuleEditsMatchFullRun(true);
+    }
+
+    @Test
+    @DisplayName("shouldMatchInMemorySessionWhenStoredOnDisk")
+    void shouldMatchInMemorySessionWhenStoredOnDisk(@TempDir Path directory) {
+        // Arrange
+        ProcessRequest request = request(transactions(150, 21));
+        RequestTerms terms = RequestTerms.from(request);
+        List<Transaction> initial = RequestMapper.toTransactions(request.transactions());
+        List<Transaction> appended = RequestMapper.toTransactions(transactions(40, 22));
+        List<QRule> qRules = RequestMapper.toQRules(List.of(new QRuleDto("q9", "2024-05-01 00:00:00", new BigDecimal("75.5"))));
+        PortfolioSession inMemory = PortfolioSession.create(terms, initial, false);
+        inMemory.append(appended);
+        inMemory.replaceRules(qRules, null);
+
+        // Act: write through (the initial batch is sealed into a segment, the append stays in the log),
+        // then reopen as after a restart
+        StoredTransactions onDisk = StoredTransactions.open(directory, 100);
+        onDisk.append(initial);
+        PortfolioSession stored = PortfolioSession.stored(terms, onDisk, false);
+        stored.append(appended);
+        stored.close();
+        PortfolioSession reopened = PortfolioSession.stored(terms, StoredTransactions.open(directory, 100), false);
+        reopened.replaceRules(qRules, null);
+
+        // Assert
+        assertEquals(inMemory.summary(), reopened.summary());
+        assertEquals(190, reopened.transactionCount());
+        reopened.close();
+    }
+
+    /** Amounts all under the ceiling before q1, mixed until q2, all over it after, so whole blocks can be summed. */
+    private static List<Transaction> banded(int count) {
+        Random random = new Random(5);
+        List<Transaction> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Instant t = Instant.parse("2023-12-01T00:00:00Z").plusSeconds(random.nextInt(60 * 60 * 24 * 430));
+            int cents = t.isBefore(Instant.parse("2024-03-01T00:00:00Z")) ? random.nextInt(30_000)
+                    : t.isBefore(Instant.parse("2024-06-01T00:00:00Z")) ? random.nextInt(60_000)
+                    : 40_051 + random.nextInt(60_000);
+            result.add(new Transaction("b" + i, t, BigDecimal.valueOf(cents, random.nextInt(3))));
+        }
+        return result;
+    }
+
+    private static void assertQueryMatchesFullRun(Path directory, boolean overlapping) {
+        // Arrange: history appended in time order and sealed into segments of several blocks each, plus a log tail
+        RequestTerms terms = RequestTerms.from(request(List.of()));
+        List<Transaction> all = EpochOrder.sortedBy(banded(60_000), Transaction::timestamp);
+        List<KPeriodDto> queried = new ArrayList<>(List.of(
+                new KPeriodDto("Q1", "2024-01-01 00:00:00", "2024-03-01 00:00:00"),
+                new KPeriodDto("Q2", "2024-04-10 00:00:00", "2024-05-01 00:00:00"),
+                new KPeriodDto("Q3", "2024-06-01 00:00:00", "2025-01-01 00:00:00")));
+        if (overlapping) queried.add(new KPeriodDto("Q4", "2024-02-15 00:00:00", "2024-07-01 00:00:00"));
+        List<KPeriod> kPeriods = RequestMapper.toKPeriods(queried);
+        RequestTerms queriedTerms = new RequestTerms(terms.qRules(), terms.pRules(), kPeriods,
+                terms.defaultCeiling(), terms.inflationRate(), terms.taxCap());
+        ProcessResponse expected = PortfolioSession.create(queriedTerms, all, overlapping).summary();
+        StoredTransactions onDisk = StoredTransactions.open(directory, 24_000);
+        for (int from = 0; from < all.size(); from += 12_000) {
+            onDisk.append(all.subList(from, from + 12_000));
+        }
+        PortfolioSession stored = PortfolioSession.stored(terms, onDisk, overlapping);
+        PortfolioSession inMemory = PortfolioSession.create(terms, all, overlapping);
+
+        // Act
+        ProcessResponse fromStore = stored.query(kPeriods);
+        ProcessResponse fromHeap = inMemory.query(kPeriods);
+
+        // Assert
+        assertEquals(2, onDisk.segmentCount());
+        assertEquals(expected, fromStore);
+        assertEquals(expected, fromHeap);
+        stored.close();
+    }
+
+    @Test
+    @DisplayName("shouldMatchFullRunForQueriedPeriods")
+    void shouldMatchFullRunForQueriedPeriods(@TempDir Path directory) {
+        assertQueryMatchesFullRun(directory, false);
+    }
+
+    @Test
+    @DisplayName("shouldMatchFullRunForQueriedPeriodsWithOverlappingPeriods")
+    void shouldMatchFullRunForQueriedPeriodsWithOverlappingPeriods(@TempDir Path directory) {
+        assertQueryMatchesFullRun(directory, true);
+    }
+
+    @Test
+    @DisplayName("shouldRecomputeOnlyPeriodsInEditedRuleInterval")
+    void shouldRecomputeOnlyPeriodsInEditedRuleInterval() {
+        // Arrange
+        ProcessRequest request = request(transactions(100, 3));
+        PortfolioSession session = PortfolioSession.create(
+                RequestTerms.from(request), RequestMapper.toTransactions(request.transactions()), false);
+        List<QRule> qRules = RequestMapper.toQRules(List.of(
+                new QRuleDto("q1", "2024-03-01 00:00:00", new BigDecimal("150")),
+                new QRuleDto("q2", "2024-06-01 00:00:00", new BigDecimal("400.5")),
+                new QRuleDto("q3", "2024-10-01 00:00:00", new BigDecimal("25")),
+                new QRuleDto("q4", "2024-12-01 00:00:00", new BigDecimal("400.5"))));
+
+        // Act: the ceiling only changes from 2024-10-01 to 2024-12-01, inside K3
+        int recomputed = session.replaceRules(qRules, null);
+
+        // Assert
+        assertEquals(1, recomputed);
+    }
+
+    @Test
+    @DisplayName("shouldRecomputeOnlyPeriodsContainingNewTransactions")
+    void shouldRecomputeOnlyPeriodsContainingNewTransactions() {
+        // Arrange
+        ProcessRequest request = request(transactions(100, 7));
+        PortfolioSession session = PortfolioSession.create(
+                RequestTerms.from(request), RequestMapper.toTransactions(request.transactions()), false);
+        ProcessResponse before = session.summary();
+
+        // Act: one transaction in K3, one outside every period
+        int recomputed = session.append(List.of(
+                new Transaction("n1", Instant.parse("2024-10-05T12:00:00Z"), new BigDecimal("50")),
+                new Transaction("n2", Instant.parse("2026-01-01T00:00:00Z"), new BigDecimal("50"))));
+        ProcessResponse after = session.summary();
+
+        // Assert
+        assertEquals(1, recomputed);
+        for (int i = 0; i < 4; i++) {
+            boolean k3 = after.periodSummaries().get(i).periodId().equals("K3");
+            assertEquals(!k3, before.periodSummaries().get(i) == after.periodSummaries().get(i));
+            assertEquals(!k3, before.npsReturns().get(i) == after.npsReturns().get(i));
+        }
+        assertEquals(before.periodSummaries().get(2).totalContribution().add(new BigDecimal("50")),
+                after.periodSummaries().get(2).totalContribution());
+    }
+
+    @Test
+    @DisplayName("shouldRejectChangesOnceClosed")
+    void shouldRejectChangesOnceClosed() {
+        // Arrange
+        ProcessRequest request = request(transactions(10, 8));
+        PortfolioSession session = PortfolioSession.create(
+                RequestTerms.from(request), RequestMapper.toTransactions(request.transactions()), false);
+
+        // Act
+        session.close();
+
+        // Assert
+        assertTrue(session.closed());
+        assertThrows(IllegalStateException.class, () -> session.append(List.of(
+                new Transaction("n1", Instant.parse("2024-10-05T12:00:00Z"), new BigDecimal("50")))));
+        assertThrows(IllegalStateException.class, () -> session.replaceRules(List.of(), null));
+        assertThrows(IllegalStateException.class, session::summary);
+    }
+}
@@ -86,4 +86,30 @@ class RequestMapperTest {
         var dtos = List.of(new TransactionDto("tx1", "invalid-date", java.math.BigDecimal.ONE));
         assertThrows(IllegalArgumentException.class, () -> RequestMapper.toTransactions(dtos));
     }
+
+    @Test
+    @DisplayName("shouldBuildColumnarBatchFromDtos")
+    void shouldBuildColumnarBatchFromDtos() {
+        var dtos = List.of(
+                new TransactionDto("tx2", "2024-02-20 10:00:00", new java.math.BigDecimal("500.25")),
+                new TransactionDto("tx1", "2024-01-15 09:30:00", new java.math.BigDecimal("1000"))
+        );
+
+        TransactionBatch batch = RequestMapper.toTransactionBatch(dtos, 2).sortedByTime();
+
+        assertEquals(2, batch.size());
+        assertEquals(2, batch.scale());
+        assertEquals("tx1", batch.id(0));
+        assertEquals(100_000L, batch.amounts()[0]);
+        assertEquals(java.time.Instant.parse("2024-01-15T09:30:00Z").getEpochSecond(), batch.epochSeconds()[0]);
+        assertEquals("tx2", batch.id(1));
+        assertEquals(50_025L, batch.amounts()[1]);
+    }
+
+    @Test
+    @DisplayName("shouldRejectBatchAmountBeyondScale")
+    void shouldRejectBatchAmountBeyondScale() {
+        var dtos = List.of(new TransactionDto("tx1", "2024-01-15 09:30:00", new java.math.BigDecimal("0.001")));
+        assertThrows(ArithmeticException.class, () -> RequestMapper.toTransactionBatch(dtos, 2));
+    }
 }
@@ -0,0 +1,145 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.config.EngineProperties;
+import com.blackrock.aladdin.config.ResultCacheProperties;
+import com.blackrock.aladdin.model.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for request digests and the tiered result cache.
+ */
+@DisplayName("ResultCache Tests")
+class ResultCacheTest {
+
+    private static final EngineProperties ENGINE = EngineProperties.defaults();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static ProcessRequest request(List<TransactionDto> transactions, List<QRuleDto> qRules) {
+        return new ProcessRequest(
+                transactions,
+                qRules,
+                List.of(new PRuleDto("p1", "2024-01-01 00:00:00", new BigDecimal("100")),
+                        new PRuleDto("p2", "2024-01-01 00:00:00", new BigDecimal("50"))),
+                List.of(new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00")),
+                new BigDecimal("2000"),
+                new BigDecimal("0.02"),
+                new BigDecimal("500")
+        );
+    }
+
+    private static String key(ProcessRequest request, EngineProperties properties) {
+        return RequestDigest.of(new InvestmentEngineService(properties).ingest(request), properties);
+    }
+
+    private static ResultCache cache(ResultCacheProperties properties) {
+        return new ResultCache(properties, ENGINE, MAPPER, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("digestShouldIgnoreOnlyOrderAndIdsThatCannotChangeResponse")
+    void digestShouldIgnoreOnlyOrderAndIdsThatCannotChangeResponse() {
+        // Arrange
+        TransactionDto a = new TransactionDto("tx1", "2024-01-15 09:30:00", new BigDecimal("1000"));
+        TransactionDto b = new TransactionDto("tx2", "2024-01-15 09:30:00", new BigDecimal("250.50"));
+        QRuleDto q1 = new QRuleDto("q1", "2024-01-10 00:00:00", new BigDecimal("1500"));
+        QRuleDto q2 = new QRuleDto("q2", "2024-01-10 00:00:00", new BigDecimal("900"));
+        String base = key(request(List.of(a, b), List.of(q1, q2)), ENGINE);
+
+        // Act & Assert: reordered transactions and renamed ids share the digest
+        TransactionDto renamed = new TransactionDto("other", a.timestamp(), a.amount());
+        assertEquals(base, key(request(List.of(b, renamed), List.of(q1, q2)), ENGINE));
+        // fixed-point ingestion of the same request hashes the same
+        EngineProperties fixed = ENGINE.withArithmetic(EngineProperties.Arithmetic.FIXED, 6);
+        assertEquals(key(request(List.of(a, b), List.of(q1, q2)), fixed), key(request(List.of(b, a), List.of(q1, q2)), fixed));
+        // amount scale, tied q rule order and engine settings change the response, so the digest
+        TransactionDto rescaled = new TransactionDto("tx1", a.timestamp(), new BigDecimal("1000.0"));
+        assertNotEquals(base, key(request(List.of(rescaled, b), List.of(q1, q2)), ENGINE));
+        assertNotEquals(base, key(request(List.of(a, b), List.of(q2, q1)), ENGINE));
+        assertNotEquals(base, key(request(List.of(a, b), List.of(q1, q2)), fixed));
+    }
+
+    @Test
+    @DisplayName("shouldComputeOnceAndCountHitsAndMisses")
+    void shouldComputeOnceAndCountHitsAndMisses() {
+        ResultCache cache = cache(ResultCacheProperties.defaults());
+        ProcessResponse response = new ProcessResponse(List.of(), List.of(), List.of());
+        AtomicInteger computed = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(response, cache.get("k", () -> {
+                computed.incrementAndGet();
+                return response;
+            }));
+        }
+
+        assertEquals(1, computed.get());
+        assertEquals(2, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    @DisplayName("shouldSpillEvictedResponsesToDiskAndServeThemBack")
+    void shouldSpillEvictedResponsesToDiskAndServeThemBack(@TempDir Path directory) {
+        // Arrange: memory holds roughly one response
+        ProcessResponse first = new ProcessResponse(
+                List.of(new PeriodSummaryDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00",
+                        new BigDecimal("1000.00"), new BigDecimal("0E-6"), new BigDecimal("150"))),
+                List.of(new ReturnResultDto("K1", new BigDecimal("1000.00"), BigDecimal.ZERO, new BigDecimal("980.392157"))),
+                List.of());
+        long oneResponse = ResultCache.estimateBytes(first);
+        ResultCache cache = cache(new ResultCacheProperties(true, DataSize.ofBytes(oneResponse + 10),
+                directory.toString(), DataSize.ofMegabytes(1)));
+
+        // Act
+        cache.get("first", () -> first);
+        for (int i = 0; i < 20; i++) {
+            cache.get("other" + i, () -> first);
+        }
+        ProcessResponse fromDisk = cache.get("first", () -> fail("should come from a tier"));
+
+        // Assert
+        assertEquals(first, fromDisk);
+        assertTrue(cache.stats().evictions() > 0);
+        assertEquals(1, cache.stats().diskHits());
+    }
+
+    @Test
+    @DisplayName("shouldEvictOldestDiskEntriesToStayUnderDiskMaxSize")
+    void shouldEvictOldestDiskEntriesToStayUnderDiskMaxSize(@TempDir Path directory) throws Exception {
+        // Arrange: memory holds roughly one response, disk three
+        ProcessResponse response = new ProcessResponse(
+                List.of(new PeriodSummaryDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00",
+                        new BigDecimal("1000.00"), new BigDecimal("0E-6"), new BigDecimal("150"))),
+                List.of(),
+                List.of());
+        long json = MAPPER.writeValueAsBytes(response).length;
+        ResultCache cache = cache(new ResultCacheProperties(true, DataSize.ofBytes(ResultCache.estimateBytes(response) + 10),
+                directory.toString(), DataSize.ofBytes(3 * json)));
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            cache.get("key" + i, () -> response);
+        }
+
+        // Assert: the tier kept accepting spills, deleting older ones
+        long files;
+        try (var listing = Files.list(directory)) {
+            files = listing.count();
+        }
+        assertTrue(cache.stats().evictions() > 3);
+        assertEquals(3, files);
+        assertEquals(3 * json, cache.stats().diskBytes());
+    }
+}
@@ -0,0 +1,171 @@
+package com.blackrock.aladdin.service;
+
+import com.blackrock.aladdin.model.*;
+import com.blackrock.aladdin.util.TimestampParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for token-by-token request ingestion.
+ */
+@DisplayName("StreamingRequestReader Tests")
+class StreamingRequestReaderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Trees that keep each decimal's scale, for rewriting a request before encoding it in a binary format. */
+    private static final ObjectMapper EXACT_TREES = new ObjectMapper()
+            .configure(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES, false);
+
+    private static ProcessRequest request(BigDecimal... amounts) {
+        List<TransactionDto> transactions = new ArrayList<>();
+        for (int i = 0; i < amounts.length; i++) {
+            transactions.add(new TransactionDto("tx" + i, "2024-01-" + (10 + i) + " 09:30:00", amounts[i]));
+        }
+        return new ProcessRequest(
+                transactions,
+                List.of(new QRuleDto("q1", "2024-01-12 00:00:00", new BigDecimal("1500"))),
+                List.of(new PRuleDto("p1", "2024-01-11 00:00:00", new BigDecimal("25.5"))),
+                List.of(new KPeriodDto("K1", "2024-01-01 00:00:00", "2024-02-01 00:00:00")),
+                new BigDecimal("2000"),
+                new BigDecimal("0.02"),
+                new BigDecimal("500")
+        );
+    }
+
+    private static InputStream json(Object value) throws IOException {
+        return new ByteArrayInputStream(MAPPER.writeValueAsBytes(value));
+    }
+
+    private static InputStream json(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("shouldReadSameInputsAsBoundRequest")
+    void shouldReadSameInputsAsBoundRequest() throws IOException {
+        // Arrange
+        ProcessRequest request = request(new BigDecimal("1000"), new BigDecimal("12.50"), new BigDecimal("-3"));
+
+        // Act
+        IngestedRequest ingested = StreamingRequestReader.read(json(request), -1);
+
+        // Assert
+        assertNull(ingested.batch());
+        assertEquals(RequestMapper.toTransactions(request.transactions()), ingested.transactions());
+        assertEquals(RequestTerms.from(request), ingested.terms());
+    }
+
+    @Test
+    @DisplayName("shouldReadAmountsIntoBatchUnitsKeepingOriginalScale")
+    void shouldReadAmountsIntoBatchUnitsKeepingOriginalScale() throws IOException {
+        // Arrange
+        ProcessRequest request = request(new BigDecimal("1000"), new BigDecimal("12.50"), new BigDecimal("0.000001"));
+
+        // Act
+        IngestedRequest ingested = StreamingRequestReader.read(json(request), 6);
+
+        // Assert
+        assertArrayEquals(new long[]{1_000_000_000L, 12_500_000L, 1L}, Arrays.copyOf(ingested.batch().amounts(), 3));
+        assertEquals(RequestMapper.toTransactions(request.transactions()), ingested.transactions());
+    }
+
+    @Test
+    @DisplayName("shouldSwitchToExactWhenAmountExceedsScale")
+    void shouldSwitchToExactWhenAmountExceedsScale() throws IOException {
+        // Arrange: third amount has more decimals than scale 2
+        ProcessRequest request = request(new BigDecimal("1000"), new BigDecimal("12.50"), new BigDecimal("0.125"));
+
+        // Act
+        IngestedRequest ingested = StreamingRequestReader.read(json(request), 2);
+
+        // Assert
+        assertNull(ingested.batch());
+        assertEquals(RequestMapper.toTransactions(request.transactions()), ingested.transactions());
+    }
+
+    @Test
+    @DisplayName("shouldAcceptStringAmountsAndSkipUnknownFields")
+    void shouldAcceptStringAmountsAndSkipUnknownFields() throws IOException {
+        String body = "{\"meta\":{\"source\":[1,2]},\"transactions\":[{\"id\":\"tx1\",\"note\":null,"
+                + "\"timestamp\":\"2024-01-15 09:30:00\",\"amount\":\"250.75\"}],"
+                + "\"kPeriods\":[{\"id\":\"K1\",\"startInclusive\":\"2024-01-01 00:00:00\",\"endExclusive\":\"2024-02-01 00:00:00\"}],"
+                + "\"defaultCeiling\":2000,\"inflationRate\":0.02,\"taxCap\":500}";
+
+        IngestedRequest ingested = StreamingRequestReader.read(json(body), 6);
+
+        assertArrayEquals(new long[]{250_750_000L}, Arrays.copyOf(ingested.batch().amounts(), 1));
+        assertEquals(List.of(), ingested.terms().qRules());
+    }
+
+    @Test
+    @DisplayName("shouldRejectInvalidElementWithFieldPath")
+    void shouldRejectInvalidElementWithFieldPath() {
+        String body = "{\"transactions\":[{\"id\":\"tx1\",\"timestamp\":\"2024-01-15 09:30:00\",\"amount\":1},"
+                + "{\"id\":\"tx2\",\"timestamp\":\"2024-01-16 09:30:00\",\"amount\":null}],"
+                + "\"kPeriods\":[],\"defaultCeiling\":2000,\"inflationRate\":0.02,\"taxCap\":500}";
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> StreamingRequestReader.read(json(body), -1));
+
+        assertEquals("transactions[1].amount: must not be null", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("shouldReadBinaryFormatsWithEpochTimestampsLikeJson")
+    void shouldReadBinaryFormatsWithEpochTimestampsLikeJson() throws IOException {
+        // Arrange: same request, transaction timestamps as epoch seconds, decimals in the format's own encoding
+        ProcessRequest request = request(new BigDecimal("1000"), new BigDecimal("12.50"), new BigDecimal("0.125"));
+        ObjectNode tree = EXACT_TREES.valueToTree(request);
+        tree.withArray("transactions").forEach(node -> ((ObjectNode) node).put("timestamp",
+                TimestampParser.parseEpochSecond(node.get("timestamp").asText())));
+        IngestedRequest expected = StreamingRequestReader.read(json(request), 3);
+
+        for (ObjectMapper binary : List.of(new ObjectMapper(new CBORFactory()), new ObjectMapper(new SmileFactory()))) {
+            // Act
+            IngestedRequest ingested = StreamingRequestReader.read(
+                    new ByteArrayInputStream(binary.writeValueAsBytes(tree)), binary.getFactory(), 3);
+
+            // Assert
+            assertArrayEquals(expected.batch().amounts(), ingested.batch().amounts());
+            assertEquals(expected.transactions(), ingested.transactions());
+            assertEquals(expected.terms(), ingested.terms());
+        }
+    }
+
+    @Test
+    @DisplayName("shouldRejectEpochTimestampOutsideSupportedYears")
+    void shouldRejectEpochTimestampOutsideSupportedYears() throws IOException {
+        ObjectNode tree = EXACT_TREES.valueToTree(request(BigDecimal.ONE));
+        ((ObjectNode) tree.withArray("transactions").get(0)).put("timestamp", Long.MAX_VALUE);
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> StreamingRequestReader.read(new ByteArrayInputStream(cbor.writeValueAsBytes(tree)), cbor.getFactory(), -1));
+
+        assertEquals("transactions[0].timestamp: must be within years 0001-9999", error.getMessage());
+
+        ObjectNode periods = EXACT_TREES.valueToTree(request(BigDecimal.ONE));
+        ((ObjectNode) periods.withArray("kPeriods").get(0)).put("startInclusive", Long.MIN_VALUE);
+        IllegalArgumentException periodError = assertThrows(IllegalArgumentException.class,
+                () -> StreamingRequestReader.read(new ByteArrayInputStream(cbor.writeValueAsBytes(periods)), cbor.getFactory(), -1));
+
+        assertEquals("kPeriods[0].startInclusive: must be within years 0001-9999", periodError.getMessage());
+    }
+}
@@ -0,0 +1,86 @@
+package com.blackrock.aladdin.store;
+
+import com.blackrock.aladdin.model.TransactionBatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Columnar upload file tests: rows read in place, bulk copy into a batch, malformed files rejected.
+ */
+@DisplayName("ColumnarTransactionFile Tests")
+class ColumnarTransactionFileTest {
+
+    @TempDir
+    Path directory;
+
+    private static TransactionBatch cents(int count) {
+        TransactionBatch.Builder builder = TransactionBatch.builder(2, count);
+        for (int i = 0; i < count; i++) {
+            builder.add("acct-" + (i % 50) + "-tx", 1_700_000_000L - i * 600L, i * 37L - 1_000);
+        }
+        return builder.build();
+    }
+
+    @Test
+    @DisplayName("shouldReadRowsInPlaceAndCopyColumnsIntoBatch")
+    void shouldReadRowsInPlaceAndCopyColumnsIntoBatch() {
+        // Arrange
+        TransactionBatch written = cents(10_000);
+        Path file = directory.resolve("transactions.txc");
+        ColumnarTransactionFile.write(file, written, 2);
+
+        // Act
+        try (ColumnarTransactionFile columns = ColumnarTransactionFile.open(file)) {
+            TransactionBatch batch = columns.toBatch(6);
+
+            // Assert: file order kept, amounts rescaled exactly, ids decoded from the dictionary
+            assertEquals(10_000, columns.size());
+            assertEquals(2, columns.scale());
+            for (int row = 0; row < written.size(); row++) {
+                assertEquals(written.epochSecond(row), columns.epochSecond(row));
+                assertEquals(written.amount(row), columns.amount(row));
+                assertEquals(written.id(row), columns.id(row));
+                assertEquals(written.epochSecond(row), batch.epochSeconds()[row]);
+                assertEquals(written.amounts()[row] * 10_000, batch.amounts()[row]);
+            }
+            assertEquals("acct-49-tx", batch.id(9_999));
+            assertEquals(new BigDecimal("-10.00"), columns.toTransactions().get(0).amount());
+        }
+    }
+
+    @Test
+    @DisplayName("shouldRefuseBatchScaleThatWouldRoundAmounts")
+    void shouldRefuseBatchScaleThatWouldRoundAmounts() {
+        Path file = directory.resolve("transactions.txc");
+        ColumnarTransactionFile.write(file, cents(10), 2);
+
+        try (ColumnarTransactionFile columns = ColumnarTransactionFile.open(file)) {
+            assertThrows(ArithmeticException.class, () -> columns.toBatch(1));
+        }
+    }
+
+    @Test
+    @DisplayName("shouldRejectMalformedFiles")
+    void shouldRejectMalformedFiles() throws Exception {
+        // Arrange: not the format at all, then a valid header whose columns are cut short
+        Path garbage = Files.write(directory.resolve("garbage.txc"), "transactions,amount\n".repeat(4).getBytes());
+        Path source = directory.resolve("transactions.txc");
+        ColumnarTransactionFile.write(source, cents(100), 2);
+        byte[] bytes = Files.readAllBytes(source);
+        Path truncated = Files.write(directory.resolve("truncated.txc"), Arrays.copyOf(bytes, 1_000));
+
+        // Act & Assert
+        IllegalArgumentException notFormat = assertThrows(IllegalArgumentException.class, () -> ColumnarTransactionFile.open(garbage));
+        IllegalArgumentException cut = assertThrows(IllegalArgumentException.class, () -> ColumnarTransactionFile.open(truncated));
+        assertEquals("Not a columnar transaction file (bad magic): garbage.txc", notFormat.getMessage());
+        assertEquals("Not a columnar transaction file (shorter than its columns): truncated.txc", cut.getMessage());
+    }
+}
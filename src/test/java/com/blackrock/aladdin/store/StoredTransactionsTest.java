@@ -0,0 +1,78 @@
+package com.blackrock.aladdin.store;
+
+import com.blackrock.aladdin.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stored transaction tests: sealing the log into segments and recovering from a crash in between.
+ */
+@DisplayName("StoredTransactions Tests")
+class StoredTransactionsTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<Transaction> transactions(int from, int count) {
+        List<Transaction> result = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            result.add(new Transaction("tx-" + i, Instant.ofEpochSecond(1_700_000_000L + i * 60L), BigDecimal.valueOf(i, 2)));
+        }
+        return result;
+    }
+
+    private static long scanned(StoredTransactions stored, long from, long to) {
+        long[] rows = new long[1];
+        for (StoredColumns columns : stored.columns()) {
+            columns.forEachRowBetween(from, to, row -> rows[0]++);
+        }
+        return rows[0];
+    }
+
+    @Test
+    @DisplayName("shouldSealLogIntoSegmentsAndReadAllRows")
+    void shouldSealLogIntoSegmentsAndReadAllRows() {
+        // Arrange & Act
+        try (StoredTransactions stored = StoredTransactions.open(directory, 1_000)) {
+            stored.append(transactions(0, 600));
+            stored.append(transactions(600, 600));
+            stored.append(transactions(1_200, 300));
+
+            // Assert: 1,200 records sealed, 300 still in the log
+            assertEquals(1, stored.segmentCount());
+            assertEquals(1_500, stored.size());
+        }
+        try (StoredTransactions reopened = StoredTransactions.open(directory, 1_000)) {
+            assertEquals(1_500, reopened.size());
+            assertEquals(400, scanned(reopened, 1_700_000_000L + 1_000 * 60L, 1_700_000_000L + 1_400 * 60L));
+        }
+    }
+
+    @Test
+    @DisplayName("shouldDropLogLeftBehindAfterItsSegmentWasWritten")
+    void shouldDropLogLeftBehindAfterItsSegmentWasWritten() {
+        // Arrange: segment written but the log not yet emptied, as after a crash mid-seal
+        try (TransactionLog log = TransactionLog.open(directory)) {
+            log.append(transactions(0, 500));
+            TransactionSegment.write(directory.resolve("segment-000001.seg"), log, log.logId());
+        }
+
+        // Act
+        try (StoredTransactions stored = StoredTransactions.open(directory, 1_000)) {
+            stored.append(transactions(500, 10));
+
+            // Assert
+            assertEquals(510, stored.size());
+            assertEquals(510, scanned(stored, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.blackrock.aladdin.store;
+
+import com.blackrock.aladdin.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transaction log tests: records read back in place after reopening, time-range scans, rejected amounts.
+ */
+@DisplayName("TransactionLog Tests")
+class TransactionLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<Transaction> transactions(int from, int count) {
+        List<Transaction> result = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            // times go back and forth so blocks overlap in time
+            long t = 1_700_000_000L + (i % 2 == 0 ? i : 20_000 - i) * 60L;
+            result.add(new Transaction("tx-" + i, Instant.ofEpochSecond(t), BigDecimal.valueOf(i * 7L - 3, i % 4)));
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("shouldReadRecordsBackAfterReopen")
+    void shouldReadRecordsBackAfterReopen() {
+        // Arrange
+        List<Transaction> expected = new ArrayList<>(transactions(0, 5_000));
+        try (TransactionLog log = TransactionLog.open(directory)) {
+            log.append(expected);
+        }
+        List<Transaction> more = transactions(5_000, 4_000);
+        expected.addAll(more);
+
+        // Act
+        try (TransactionLog log = TransactionLog.open(directory)) {
+            log.append(more);
+        }
+        try (TransactionLog log = TransactionLog.open(directory)) {
+            // Assert
+            assertEquals(expected.size(), log.size());
+            for (int row = 0; row < expected.size(); row++) {
+                Transaction txn = expected.get(row);
+                assertEquals(txn.timestamp().getEpochSecond(), log.epochSecond(row));
+                assertEquals(txn.amount(), log.amount(row));
+            }
+            assertEquals("tx-0", log.id(0));
+            assertEquals("tx-8999", log.id(8_999));
+        }
+    }
+
+    @Test
+    @DisplayName("shouldReadAllIdsInRowOrderInOnePass")
+    void shouldReadAllIdsInRowOrderInOnePass() {
+        // Arrange: several megabytes of ids, one longer than the read buffer, over two appends
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            String id = (i == 1_500 ? "x".repeat(2 << 20) : "y".repeat(1_000)) + i;
+            transactions.add(new Transaction(id, Instant.ofEpochSecond(1_700_000_000L + i), BigDecimal.ONE));
+        }
+        try (TransactionLog log = TransactionLog.open(directory)) {
+            log.append(transactions.subList(0, 1_000));
+            log.append(transactions.subList(1_000, 3_000));
+
+            // Act
+            String[] ids = log.ids();
+
+            // Assert
+            assertEquals(transactions.size(), ids.length);
+            for (int row = 0; row < ids.length; row++) {
+                assertEquals(transactions.get(row).id(), ids[row]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("shouldScanOnlyRowsInTimeRange")
+    void shouldScanOnlyRowsInTimeRange() throws Exception {
+        // Arrange: index file lost, so it is rebuilt on open
+        List<Transaction> all = transactions(0, 10_000);
+        try (TransactionLog log = TransactionLog.open(directory)) {
+            log.append(all);
+        }
+        Files.delete(directory.resolve(TransactionLog.INDEX_FILE));
+        long from = 1_700_000_000L + 3_000 * 60L;
+        long to = 1_700_000_000L + 3_500 * 60L;
+
+        // Act
+        List<Integer> rows = new ArrayList<>();
+        try (TransactionLog log = TransactionLog.open(directory)) {
+            log.forEachRowBetween(from, to, rows::add);
+        }
+
+        // Assert
+        List<Integer> expected = new ArrayList<>();
+        for (int row = 0; row < all.size(); row++) {
+            long t = all.get(row).timestamp().getEpochSecond();
+            if (t >= from && t < to) expected.add(row);
+        }
+        assertEquals(expected, rows);
+        assertEquals(250, rows.size());
+    }
+
+    @Test
+    @DisplayName("shouldRejectAmountThatCannotBeStored")
+    void shouldRejectAmountThatCannotBeStored() {
+        try (TransactionLog log = TransactionLog.open(directory)) {
+            // Arrange
+            List<Transaction> batch = List.of(
+                    new Transaction("ok", Instant.ofEpochSecond(0), BigDecimal.ONE),
+                    new Transaction("huge", Instant.ofEpochSecond(0), new BigDecimal("1e-200")));
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> log.append(batch));
+            assertEquals(0, log.size());
+        }
+    }
+}
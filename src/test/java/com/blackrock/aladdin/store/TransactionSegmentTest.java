@@ -0,0 +1,129 @@
+package com.blackrock.aladdin.store;
+
+import com.blackrock.aladdin.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Segment tests: exact round trip in time order, footer totals, size against the raw log, block skipping.
+ */
+@DisplayName("TransactionSegment Tests")
+class TransactionSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("shouldReadRowsBackInTimeOrderExactly")
+    void shouldReadRowsBackInTimeOrderExactly() {
+        // Arrange: out of time order, mixed scales, repeated ids and timestamps
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long t = 1_700_000_000L + (i % 3 == 0 ? 9_000 - i : i) * 3_600L;
+            transactions.add(new Transaction("id-" + (i % 7_000), Instant.ofEpochSecond(t), BigDecimal.valueOf(i * 13L - 500, i % 5)));
+        }
+        Path file = directory.resolve("segment.seg");
+        try (TransactionLog log = TransactionLog.open(directory.resolve("log"))) {
+            log.append(transactions);
+            TransactionSegment.write(file, log, log.logId());
+        }
+        List<Transaction> expected = transactions.stream().sorted(Comparator.comparing(Transaction::timestamp)).toList();
+        BigDecimal sum = transactions.stream().map(Transaction::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        // Act
+        try (TransactionSegment segment = TransactionSegment.open(file)) {
+            StoredColumns rows = segment.rows();
+            List<Integer> inRange = new ArrayList<>();
+            rows.forEachRowBetween(expected.get(100).timestamp().getEpochSecond(), expected.get(200).timestamp().getEpochSecond(), inRange::add);
+
+            // Assert
+            assertEquals(expected.size(), rows.size());
+            for (int row = 0; row < rows.size(); row++) {
+                Transaction txn = expected.get(row);
+                assertEquals(txn.timestamp().getEpochSecond(), rows.epochSecond(row));
+                assertEquals(txn.amount(), rows.amount(row));
+                assertEquals(txn.id(), rows.id(row));
+            }
+            assertEquals(expected.get(0).timestamp().getEpochSecond(), segment.minEpochSecond());
+            assertEquals(expected.get(9_999).timestamp().getEpochSecond(), segment.maxEpochSecond());
+            assertEquals(sum, segment.amountSum());
+            assertEquals(3, segment.blockCount());
+            assertEquals(100, inRange.size());
+            assertEquals(100, inRange.get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("shouldTakeFiveTimesLessSpaceThanLogRecords")
+    void shouldTakeFiveTimesLessSpaceThanLogRecords() throws Exception {
+        // Arrange: one purchase a day with cents, ids with a common prefix
+        int count = 100_000;
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long cents = 1_000 + (i * 7_919L) % 50_000;
+            transactions.add(new Transaction("txn-" + i, Instant.ofEpochSecond(1_500_000_000L + i * 86_400L), BigDecimal.valueOf(cents, 2)));
+        }
+        Path file = directory.resolve("segment.seg");
+        long logBytes;
+        try (TransactionLog log = TransactionLog.open(directory.resolve("log"))) {
+            log.append(transactions);
+            logBytes = 32L * count + Files.size(directory.resolve("log").resolve(TransactionLog.IDS_FILE));
+            TransactionSegment.write(file, log, log.logId());
+        }
+
+        // Act
+        long segmentBytes = Files.size(file);
+        try (TransactionSegment segment = TransactionSegment.open(file)) {
+            StoredColumns rows = segment.rows();
+
+            // Assert
+            assertTrue(segmentBytes * 5 <= logBytes, segmentBytes + " bytes vs " + logBytes);
+            assertEquals(count, rows.size());
+            assertEquals(transactions.get(42).amount(), rows.amount(42));
+            assertEquals("txn-99999", rows.id(count - 1));
+        }
+    }
+
+    @Test
+    @DisplayName("shouldReadOnlyBlocksOverlappingRange")
+    void shouldReadOnlyBlocksOverlappingRange() {
+        // Arrange: ten years, forty transactions a day; query the last quarter
+        int count = 3_650 * 40;
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(new Transaction("t" + i, Instant.ofEpochSecond(1_400_000_000L + i * 2_160L), BigDecimal.valueOf(i % 900)));
+        }
+        Path file = directory.resolve("segment.seg");
+        try (TransactionLog log = TransactionLog.open(directory.resolve("log"))) {
+            log.append(transactions);
+            TransactionSegment.write(file, log, log.logId());
+        }
+        long from = 1_400_000_000L + (count - 90 * 40) * 2_160L;
+        long to = Long.MAX_VALUE;
+
+        // Act
+        int[] visitedRows = new int[1];
+        int[] wholeRows = new int[1];
+        try (TransactionSegment segment = TransactionSegment.open(file)) {
+            segment.rows().forEachBlockBetween(from, to, block -> {
+                wholeRows[0] += block.count();
+                return true;
+            }, row -> visitedRows[0]++);
+        }
+
+        // Assert: one partial block decoded, the rest taken whole, nothing before the range touched
+        assertEquals(90 * 40, visitedRows[0] + wholeRows[0]);
+        assertTrue(visitedRows[0] < TransactionSegment.BLOCK_ROWS, "rows decoded: " + visitedRows[0]);
+    }
+}
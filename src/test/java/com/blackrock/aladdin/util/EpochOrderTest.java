@@ -0,0 +1,67 @@
+package com.blackrock.aladdin.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitive-key stable ordering.
+ */
+@DisplayName("EpochOrder Tests")
+class EpochOrderTest {
+
+    private record Event(String id, Instant at) {}
+
+    @Test
+    @DisplayName("shouldReturnSameListWhenAlreadySorted")
+    void shouldReturnSameListWhenAlreadySorted() {
+        List<Event> events = List.of(
+                new Event("a", Instant.ofEpochSecond(10)),
+                new Event("b", Instant.ofEpochSecond(10)),
+                new Event("c", Instant.ofEpochSecond(20)));
+
+        assertSame(events, EpochOrder.sortedBy(events, Event::at));
+    }
+
+    @Test
+    @DisplayName("shouldMatchStableComparatorSort")
+    void shouldMatchStableComparatorSort() {
+        // Arrange: many ties so stability matters
+        Random random = new Random(7);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            events.add(new Event("e" + i, Instant.ofEpochSecond(1_700_000_000L + random.nextInt(5_000))));
+        }
+
+        // Act
+        List<Event> sorted = EpochOrder.sortedBy(events, Event::at);
+
+        // Assert
+        assertEquals(events.stream().sorted(Comparator.comparing(Event::at)).toList(), sorted);
+    }
+
+    @Test
+    @DisplayName("shouldOrderKeysSpanningMoreThanPackedRange")
+    void shouldOrderKeysSpanningMoreThanPackedRange() {
+        long[] keys = {Long.MAX_VALUE / 2, -5L, 3L, -5L};
+
+        assertArrayEquals(new int[]{1, 3, 2, 0}, EpochOrder.sortedIndices(keys, keys.length));
+    }
+
+    @Test
+    @DisplayName("shouldFallBackForSubSecondInstants")
+    void shouldFallBackForSubSecondInstants() {
+        List<Event> events = List.of(
+                new Event("a", Instant.ofEpochSecond(10, 500)),
+                new Event("b", Instant.ofEpochSecond(10, 100)));
+
+        assertEquals(List.of(events.get(1), events.get(0)), EpochOrder.sortedBy(events, Event::at));
+    }
+}
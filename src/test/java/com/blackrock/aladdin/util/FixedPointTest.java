@@ -0,0 +1,76 @@
+package com.blackrock.aladdin.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BigDecimal ↔ scaled long conversion.
+ */
+@DisplayName("FixedPoint Tests")
+class FixedPointTest {
+
+    @Test
+    @DisplayName("shouldConvertToScaledUnits")
+    void shouldConvertToScaledUnits() {
+        assertEquals(1_000_000_000L, FixedPoint.toUnits(new BigDecimal("1000.00"), 6));
+        assertEquals(-1_500_000L, FixedPoint.toUnits(new BigDecimal("-1.5"), 6));
+        assertEquals(0L, FixedPoint.toUnits(BigDecimal.ZERO, 6));
+    }
+
+    @Test
+    @DisplayName("shouldRoundTripAtScale")
+    void shouldRoundTripAtScale() {
+        BigDecimal value = new BigDecimal("123.456789");
+        assertEquals(value, FixedPoint.toDecimal(FixedPoint.toUnits(value, 6), 6));
+    }
+
+    @Test
+    @DisplayName("shouldRejectExcessPrecision")
+    void shouldRejectExcessPrecision() {
+        assertThrows(ArithmeticException.class, () -> FixedPoint.toUnits(new BigDecimal("0.1234567"), 6));
+    }
+
+    @Test
+    @DisplayName("shouldRejectOverflow")
+    void shouldRejectOverflow() {
+        assertThrows(ArithmeticException.class, () -> FixedPoint.toUnits(new BigDecimal("10000000000000"), 6));
+    }
+
+    @Test
+    @DisplayName("shouldParsePlainDecimalTextToUnits")
+    void shouldParsePlainDecimalTextToUnits() {
+        assertEquals(12_500_000L, FixedPoint.parseUnits("12.5".toCharArray(), 0, 4, 6));
+        assertEquals(-1_000_000L, FixedPoint.parseUnits("x-1.0000000".toCharArray(), 1, 10, 6));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.parseUnits("0.1234567".toCharArray(), 0, 9, 6));
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parseUnits("1e3".toCharArray(), 0, 3, 6));
+    }
+
+    @Test
+    @DisplayName("shouldFormatUnitsLikeBigDecimalToString")
+    void shouldFormatUnitsLikeBigDecimalToString() {
+        // Arrange: magnitudes from 0 to 19 digits, scales around the exponent switch-over
+        Random random = new Random(11);
+        char[] buffer = new char[FixedPoint.MAX_PLAIN_LENGTH + 1];
+        long[] edges = {0, 1, -1, 9, 10, 999_999, Long.MAX_VALUE, Long.MIN_VALUE + 1, Long.MIN_VALUE};
+        for (int i = 0; i < 50_000; i++) {
+            long units = i < edges.length ? edges[i] : random.nextLong() >> random.nextInt(64);
+            int scale = random.nextInt(28) - 2;
+
+            // Act
+            int length = FixedPoint.formatUnits(units, scale, buffer, 1);
+
+            // Assert: plain text matches exactly; -1 only where toString would use an exponent
+            String expected = BigDecimal.valueOf(units, scale).toString();
+            if (length < 0) {
+                assertTrue(expected.contains("E") || units == Long.MIN_VALUE || scale > 18, expected);
+            } else {
+                assertEquals(expected, new String(buffer, 1, length));
+            }
+        }
+    }
+}
@@ -6,7 +6,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -92,4 +94,70 @@ class TimestampParserTest {
         assertEquals(23, result.atOffset(ZoneOffset.UTC).getHour());
         assertEquals(59, result.atOffset(ZoneOffset.UTC).getSecond());
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-02-30 00:00:00", "2023-02-29 12:00:00", "2024-01-01 24:00:00", "0001-01-01 00:00:00",
+            "9999-12-31 23:59:59", "1969-12-31 23:59:59", "2024-02-29 00:00:00", "0000-01-01 00:00:00",
+            "2024-01-01 23:59:60", "2024-1-01 00:00:00", "+2024-01-01 00:00:00", "\t2024-01-01 00:00:00\n"})
+    @DisplayName("shouldMatchFormatterOnEdgeCases")
+    void shouldMatchFormatterOnEdgeCases(String timestamp) {
+        assertSameOutcomeAsFormatter(timestamp);
+    }
+
+    @Test
+    @DisplayName("shouldMatchFormatterForRandomTimestamps")
+    void shouldMatchFormatterForRandomTimestamps() {
+        // Arrange: random valid and out-of-range field combinations, parsed twice to go through the date cache
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            String timestamp = String.format("%04d-%02d-%02d %02d:%02d:%02d", 1 + random.nextInt(9999),
+                    random.nextInt(14), random.nextInt(33), random.nextInt(25), random.nextInt(61), random.nextInt(61));
+
+            // Act & Assert
+            assertSameOutcomeAsFormatter(timestamp);
+            assertSameOutcomeAsFormatter(timestamp);
+        }
+    }
+
+    @Test
+    @DisplayName("shouldParseFromCharBufferAndFormatIntoReusableBuffer")
+    void shouldParseFromCharBufferAndFormatIntoReusableBuffer() {
+        // Arrange
+        char[] text = "[\"2024-03-10 14:00:00\"]".toCharArray();
+        char[] buffer = new char[TimestampParser.LENGTH + 2];
+
+        // Act
+        long epochSecond = TimestampParser.tryParseEpochSecond(text, 2, TimestampParser.LENGTH);
+        boolean written = TimestampParser.formatTo(epochSecond, buffer, 1);
+
+        // Assert
+        assertEquals(Instant.parse("2024-03-10T14:00:00Z").getEpochSecond(), epochSecond);
+        assertTrue(written);
+        assertEquals("2024-03-10 14:00:00", new String(buffer, 1, TimestampParser.LENGTH));
+        assertEquals(TimestampParser.UNPARSED, TimestampParser.tryParseEpochSecond("2024-02-30 00:00:00"));
+    }
+
+    @Test
+    @DisplayName("shouldFormatLikeFormatterAcrossYears")
+    void shouldFormatLikeFormatterAcrossYears() {
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            Instant instant = Instant.ofEpochSecond(random.nextLong(-62_135_596_800L, 253_402_300_800L));
+            assertEquals(TimestampParser.FORMAT.format(LocalDateTime.ofInstant(instant, ZoneOffset.UTC)), TimestampParser.format(instant));
+        }
+        Instant beyond = Instant.parse("+10000-01-01T00:00:00Z");
+        assertEquals(TimestampParser.FORMAT.format(LocalDateTime.ofInstant(beyond, ZoneOffset.UTC)), TimestampParser.format(beyond));
+    }
+
+    private static void assertSameOutcomeAsFormatter(String timestamp) {
+        Instant expected;
+        try {
+            expected = LocalDateTime.parse(timestamp.trim(), TimestampParser.FORMAT).toInstant(ZoneOffset.UTC);
+        } catch (RuntimeException e) {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> TimestampParser.parse(timestamp));
+            assertEquals("Invalid timestamp: " + timestamp + ". Use yyyy-MM-dd HH:mm:ss", error.getMessage());
+            return;
+        }
+        assertEquals(expected, TimestampParser.parse(timestamp), timestamp);
+    }
 }